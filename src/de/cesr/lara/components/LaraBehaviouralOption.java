@@ -31,6 +31,7 @@ import org.apache.log4j.Logger;
 
 import de.cesr.lara.components.agents.LaraAgent;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.decision.LaraDecisionData;
 import de.cesr.lara.components.preprocessor.LaraBOPreselector;
 import de.cesr.lara.components.util.impl.LPrefEntry;
 import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
@@ -87,7 +88,7 @@ public abstract class LaraBehaviouralOption<A extends LaraAgent<? super A, ?>, B
 	/**
 	 * The BO's collection of utility values
 	 */
-	final private Map<LaraPreference, Double> preferenceUtilities;
+	final private LPreferenceWeightMap preferenceUtilities;
 
 
 	/**
@@ -216,6 +217,29 @@ public abstract class LaraBehaviouralOption<A extends LaraAgent<? super A, ?>, B
 		return agent;
 	}
 
+	/**
+	 * Reads the utility for the given preference without boxing.
+	 * 
+	 * @param preference
+	 * @return utility for the given preference or {@link Double#NaN} if not
+	 *         defined
+	 */
+	public double getUtility(LaraPreference preference) {
+		return preferenceUtilities.getValue(preference);
+	}
+
+	/**
+	 * Reads the utility for the preference of the given ordinal (see
+	 * {@link LaraPreference#getOrdinal()}) without boxing.
+	 * 
+	 * @param ordinal
+	 * @return utility for the preference of the given ordinal or
+	 *         {@link Double#NaN} if not defined
+	 */
+	public double getUtility(int ordinal) {
+		return preferenceUtilities.getValue(ordinal);
+	}
+
 	/**
 	 * Returns a copy of the internal utility map that may be edited.
 	 * 
@@ -309,15 +333,21 @@ LaraPreference arg0,
 					});
 			goals.putAll(this.getValue());
 		} else {
-			goals = this.getValue();
+			goals = this.preferenceUtilities;
 		}
 		// LOGGING ->
 
+		LaraDecisionData<?, ?> dData = agent.getLaraComp().getDecisionData(
+				dConfig);
 		for (Entry<LaraPreference, Double> utilityEntry : goals
 				.entrySet()) {
-			situationalGoalPreference = agent.getLaraComp()
-					.getDecisionData(dConfig).getIndividualPreferenceWeights()
-					.get(utilityEntry.getKey()).doubleValue();
+			situationalGoalPreference = dData
+					.getIndividualPreferenceWeight(utilityEntry.getKey());
+			if (Double.isNaN(situationalGoalPreference)) {
+				throw new IllegalStateException(agent
+						+ "> No situational preference weight for "
+						+ utilityEntry.getKey());
+			}
 
 			// security:
 			if (utilityEntry.getValue().isNaN()) {
@@ -344,6 +374,34 @@ LaraPreference arg0,
 		return (float) overall_utility;
 	}
 
+	/**
+	 * Tests the preference mask (see
+	 * {@link LaraDecisionConfiguration#getPreferenceMask()}) and confirms a hit
+	 * by preference identity.
+	 * 
+	 * @param dConfig
+	 * @return true if this BO has a utility for any of the given decision's
+	 *         preferences
+	 */
+	public boolean hasUtilityFor(LaraDecisionConfiguration dConfig) {
+		return preferenceUtilities.intersects(dConfig.getPreferenceMask(),
+				dConfig.getPreferences(), false);
+	}
+
+	/**
+	 * Tests the preference mask (see
+	 * {@link LaraDecisionConfiguration#getPreferenceMask()}) and confirms a hit
+	 * by preference identity.
+	 * 
+	 * @param dConfig
+	 * @return true if this BO has a utility above 0.0 for any of the given
+	 *         decision's preferences
+	 */
+	public boolean hasPositiveUtilityFor(LaraDecisionConfiguration dConfig) {
+		return preferenceUtilities.intersects(dConfig.getPreferenceMask(),
+				dConfig.getPreferences(), true);
+	}
+
 	/**
 	 * Returns an unmodifiable(!) map Therefore, in order to edit utility
 	 * values, the user needs to make a deep copy, edit and return it.
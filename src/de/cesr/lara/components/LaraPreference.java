@@ -39,4 +39,14 @@ public interface LaraPreference {
 	 */
 	public String getDescription();
 
+	/**
+	 * Dense index assigned by the
+	 * {@link de.cesr.lara.components.util.LaraPreferenceRegistry} this
+	 * preference is registered at. Used to index primitive weight and utility
+	 * arrays.
+	 * 
+	 * @return ordinal
+	 */
+	public int getOrdinal();
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components;
+
+import java.util.Collection;
+
+import de.cesr.lara.components.preprocessor.impl.LDependencyTrackingBOUpdater;
+
+/**
+ * Behavioural options implementing {@link LaraSituationalBo} declare the
+ * inputs their situational utilities
+ * ({@link LaraBehaviouralOption#getSituationalUtilities(de.cesr.lara.components.decision.LaraDecisionConfiguration)})
+ * are computed from. {@link LDependencyTrackingBOUpdater} re-evaluates them
+ * only when any of these inputs changed.
+ */
+public interface LaraSituationalBo {
+
+	/**
+	 * @return keys of the agent's environmental properties the situational
+	 *         utilities depend on
+	 */
+	public Collection<String> getEnvironmentalDependencies();
+
+	/**
+	 * @return keys of the properties in the agent's general memory the
+	 *         situational utilities depend on
+	 */
+	public Collection<String> getMemoryDependencies();
+
+}
@@ -35,8 +35,10 @@ import de.cesr.lara.components.environment.LaraEnvironmentListener;
 import de.cesr.lara.components.eventbus.LaraInternalEventSubscriber;
 import de.cesr.lara.components.model.LaraModel;
 import de.cesr.lara.components.postprocessor.LaraPostprocessorComp;
+import de.cesr.lara.components.preprocessor.LaraBOPreselector;
 import de.cesr.lara.components.preprocessor.LaraPreprocessor;
 import de.cesr.lara.components.util.impl.LPrefEntry;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
 
 
 /**
@@ -198,6 +200,30 @@ public interface LaraAgentComponent<A extends LaraAgent<? super A, BO>, BO exten
 	 */
 	public LaraPreprocessor<A, BO> getPreprocessor();
 
+	/**
+	 * Get the accuracy this agent's behavioural options are preselected with. The default implementation returns
+	 * {@link LaraBOPreselector.LAccuracy#ACCURATE}.
+	 * 
+	 * @return preselecting accuracy
+	 */
+	public default LaraBOPreselector.Accuracy getPreselectingBOAccuracy() {
+		return LaraBOPreselector.LAccuracy.ACCURATE;
+	}
+
+	/**
+	 * Set the accuracy this agent's behavioural options are preselected with (see
+	 * {@link LaraBOPreselector.LAccuracy}). The default implementation does not support other accuracies than
+	 * {@link LaraBOPreselector.LAccuracy#ACCURATE}.
+	 * 
+	 * @param accuracy
+	 */
+	public default void setPreselectingBOAccuracy(LaraBOPreselector.Accuracy accuracy) {
+		if (accuracy != LaraBOPreselector.LAccuracy.ACCURATE) {
+			throw new UnsupportedOperationException(this.getClass().getName()
+					+ " does not support preselecting accuracy " + accuracy + "!");
+		}
+	}
+
 	/**
 	 * The number of {@link LaraDecisionData} objects currently stored at the agent.
 	 * 
@@ -217,6 +243,17 @@ public interface LaraAgentComponent<A extends LaraAgent<? super A, BO>, BO exten
 	 */
 	public Map<LaraPreference, Double> getPreferenceWeights();
 
+	/**
+	 * Provides the agent's preference weights as unmodifiable view without copying them. It remains unchanged since
+	 * the component copies its weights before they are changed the next time. The default implementation wraps
+	 * {@link #getPreferenceWeights()}.
+	 * 
+	 * @return a snapshot of the agent's preferenceWeights
+	 */
+	public default Map<LaraPreference, Double> getPreferenceWeightsSnapshot() {
+		return LPreferenceWeightMap.unmodifiableMap(getPreferenceWeights());
+	}
+
 	/**
 	 * Returns the {@link LaraDeliberativeChoiceComponent} that shall be used
 	 * for the given decision configuration.
@@ -79,7 +79,7 @@ public abstract class LAbstractAgent<A extends LaraAgent<A, BO>, BO extends Lara
 	 *            the environment this agent is associated with
 	 */
 	public LAbstractAgent(LaraModel lmodel, LaraEnvironment env) {
-		this(lmodel, env, "agent" + String.format("%1$04d", counter++));
+		this(lmodel, env, getDefaultAgentId(reserveAgentIds(1)));
 	}
 
 	/**
@@ -120,10 +120,40 @@ public abstract class LAbstractAgent<A extends LaraAgent<A, BO>, BO extends Lara
 	/**
 	 * Resets the counter used to label agents (agentID)
 	 */
-	public static void resetCounter() {
+	public static synchronized void resetCounter() {
 		counter = 0;
 	}
 
+	/**
+	 * Reserves a block of consecutive counter values for default agent IDs
+	 * (see {@link #getDefaultAgentId(int)}).
+	 * 
+	 * @param numIds
+	 *            number of IDs to reserve
+	 * @return first reserved counter value
+	 */
+	public static synchronized int reserveAgentIds(int numIds) {
+		int first = counter;
+		counter += numIds;
+		return first;
+	}
+
+	/**
+	 * @param number
+	 *            counter value
+	 * @return default ID of the form agent000X where X is substituted by the
+	 *         given number
+	 */
+	public static String getDefaultAgentId(int number) {
+		String digits = Integer.toString(number);
+		StringBuilder id = new StringBuilder(9 + digits.length());
+		id.append("agent");
+		for (int i = digits.length(); i < 4; i++) {
+			id.append('0');
+		}
+		return id.append(digits).toString();
+	}
+
 	// //
 	// Instance methods
 	// //
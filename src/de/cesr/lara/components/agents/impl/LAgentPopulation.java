@@ -0,0 +1,99 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.agents.impl;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.agents.LaraAgentFactory;
+import de.cesr.lara.components.model.LaraModel;
+import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+
+
+/**
+ * Constructs populations of agents in bulk. IDs are reserved as one block, and
+ * the agents' {@link LDefaultAgentComp}s are subscribed to agent events with
+ * one eventbus update instead of one per agent and event class.
+ */
+public final class LAgentPopulation {
+
+	/**
+	 * Logger
+	 */
+	private static Logger logger = Log4jLogger.getLogger(LAgentPopulation.class);
+
+	private LAgentPopulation() {
+	}
+
+	/**
+	 * @param lmodel
+	 * @param numAgents
+	 * @param factory
+	 *        creates each agent with the given default ID (see {@link LAbstractAgent#getDefaultAgentId(int)})
+	 * @return list of new agents
+	 */
+	public static <A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>> List<A> createAgents(
+			LaraModel lmodel, int numAgents, LaraAgentFactory<A> factory) {
+		return createAgents(lmodel, numAgents, factory, null);
+	}
+
+	/**
+	 * Agents whose component is an {@link LDefaultAgentComp} adopt the default components of the given prototype
+	 * (see {@link LDefaultAgentComp#adoptDefaults(de.cesr.lara.components.agents.LaraAgentComponent)}).
+	 * 
+	 * @param lmodel
+	 * @param numAgents
+	 * @param factory
+	 *        creates each agent with the given default ID (see {@link LAbstractAgent#getDefaultAgentId(int)})
+	 * @param prototype
+	 *        agent to adopt preference weights and decision components from (may be <code>null</code>)
+	 * @return list of new agents
+	 */
+	public static <A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>> List<A> createAgents(
+			LaraModel lmodel, int numAgents, LaraAgentFactory<A> factory, A prototype) {
+		int firstId = LAbstractAgent.reserveAgentIds(numAgents);
+		List<A> agents = new ArrayList<A>(numAgents);
+
+		LDefaultAgentComp.beginDeferredSubscription();
+		try {
+			for (int i = 0; i < numAgents; i++) {
+				A agent = factory.createAgent(lmodel, LAbstractAgent.getDefaultAgentId(firstId + i));
+				if (prototype != null && agent.getLaraComp() instanceof LDefaultAgentComp) {
+					((LDefaultAgentComp<A, BO>) agent.getLaraComp()).adoptDefaults(prototype.getLaraComp());
+				}
+				agents.add(agent);
+			}
+		} finally {
+			LDefaultAgentComp.endDeferredSubscription();
+		}
+
+		// <- LOGGING
+		logger.info("Created " + numAgents + " agents (" + LAbstractAgent.getDefaultAgentId(firstId) + " - "
+				+ LAbstractAgent.getDefaultAgentId(firstId + numAgents - 1) + ")");
+		// LOGGING ->
+
+		return agents;
+	}
+}
@@ -20,10 +20,15 @@
 package de.cesr.lara.components.agents.impl;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 
@@ -44,6 +49,8 @@ import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
 import de.cesr.lara.components.decision.impl.LDeliberativeChoiceComp_MaxLineTotalRandomAtTie;
 import de.cesr.lara.components.environment.LaraEnvironment;
 import de.cesr.lara.components.environment.impl.LAbstractEnvironmentalProperty;
+import de.cesr.lara.components.eventbus.events.LAbstractAgentEvent;
+import de.cesr.lara.components.eventbus.events.LAgentCycleEvent;
 import de.cesr.lara.components.eventbus.events.LAgentDecideEvent;
 import de.cesr.lara.components.eventbus.events.LAgentExecutionEvent;
 import de.cesr.lara.components.eventbus.events.LAgentPerceptionEvent;
@@ -53,6 +60,7 @@ import de.cesr.lara.components.eventbus.events.LAgentPreprocessEvent;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
 import de.cesr.lara.components.model.LaraModel;
+import de.cesr.lara.components.model.impl.LAbstractModel;
 import de.cesr.lara.components.param.LDecisionMakingPa;
 import de.cesr.lara.components.postprocessor.LaraPostprocessorComp;
 import de.cesr.lara.components.postprocessor.impl.LDefaultPostProcessorComp;
@@ -70,6 +78,10 @@ import de.cesr.parma.core.PmParameterManager;
 /**
  * The default implementation of {@link LaraAgentComponent}.
  * 
+ * Memories, preference weights, decision data and deliberative choice
+ * components are created on first use, so agents that do not take part in
+ * decisions do not carry them.
+ * 
  * @param <A>
  *        type of agent
  * @param <BO>
@@ -91,11 +103,44 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	protected static Map<LaraModel, Map<LaraDecisionConfiguration, LaraDeliberativeChoiceComponent>> defaultDeliberativeChoiceComponents =
 			new HashMap<>();
 
+	/**
+	 * Event classes agent components subscribe to
+	 */
+	public static final List<Class<? extends LaraEvent>> AGENT_EVENT_CLASSES = Collections
+			.unmodifiableList(Arrays.<Class<? extends LaraEvent>> asList(LAgentPerceptionEvent.class,
+					LAgentPreprocessEvent.class, LAgentDecideEvent.class, LAgentPostprocessEvent.class,
+					LAgentExecutionEvent.class, LAgentPostExecutionEvent.class));
+
+	/**
+	 * Event classes agent components subscribe to if their model fuses the agent cycle (see
+	 * {@link LAbstractModel#isFusedAgentCycle()})
+	 */
+	public static final List<Class<? extends LaraEvent>> FUSED_AGENT_EVENT_CLASSES = Collections
+			.unmodifiableList(Arrays.<Class<? extends LaraEvent>> asList(LAgentPerceptionEvent.class,
+					LAgentPreprocessEvent.class, LAgentDecideEvent.class, LAgentPostprocessEvent.class,
+					LAgentExecutionEvent.class, LAgentPostExecutionEvent.class, LAgentCycleEvent.class));
+
+	/**
+	 * Components created by the current thread that wait for bulk subscription (see
+	 * {@link #beginDeferredSubscription()}). <code>null</code> if subscriptions are not deferred.
+	 */
+	protected static final ThreadLocal<List<LDefaultAgentComp<?, ?>>> deferredSubscriptions = new ThreadLocal<>();
+
 
 	// //
 	// Static Methods
 	// //
 
+	/**
+	 * @param lmodel
+	 * @return {@link #FUSED_AGENT_EVENT_CLASSES} if the given model fuses the agent cycle,
+	 *         {@link #AGENT_EVENT_CLASSES} otherwise
+	 */
+	static protected List<Class<? extends LaraEvent>> getAgentEventClasses(LaraModel lmodel) {
+		return lmodel instanceof LAbstractModel && ((LAbstractModel) lmodel).isFusedAgentCycle()
+				? FUSED_AGENT_EVENT_CLASSES : AGENT_EVENT_CLASSES;
+	}
+
 	/**
 	 * @param lmodel 
 	 * @param dConfiguration
@@ -125,6 +170,41 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 		}
 	}
 
+	/**
+	 * Components whose {@link #setLaraModel(LaraModel)} is called by the current thread from now on do not subscribe
+	 * to agent events individually but are collected until {@link #endDeferredSubscription()}.
+	 */
+	static public void beginDeferredSubscription() {
+		if (deferredSubscriptions.get() != null) {
+			throw new IllegalStateException("Subscriptions are already deferred by this thread");
+		}
+		deferredSubscriptions.set(new ArrayList<LDefaultAgentComp<?, ?>>());
+	}
+
+	/**
+	 * Subscribes all components collected since {@link #beginDeferredSubscription()} with one update per model's
+	 * eventbus (see {@link LEventbus#subscribeAll(Collection, Collection)}).
+	 */
+	static public void endDeferredSubscription() {
+		List<LDefaultAgentComp<?, ?>> comps = deferredSubscriptions.get();
+		deferredSubscriptions.remove();
+		if (comps == null || comps.isEmpty()) {
+			return;
+		}
+		Map<LaraModel, List<LDefaultAgentComp<?, ?>>> compsPerModel = new HashMap<>();
+		for (LDefaultAgentComp<?, ?> comp : comps) {
+			List<LDefaultAgentComp<?, ?>> modelComps = compsPerModel.get(comp.lmodel);
+			if (modelComps == null) {
+				modelComps = new ArrayList<>(comps.size());
+				compsPerModel.put(comp.lmodel, modelComps);
+			}
+			modelComps.add(comp);
+		}
+		for (Map.Entry<LaraModel, List<LDefaultAgentComp<?, ?>>> entry : compsPerModel.entrySet()) {
+			entry.getKey().getLEventbus().subscribeAll(entry.getValue(), getAgentEventClasses(entry.getKey()));
+		}
+	}
+
 	/**
 	 * @param lmodel
 	 * @param dConfiguration
@@ -156,9 +236,9 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	protected LEventbus eventBus;
 
 	/**
-	 * memory for behavioural options
+	 * memory for behavioural options (created on first use)
 	 */
-	protected LaraBOMemory<BO> boMemory;
+	protected LaraBOMemory<BO> boMemory = null;
 
 	/**
 	 * the agents decision module
@@ -177,10 +257,21 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 
 
 	/**
-	 * a collection of the agents behavioural options
+	 * a collection of the agents behavioural options (created on first use)
 	 */
 	protected LaraMemory<LaraProperty<?, ?>> memory = null;
 
+	/**
+	 * True if {@link #memory} was created by this component. Its capacity is
+	 * then adapted to the joined decision configurations.
+	 */
+	protected boolean defaultMemory = false;
+
+	/**
+	 * Decision configurations the agent has requested decision data for
+	 */
+	protected Set<LaraDecisionConfiguration> joinedDecisionConfigs = null;
+
 	protected LaraPostprocessorComp<A, BO> postProcessorComp;
 
 	/**
@@ -193,6 +284,11 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	protected Map<LaraPreference, Double> preferenceWeights = null;
 
+	/**
+	 * true if {@link #preferenceWeights} has been handed out as snapshot and needs to be copied before it is changed
+	 */
+	protected boolean preferenceWeightsShared = false;
+
 	/**
 	 * Since each agent may have different strategies and modes of action selection, each agent is assigned an instance
 	 * of {@link LaraPreprocessor} . (SH)
@@ -230,19 +326,6 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 		this.agent = agent;
 		this.environment = env;
 
-		memory =
- new LDefaultLimitedCapacityMemory<>(
-				laraModel, LCapacityManagers.<LaraProperty<?, ?>> makeFIFO());
-
-		checkMemoryCapacityForHabitSelection();
-
-		boMemory = new LDefaultLimitedCapacityBOMemory<>(laraModel,
-				LCapacityManagers.<BO> makeFIFO());
-		preferenceWeights = new LPreferenceWeightMap();
-		decisionData = new HashMap<>();
-		deliberativeChoiceCompents = new HashMap<>();
-
-		this.postProcessorComp = new LDefaultPostProcessorComp<>();
 	}
 
 	/**
@@ -261,9 +344,7 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 
 	@Override
 	public void addPreferenceWeights(LPrefEntry... prefEntry) {
-		if (this.preferenceWeights == null) {
-			this.preferenceWeights = new HashMap<>();
-		}
+		prepareWeightsForChange();
 		for (LPrefEntry e : prefEntry) {
 			this.preferenceWeights.put(e.getKey(), e.getValue());
 		}
@@ -281,9 +362,7 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	@Override
 	public void addPreferenceWeights(
 			Map<LaraPreference, Double> preferenceWeights) {
-		if (this.preferenceWeights == null) {
-			this.preferenceWeights = new HashMap<>();
-		}
+		prepareWeightsForChange();
 		this.preferenceWeights.putAll(preferenceWeights);
 
 		// <- LOGGING
@@ -293,6 +372,18 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 		// LOGGING ->
 	}
 
+	/**
+	 * Creates the preference weights or copies them in case they are shared as snapshot.
+	 */
+	protected void prepareWeightsForChange() {
+		if (this.preferenceWeights == null) {
+			this.preferenceWeights = new LPreferenceWeightMap();
+		} else if (this.preferenceWeightsShared) {
+			this.preferenceWeights = new LPreferenceWeightMap(this.preferenceWeights);
+		}
+		this.preferenceWeightsShared = false;
+	}
+
 	/**
 	 * @see de.cesr.lara.components.agents.LaraAgentComponent#decide(de.cesr.lara.components.decision.LaraDecisionConfiguration)
 	 */
@@ -322,6 +413,10 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 * {@link LAgentPreprocessEvent}: If no {@link LaraPreprocessor} was set, the default preprocessor is set now.
 	 * However, it is recommended to use a global configurator before.
 	 * 
+	 * {@link LAgentCycleEvent}: Processes all phase events of the cycle in order, each first by this component and
+	 * then by the agent if the agent is subscribed to the phase event's class. Other subscribers of phase events are
+	 * not notified.
+	 * 
 	 * @param event
 	 */
 	@Override
@@ -356,6 +451,9 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 			decide(((LAgentDecideEvent) event).getDecisionConfiguration());
 
 		} else if (event instanceof LAgentPostprocessEvent) {
+			if (postProcessorComp == null) {
+				postProcessorComp = new LDefaultPostProcessorComp<>();
+			}
 			postProcessorComp.postProcess(agent, ((LAgentPostprocessEvent) event).getDecisionConfiguration());
 			logDecision(((LAgentPostprocessEvent) event).getDecisionConfiguration());
 
@@ -364,6 +462,14 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 
 		} else if (event instanceof LAgentPostExecutionEvent) {
 			removeDecisionData(((LAgentPostExecutionEvent) event).getDecisionConfiguration());
+
+		} else if (event instanceof LAgentCycleEvent) {
+			for (LAbstractAgentEvent phaseEvent : ((LAgentCycleEvent) event).getPhaseEvents()) {
+				onInternalEvent(phaseEvent);
+				if (eventBus.isSubscribed(agent, phaseEvent.getClass())) {
+					agent.onEvent(phaseEvent);
+				}
+			}
 		}
 	}
 
@@ -390,7 +496,9 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 		if (logger.isDebugEnabled()) {
 			logger.debug("LaraDecisionData for " + agent + " and " + dConfiguration + " removed");
 		}
-		decisionData.remove(dConfiguration);
+		if (decisionData != null) {
+			decisionData.remove(dConfiguration);
+		}
 	}
 
 	/**
@@ -406,7 +514,7 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 		buffer.append("Decision Components for agent " + this.agent + System.getProperty("line.separator"));
 		buffer.append(this.getPreprocessor().getComponentsString() + System.getProperty("line.separator"));
 		buffer.append("\t" + "Deliberative choice component:" + System.getProperty("line.separator"));
-		if (!this.deliberativeChoiceCompents.isEmpty()) {
+		if (this.deliberativeChoiceCompents != null && !this.deliberativeChoiceCompents.isEmpty()) {
 			for (LaraDecisionConfiguration dConfig : this.deliberativeChoiceCompents.keySet()) {
 				if (deliberativeChoiceCompents.containsKey(dConfig)) {
 					buffer.append(deliberativeChoiceCompents.get(dConfig).toString());
@@ -439,6 +547,36 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 		}
 	}
 
+	/**
+	 * The default postprocessor memorises the selected BO of each decision
+	 * for {@link LDecisionMakingPa#HABIT_THRESHOLD} + 1 time steps.
+	 * 
+	 * @return capacity of the general memory that keeps these records for all
+	 *         joined decision configurations, but at least
+	 *         {@link LDefaultLimitedCapacityMemory#DEFAULT_INITIAL_CAPACITY}
+	 */
+	protected int getRequiredMemoryCapacity() {
+		int numDConfigs = joinedDecisionConfigs == null ? 0 : joinedDecisionConfigs.size();
+		return Math.max(LDefaultLimitedCapacityMemory.DEFAULT_INITIAL_CAPACITY, numDConfigs
+				* (((Integer) PmParameterManager.getParameter(LDecisionMakingPa.HABIT_THRESHOLD)).intValue() + 1));
+	}
+
+	/**
+	 * Registers the given decision configuration as joined and enlarges the
+	 * default general memory if required.
+	 * 
+	 * @param dConfiguration
+	 */
+	protected void joinDecisionConfig(LaraDecisionConfiguration dConfiguration) {
+		if (joinedDecisionConfigs == null) {
+			joinedDecisionConfigs = new HashSet<>();
+		}
+		if (joinedDecisionConfigs.add(dConfiguration) && defaultMemory
+				&& memory.getCapacity() < getRequiredMemoryCapacity()) {
+			((LDefaultLimitedCapacityMemory<LaraProperty<?, ?>>) memory).setCapacity(getRequiredMemoryCapacity());
+		}
+	}
+
 	// //
 	// Instance GETTER and SETTER
 	// //
@@ -458,12 +596,36 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 
 		this.lmodel = lmodel;
 		this.eventBus = this.lmodel.getLEventbus();
-		eventBus.subscribe(this, LAgentPerceptionEvent.class);
-		eventBus.subscribe(this, LAgentPreprocessEvent.class);
-		eventBus.subscribe(this, LAgentDecideEvent.class);
-		eventBus.subscribe(this, LAgentPostprocessEvent.class);
-		eventBus.subscribe(this, LAgentExecutionEvent.class);
-		eventBus.subscribe(this, LAgentPostExecutionEvent.class);
+		if (deferredSubscriptions.get() != null) {
+			deferredSubscriptions.get().add(this);
+		} else {
+			for (Class<? extends LaraEvent> eventClass : getAgentEventClasses(lmodel)) {
+				eventBus.subscribe(this, eventClass);
+			}
+		}
+	}
+
+	/**
+	 * Adopts the preference weights, deliberative choice components, pre- and postprocessor and preselecting accuracy
+	 * of the given prototype. Choice component assignments are copied, pre- and postprocessor are shared. Preference
+	 * weights are shared until either component changes them.
+	 * 
+	 * @param prototype
+	 */
+	public void adoptDefaults(LaraAgentComponent<A, BO> prototype) {
+		Map<LaraPreference, Double> snapshot = prototype.getPreferenceWeightsSnapshot();
+		LPreferenceWeightMap weights = LPreferenceWeightMap.unwrap(snapshot);
+		this.preferenceWeights = weights != null ? weights : snapshot;
+		this.preferenceWeightsShared = true;
+		this.preprocessor = prototype.getPreprocessor();
+		this.preselectingBOaccuracy = prototype.getPreselectingBOAccuracy();
+		if (prototype instanceof LDefaultAgentComp) {
+			LDefaultAgentComp<A, BO> defaultPrototype = (LDefaultAgentComp<A, BO>) prototype;
+			if (defaultPrototype.deliberativeChoiceCompents != null) {
+				this.deliberativeChoiceCompents = new HashMap<>(defaultPrototype.deliberativeChoiceCompents);
+			}
+			this.postProcessorComp = defaultPrototype.postProcessorComp;
+		}
 	}
 
 	/**
@@ -471,13 +633,20 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	@Override
 	public LaraBOMemory<BO> getBOMemory() {
+		if (boMemory == null) {
+			boMemory = new LDefaultLimitedCapacityBOMemory<>(lmodel, LCapacityManagers.<BO> makeFIFO());
+		}
 		return boMemory;
 	}
 
 	@Override
 	public LaraDecisionData<A, BO> getDecisionData(LaraDecisionConfiguration dConfiguration) {
+		if (decisionData == null) {
+			decisionData = new HashMap<>();
+		}
 		if (!decisionData.containsKey(dConfiguration)) {
 			decisionData.put(dConfiguration, new LaraDecisionData<>(dConfiguration, agent));
+			joinDecisionConfig(dConfiguration);
 
 			// <- LOGGING
 			if (logger.isDebugEnabled()) {
@@ -494,6 +663,9 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	@Override
 	public Iterable<LaraDecisionData<A, BO>> getDecisionDataIterable() {
+		if (decisionData == null) {
+			return Collections.emptyList();
+		}
 		return decisionData.values();
 	}
 
@@ -505,7 +677,7 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	@Override
 	public LaraDeliberativeChoiceComponent getDeliberativeChoiceComp(
 			LaraModel lmodel, LaraDecisionConfiguration dConfiguration) {
-		if (deliberativeChoiceCompents.containsKey(dConfiguration)) {
+		if (deliberativeChoiceCompents != null && deliberativeChoiceCompents.containsKey(dConfiguration)) {
 			return deliberativeChoiceCompents.get(dConfiguration);
 		} else {
 			return getDefaultDeliberativeChoiceComp(lmodel, dConfiguration);
@@ -525,6 +697,12 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	@Override
 	public LaraMemory<LaraProperty<?, ?>> getGeneralMemory() {
+		if (memory == null) {
+			memory = new LDefaultLimitedCapacityMemory<>(lmodel, LCapacityManagers.<LaraProperty<?, ?>> makeFIFO(),
+					getRequiredMemoryCapacity());
+			defaultMemory = true;
+			checkMemoryCapacityForHabitSelection();
+		}
 		return memory;
 	}
 
@@ -533,12 +711,12 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	@Override
 	public int getNumDecisionDataObjects() {
-		return decisionData.size();
+		return decisionData == null ? 0 : decisionData.size();
 	}
 
 	@Override
 	public Double getPreferenceWeight(LaraPreference preference) {
-		return preferenceWeights.get(preference);
+		return preferenceWeights == null ? null : preferenceWeights.get(preference);
 	}
 
 	/**
@@ -546,7 +724,22 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	@Override
 	public Map<LaraPreference, Double> getPreferenceWeights() {
-		return new LinkedHashMap<>(preferenceWeights);
+		if (preferenceWeights == null) {
+			return new LPreferenceWeightMap();
+		}
+		return new LPreferenceWeightMap(preferenceWeights);
+	}
+
+	/**
+	 * @see de.cesr.lara.components.agents.LaraAgentComponent#getPreferenceWeightsSnapshot()
+	 */
+	@Override
+	public Map<LaraPreference, Double> getPreferenceWeightsSnapshot() {
+		if (preferenceWeights == null) {
+			preferenceWeights = new LPreferenceWeightMap();
+		}
+		preferenceWeightsShared = true;
+		return LPreferenceWeightMap.unmodifiableMap(preferenceWeights);
 	}
 
 	/**
@@ -563,6 +756,9 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	 */
 	@Override
 	public void setDeliberativeChoiceComp(LaraDecisionConfiguration dConfiguration, LaraDeliberativeChoiceComponent comp) {
+		if (deliberativeChoiceCompents == null) {
+			deliberativeChoiceCompents = new HashMap<>();
+		}
 		deliberativeChoiceCompents.put(dConfiguration, comp);
 	}
 
@@ -572,6 +768,7 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	@Override
 	public void setGeneralMemory(LaraMemory<LaraProperty<?, ?>> memory) {
 		this.memory = memory;
+		this.defaultMemory = false;
 	}
 
 	/**
@@ -609,4 +806,20 @@ public class LDefaultAgentComp<A extends LaraAgent<A, BO>, BO extends LaraBehavi
 	public LaraPreprocessor<A, BO> getPreprocessor() {
 		return this.preprocessor;
 	}
+
+	/**
+	 * @see de.cesr.lara.components.agents.LaraAgentComponent#getPreselectingBOAccuracy()
+	 */
+	@Override
+	public LaraBOPreselector.Accuracy getPreselectingBOAccuracy() {
+		return this.preselectingBOaccuracy;
+	}
+
+	/**
+	 * @see de.cesr.lara.components.agents.LaraAgentComponent#setPreselectingBOAccuracy(de.cesr.lara.components.preprocessor.LaraBOPreselector.Accuracy)
+	 */
+	@Override
+	public void setPreselectingBOAccuracy(LaraBOPreselector.Accuracy accuracy) {
+		this.preselectingBOaccuracy = accuracy;
+	}
 }
\ No newline at end of file
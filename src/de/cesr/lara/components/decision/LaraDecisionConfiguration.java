@@ -53,6 +53,17 @@ public interface LaraDecisionConfiguration {
 	 */
 	public void setPreferences(Collection<LaraPreference> preferences);
 
+	/**
+	 * Provides a bit mask of the ordinals of the preferences that are relevant
+	 * for this decision (see
+	 * {@link de.cesr.lara.components.util.impl.LPreferenceWeightMap#getMask(Collection)}).
+	 * The mask needs to reflect the current preferences. It does not tell the
+	 * registry apart, i.e. preferences of another registry may share bits.
+	 * 
+	 * @return preference mask
+	 */
+	public long[] getPreferenceMask();
+
 	/**
 	 * @return true if the decision making process should select a single BO.
 	 */
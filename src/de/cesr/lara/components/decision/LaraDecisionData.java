@@ -30,6 +30,7 @@ import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.agents.LaraAgent;
 import de.cesr.lara.components.preprocessor.LaraDecisionModeSelector;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
 /**
@@ -133,6 +134,24 @@ public final class LaraDecisionData<A extends LaraAgent<? super A, BO>, BO exten
 		return UnmodifiableMap.decorate(individualPreferenceWeights);
 	}
 
+	/**
+	 * Returns the individual weight of the given preference without wrapping
+	 * the weight map.
+	 * 
+	 * @param preference
+	 * @return individual weight of the given preference or {@link Double#NaN}
+	 *         if the weight is not set
+	 */
+	public double getIndividualPreferenceWeight(LaraPreference preference) {
+		LPreferenceWeightMap weights = LPreferenceWeightMap
+				.unwrap(individualPreferenceWeights);
+		if (weights != null) {
+			return weights.getValue(preference);
+		}
+		Double weight = getIndividualPreferenceWeights().get(preference);
+		return weight == null ? Double.NaN : weight.doubleValue();
+	}
+
 	/**
 	 * @param bos
 	 *            list of BOs to set
@@ -0,0 +1,88 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.decision;
+
+import java.util.List;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+
+/**
+ * {@link LaraDeliberativeChoiceComponent} that selects behavioural options
+ * from primitive score arrays. Deliberative deciders pass the row sums of
+ * their utility matrix directly instead of creating a {@link LaraBoRow} per
+ * behavioural option.
+ * 
+ * The score at index i belongs to the behavioural option at index i of the
+ * given list. Both must not be altered by the component, and the score array
+ * must not be referenced beyond the call since callers may reuse it.
+ */
+public interface LaraScoreBasedChoiceComponent extends
+		LaraDeliberativeChoiceComponent {
+
+	/**
+	 * If k is {@link Integer#MAX_VALUE} all available BOs should be returned!
+	 * 
+	 * @param dConfig
+	 *            the decision configuration of this decision process
+	 * @param bos
+	 *            behavioural options to select from
+	 * @param scores
+	 *            score (row sum) for each behavioural option
+	 * @param k
+	 *            number of BOs to select
+	 * @return k best behavioural options
+	 */
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<? extends BO> getKSelectedBos(
+			LaraDecisionConfiguration dConfig, List<BO> bos, double[] scores,
+			int k);
+
+	/**
+	 * @param dConfig
+	 *            the decision configuration of this decision process
+	 * @param bos
+	 *            behavioural options to select from
+	 * @param scores
+	 *            score (row sum) for each behavioural option
+	 * @return selected behavioural option
+	 */
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> BO getSelectedBo(
+			LaraDecisionConfiguration dConfig, List<BO> bos, double[] scores);
+
+	/**
+	 * Selects behavioural options for a block of agents that deliberate
+	 * within the same decision configuration on behavioural options with the
+	 * same keys (see {@link de.cesr.lara.components.decision.impl.LBatchDeliberation}).
+	 * Selection is performed per agent and in the order of the given lists.
+	 * 
+	 * @param dConfig
+	 *            the decision configuration of this decision process
+	 * @param bos
+	 *            for every agent the behavioural options to select from (all
+	 *            of equal size n)
+	 * @param scores
+	 *            agents x n scores, row-major
+	 * @param k
+	 *            number of BOs to select per agent
+	 * @return for every agent its k best behavioural options
+	 */
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<List<? extends BO>> getBatchKSelectedBos(
+			LaraDecisionConfiguration dConfig, List<? extends List<BO>> bos,
+			double[] scores, int k);
+}
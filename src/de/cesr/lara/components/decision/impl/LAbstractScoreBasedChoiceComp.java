@@ -0,0 +1,109 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.decision.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.decision.LaraBoRow;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent;
+
+/**
+ * Base class for {@link LaraScoreBasedChoiceComponent}s. Selection from
+ * {@link LaraBoRow}s is delegated to the score based methods.
+ */
+public abstract class LAbstractScoreBasedChoiceComp implements
+		LaraScoreBasedChoiceComponent {
+
+	/**
+	 * @see de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent#getKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.Collection, int)
+	 */
+	@Override
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<? extends BO> getKSelectedBos(
+			LaraDecisionConfiguration dConfig,
+			Collection<LaraBoRow<BO>> boRows, int k) {
+		List<BO> bos = new ArrayList<BO>(boRows.size());
+		double[] scores = getScores(boRows, bos);
+		return getKSelectedBos(dConfig, bos, scores, k);
+	}
+
+	/**
+	 * @see de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent#getSelectedBo(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.Collection)
+	 */
+	@Override
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> BO getSelectedBo(
+			LaraDecisionConfiguration dConfig, Collection<LaraBoRow<BO>> boRows) {
+		List<BO> bos = new ArrayList<BO>(boRows.size());
+		double[] scores = getScores(boRows, bos);
+		return getSelectedBo(dConfig, bos, scores);
+	}
+
+	/**
+	 * Passes each agent's slice of the score matrix to
+	 * {@link #getKSelectedBos(LaraDecisionConfiguration, List, double[], int)}.
+	 * The slices are copied into one scratch array that is reused for all
+	 * agents.
+	 * 
+	 * @see de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent#getBatchKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.List, double[], int)
+	 */
+	@Override
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<List<? extends BO>> getBatchKSelectedBos(
+			LaraDecisionConfiguration dConfig, List<? extends List<BO>> bos,
+			double[] scores, int k) {
+		List<List<? extends BO>> selected = new ArrayList<List<? extends BO>>(
+				bos.size());
+		double[] agentScores = new double[bos.isEmpty() ? 0 : bos.get(0)
+				.size()];
+		int offset = 0;
+		for (List<BO> agentBos : bos) {
+			int n = agentBos.size();
+			if (agentScores.length != n) {
+				agentScores = new double[n];
+			}
+			System.arraycopy(scores, offset, agentScores, 0, n);
+			selected.add(getKSelectedBos(dConfig, agentBos, agentScores, k));
+			offset += n;
+		}
+		return selected;
+	}
+
+	/**
+	 * @param boRows
+	 * @param bos
+	 *            list to add the rows' behavioural options to
+	 * @return the rows' sums in iteration order
+	 */
+	protected <BO extends LaraBehaviouralOption<?, ? extends BO>> double[] getScores(
+			Collection<LaraBoRow<BO>> boRows, List<BO> bos) {
+		double[] scores = new double[boRows.size()];
+		int i = 0;
+		for (LaraBoRow<BO> row : boRows) {
+			bos.add(row.getBehaviouralOption());
+			scores[i++] = row.getSum();
+		}
+		return scores;
+	}
+}
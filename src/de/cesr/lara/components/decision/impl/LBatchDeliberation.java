@@ -0,0 +1,432 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.decision.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.log4j.Logger;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecider;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
+import de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent;
+import de.cesr.lara.components.param.LDecisionMakingPa;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
+import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+import de.cesr.parma.core.PmParameterManager;
+
+/**
+ * Deliberation of a block of agents for one {@link LaraDecisionConfiguration}
+ * whose agents deliberate on behavioural options of a shared catalog, i.e.
+ * options with the same keys and utilities, but individual preference
+ * weights.
+ * 
+ * The utilities of the catalog are gathered once into a dense BOs x
+ * preferences matrix (see {@link LUtilityMatrix}), the agents' preference
+ * weights into an agents x preferences matrix. All scores are computed in one
+ * blocked matrix product (optionally in parallel, see
+ * {@link LDecisionMakingPa#BATCH_DELIBERATION_PARALLEL}). The selection is
+ * then performed per agent by the {@link LaraScoreBasedChoiceComponent}, in
+ * the order of the given agents.
+ * 
+ * Agents whose decider is not an {@link LDeliberativeDecider} with a
+ * {@link LaraScoreBasedChoiceComponent}, whose behavioural options differ
+ * from the catalog or whose preference weights contain NaN decide
+ * individually (at their position in the order of agents). The catalog is
+ * defined by the behavioural options of the first agent that is deliberated
+ * in the batch.
+ * 
+ * Batch deliberation replaces the decide phase of the given agents and
+ * requires their preprocessing to be finished. Models that publish the agent
+ * phases themselves publish the
+ * {@link de.cesr.lara.components.eventbus.events.LAgentPreprocessEvent}, call
+ * {@link #decide(LaraDecisionConfiguration, Collection)} instead of publishing
+ * the {@link de.cesr.lara.components.eventbus.events.LAgentDecideEvent} and
+ * continue with the
+ * {@link de.cesr.lara.components.eventbus.events.LAgentPostprocessEvent}. If
+ * the decide event is published nevertheless, all
+ * {@link LDeliberativeDecider}s of the batch (including those that decided
+ * individually) keep their result on the next
+ * {@link LDeliberativeDecider#decide()} instead of deciding again. Other
+ * deciders would decide again and thereby draw random numbers twice, so the
+ * decide event must not be published for batches that contain them. The
+ * fused agent cycle
+ * ({@link de.cesr.lara.components.eventbus.events.LAgentCycleEvent}) does not
+ * leave room for batch deliberation.
+ * 
+ * @param <BO>
+ *            behavioural option type
+ */
+public class LBatchDeliberation<BO extends LaraBehaviouralOption<?, ? extends BO>> {
+
+	/**
+	 * Logger
+	 */
+	static private Logger logger = Log4jLogger
+			.getLogger(LBatchDeliberation.class);
+
+	/**
+	 * Number of catalog rows that are multiplied with the weights of all
+	 * agents of a task before proceeding with the next rows.
+	 */
+	protected static final int BLOCK_SIZE = 64;
+
+	/**
+	 * Minimum number of agents a parallel task handles.
+	 */
+	protected static final int PARALLEL_THRESHOLD = 32;
+
+	/**
+	 * Computes the scores of the agents [from, to) for all catalog rows.
+	 */
+	protected class LScoreTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final int from;
+		protected final int to;
+
+		protected LScoreTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				multiply(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new LScoreTask(from, middle), new LScoreTask(middle,
+						to));
+			}
+		}
+	}
+
+	protected final LaraDecisionConfiguration dConfig;
+
+	protected final List<LaraDecider<BO>> deciders;
+
+	/**
+	 * Deciders whose scores are computed in the batch
+	 */
+	protected final List<LDeliberativeDecider<BO>> batchDeciders = new ArrayList<LDeliberativeDecider<BO>>();
+
+	protected LUtilityMatrix<BO> catalog;
+
+	/**
+	 * Preference weights, agents x preferences, row-major
+	 */
+	protected double[] weights;
+
+	/**
+	 * Divisor of each agent's scores (average weight if preference weights
+	 * are neutralised, 1.0 otherwise)
+	 */
+	protected double[] divisors;
+
+	/**
+	 * Scores, agents x BOs, row-major
+	 */
+	protected double[] scores;
+
+	/**
+	 * Deliberates the given agents using the parameter
+	 * {@link LDecisionMakingPa#BATCH_DELIBERATION_PARALLEL}.
+	 * 
+	 * @param dConfig
+	 * @param agents
+	 */
+	public static <BO extends LaraBehaviouralOption<?, ? extends BO>> void decide(
+			LaraDecisionConfiguration dConfig,
+			Collection<? extends LaraAgent<?, BO>> agents) {
+		decide(dConfig, agents, ((Boolean) PmParameterManager
+				.getParameter(LDecisionMakingPa.BATCH_DELIBERATION_PARALLEL))
+				.booleanValue());
+	}
+
+	/**
+	 * Deliberates the given agents. Their deciders need to be set up (i.e.
+	 * preprocessing needs to be finished).
+	 * 
+	 * @param dConfig
+	 * @param agents
+	 * @param parallel
+	 *            if true, the score matrix is computed in parallel
+	 */
+	public static <BO extends LaraBehaviouralOption<?, ? extends BO>> void decide(
+			LaraDecisionConfiguration dConfig,
+			Collection<? extends LaraAgent<?, BO>> agents, boolean parallel) {
+		List<LaraDecider<BO>> deciders = new ArrayList<LaraDecider<BO>>(
+				agents.size());
+		for (LaraAgent<?, BO> agent : agents) {
+			deciders.add(agent.getLaraComp().getDecisionData(dConfig)
+					.getDecider());
+		}
+		new LBatchDeliberation<BO>(dConfig, deciders).decide(parallel);
+	}
+
+	/**
+	 * @param dConfig
+	 * @param deciders
+	 *            deciders of the agents to deliberate
+	 */
+	public LBatchDeliberation(LaraDecisionConfiguration dConfig,
+			List<LaraDecider<BO>> deciders) {
+		this.dConfig = dConfig;
+		this.deciders = deciders;
+	}
+
+	/**
+	 * @param parallel
+	 *            if true, the score matrix is computed in parallel
+	 */
+	@SuppressWarnings("unchecked")
+	public void decide(boolean parallel) {
+		batchDeciders.clear();
+		if (!Log4jLogger.getLogger(
+				LDeliberativeDecider.class.getName() + ".RowInspection")
+				.isDebugEnabled()) {
+			for (LaraDecider<BO> decider : deciders) {
+				if (decider instanceof LDeliberativeDecider
+						&& ((LDeliberativeDecider<BO>) decider).deliberativeChoiceComponent instanceof LaraScoreBasedChoiceComponent) {
+					batchDeciders.add((LDeliberativeDecider<BO>) decider);
+				}
+			}
+		}
+		if (!batchDeciders.isEmpty()) {
+			initCatalog();
+			initWeights();
+			scores = new double[batchDeciders.size() * catalog.getNumBos()];
+			if (parallel && batchDeciders.size() > PARALLEL_THRESHOLD) {
+				ForkJoinPool.commonPool().invoke(
+						new LScoreTask(0, batchDeciders.size()));
+			} else {
+				multiply(0, batchDeciders.size());
+			}
+		}
+
+		// <- LOGGING
+		logger.info("Batch deliberation of " + batchDeciders.size() + " of "
+				+ deciders.size() + " agent(s) for " + dConfig);
+		// LOGGING ->
+
+		select();
+	}
+
+	/**
+	 * Gathers the utilities of the catalog for the union of preferences the
+	 * batch deciders consider.
+	 */
+	protected void initCatalog() {
+		LPreferenceWeightMap prefs = new LPreferenceWeightMap();
+		for (LDeliberativeDecider<BO> decider : batchDeciders) {
+			for (LaraPreference pref : decider.preferenceWeights.keySet()) {
+				prefs.setValue(pref, 1.0);
+			}
+		}
+		catalog = new LUtilityMatrix<BO>(prefs);
+		catalog.compute(batchDeciders.get(0).selectableBOs, false);
+	}
+
+	/**
+	 * Fills the weight matrix and removes deciders that do not qualify for
+	 * the batch.
+	 */
+	protected void initWeights() {
+		int numPrefs = catalog.preferences.length;
+		for (Iterator<LDeliberativeDecider<BO>> iter = batchDeciders
+				.iterator(); iter.hasNext();) {
+			LDeliberativeDecider<BO> decider = iter.next();
+			if (!sharesCatalog(decider) || containsNaN(decider.preferenceWeights)) {
+				iter.remove();
+			}
+		}
+
+		weights = new double[batchDeciders.size() * numPrefs];
+		divisors = new double[batchDeciders.size()];
+		int a = 0;
+		for (LDeliberativeDecider<BO> decider : batchDeciders) {
+			double weightSum = 0.0;
+			for (int j = 0; j < numPrefs; j++) {
+				Double weight = decider.preferenceWeights
+						.get(catalog.preferences[j]);
+				if (weight != null) {
+					weights[a * numPrefs + j] = weight.doubleValue();
+					weightSum += weight.doubleValue();
+				}
+			}
+			divisors[a] = decider.neutralisePeferenceWeights ? weightSum
+					/ decider.preferenceWeights.size() : 1.0;
+			a++;
+		}
+	}
+
+	/**
+	 * @param decider
+	 * @return true if the decider's behavioural options equal the catalog
+	 *         regarding order, keys and considered utilities
+	 */
+	protected boolean sharesCatalog(LDeliberativeDecider<BO> decider) {
+		if (decider.selectableBOs.size() != catalog.getNumBos()) {
+			return false;
+		}
+		int numPrefs = catalog.preferences.length;
+		int i = 0;
+		for (BO bo : decider.selectableBOs) {
+			BO catalogBo = catalog.getBos().get(i);
+			if (bo != catalogBo) {
+				if (!bo.getKey().equals(catalogBo.getKey())) {
+					return false;
+				}
+				for (int j = 0; j < numPrefs; j++) {
+					double utility = bo.getUtility(catalog.ordinals[j]);
+					if (Double.isNaN(utility)) {
+						if (bo.getValue().containsKey(catalog.preferences[j])
+								|| catalog.utilities[i * numPrefs + j] != 0.0) {
+							return false;
+						}
+					} else if (utility != catalog.utilities[i * numPrefs + j]) {
+						return false;
+					}
+				}
+			}
+			i++;
+		}
+		return true;
+	}
+
+	/**
+	 * @param preferenceWeights
+	 * @return true if any of the given weights is NaN
+	 */
+	protected boolean containsNaN(Map<LaraPreference, Double> preferenceWeights) {
+		for (Double weight : preferenceWeights.values()) {
+			if (Double.isNaN(weight.doubleValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the scores of agents [from, to). Catalog rows are processed in
+	 * blocks of {@link #BLOCK_SIZE} such that a block stays in cache while it
+	 * is multiplied with the weights of all agents.
+	 * 
+	 * @param from
+	 * @param to
+	 */
+	protected void multiply(int from, int to) {
+		int numPrefs = catalog.preferences.length;
+		int numBos = catalog.getNumBos();
+		double[] utilities = catalog.utilities;
+		for (int blockStart = 0; blockStart < numBos; blockStart += BLOCK_SIZE) {
+			int blockEnd = Math.min(blockStart + BLOCK_SIZE, numBos);
+			for (int a = from; a < to; a++) {
+				int weightOffset = a * numPrefs;
+				int scoreOffset = a * numBos;
+				for (int i = blockStart; i < blockEnd; i++) {
+					int cell = i * numPrefs;
+					double sum = 0.0;
+					for (int j = 0; j < numPrefs; j++) {
+						sum += utilities[cell + j] * weights[weightOffset + j];
+					}
+					scores[scoreOffset + i] = sum / divisors[a];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the choice components in the order of agents. Deciders that are
+	 * not part of the batch decide individually.
+	 */
+	protected void select() {
+		int numBos = catalog == null ? 0 : catalog.getNumBos();
+		List<List<BO>> bos = new ArrayList<List<BO>>(batchDeciders.size());
+		for (LDeliberativeDecider<BO> decider : batchDeciders) {
+			bos.add(new ArrayList<BO>(decider.selectableBOs));
+		}
+
+		List<List<? extends BO>> selected = null;
+		// selection for the whole batch at once would alter the order of
+		// random draws if any agent decides individually:
+		if (!batchDeciders.isEmpty()
+				&& batchDeciders.size() == deciders.size() && isUniform()) {
+			selected = ((LaraScoreBasedChoiceComponent) batchDeciders.get(0).deliberativeChoiceComponent)
+					.getBatchKSelectedBos(dConfig, bos, scores,
+							batchDeciders.get(0).numToSelect);
+		}
+
+		// scratch array for selections per agent (deciders keep their slice
+		// of the score matrix by offset)
+		double[] agentScores = selected == null ? new double[numBos] : null;
+		int a = 0;
+		for (LaraDecider<BO> decider : deciders) {
+			if (a < batchDeciders.size() && decider == batchDeciders.get(a)) {
+				LDeliberativeDecider<BO> deliberativeDecider = batchDeciders
+						.get(a);
+				List<? extends BO> agentSelected;
+				if (selected != null) {
+					agentSelected = selected.get(a);
+				} else {
+					System.arraycopy(scores, a * numBos, agentScores, 0, numBos);
+					agentSelected = ((LaraScoreBasedChoiceComponent) deliberativeDecider.deliberativeChoiceComponent)
+							.getKSelectedBos(dConfig, bos.get(a), agentScores,
+									deliberativeDecider.numToSelect);
+				}
+				deliberativeDecider.setBatchResult(bos.get(a), scores, a
+						* numBos, agentSelected);
+				a++;
+			} else {
+				decider.decide();
+				if (decider instanceof LDeliberativeDecider) {
+					((LDeliberativeDecider<BO>) decider).setResultPending();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if all batch deciders share choice component and number
+	 *         of BOs to select
+	 */
+	protected boolean isUniform() {
+		LaraDeliberativeChoiceComponent comp = batchDeciders.get(0).deliberativeChoiceComponent;
+		int k = batchDeciders.get(0).numToSelect;
+		for (LDeliberativeDecider<BO> decider : batchDeciders) {
+			if (decider.deliberativeChoiceComponent != comp
+					|| decider.numToSelect != k) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
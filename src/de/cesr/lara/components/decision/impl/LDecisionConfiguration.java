@@ -19,13 +19,16 @@
  */
 package de.cesr.lara.components.decision.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.simpleframework.xml.Element;
 import org.simpleframework.xml.ElementList;
 
 import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
 
 /**
  * Creates instance of decision configuration for given set of preferences
@@ -44,6 +47,11 @@ public class LDecisionConfiguration implements LaraDecisionConfiguration {
 	@Element(required = false)
 	protected boolean singleSelectedBoExpected = false;
 
+	/**
+	 * Cached mask of preferences, reset when preferences are set
+	 */
+	protected long[] preferenceMask = null;
+
 	/**
 	 * The default id string
 	 */
@@ -72,7 +80,7 @@ public class LDecisionConfiguration implements LaraDecisionConfiguration {
 			@Element(name = "id", required = true) String id,
 			@ElementList(entry = "preference", inline = true, required = false) Collection<LaraPreference> preferences) {
 		this.id = id;
-		this.preferences = preferences;
+		this.preferences = copy(preferences);
 	}
 
 	/**
@@ -84,11 +92,15 @@ public class LDecisionConfiguration implements LaraDecisionConfiguration {
 	}
 
 	/**
+	 * Returns an unmodifiable view since the preference mask is cached. Use
+	 * {@link #setPreferences(Collection)} to change preferences.
+	 * 
 	 * @see de.cesr.lara.components.decision.LaraDecisionConfiguration#getPreferences()
 	 */
 	@Override
 	public Collection<LaraPreference> getPreferences() {
-		return preferences;
+		return preferences == null ? null : Collections
+				.unmodifiableCollection(preferences);
 	}
 
 	/**
@@ -96,7 +108,31 @@ public class LDecisionConfiguration implements LaraDecisionConfiguration {
 	 */
 	@Override
 	public void setPreferences(Collection<LaraPreference> preferences) {
-		this.preferences = preferences;
+		this.preferences = copy(preferences);
+		this.preferenceMask = null;
+	}
+
+	/**
+	 * The mask is cached and recomputed when preferences are set. Since the
+	 * mask only covers ordinals, users of the mask need to confirm a hit by
+	 * preference identity (see
+	 * {@link LPreferenceWeightMap#intersects(long[], Collection, boolean)}).
+	 * 
+	 * @see de.cesr.lara.components.decision.LaraDecisionConfiguration#getPreferenceMask()
+	 */
+	@Override
+	public long[] getPreferenceMask() {
+		if (preferenceMask == null) {
+			preferenceMask = preferences == null ? new long[0]
+					: LPreferenceWeightMap.getMask(preferences);
+		}
+		return preferenceMask;
+	}
+
+	private static Collection<LaraPreference> copy(
+			Collection<LaraPreference> preferences) {
+		return preferences == null ? null : new ArrayList<LaraPreference>(
+				preferences);
 	}
 
 	/**
@@ -22,18 +22,13 @@ package de.cesr.lara.components.decision.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import org.apache.log4j.Logger;
 
 import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.decision.LaraBoRow;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
-import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
 
@@ -43,8 +38,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * Tie Rule: In case there are more than one BOs with the highest score, the one with highest row number is returned.
  */
 public class LDeliberativeChoiceComp_MaxLineTotal
-		implements
-		LaraDeliberativeChoiceComponent {
+		extends
+		LAbstractScoreBasedChoiceComp {
 
 	/**
 	 * Logger
@@ -76,75 +71,71 @@ public class LDeliberativeChoiceComp_MaxLineTotal
 	 * Tie Rule: In case there are more than one BOs with the highest score, the one with highest row number (i.e. BO's
 	 * compareTo yields a higher value) is returned.
 	 * 
-	 * @see de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent#
-	 *      getKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration, java.util.Collection, int)
+	 * @see de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent#getKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.List, double[], int)
 	 */
 	@Override
 	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<BO> getKSelectedBos(
 			LaraDecisionConfiguration dConfiguration,
-			Collection<LaraBoRow<BO>> boRows,
+			final List<BO> bos,
+			final double[] scores,
 			int k) {
-		if (k > boRows
+		if (k > bos
 				.size()) {
 			throw new IllegalArgumentException(
 					"The number of rows in the laraBoRows is below the number of requested behavioural options");
 		}
 
-		List<BO> bos = new ArrayList<>();
+		List<BO> selected = new ArrayList<>();
 
-		if (k == boRows
+		if (k == bos
 				.size()) {
-			for (LaraBoRow<BO> row : boRows) {
-				bos.add(row
-						.getBehaviouralOption());
-			}
-			return bos;
+			selected.addAll(bos);
+			return selected;
 		}
 
 		if (k == 1) {
-			bos.add((this.getSelectedBo(dConfiguration, boRows)));
-			return bos;
+			selected.add((this.getSelectedBo(dConfiguration, bos, scores)));
+			return selected;
 		}
 
-		SortedSet<LaraBoRow<BO>> sortedRows = new TreeSet<>(
-				new Comparator<LaraBoRow<BO>>() {
-					@Override
-					public int compare(
-							LaraBoRow<BO> row1,
-							LaraBoRow<BO> row2) {
-						// parameters in Double.compare are exchanged since we
-						// want decreasing order
-						return Double
-								.compare(
-										row2.getSum(),
-										row1.getSum()) != 0 ? Double
-								.compare(
-										row2.getSum(),
-										row1.getSum())
-								: row2.getBehaviouralOption()
-										.compareTo(
-												row1.getBehaviouralOption());
-					}
-				});
-		sortedRows
-				.addAll(boRows);
+		LTopKSelector<BO> selector = getTopKSelector(k);
+		selector.offerAll(bos, scores);
+		selected = selector.getSelectedBos();
 
 		// <- LOGGING
-		if (logger
-				.isDebugEnabled()) {
-			logger.debug("Sorted rows: "
-					+ sortedRows);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Best rows: " + selected);
 		}
 		// LOGGING ->
 
-		Iterator<LaraBoRow<BO>> iterator = sortedRows
-				.iterator();
-		for (int i = 0; i < k; i++) {
-			bos.add(iterator
-					.next()
-					.getBehaviouralOption());
-		}
-		return bos;
+		return selected;
+	}
+
+	/**
+	 * Provides a selector for streams of (BO, score) pairs that applies the tie rule of
+	 * {@link #getKSelectedBos(LaraDecisionConfiguration, List, double[], int)} for 1 < k < n.
+	 * 
+	 * @param k
+	 *        number of BOs to select
+	 * @return new top-k selector
+	 */
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> LTopKSelector<BO> getTopKSelector(int k) {
+		return new LTopKSelector<BO>(k, null);
+	}
+
+	/**
+	 * @see de.cesr.lara.components.decision.impl.LAbstractScoreBasedChoiceComp#getKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.Collection, int)
+	 */
+	@Override
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<BO> getKSelectedBos(
+			LaraDecisionConfiguration dConfiguration,
+			Collection<LaraBoRow<BO>> boRows,
+			int k) {
+		List<BO> bos = new ArrayList<BO>(boRows.size());
+		double[] scores = getScores(boRows, bos);
+		return getKSelectedBos(dConfiguration, bos, scores, k);
 	}
 
 	/**
@@ -153,18 +144,18 @@ public class LDeliberativeChoiceComp_MaxLineTotal
 	 * Tie Rule: In case there are more than one BOs with the highest score, the one with highest row number is
 	 * returned.
 	 * 
-	 * @see de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent#getSelectedBo(de.cesr.lara.components.decision.LaraDecisionConfiguration,
-	 *      java.util.Collection)
+	 * @see de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent#getSelectedBo(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.List, double[])
 	 */
 	@Override
 	public <BO extends LaraBehaviouralOption<?, ? extends BO>> BO getSelectedBo(
 			LaraDecisionConfiguration dConfiguration,
-			Collection<LaraBoRow<BO>> boRows) {
+			List<BO> bos, double[] scores) {
 		// <- LOGGING
 		logger.info("Determine selected BO...");
 		// LOGGING ->
 
-		if (boRows
+		if (bos
 				.size() == 0) {
 			logger.error("The number of BOs passed to LDeliberativeChoiceComp_MaxLineTotal was 0!");
 		}
@@ -173,26 +164,28 @@ public class LDeliberativeChoiceComp_MaxLineTotal
 		double bestSum = Float.NEGATIVE_INFINITY;
 		double rSum = Float.NEGATIVE_INFINITY;
 
-		LaraBoRow<BO> bestRow = null;
-		for (LaraBoRow<BO> r : boRows) {
-			rSum = r.getSum();
+		int bestRow = -1;
+		for (int i = 0; i < bos.size(); i++) {
+			rSum = scores[i];
 			if (rSum >= bestSum) {
 				bestSum = rSum;
-				bestRow = r;
+				bestRow = i;
 			}
 			// <- LOGGING
-			logger.info("Score for "
-					+ r.getBehaviouralOption()
-							.getClass()
-							.getSimpleName()
-					+ ": "
-					+ rSum);
+			if (logger.isInfoEnabled()) {
+				logger.info("Score for "
+						+ bos.get(i)
+								.getClass()
+								.getSimpleName()
+						+ ": "
+						+ rSum);
+			}
 			// LOGGING ->
 		}
-		if (bestRow == null) {
+		if (bestRow < 0) {
 			throw new IllegalStateException("All row sums Float.NEGATIVE_INFINITY!");
 		} else {
-			return bestRow.getBehaviouralOption();
+			return bos.get(bestRow);
 		}
 	}
 }
@@ -20,13 +20,9 @@
 package de.cesr.lara.components.decision.impl;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import org.apache.log4j.Logger;
 import org.apache.log4j.Priority;
@@ -34,12 +30,13 @@ import org.apache.log4j.Priority;
 import cern.jet.random.AbstractDistribution;
 import cern.jet.random.Uniform;
 import de.cesr.lara.components.LaraBehaviouralOption;
-import de.cesr.lara.components.decision.LaraBoRow;
+import de.cesr.lara.components.agents.LaraAgent;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
-import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
 import de.cesr.lara.components.model.LaraModel;
+import de.cesr.lara.components.param.LBasicPa;
 import de.cesr.lara.components.util.LaraRandom;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+import de.cesr.parma.core.PmParameterManager;
 
 
 /**
@@ -47,8 +44,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * 
  * Tie Rule: In case there are more than one BOs with the highest score, a random one is chosen among these.
  */
-public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
-		LaraDeliberativeChoiceComponent {
+public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie extends
+		LAbstractScoreBasedChoiceComp {
 
 	/**
 	 * Logger
@@ -82,6 +79,8 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 
 	protected AbstractDistribution rand;
 
+	protected LaraModel lmodel;
+
 	/**
 	 * The distribution must be of type Uniform
 	 * 
@@ -90,6 +89,7 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 	 */
 	private LDeliberativeChoiceComp_MaxLineTotalRandomAtTie(LaraModel lmodel,
 			String distribution) {
+		this.lmodel = lmodel;
 		this.rand = lmodel.getLRandom().getDistribution(distribution);
 		if (!(rand instanceof Uniform)) {
 			logger.error("The given random stream name does not belong to a Uniform distribution!");
@@ -104,8 +104,10 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 	 * Tie Rule: In case there are more than one BOs with the highest score, a
 	 * random one is chosen among these.
 	 * 
-	 * @param boRows
-	 *            collection of {@link LaraBoRow}s to select from
+	 * @param bos
+	 *            behavioural options to select from
+	 * @param scores
+	 *            score (row sum) for each behavioural option
 	 * @param k
 	 *            number of (best) BOs to select
 	 * @return a set of k best behavioural option (regarding row sum)
@@ -113,20 +115,20 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 	@Override
 	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<? extends BO> getKSelectedBos(
 			LaraDecisionConfiguration dConfiguration,
-			Collection<LaraBoRow<BO>> boRows, int k) {
+			final List<BO> bos, final double[] scores, int k) {
 		// <- LOGGING
 		if (logger.isDebugEnabled()) {
-			for (LaraBoRow<BO> row : boRows) {
-				logger.debug("\t\t row: " + row.getBehaviouralOption().getKey());
+			for (BO bo : bos) {
+				logger.debug("\t\t row: " + bo.getKey());
 			}
 		}
 		// LOGGING ->
 
-		if (k > boRows.size()) {
+		if (k > bos.size()) {
 			// <- LOGGING
 			if (logger.isDebugEnabled()) {
 				logger.debug("k (" + k + ") greater than the number of rows: "
-						+ boRows.size());
+						+ bos.size());
 				// LOGGING ->
 			}
 
@@ -134,121 +136,66 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 					"The number of rows in the laraBoRows is below the number of requested BOs");
 		}
 
-		List<BO> bos = new ArrayList<>();
+		List<BO> selected = new ArrayList<>();
 
 		if (k == 1) {
-			bos.add((this.getSelectedBo(dConfiguration, boRows)));
-			return bos;
-		}
-
-		// add rows to a sorted set:
-		SortedSet<LaraBoRow<BO>> rows = new TreeSet<>(
-				new Comparator<LaraBoRow<BO>>() {
-					@Override
-					public int compare(LaraBoRow<BO> row1, LaraBoRow<BO> row2) {
-						return Double.compare(row2.getSum(), row1.getSum()) != 0 ? Double
-								.compare(row2.getSum(), row1.getSum()) :
-						// same sum: compare according to key names:
-								row2.getBehaviouralOption().compareTo(
-										row1.getBehaviouralOption());
-					}
-				});
-		rows.addAll(boRows);
-
-		if (k == boRows.size()) {
-			for (LaraBoRow<BO> row : rows) {
-				bos.add(row.getBehaviouralOption());
-			}
-
-			// <- LOGGING
-			if (logger.isDebugEnabled()) {
-				logger.debug("k: " + k + " / number of available rows: "
-						+ rows.size() + " rows: " + rows);
-				for (LaraBoRow<BO> row : rows) {
-					logger.debug("\t\t row: "
-							+ row.getBehaviouralOption().getKey());
-				}
-			}
-			// LOGGING ->
-
-			return bos;
+			selected.add((this.getSelectedBo(dConfiguration, bos, scores)));
+			return selected;
 		}
 
-		assert (k < boRows.size());
-
-		@SuppressWarnings("unchecked")
-		// rows only consist of LaraBoRow<BO>s!
-		LaraBoRow<BO>[] arrayRows = new LaraBoRow[rows.size()];
-		// arrayRows = sorted BOs in ascending order:
-		arrayRows = rows.toArray(arrayRows);
+		LTopKSelector<BO> selector = getTopKSelector(k, dConfiguration,
+				bos.get(0).getAgent());
+		selector.offerAll(bos, scores);
+		selected = selector.getSelectedBos();
 
 		// <- LOGGING
 		if (logger.isDebugEnabled()) {
 			logger.debug("k: " + k + " / number of available rows: "
-					+ rows.size() + " rows: " + rows + " array size: "
-					+ arrayRows.length);
-			for (LaraBoRow<BO> row : rows) {
-				logger.debug("\t\t row: " + row.getBehaviouralOption().getKey());
-			}
+					+ bos.size() + " bos: " + selected);
 		}
 		// LOGGING ->
 
-		// check whether the a row outside the requested range has same sum than
-		// the last row inside the range:
-		if (arrayRows[k - 1].getSum() == arrayRows[k].getSum()) {
-			// the last row in selected range is equal to the first row outside
-			// the selected range
-
-			// choose the rows with the same sum as the last in the selected
-			// range:
-			int numSameSum = 0;
-			int numWithinRange = 0;
-			List<LaraBoRow<BO>> bestBos = new ArrayList<LaraBoRow<BO>>();
-			for (int i = 0; i < rows.size(); i++) {
-				if (arrayRows[i].getSum() == arrayRows[k - 1].getSum()) {
-					bestBos.add(arrayRows[i]);
-					numSameSum++;
-					// check whether there are more rows with best sum than k
-					// (the number of rows that is requested):
-					if (i < k) {
-						numWithinRange++;
-					}
-				}
-			}
-			// add behavioural options within range that have different sum
-			// (i.e. higher sum):
-			for (int i = 0; i < (k - numWithinRange); i++) {
-				bos.add(arrayRows[i].getBehaviouralOption());
-			}
-
-			assert numWithinRange <= numSameSum;
-
-			// add remaining BOs from all BOs with same sum:
-			for (int i = 0; i < numWithinRange; i++) {
-				// -i because the size of bestBos decreases!
-				int random = ((Uniform) rand).nextIntFromTo(0, numSameSum - i
-						- 1);
-				bos.add(bestBos.get(random).getBehaviouralOption());
+		return selected;
+	}
 
-				// <- LOGGING
-				if (logger.isDebugEnabled()) {
-					logger.debug("random: " + random);
-				}
-				// LOGGING ->
+	/**
+	 * Provides a selector for streams of (BO, score) pairs that applies the
+	 * tie rule of
+	 * {@link #getKSelectedBos(LaraDecisionConfiguration, List, double[], int)}
+	 * for k > 1 and draws from the distribution provided by
+	 * {@link #getUniform(LaraDecisionConfiguration, LaraAgent)}.
+	 * 
+	 * @param k
+	 *            number of BOs to select
+	 * @param dConfiguration
+	 * @param agent
+	 *            the deciding agent
+	 * @return new top-k selector
+	 */
+	public <BO extends LaraBehaviouralOption<?, ? extends BO>> LTopKSelector<BO> getTopKSelector(
+			int k, LaraDecisionConfiguration dConfiguration,
+			LaraAgent<?, ?> agent) {
+		return new LTopKSelector<BO>(k, getUniform(dConfiguration, agent));
+	}
 
-				bestBos.remove(random);
-			}
-			// <- LOGGING
-			if (logger.isDebugEnabled()) {
-				logger.debug("number of bos: " + bos.size() + " bos: " + bos);
-			}
-			// LOGGING ->
-		} else {
-			for (int i = 0; i < k; i++) {
-				bos.add(arrayRows[i].getBehaviouralOption());
-			}
+	/**
+	 * @param dConfiguration
+	 * @param agent
+	 *            the deciding agent
+	 * @return the agent's tie breaking stream for the current step if
+	 *         {@link LBasicPa#RANDOM_AGENT_STREAMS} is set, the shared
+	 *         distribution otherwise
+	 */
+	protected Uniform getUniform(LaraDecisionConfiguration dConfiguration,
+			LaraAgent<?, ?> agent) {
+		if (((Boolean) PmParameterManager
+				.getParameter(LBasicPa.RANDOM_AGENT_STREAMS)).booleanValue()) {
+			return lmodel.getLRandom().getAgentUniform(agent.getAgentId(),
+					lmodel.getCurrentStep(),
+					(dConfiguration == null ? "" : dConfiguration.getId())
+							+ "#tie");
 		}
-		return bos;
+		return (Uniform) rand;
 	}
 
 	/**
@@ -257,58 +204,56 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 	 * Tie Rule: In case there are more than one BOs with the highest score, a
 	 * random one is chosen among these.
 	 * 
-	 * @see de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent#getSelectedBo(LaraDecisionConfiguration,
-	 *      Collection)
+	 * @see de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent#getSelectedBo(LaraDecisionConfiguration,
+	 *      List, double[])
 	 */
 	@Override
 	public <BO extends LaraBehaviouralOption<?, ? extends BO>> BO getSelectedBo(
-			LaraDecisionConfiguration dConfiguration,
-			Collection<LaraBoRow<BO>> boRows) {
+			LaraDecisionConfiguration dConfiguration, List<BO> bos,
+			double[] scores) {
 		// <- LOGGING
 		logger.info("Get selected BO for " + dConfiguration);
 		// LOGGING ->
 
-		if (boRows.size() == 0) {
+		if (bos.size() == 0) {
 			throw new IllegalStateException(
 					"The laraBoRows does not contain any row to choose from!");
 
 		} else {
-			List<LaraBoRow<BO>> bestBos = new ArrayList<LaraBoRow<BO>>();
+			List<BO> bestBos = new ArrayList<BO>();
 			double bestSum = Float.NEGATIVE_INFINITY;
 			double rSum = 0;
-			for (LaraBoRow<BO> r : boRows) {
+			for (int i = 0; i < bos.size(); i++) {
+				rSum = scores[i];
 
 				// <- LOGGING
 				if (logger.isDebugEnabled()) {
-					logger.debug("Row-sum: " + r.getSum());
+					logger.debug("Row-sum: " + rSum);
 				}
 				// LOGGING ->
 
-				if (Double.isNaN(r.getSum())) {
+				if (Double.isNaN(rSum)) {
 					// <- LOGGING
-					logger.error("BoRow sum is NaN for BO "
-							+ r.getBehaviouralOption());
+					logger.error("BoRow sum is NaN for BO " + bos.get(i));
 					// LOGGING ->
 
 					throw new IllegalStateException("BoRow sum is NaN for BO "
-							+ r.getBehaviouralOption());
+							+ bos.get(i));
 				}
 
-				rSum = r.getSum();
 				if (rSum >= bestSum) {
 					if (rSum == bestSum) {
-						bestBos.add(r);
+						bestBos.add(bos.get(i));
 					} else {
 						bestBos.clear();
 						bestSum = rSum;
-						bestBos.add(r);
+						bestBos.add(bos.get(i));
 					}
 				}
 				// <- LOGGING
 				if (logger.isEnabledFor(Priority.INFO)) {
-					logger.info("Score for "
-							+ r.getBehaviouralOption().toShortString() + ": "
-							+ rSum);
+					logger.info("Score for " + bos.get(i).toShortString()
+							+ ": " + rSum);
 				}
 				// LOGGING ->
 			}
@@ -316,20 +261,19 @@ public class LDeliberativeChoiceComp_MaxLineTotalRandomAtTie implements
 			if (bestBos.size() == 1) {
 				// <- LOGGING
 				logger.info("There is one BO with highest score ("
-						+ bestBos.get(0).getBehaviouralOption().toShortString()
-						+ ")");
+						+ bestBos.get(0).toShortString() + ")");
 				// LOGGING ->
 
-				return bestBos.get(0).getBehaviouralOption();
+				return bestBos.get(0);
 			} else {
 				// <- LOGGING
 				logger.info("There are " + bestBos.size()
 						+ " BOs with highest score.");
 				// LOGGING ->
 
-				return bestBos.get(
-						((Uniform) rand).nextIntFromTo(0, bestBos.size() - 1))
-						.getBehaviouralOption();
+				return bestBos.get(getUniform(dConfiguration,
+						bestBos.get(0).getAgent()).nextIntFromTo(0,
+						bestBos.size() - 1));
 			}
 		}
 	}
@@ -20,24 +20,20 @@
 package de.cesr.lara.components.decision.impl;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
 
 import cern.jet.random.AbstractDistribution;
 import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.agents.LaraAgent;
-import de.cesr.lara.components.decision.LaraBoRow;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
-import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
 import de.cesr.lara.components.model.LaraModel;
 import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.components.param.LBasicPa;
 import de.cesr.lara.components.util.logging.impl.LAgentLevel;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+import de.cesr.parma.core.PmParameterManager;
 
 
 /**
@@ -51,14 +47,17 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * 
  * In case of a single BO or if (k == number of available BOs) the process is accelerated by directly choosing this BO.
  * 
+ * Ranges are computed once per decision (see {@link LRouletteWheel}) and only recomputed when the removal of a
+ * selected BO changes the shift.
+ * 
  * @author Daniel Klemm
  * @author Sascha Holzhauer
  * 
  * @date 05.02.2010
  * 
  */
-public class LDeliberativeChoiceComp_Probabilistic implements
-		LaraDeliberativeChoiceComponent {
+public class LDeliberativeChoiceComp_Probabilistic extends
+		LAbstractScoreBasedChoiceComp {
 
 	/**
 	 * logger
@@ -100,60 +99,42 @@ public class LDeliberativeChoiceComp_Probabilistic implements
 	}
 
 	/**
-	 * NOTE: The given Collection of {@link LaraBoRow}s is altered!
-	 * 
-	 * @see de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent#getKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration,
-	 *      java.util.Collection, int)
+	 * @see de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent#getKSelectedBos(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.List, double[], int)
 	 */
 	@Override
 	public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<? extends BO> getKSelectedBos(
-			LaraDecisionConfiguration dConfig,
-			Collection<LaraBoRow<BO>> boRows, int k) {
+			LaraDecisionConfiguration dConfig, List<BO> bos, double[] scores,
+			int k) {
 
 		// <- LOGGING
 		if (logger.isDebugEnabled()) {
-			for (LaraBoRow<BO> row : boRows) {
-				logger.debug("\t\t row: " + row.getBehaviouralOption().getKey());
+			for (BO bo : bos) {
+				logger.debug("\t\t row: " + bo.getKey());
 			}
 		}
 		// LOGGING ->
 
-		if (boRows.size() == 0) {
+		if (bos.size() == 0) {
 			throw new IllegalStateException(
 					"The collection does not contain any BO to choose from!");
 		}
 
-		// init agent specific logger (agent id is first part of logger name):
-		LaraAgent<?, ?> agent = boRows.iterator().next().getBehaviouralOption()
-				.getAgent();
-
-		// <- LOGGING
-		if (Log4jLogger
-				.getLogger(
-						agent.getAgentId()
-								+ "."
-								+ LDeliberativeChoiceComp_Probabilistic.class
-										.getName()).isEnabledFor(
-						LAgentLevel.AGENT)) {
-			agentLogger = Log4jLogger.getLogger(agent.getAgentId() + "."
-					+ LDeliberativeChoiceComp_Probabilistic.class.getName());
-		}
-		// LOGGING ->
+		LaraAgent<?, ?> agent = bos.get(0).getAgent();
+		initAgentLogger(agent);
 
 		List<BO> selectedBos = new ArrayList<>();
 
-		if (k == boRows.size()) {
-			for (LaraBoRow<BO> row : boRows) {
-				selectedBos.add(row.getBehaviouralOption());
-			}
+		if (k == bos.size()) {
+			selectedBos.addAll(bos);
 			return selectedBos;
 		}
 
-		if (k > boRows.size()) {
+		if (k > bos.size()) {
 			// <- LOGGING
 			if (logger.isDebugEnabled()) {
 				logger.debug("k (" + k + ") greater than number of rows: "
-						+ boRows.size());
+						+ bos.size());
 				// LOGGING ->
 			}
 
@@ -161,32 +142,63 @@ public class LDeliberativeChoiceComp_Probabilistic implements
 					"The number of rows in the laraBoRows is below the number of requested BOs");
 		}
 
+		LRouletteWheel wheel = new LRouletteWheel(scores, eta);
+		AbstractDistribution random = getDistribution(dConfig, agent);
 		for (int i = 0; i < k; i++) {
-			// <- LOGGING
-			logger.info("BORows: " + boRows);
-			// LOGGING ->
-			LaraBoRow<BO> selected = this.selectProbabilistic(dConfig, boRows,
-					agent);
-			selectedBos.add(selected.getBehaviouralOption());
-			boRows.remove(selected);
+			int selected = this.selectProbabilistic(dConfig, bos, wheel, agent,
+					random);
+			selectedBos.add(bos.get(selected));
+			wheel.remove(selected);
 		}
 
 		return selectedBos;
 	}
 
+	/**
+	 * @see de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent#getSelectedBo(de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      java.util.List, double[])
+	 */
 	@Override
 	public <BO extends LaraBehaviouralOption<?, ? extends BO>> BO getSelectedBo(
-			LaraDecisionConfiguration dConfig, Collection<LaraBoRow<BO>> boRows) {
+			LaraDecisionConfiguration dConfig, List<BO> bos, double[] scores) {
 
-		if (boRows.size() == 0) {
+		if (bos.size() == 0) {
 			throw new IllegalStateException(
 					"The collection does not contain any BO to choose from!");
 		}
 
-		// init agent specific logger (agent id is first part of logger name):
-		LaraAgent<?, ?> agent = boRows.iterator().next().getBehaviouralOption()
-				.getAgent();
+		LaraAgent<?, ?> agent = bos.get(0).getAgent();
+		initAgentLogger(agent);
+
+		return bos.get(selectProbabilistic(dConfig, bos, new LRouletteWheel(
+				scores, eta), agent, getDistribution(dConfig, agent)));
+	}
+
+	/**
+	 * @param dConfig
+	 * @param agent
+	 *            the deciding agent
+	 * @return the agent's probabilistic choice stream for the current step if
+	 *         {@link LBasicPa#RANDOM_AGENT_STREAMS} is set, the component's
+	 *         distribution otherwise
+	 */
+	protected AbstractDistribution getDistribution(
+			LaraDecisionConfiguration dConfig, LaraAgent<?, ?> agent) {
+		if (((Boolean) PmParameterManager
+				.getParameter(LBasicPa.RANDOM_AGENT_STREAMS)).booleanValue()) {
+			return lmodel.getLRandom().getAgentUniform(agent.getAgentId(),
+					lmodel.getCurrentStep(),
+					(dConfig == null ? "" : dConfig.getId()) + "#probabilistic");
+		}
+		return rand;
+	}
 
+	/**
+	 * Init agent specific logger (agent id is first part of logger name).
+	 * 
+	 * @param agent
+	 */
+	protected void initAgentLogger(LaraAgent<?, ?> agent) {
 		// <- LOGGING
 		if (Log4jLogger
 				.getLogger(
@@ -199,110 +211,77 @@ public class LDeliberativeChoiceComp_Probabilistic implements
 					+ LDeliberativeChoiceComp_Probabilistic.class.getName());
 		}
 		// LOGGING ->
-
-		return selectProbabilistic(dConfig, boRows, agent)
-				.getBehaviouralOption();
 	}
 
 	/**
 	 * @param <BO>
 	 * @param dConfig
-	 * @param boRows
+	 * @param bos
+	 * @param wheel
+	 *            roulette wheel of the remaining BOs
 	 * @param agent
+	 * @param random
+	 *            distribution to draw from
+	 * @return index of the selected BO
 	 */
-	protected <BO extends LaraBehaviouralOption<?, ? extends BO>> LaraBoRow<BO> selectProbabilistic(
-			LaraDecisionConfiguration dConfig,
-			Collection<LaraBoRow<BO>> boRows, LaraAgent<?, ?> agent) {
+	protected <BO extends LaraBehaviouralOption<?, ? extends BO>> int selectProbabilistic(
+			LaraDecisionConfiguration dConfig, List<BO> bos,
+			LRouletteWheel wheel, LaraAgent<?, ?> agent,
+			AbstractDistribution random) {
+
+		int numRows = wheel.getNumRemaining();
 
 		// accelerate the process in case of a single BO to select from:
-		if (boRows.size() == 1) {
-			LaraBoRow<BO> selected = boRows.iterator().next();
+		if (numRows == 1) {
+			int selected = wheel.getRemaining(0);
 			if (agentLogger != null) {
-				agentLogger.debug(agent + "> selected: "
-						+ selected.getBehaviouralOption());
+				agentLogger.debug(agent + "> selected: " + bos.get(selected));
 			}
 			return selected;
 		}
 
-		double u_eta;
-		double u_eta_sum = 0.0;
-
-		double overall_utility = 0.0f;
-
-		boolean containsAllZero = true;
-		boolean sameNegative = true;
-
-		double minValue = 0.0d;
-		double lastValue = Double.NaN;
-
-		Map<LaraBoRow<BO>, Double> roulette_wheel = new LinkedHashMap<LaraBoRow<BO>, Double>();
-
-		// check for negative utility sums:
-		for (LaraBoRow<BO> r : boRows) {
-			overall_utility = r.getSum();
-			minValue = minValue > overall_utility ? overall_utility : minValue;
-			if (overall_utility != 0.0) {
-				containsAllZero = false;
-				if (!Double.isNaN(lastValue) && (lastValue >= 0 || lastValue != overall_utility)) {
-					sameNegative = false;
-				}
-			}
-			lastValue = overall_utility;
-		}
-
-		// select a BO at random in case all BO's have utility 0:
-		if (containsAllZero || sameNegative) {
+		// select a BO at random in case all BO's have utility 0 or the same
+		// negative utility:
+		if (wheel.isUniform()) {
 			// <- LOGGING
-			if (logger.isDebugEnabled() && containsAllZero) {
-				logger.debug("All utility sums equal 0.0! Select random BO.");
-			}
-			if (logger.isDebugEnabled() && sameNegative) {
-				logger.debug("All utility sums are of the same negative value! Select random BO.");
+			if (logger.isDebugEnabled()) {
+				logger.debug("All utility sums equal 0.0 or are of the same negative value! Select random BO.");
 			}
 			// LOGGING ->
 
-			double randomNum = rand.nextDouble();
+			double randomNum = random.nextDouble();
 			if (randomNum < 0.0 || randomNum > 1.0) {
-				throw new IllegalStateException(rand
+				throw new IllegalStateException(random
 						+ "> Make sure min = 0.0 and max = 1.0");
 			}
-			
+			int selected = wheel.getRemaining((int) (numRows * randomNum));
+
 			// <- LOGGING
 			if (agentLogger != null) {
 				agentLogger.debug(agent + "> selected: "
-						+ new ArrayList<LaraBoRow<BO>>(boRows).get((int) (boRows.size() * randomNum)) + 
-						" (Index:" + (int) (boRows.size() * randomNum) + ")");
+						+ bos.get(selected) + " (Index:" + selected + ")");
 			}
 			if (logger.isDebugEnabled()) {
 				logger.debug(agent + "> selected: "
-						+ new ArrayList<LaraBoRow<BO>>(boRows).get((int) (boRows.size() * randomNum)) +
-						" (Index:" + (int) (boRows.size() * randomNum) + ")");
+						+ bos.get(selected) + " (Index:" + selected + ")");
 			}
 			// LOGGING ->
 
-			return new ArrayList<LaraBoRow<BO>>(boRows).get((int) (boRows
-					.size() * randomNum));
+			return selected;
 		}
 
-		if (minValue < 0.0) {
+		if (wheel.getMinValue() < 0.0) {
 			// <- LOGGING
-			logger.info("Shift utility sums to positive range by " + minValue);
+			logger.info("Shift utility sums to positive range by "
+					+ wheel.getMinValue());
 			// LOGGING ->
 		}
 
-		for (LaraBoRow<BO> r : boRows) {
-			// shift to positive range:
-			overall_utility = r.getSum()
-					+ (minValue < 0.0 ? Math.abs(minValue) : 0.0);
+		double u_eta_sum = wheel.getTotalRange();
 
-			u_eta = Math.pow(overall_utility, eta);
-			u_eta_sum += u_eta;
-			roulette_wheel.put(r, u_eta);
-		}
-
-		double randFloat = rand.nextDouble();
+		double randFloat = random.nextDouble();
 		if (randFloat < 0.0 || randFloat > 1.0) {
-			throw new IllegalStateException(rand
+			throw new IllegalStateException(random
 					+ "> Make sure min = 0.0 and max = 1.0");
 		}
 
@@ -317,30 +296,17 @@ public class LDeliberativeChoiceComp_Probabilistic implements
 		}
 		// LOGGING ->
 
-		randFloat *= u_eta_sum;
-
-		// TODO check double/float?
-		float pointer = 0.0f;
-
-		// NOTE: For of BO's hash code that does not depend on an internal
-		// object address, for instance, a HashMap
-		// works and and produces comparable results:
-		for (Entry<LaraBoRow<BO>, Double> entry : roulette_wheel.entrySet()) {
-			pointer += entry.getValue().doubleValue();
-			if (pointer >= randFloat) {
-				// <- LOGGING
-				if (agentLogger != null) {
-					agentLogger.debug(agent + "> selected: " + entry.getKey());
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug(agent + "> selected: " + entry.getKey());
-				}
-				// LOGGING ->
+		int selected = wheel.select(randFloat * u_eta_sum);
 
-				return entry.getKey();
-			}
+		// <- LOGGING
+		if (agentLogger != null) {
+			agentLogger.debug(agent + "> selected: " + bos.get(selected));
 		}
-		logger.warn("This code should never be reached!");
-		throw new AssertionError("This code should never be reached!");
+		if (logger.isDebugEnabled()) {
+			logger.debug(agent + "> selected: " + bos.get(selected));
+		}
+		// LOGGING ->
+
+		return selected;
 	}
 }
@@ -24,7 +24,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,7 +38,9 @@ import de.cesr.lara.components.decision.LaraDecisionMode;
 import de.cesr.lara.components.decision.LaraDecisionModes;
 import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
 import de.cesr.lara.components.decision.LaraDeliberativeDecider;
+import de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent;
 import de.cesr.lara.components.decision.LaraScoreReportingDecider;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
 
@@ -90,6 +91,33 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 
 	protected List<LaraBoRow<BO>> situationalUtilityMatrixRows;
 
+	/**
+	 * Used instead of {@link #situationalUtilityMatrixRows} when the
+	 * deliberative choice component is a {@link LaraScoreBasedChoiceComponent}
+	 * and row inspection is disabled. Resolved once for the given preference
+	 * weights.
+	 */
+	protected LUtilityMatrix<BO> utilityMatrix;
+
+	/**
+	 * Behavioural options and scores assigned by a batch deliberation (see
+	 * {@link LBatchDeliberation}).
+	 */
+	protected List<BO> batchBos;
+
+	/**
+	 * Scores of the whole batch; the scores of this decider's BOs start at {@link #batchScoresOffset}
+	 */
+	protected double[] batchScores;
+
+	protected int batchScoresOffset;
+
+	/**
+	 * True if a result has been assigned or computed by a batch deliberation that the next call of {@link #decide()}
+	 * keeps instead of deciding again
+	 */
+	protected boolean batchResultPending = false;
+
 	protected int numToSelect = 1;
 
 	protected boolean neutralisePeferenceWeights = false;
@@ -120,7 +148,14 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	 */
 	@Override
 	public void decide() {
+		if (batchResultPending) {
+			// decided by LBatchDeliberation ahead of the agent's decide phase
+			batchResultPending = false;
+			return;
+		}
 		selectedBos.clear();
+		batchBos = null;
+		batchScores = null;
 
 		// <-- LOGGING
 		if (selectableBOs.size() > 0) {
@@ -130,6 +165,11 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 		}
 		// LOGGING -->
 
+		if (!rowLogger.isDebugEnabled()
+				&& getDeliberativeChoiceComp() instanceof LaraScoreBasedChoiceComponent) {
+			decideByUtilityMatrix();
+			return;
+		}
 		situationalUtilityMatrixRows = new ArrayList<LaraBoRow<BO>>();
 
 		// <- LOGGING
@@ -246,6 +286,59 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 		// LOGGING ->
 	}
 
+	/**
+	 * Computes the row sums in a dense {@link LUtilityMatrix} and passes them
+	 * to the {@link LaraScoreBasedChoiceComponent}.
+	 */
+	protected void decideByUtilityMatrix() {
+		situationalUtilityMatrixRows = null;
+		if (utilityMatrix == null) {
+			utilityMatrix = new LUtilityMatrix<BO>(this.preferenceWeights);
+		}
+		utilityMatrix.compute(selectableBOs, this.neutralisePeferenceWeights);
+
+		assert selectedBos.size() == 0;
+		selectedBos.addAll(((LaraScoreBasedChoiceComponent) getDeliberativeChoiceComp()).getKSelectedBos(
+				dConfiguration, utilityMatrix.getBos(), utilityMatrix.getScores(), numToSelect));
+
+		// <- LOGGING
+		if (logger.isInfoEnabled()) {
+			logger.info("Post decide > SituationalMatrix: " + utilityMatrix);
+		}
+		// LOGGING ->
+	}
+
+	/**
+	 * Applies the result of a {@link LBatchDeliberation} as if this decider
+	 * had decided itself. The next call of {@link #decide()} keeps this result
+	 * unless selectable BOs or preference weights are set before.
+	 * 
+	 * @param bos
+	 *            behavioural options in score order
+	 * @param scores
+	 *            scores of the whole batch (not copied)
+	 * @param offset
+	 *            index of the score of the first of the given BOs
+	 * @param selected
+	 */
+	void setBatchResult(List<BO> bos, double[] scores, int offset, List<? extends BO> selected) {
+		situationalUtilityMatrixRows = null;
+		batchBos = bos;
+		batchScores = scores;
+		batchScoresOffset = offset;
+		batchResultPending = true;
+		selectedBos.clear();
+		selectedBos.addAll(selected);
+	}
+
+	/**
+	 * Lets the next call of {@link #decide()} keep the current result. Used by {@link LBatchDeliberation} for
+	 * deciders that decided individually.
+	 */
+	void setResultPending() {
+		batchResultPending = true;
+	}
+
 	/******************************************************************************
 	 * HELPER METHODS
 	 ******************************************************************************/
@@ -256,6 +349,9 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	 */
 	@Override
 	public int getNumSelectableBOs() {
+		if (situationalUtilityMatrixRows == null) {
+			return batchScores != null ? batchBos.size() : utilityMatrix.getNumBos();
+		}
 		return situationalUtilityMatrixRows
 				.size();
 	}
@@ -265,11 +361,14 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	 ******************************************************************************/
 
 	/**
+	 * The returned map is an unmodifiable view since the utility matrix is built from the weights. Use
+	 * {@link #setPreferenceWeights(Map)} to change them.
+	 * 
 	 * @see de.cesr.lara.components.decision.LaraDeliberativeDecider#getPreferenceWeights()
 	 */
 	@Override
 	public Map<LaraPreference, Double> getPreferenceWeights() {
-		return preferenceWeights;
+		return preferenceWeights == null ? null : Collections.unmodifiableMap(preferenceWeights);
 	}
 
 	/**
@@ -310,7 +409,9 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	 */
 	@Override
 	public void setPreferenceWeights(Map<LaraPreference, Double> preferences) {
-		this.preferenceWeights = new LinkedHashMap<LaraPreference, Double>();
+		this.preferenceWeights = new LPreferenceWeightMap();
+		this.utilityMatrix = null;
+		this.batchResultPending = false;
 		for (Entry<LaraPreference, Double> entry : preferences.entrySet()) {
 			if (this.dConfiguration.getPreferences().contains(entry.getKey())) {
 				this.preferenceWeights.put(entry.getKey(), entry.getValue());
@@ -332,6 +433,7 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	@Override
 	public void setSelectableBos(Collection<BO> behaviouralOptions) {
 		this.selectableBOs = behaviouralOptions;
+		this.batchResultPending = false;
 
 		// <- LOGGING
 		logger.info(behaviouralOptions != null ? "Received " + behaviouralOptions.size() + " behavioural option(s)"
@@ -399,6 +501,14 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	 * @see de.cesr.lara.components.decision.LaraScoreReportingDecider#getScore(de.cesr.lara.components.LaraBehaviouralOption)
 	 */
 	public double getScore(BO bo) {
+		if (situationalUtilityMatrixRows == null) {
+			if (batchScores != null) {
+				int row = batchBos.indexOf(bo);
+				return row < 0 ? Double.NaN : batchScores[batchScoresOffset + row];
+			}
+			int row = utilityMatrix.indexOf(bo);
+			return row < 0 ? Double.NaN : utilityMatrix.getScore(row);
+		}
 		for (LaraBoRow<BO> r : this.situationalUtilityMatrixRows) {
 			if (r.getBehaviouralOption().equals(bo))
 				return r.getSum();
@@ -411,6 +521,13 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 	 *      de.cesr.lara.components.LaraPreference)
 	 */
 	public double getScore(BO bo, LaraPreference pref) {
+		if (situationalUtilityMatrixRows == null) {
+			if (batchScores != null) {
+				return batchBos.contains(bo) ? getBatchIndividualUtilityValue(bo, pref) : Double.NaN;
+			}
+			int row = utilityMatrix.indexOf(bo);
+			return row < 0 ? Double.NaN : utilityMatrix.getIndividualUtilityValue(row, pref);
+		}
 		for (LaraBoRow<BO> r : this.situationalUtilityMatrixRows) {
 			if (r.getBehaviouralOption().equals(bo))
 				return r.getIndividualUtilityValue(pref);
@@ -418,6 +535,29 @@ public class LDeliberativeDecider<BO extends LaraBehaviouralOption<?, ? extends
 		return Double.NaN;
 	}
 
+	/**
+	 * @param bo
+	 * @param pref
+	 * @return weighted utility of the given BO as computed by a batch
+	 *         deliberation or {@link Double#NaN} if the preference is not
+	 *         considered
+	 */
+	protected double getBatchIndividualUtilityValue(BO bo, LaraPreference pref) {
+		if (!isGoalConsidered(pref)) {
+			return Double.NaN;
+		}
+		double utility = bo.getUtility(pref);
+		double value = (Double.isNaN(utility) ? 0.0 : utility) * getPreferenceForGoal(pref);
+		if (this.neutralisePeferenceWeights) {
+			double averageWeight = 0.0;
+			for (Double weight : this.preferenceWeights.values()) {
+				averageWeight += weight.doubleValue();
+			}
+			value /= averageWeight / this.preferenceWeights.size();
+		}
+		return value;
+	}
+
 	/**
 	 * @see de.cesr.lara.components.decision.LaraDecider#getSelectedBos()
 	 */
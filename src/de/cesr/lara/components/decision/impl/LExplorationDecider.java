@@ -26,15 +26,18 @@ import java.util.List;
 
 import org.apache.log4j.Logger;
 
+import cern.jet.random.Uniform;
 import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.agents.LaraAgent;
 import de.cesr.lara.components.decision.LaraDecider;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.LaraDecisionMode;
 import de.cesr.lara.components.decision.LaraDecisionModes;
+import de.cesr.lara.components.param.LBasicPa;
 import de.cesr.lara.components.util.LaraRandom;
 import de.cesr.lara.components.util.logging.impl.LAgentLevel;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+import de.cesr.parma.core.PmParameterManager;
 
 
 /**
@@ -83,8 +86,12 @@ public class LExplorationDecider<A extends LaraAgent<A, BO>, BO extends LaraBeha
 	public void decide() {
 		this.bos.clear();
 
+		Uniform uniform = ((Boolean) PmParameterManager.getParameter(LBasicPa.RANDOM_AGENT_STREAMS)).booleanValue()
+				? random.getAgentUniform(agent.getAgentId(), agent.getLaraComp().getLaraModel().getCurrentStep(),
+						dConfiguration.getId() + "#exploration")
+				: random.getUniform();
 		int randomBOnum =
-				random.getUniform().nextIntFromTo(0,
+				uniform.nextIntFromTo(0,
 						agent.getLaraComp().getDecisionData(dConfiguration).getBos().size() - 1);
 		// TODO switch to BO lists
 		this.bos.add(new ArrayList<BO>(agent.getLaraComp().getDecisionData(dConfiguration).getBos()).get(randomBOnum));
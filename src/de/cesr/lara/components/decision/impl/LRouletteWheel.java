@@ -0,0 +1,250 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.decision.impl;
+
+/**
+ * Roulette wheel for drawing behavioural options without replacement
+ * according to their scores. The range of an option is its score to the
+ * power of eta, after scores have been shifted to the positive range by the
+ * lowest (negative) score among the remaining options. Ranges are computed
+ * once and kept in a Fenwick tree (binary indexed tree), such that drawing
+ * and removing an option costs O(log n). The ranges are only recomputed when
+ * removing an option changes the lowest negative score.
+ * 
+ * Options are identified by their index in the score array, and the order of
+ * options on the wheel is the order of the score array.
+ */
+public class LRouletteWheel {
+
+	protected final double[] scores;
+
+	protected final double eta;
+
+	protected final int numOptions;
+
+	protected final double[] ranges;
+
+	/**
+	 * Fenwick tree of ranges (1-based)
+	 */
+	protected final double[] tree;
+
+	protected final boolean[] removed;
+
+	protected int numRemaining;
+
+	/**
+	 * Number of remaining options whose score is not below or equal to 0.0
+	 */
+	protected int numPositive = 0;
+
+	/**
+	 * Lowest score of remaining options or 0.0 if all are positive
+	 */
+	protected double minValue = 0.0;
+
+	/**
+	 * @param scores
+	 *            score for each option (must not be altered while the wheel
+	 *            is used)
+	 * @param eta
+	 *            exponent applied to (shifted) scores
+	 */
+	public LRouletteWheel(double[] scores, double eta) {
+		this.scores = scores;
+		this.eta = eta;
+		this.numOptions = scores.length;
+		this.ranges = new double[numOptions];
+		this.tree = new double[numOptions + 1];
+		this.removed = new boolean[numOptions];
+		this.numRemaining = numOptions;
+
+		for (int i = 0; i < numOptions; i++) {
+			if (!(scores[i] <= 0.0)) {
+				numPositive++;
+			}
+		}
+		this.minValue = computeMinValue();
+		initRanges();
+	}
+
+	/**
+	 * @return number of options not removed yet
+	 */
+	public int getNumRemaining() {
+		return numRemaining;
+	}
+
+	/**
+	 * @return lowest score of remaining options or 0.0 if all are positive
+	 */
+	public double getMinValue() {
+		return minValue;
+	}
+
+	/**
+	 * @return sum of ranges of remaining options
+	 */
+	public double getTotalRange() {
+		double sum = 0.0;
+		for (int i = numOptions; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Checks whether the remaining scores are all 0.0 or all of the same
+	 * negative value, in which case options are to be chosen uniformly. This
+	 * is decided in constant time unless no remaining score is positive.
+	 * 
+	 * Note: Following the original scan, a block of equal negative scores
+	 * needs to precede any 0.0 scores.
+	 * 
+	 * @return true if options are to be chosen uniformly
+	 */
+	public boolean isUniform() {
+		if (numPositive > 0) {
+			return false;
+		}
+		boolean containsAllZero = true;
+		boolean sameNegative = true;
+		double lastValue = Double.NaN;
+		for (int i = 0; i < numOptions; i++) {
+			if (!removed[i]) {
+				if (scores[i] != 0.0) {
+					containsAllZero = false;
+					if (!Double.isNaN(lastValue)
+							&& (lastValue >= 0 || lastValue != scores[i])) {
+						sameNegative = false;
+					}
+				}
+				lastValue = scores[i];
+			}
+		}
+		return containsAllZero || sameNegative;
+	}
+
+	/**
+	 * @param position
+	 *            position among remaining options
+	 * @return index of the option at the given position or -1
+	 */
+	public int getRemaining(int position) {
+		for (int i = 0; i < numOptions; i++) {
+			if (!removed[i] && position-- == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determines the first remaining option whose cumulative range is greater
+	 * or equal to the given value.
+	 * 
+	 * @param value
+	 *            between 0.0 and {@link #getTotalRange()}
+	 * @return index of the selected option
+	 */
+	public int select(double value) {
+		if (value <= 0.0) {
+			return getRemaining(0);
+		}
+		int pos = 0;
+		double rest = value;
+		for (int step = Integer.highestOneBit(numOptions); step > 0; step >>= 1) {
+			if (pos + step <= numOptions && tree[pos + step] < rest) {
+				pos += step;
+				rest -= tree[pos];
+			}
+		}
+		// rounding may lead to removed or empty options:
+		while (pos < numOptions && (removed[pos] || ranges[pos] == 0.0)) {
+			pos++;
+		}
+		if (pos == numOptions) {
+			pos--;
+			while (pos > 0 && (removed[pos] || ranges[pos] == 0.0)) {
+				pos--;
+			}
+		}
+		return pos;
+	}
+
+	/**
+	 * @param index
+	 *            index of the option to remove from the wheel
+	 */
+	public void remove(int index) {
+		if (removed[index]) {
+			return;
+		}
+		removed[index] = true;
+		numRemaining--;
+		if (!(scores[index] <= 0.0)) {
+			numPositive--;
+		}
+
+		if (minValue < 0.0 && scores[index] == minValue) {
+			double newMinValue = computeMinValue();
+			if (newMinValue != minValue) {
+				minValue = newMinValue;
+				initRanges();
+				return;
+			}
+		}
+		add(index, -ranges[index]);
+		ranges[index] = 0.0;
+	}
+
+	protected double computeMinValue() {
+		double min = 0.0d;
+		for (int i = 0; i < numOptions; i++) {
+			if (!removed[i]) {
+				min = min > scores[i] ? scores[i] : min;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * (Re-)computes ranges and builds the Fenwick tree in linear time.
+	 */
+	protected void initRanges() {
+		double shift = minValue < 0.0 ? Math.abs(minValue) : 0.0;
+		for (int i = 0; i < numOptions; i++) {
+			ranges[i] = removed[i] ? 0.0 : Math.pow(scores[i] + shift, eta);
+			tree[i + 1] = ranges[i];
+		}
+		for (int i = 1; i <= numOptions; i++) {
+			int parent = i + (i & -i);
+			if (parent <= numOptions) {
+				tree[parent] += tree[i];
+			}
+		}
+	}
+
+	protected void add(int index, double delta) {
+		for (int i = index + 1; i <= numOptions; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+}
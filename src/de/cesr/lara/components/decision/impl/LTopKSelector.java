@@ -0,0 +1,278 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.decision.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import cern.jet.random.Uniform;
+import de.cesr.lara.components.LaraBehaviouralOption;
+
+/**
+ * Selects the k best behavioural options from a stream of (BO, score) pairs
+ * without materialising or sorting all of them. A bounded heap keeps the k
+ * best options seen so far (O(n log k)).
+ * 
+ * Options are ranked by score (descending), then by the BOs'
+ * {@link LaraBehaviouralOption#compareTo(LaraBehaviouralOption)}
+ * (descending) and finally by the order of offering (ascending), which
+ * equals sorting all options and taking the first k.
+ * 
+ * If a {@link Uniform} is given, ties at the k-th score are resolved
+ * randomly: the options with the k-th score inside the range are replaced by
+ * options drawn among all options with that score. To this end, options
+ * outside the range that share the current k-th score are kept aside.
+ * Random numbers are drawn exactly as by
+ * {@link LDeliberativeChoiceComp_MaxLineTotalRandomAtTie} before.
+ * 
+ * @param <BO>
+ *            behavioural option type
+ */
+public class LTopKSelector<BO extends LaraBehaviouralOption<?, ? extends BO>> {
+
+	/**
+	 * Option outside the heap that shares the heap's minimal score
+	 */
+	protected static class LTieEntry<BO> {
+		protected final BO bo;
+		protected final int index;
+
+		protected LTieEntry(BO bo, int index) {
+			this.bo = bo;
+			this.index = index;
+		}
+	}
+
+	protected final int k;
+
+	protected final Uniform rand;
+
+	/**
+	 * Min-heap (lowest ranked option at 0) in parallel arrays
+	 */
+	protected final List<BO> heapBos;
+	protected final double[] heapScores;
+	protected final int[] heapIndices;
+	protected int size = 0;
+
+	/**
+	 * Offered options not in the heap whose score equals the heap's minimal
+	 * score (only maintained if ties are resolved randomly)
+	 */
+	protected final List<LTieEntry<BO>> ties = new ArrayList<LTieEntry<BO>>();
+
+	protected int count = 0;
+
+	/**
+	 * @param k
+	 *            number of options to select
+	 * @param rand
+	 *            distribution to resolve ties at the k-th score with or
+	 *            <code>null</code> to keep the best ranked options
+	 */
+	public LTopKSelector(int k, Uniform rand) {
+		if (k < 1) {
+			throw new IllegalArgumentException("k must be at least 1 (was "
+					+ k + ")");
+		}
+		this.k = k;
+		this.rand = rand;
+		this.heapBos = new ArrayList<BO>(Collections.<BO> nCopies(k, null));
+		this.heapScores = new double[k];
+		this.heapIndices = new int[k];
+	}
+
+	/**
+	 * @param bo
+	 * @param score
+	 */
+	public void offer(BO bo, double score) {
+		int index = count++;
+		if (size < k) {
+			heapBos.set(size, bo);
+			heapScores[size] = score;
+			heapIndices[size] = index;
+			siftUp(size++);
+			return;
+		}
+
+		if (compare(bo, score, index, 0) > 0) {
+			BO evictedBo = heapBos.get(0);
+			double evictedScore = heapScores[0];
+			int evictedIndex = heapIndices[0];
+
+			heapBos.set(0, bo);
+			heapScores[0] = score;
+			heapIndices[0] = index;
+			siftDown(0);
+
+			if (rand != null) {
+				if (!(evictedScore == heapScores[0])) {
+					ties.clear();
+				} else {
+					ties.add(new LTieEntry<BO>(evictedBo, evictedIndex));
+				}
+			}
+		} else if (rand != null && score == heapScores[0]) {
+			ties.add(new LTieEntry<BO>(bo, index));
+		}
+	}
+
+	/**
+	 * @param bos
+	 * @param scores
+	 *            score for each behavioural option
+	 */
+	public void offerAll(List<BO> bos, double[] scores) {
+		for (int i = 0; i < scores.length; i++) {
+			offer(bos.get(i), scores[i]);
+		}
+	}
+
+	/**
+	 * @return number of offered options
+	 */
+	public int getNumOffered() {
+		return count;
+	}
+
+	/**
+	 * @return the (at most) k selected options in descending rank (the
+	 *         randomly drawn ones at the end in order of drawing)
+	 */
+	public List<BO> getSelectedBos() {
+		Integer[] slots = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = Integer.valueOf(i);
+		}
+		Arrays.sort(slots, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer slot1, Integer slot2) {
+				return LTopKSelector.this.compare(heapBos.get(slot2.intValue()),
+						heapScores[slot2.intValue()],
+						heapIndices[slot2.intValue()], slot1.intValue());
+			}
+		});
+
+		List<BO> selected = new ArrayList<BO>(size);
+		if (ties.isEmpty()) {
+			for (Integer slot : slots) {
+				selected.add(heapBos.get(slot.intValue()));
+			}
+			return selected;
+		}
+
+		// the last option in the selected range is equal to the best one
+		// outside the range:
+		double lastSum = heapScores[slots[size - 1].intValue()];
+		List<BO> bestBos = new ArrayList<BO>();
+		int numWithinRange = 0;
+		for (Integer slot : slots) {
+			if (heapScores[slot.intValue()] == lastSum) {
+				bestBos.add(heapBos.get(slot.intValue()));
+				numWithinRange++;
+			}
+		}
+		Collections.sort(ties, new Comparator<LTieEntry<BO>>() {
+			@Override
+			public int compare(LTieEntry<BO> tie1, LTieEntry<BO> tie2) {
+				int result = tie2.bo.compareTo(tie1.bo);
+				return result != 0 ? result : tie1.index - tie2.index;
+			}
+		});
+		for (LTieEntry<BO> tie : ties) {
+			bestBos.add(tie.bo);
+		}
+		int numSameSum = bestBos.size();
+
+		// add options within range that have a higher sum:
+		for (int i = 0; i < size - numWithinRange; i++) {
+			selected.add(heapBos.get(slots[i].intValue()));
+		}
+		// add remaining options from all options with same sum:
+		for (int i = 0; i < numWithinRange; i++) {
+			// -i because the size of bestBos decreases!
+			selected.add(bestBos.remove(rand.nextIntFromTo(0, numSameSum - i
+					- 1)));
+		}
+		return selected;
+	}
+
+	/**
+	 * @param bo
+	 * @param score
+	 * @param index
+	 * @param slot
+	 * @return positive value if the given option ranks higher than the one in
+	 *         the given heap slot
+	 */
+	protected int compare(BO bo, double score, int index, int slot) {
+		int result = Double.compare(score, heapScores[slot]);
+		if (result == 0) {
+			result = bo.compareTo(heapBos.get(slot));
+		}
+		return result != 0 ? result : heapIndices[slot] - index;
+	}
+
+	protected void siftUp(int slot) {
+		while (slot > 0) {
+			int parent = (slot - 1) >>> 1;
+			if (compare(heapBos.get(slot), heapScores[slot], heapIndices[slot],
+					parent) >= 0) {
+				break;
+			}
+			swap(slot, parent);
+			slot = parent;
+		}
+	}
+
+	protected void siftDown(int slot) {
+		while (true) {
+			int child = 2 * slot + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size
+					&& compare(heapBos.get(child + 1), heapScores[child + 1],
+							heapIndices[child + 1], child) < 0) {
+				child++;
+			}
+			if (compare(heapBos.get(child), heapScores[child],
+					heapIndices[child], slot) >= 0) {
+				break;
+			}
+			swap(slot, child);
+			slot = child;
+		}
+	}
+
+	protected void swap(int slot1, int slot2) {
+		heapBos.set(slot1, heapBos.set(slot2, heapBos.get(slot1)));
+		double score = heapScores[slot1];
+		heapScores[slot1] = heapScores[slot2];
+		heapScores[slot2] = score;
+		int index = heapIndices[slot1];
+		heapIndices[slot1] = heapIndices[slot2];
+		heapIndices[slot2] = index;
+	}
+}
@@ -0,0 +1,255 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.decision.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+
+/**
+ * Dense utility matrix of a deliberative decision. The considered preferences
+ * are resolved into a fixed index set once (when the matrix is created for a
+ * set of preference weights). For every decision, the behavioural options'
+ * utilities are gathered into a contiguous row-major BO x preference array
+ * and all row sums (utility * preference weight) are computed in a single
+ * loop.
+ * 
+ * Utilities a behavioural option does not define count as 0.0.
+ * 
+ * @param <BO>
+ *            behavioural option type
+ */
+public class LUtilityMatrix<BO extends LaraBehaviouralOption<?, ? extends BO>> {
+
+	/**
+	 * Logger
+	 */
+	static private Logger logger = Log4jLogger.getLogger(LUtilityMatrix.class);
+
+	protected final LaraPreference[] preferences;
+
+	protected final int[] ordinals;
+
+	protected final double[] weights;
+
+	/**
+	 * Weights used for row sums. NaN weights are replaced by 0.0 since they
+	 * are only valid for preferences no behavioural option defines a utility
+	 * for.
+	 */
+	protected final double[] sumWeights;
+
+	protected final boolean containsNaNWeights;
+
+	protected final double averageWeight;
+
+	protected final List<BO> bos = new ArrayList<BO>();
+
+	/**
+	 * Unweighted utilities, row-major
+	 */
+	protected double[] utilities = new double[0];
+
+	protected double[] sums = new double[0];
+
+	protected boolean neutralised = false;
+
+	/**
+	 * @param preferenceWeights
+	 *            weights of the preferences that are considered
+	 */
+	public LUtilityMatrix(Map<LaraPreference, Double> preferenceWeights) {
+		int numPrefs = preferenceWeights.size();
+		this.preferences = new LaraPreference[numPrefs];
+		this.ordinals = new int[numPrefs];
+		this.weights = new double[numPrefs];
+		this.sumWeights = new double[numPrefs];
+
+		double weightSum = 0.0;
+		boolean containsNaN = false;
+		int j = 0;
+		for (Map.Entry<LaraPreference, Double> entry : preferenceWeights
+				.entrySet()) {
+			preferences[j] = entry.getKey();
+			ordinals[j] = entry.getKey().getOrdinal();
+			weights[j] = entry.getValue().doubleValue();
+			weightSum += weights[j];
+			containsNaN |= Double.isNaN(weights[j]);
+			sumWeights[j] = Double.isNaN(weights[j]) ? 0.0 : weights[j];
+			j++;
+		}
+		this.averageWeight = weightSum / numPrefs;
+		this.containsNaNWeights = containsNaN;
+	}
+
+	/**
+	 * Gathers the utilities of the given behavioural options and computes row
+	 * sums.
+	 * 
+	 * @param selectableBos
+	 * @param neutralisePreferenceWeights
+	 *            if true, sums are divided by the average preference weight
+	 */
+	public void compute(Collection<BO> selectableBos,
+			boolean neutralisePreferenceWeights) {
+		int numPrefs = preferences.length;
+		int numBos = selectableBos.size();
+
+		bos.clear();
+		if (utilities.length != numBos * numPrefs) {
+			utilities = new double[numBos * numPrefs];
+		}
+		if (sums.length != numBos) {
+			sums = new double[numBos];
+		}
+		this.neutralised = neutralisePreferenceWeights;
+
+		// gather:
+		int cell = 0;
+		for (BO bo : selectableBos) {
+			bos.add(bo);
+			for (int j = 0; j < numPrefs; j++) {
+				double utility = bo.getUtility(ordinals[j]);
+				if (Double.isNaN(utility)) {
+					utility = checkUndefined(bo, j);
+				} else if (containsNaNWeights && Double.isNaN(weights[j])) {
+					// <- LOGGING
+					logger.error("Preference value of goal "
+							+ preferences[j].getId() + " is NaN.");
+					// LOGGING ->
+
+					throw new IllegalStateException("Preference value of goal "
+							+ preferences[j].getId() + " is NaN.");
+				}
+				utilities[cell++] = utility;
+			}
+		}
+
+		// row sums:
+		double divisor = neutralisePreferenceWeights ? averageWeight : 1.0;
+		cell = 0;
+		for (int i = 0; i < numBos; i++) {
+			double sum = 0.0;
+			for (int j = 0; j < numPrefs; j++) {
+				sum += utilities[cell++] * sumWeights[j];
+			}
+			sums[i] = neutralisePreferenceWeights ? sum / divisor : sum;
+		}
+	}
+
+	/**
+	 * Distinguishes undefined utilities from NaN utilities and checks the
+	 * preference weight of defined utilities.
+	 * 
+	 * @param bo
+	 * @param prefIndex
+	 * @return 0.0 if the utility is not defined
+	 */
+	protected double checkUndefined(BO bo, int prefIndex) {
+		if (bo.getValue().containsKey(preferences[prefIndex])) {
+			// <- LOGGING
+			logger.error("Utility value of goal "
+					+ preferences[prefIndex].getId() + " is NaN for BO " + bo);
+			// LOGGING ->
+
+			throw new IllegalStateException("Utility value of utility "
+					+ preferences[prefIndex].getId() + " is NaN for BO " + bo);
+		}
+		return 0.0;
+	}
+
+	/**
+	 * @return behavioural options in row order (must not be altered)
+	 */
+	public List<BO> getBos() {
+		return bos;
+	}
+
+	/**
+	 * @return row sums (must not be altered)
+	 */
+	public double[] getScores() {
+		return sums;
+	}
+
+	/**
+	 * @return number of rows
+	 */
+	public int getNumBos() {
+		return bos.size();
+	}
+
+	/**
+	 * @param bo
+	 * @return row of the given behavioural option or -1
+	 */
+	public int indexOf(BO bo) {
+		return bos.indexOf(bo);
+	}
+
+	/**
+	 * @param row
+	 * @return row sum
+	 */
+	public double getScore(int row) {
+		return sums[row];
+	}
+
+	/**
+	 * @param row
+	 * @param preference
+	 * @return individual (i.e. weighted) utility of the given row regarding
+	 *         the given preference or {@link Double#NaN} if the preference is
+	 *         not considered
+	 */
+	public double getIndividualUtilityValue(int row, LaraPreference preference) {
+		for (int j = 0; j < preferences.length; j++) {
+			if (preferences[j] == preference) {
+				double value = utilities[row * preferences.length + j]
+						* weights[j];
+				return neutralised ? value / averageWeight : value;
+			}
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("[");
+		for (int i = 0; i < bos.size(); i++) {
+			buffer.append(i > 0 ? ", " : "");
+			buffer.append("BO: " + bos.get(i) + "(utility sum: " + sums[i]
+					+ ")");
+		}
+		buffer.append("]");
+		return buffer.toString();
+	}
+}
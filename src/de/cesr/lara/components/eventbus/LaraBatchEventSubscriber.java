@@ -0,0 +1,45 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus;
+
+import java.util.List;
+
+import de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+
+/**
+ * Subscriber that receives {@link LaraAsynchronousEvent}s in batches.
+ * Asynchronous events queued for this subscriber are delivered together via
+ * {@link #onEvents(List)} in the order of publication. Other events are
+ * delivered via {@link #onEvent(LaraEvent)}.
+ * 
+ * Note that a batch is delivered after the notifications of other subscribers
+ * that a consumer thread has taken from the queue together with it. Hence,
+ * other subscribers may be notified about later events before a batch
+ * subscriber is notified about earlier ones.
+ */
+public interface LaraBatchEventSubscriber extends LaraEventSubscriber {
+
+	/**
+	 * @param events
+	 *            asynchronous events in the order of publication
+	 */
+	public abstract void onEvents(List<LaraEvent> events);
+}
@@ -0,0 +1,83 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.events;
+
+
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+
+
+/**
+ * Triggers agents to run their complete cycle (perception, preprocessing,
+ * decision, postprocessing, execution and post-execution) at once. Replaces
+ * the publication of the single phase events for models whose agents are
+ * independent within a time step: Each agent component processes all phases
+ * for its agent as one task, which requires a single barrier per step instead
+ * of one per phase.
+ * 
+ * NOTE: Since phase events are not published to the eventbus, only the agent
+ * component and its agent (via {@link de.cesr.lara.components.eventbus.LaraEventSubscriber#onEvent(LaraEvent)})
+ * are notified of phase events, the agent only of those it is subscribed to.
+ */
+public class LAgentCycleEvent extends LAbstractAgentEvent {
+
+	protected final LAbstractAgentEvent[] phaseEvents;
+
+	/**
+	 * Sets the {@link LaraDecisionConfiguration} of this event
+	 * @param decisionConfiguration
+	 */
+	public LAgentCycleEvent(LaraDecisionConfiguration decisionConfiguration) {
+		super(decisionConfiguration);
+		this.phaseEvents = new LAbstractAgentEvent[] {
+				new LAgentPerceptionEvent(decisionConfiguration),
+				new LAgentPreprocessEvent(decisionConfiguration),
+				new LAgentDecideEvent(decisionConfiguration),
+				new LAgentPostprocessEvent(decisionConfiguration),
+				new LAgentExecutionEvent(decisionConfiguration),
+				new LAgentPostExecutionEvent(decisionConfiguration) };
+	}
+
+	/**
+	 * The phase events are shared among all agents.
+	 * 
+	 * @return phase events in order of processing
+	 */
+	public LAbstractAgentEvent[] getPhaseEvents() {
+		return phaseEvents;
+	}
+
+	/**
+	 * Also exchanges the decision configuration of all phase events.
+	 * 
+	 * @see de.cesr.lara.components.eventbus.events.LAbstractAgentEvent#exchangeDecisionConfiguration(de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void exchangeDecisionConfiguration(LaraDecisionConfiguration dConfig) {
+		super.exchangeDecisionConfiguration(dConfig);
+		for (LAbstractAgentEvent phaseEvent : phaseEvents) {
+			phaseEvent.exchangeDecisionConfiguration(dConfig);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AgentCycleEvent for " + decisionConfiguration;
+	}
+}
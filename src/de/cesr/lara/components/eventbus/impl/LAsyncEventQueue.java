@@ -0,0 +1,321 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import de.cesr.lara.components.eventbus.LaraAbstractEventSubscriber;
+import de.cesr.lara.components.eventbus.LaraBatchEventSubscriber;
+import de.cesr.lara.components.eventbus.LaraEventSubscriber;
+import de.cesr.lara.components.eventbus.LaraInternalEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+
+/**
+ * Bounded queue of notifications of {@link LaraAsynchronousEvent}s which is
+ * drained by a fixed number of consumer threads. Notifications for
+ * {@link LaraBatchEventSubscriber}s that are taken from the queue together
+ * are delivered as one batch. The behaviour in case of a full queue is
+ * defined by an {@link LAsyncOverflowPolicy}.
+ */
+public class LAsyncEventQueue {
+
+	/**
+	 * Queued notification of a subscriber
+	 */
+	protected static class LAsyncNotification {
+
+		protected final LaraAbstractEventSubscriber subscriber;
+		protected final LaraEvent event;
+		protected final boolean internal;
+
+		protected LAsyncNotification(LaraAbstractEventSubscriber subscriber,
+				LaraEvent event, boolean internal) {
+			this.subscriber = subscriber;
+			this.event = event;
+			this.internal = internal;
+		}
+	}
+
+	/**
+	 * Logger
+	 */
+	private static Logger logger = Log4jLogger
+			.getLogger(LAsyncEventQueue.class);
+
+	protected final String name;
+
+	protected final BlockingQueue<LAsyncNotification> queue;
+
+	protected final LAsyncOverflowPolicy overflowPolicy;
+
+	protected final int batchSize;
+
+	protected final ExecutorService consumers;
+
+	protected final Set<Thread> consumerThreads = ConcurrentHashMap
+			.newKeySet();
+
+	/**
+	 * Number of notifications that are queued or being delivered
+	 */
+	protected final AtomicInteger numPending = new AtomicInteger();
+
+	protected final AtomicLong numDropped = new AtomicLong();
+
+	/**
+	 * @param name
+	 *            used to name consumer threads
+	 * @param capacity
+	 *            maximum number of queued notifications
+	 * @param numConsumers
+	 *            number of consumer threads
+	 * @param overflowPolicy
+	 * @param batchSize
+	 *            maximum number of notifications a consumer takes from the
+	 *            queue at once
+	 */
+	public LAsyncEventQueue(String name, int capacity, int numConsumers,
+			LAsyncOverflowPolicy overflowPolicy, int batchSize) {
+		this.name = name;
+		this.queue = new ArrayBlockingQueue<LAsyncNotification>(capacity);
+		this.overflowPolicy = overflowPolicy;
+		this.batchSize = Math.max(1, batchSize);
+		this.consumers = Executors.newFixedThreadPool(numConsumers,
+				new ThreadFactory() {
+					private final AtomicInteger threadCounter = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, LAsyncEventQueue.this.name
+								+ " async consumer "
+								+ threadCounter.incrementAndGet());
+						thread.setDaemon(true);
+						consumerThreads.add(thread);
+						return thread;
+					}
+				});
+		for (int i = 0; i < numConsumers; i++) {
+			consumers.execute(new Runnable() {
+				@Override
+				public void run() {
+					consume();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Queues the notification of the given subscriber. Consumer threads that
+	 * publish asynchronous events notify subscribers themselves when the
+	 * queue is full to prevent deadlocks.
+	 * 
+	 * @param subscriber
+	 * @param event
+	 * @param internal
+	 *            true if the subscriber is to be notified as
+	 *            {@link LaraInternalEventSubscriber}
+	 */
+	public void submit(LaraAbstractEventSubscriber subscriber,
+			LaraEvent event, boolean internal) {
+		LAsyncNotification notification = new LAsyncNotification(subscriber,
+				event, internal);
+		numPending.incrementAndGet();
+		if (queue.offer(notification)) {
+			return;
+		}
+
+		if (overflowPolicy == LAsyncOverflowPolicy.DROP_OLDEST) {
+			while (!queue.offer(notification)) {
+				LAsyncNotification dropped = queue.poll();
+				if (dropped != null) {
+					numDropped.incrementAndGet();
+					done(1);
+
+					// <- LOGGING
+					if (logger.isDebugEnabled()) {
+						logger.debug(name + "> Dropped notification of "
+								+ dropped.subscriber + " about "
+								+ dropped.event);
+					}
+					// LOGGING ->
+				}
+			}
+		} else if (overflowPolicy == LAsyncOverflowPolicy.BLOCK
+				&& !consumerThreads.contains(Thread.currentThread())) {
+			try {
+				queue.put(notification);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				deliver(notification);
+				done(1);
+			}
+		} else {
+			deliver(notification);
+			done(1);
+		}
+	}
+
+	/**
+	 * Waits until all queued notifications have been delivered. Returns
+	 * immediately when called by a consumer thread.
+	 */
+	public void drain() {
+		if (consumerThreads.contains(Thread.currentThread())) {
+			return;
+		}
+		synchronized (numPending) {
+			while (numPending.get() > 0) {
+				try {
+					numPending.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					logger.error(name
+							+ "> Waiting for asynchronous notifications interrupted");
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops consumer threads. Queued notifications are discarded.
+	 */
+	public void shutdown() {
+		consumers.shutdownNow();
+		int numDiscarded = queue.size();
+		queue.clear();
+		done(numDiscarded);
+	}
+
+	/**
+	 * @return number of notifications that are queued or being delivered
+	 */
+	public int getNumPending() {
+		return numPending.get();
+	}
+
+	/**
+	 * @return number of notifications dropped by
+	 *         {@link LAsyncOverflowPolicy#DROP_OLDEST}
+	 */
+	public long getNumDropped() {
+		return numDropped.get();
+	}
+
+	protected void consume() {
+		List<LAsyncNotification> batch = new ArrayList<LAsyncNotification>(
+				batchSize);
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				batch.add(queue.take());
+				queue.drainTo(batch, batchSize - 1);
+				try {
+					deliver(batch);
+				} finally {
+					done(batch.size());
+					batch.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			// shut down
+		}
+	}
+
+	/**
+	 * Delivers the given notifications. Events for the same
+	 * {@link LaraBatchEventSubscriber} are delivered together after all other
+	 * notifications of the batch (see {@link LaraBatchEventSubscriber}).
+	 * 
+	 * @param batch
+	 */
+	protected void deliver(List<LAsyncNotification> batch) {
+		Map<LaraBatchEventSubscriber, List<LaraEvent>> batches = null;
+		for (LAsyncNotification notification : batch) {
+			if (!notification.internal
+					&& notification.subscriber instanceof LaraBatchEventSubscriber) {
+				if (batches == null) {
+					batches = new LinkedHashMap<LaraBatchEventSubscriber, List<LaraEvent>>();
+				}
+				List<LaraEvent> events = batches.get(notification.subscriber);
+				if (events == null) {
+					events = new ArrayList<LaraEvent>();
+					batches.put(
+							(LaraBatchEventSubscriber) notification.subscriber,
+							events);
+				}
+				events.add(notification.event);
+			} else {
+				deliver(notification);
+			}
+		}
+		if (batches != null) {
+			for (Map.Entry<LaraBatchEventSubscriber, List<LaraEvent>> entry : batches
+					.entrySet()) {
+				try {
+					entry.getKey().onEvents(entry.getValue());
+				} catch (Throwable t) {
+					logger.error(name + "> Notification of " + entry.getKey()
+							+ " about " + entry.getValue().size()
+							+ " event(s) failed", t);
+				}
+			}
+		}
+	}
+
+	protected void deliver(LAsyncNotification notification) {
+		try {
+			if (notification.internal) {
+				((LaraInternalEventSubscriber) notification.subscriber)
+						.onInternalEvent(notification.event);
+			} else {
+				((LaraEventSubscriber) notification.subscriber)
+						.onEvent(notification.event);
+			}
+		} catch (Throwable t) {
+			logger.error(name + "> Notification of " + notification.subscriber
+					+ " about " + notification.event + " failed", t);
+		}
+	}
+
+	protected void done(int numNotifications) {
+		if (numNotifications > 0
+				&& numPending.addAndGet(-numNotifications) == 0) {
+			synchronized (numPending) {
+				numPending.notifyAll();
+			}
+		}
+	}
+}
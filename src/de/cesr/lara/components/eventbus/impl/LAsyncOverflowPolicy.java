@@ -0,0 +1,46 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.impl;
+
+import de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent;
+import de.cesr.lara.components.param.LBasicPa;
+
+/**
+ * Items of this enumeration identify how an {@link LEventbus} handles
+ * notifications of {@link LaraAsynchronousEvent}s when its queue is full (see
+ * {@link LBasicPa#EVENTBUS_ASYNC_OVERFLOW}).
+ */
+public enum LAsyncOverflowPolicy {
+
+	/**
+	 * The publishing thread waits until there is space in the queue.
+	 */
+	BLOCK,
+
+	/**
+	 * The oldest queued notification is dropped.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * The publishing thread notifies the subscriber itself.
+	 */
+	CALLER_RUNS;
+}
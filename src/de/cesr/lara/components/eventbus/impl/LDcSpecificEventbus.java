@@ -20,7 +20,11 @@
 package de.cesr.lara.components.eventbus.impl;
 
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,41 +46,128 @@ import de.cesr.lara.components.util.exceptions.LIdentifyCallerException;
 /**
  * Enables subscribers to subscribe for specific {@link LaraDecisionConfiguration}s only.
  * 
+ * Subscriptions are indexed by pairs of event class and decision configuration ({@link LDcSubscriptionKey}). Each
+ * entry holds the regular subscribers, a cached {@link LSubscriberSnapshot} of them and the only-once subscribers
+ * which are drained on publication.
+ * 
+ * All decision configuration specific maps and the {@link LDcSubscriptions} they hold are guarded by
+ * {@link #subscriptionLock} since events may be published concurrently (e.g. via {@link #publishAll}).
+ * Subscribers are notified after the lock has been released.
+ * 
  * @author Sascha Holzhauer
  * 
  */
 public class LDcSpecificEventbus extends LEventbus {
 
+	/**
+	 * Key of decision configuration specific subscriptions
+	 */
+	protected static class LDcSubscriptionKey {
+
+		protected final Class<? extends LaraEvent> eventClass;
+
+		protected final LaraDecisionConfiguration dc;
+
+		protected LDcSubscriptionKey(Class<? extends LaraEvent> eventClass, LaraDecisionConfiguration dc) {
+			this.eventClass = eventClass;
+			this.dc = dc;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * eventClass.hashCode() + (dc == null ? 0 : dc.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof LDcSubscriptionKey)) {
+				return false;
+			}
+			LDcSubscriptionKey other = (LDcSubscriptionKey) o;
+			return eventClass == other.eventClass && (dc == null ? other.dc == null : dc.equals(other.dc));
+		}
+	}
+
+	/**
+	 * Subscribers of an {@link LDcSubscriptionKey}
+	 */
+	protected static class LDcSubscriptions {
+
+		protected final Set<LaraAbstractEventSubscriber> regularSubscribers = new LinkedHashSet<>();
+
+		/**
+		 * Regular subscribers that are not subscribed to the event class regardless of decision configuration.
+		 * <code>null</code> if outdated.
+		 */
+		protected LSubscriberSnapshot snapshot = null;
+
+		protected Set<LaraAbstractEventSubscriber> onceSubscribers = null;
+
+		protected boolean isEmpty() {
+			return regularSubscribers.isEmpty() && (onceSubscribers == null || onceSubscribers.isEmpty());
+		}
+	}
+
+	protected static final LSubscriberSnapshot EMPTY_SNAPSHOT = new LSubscriberSnapshot(
+			Collections.<LaraAbstractEventSubscriber> emptySet());
+
 	/**
 	 * Logger
 	 */
 	static private Logger logger = Logger.getLogger(LDcSpecificEventbus.class);
 
-	protected volatile Map<Class<? extends LaraEvent>, Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>> eventSubscriberMapDc =
-			new HashMap<>();
-
-	protected volatile Map<Class<? extends LaraEvent>, Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>> eventSubscriberOnceMapDc =
-			new HashMap<>();
+	protected final Map<LDcSubscriptionKey, LDcSubscriptions> dcSubscriptions = new HashMap<>();
 
 	protected volatile Map<Class<? extends LaraEvent>, Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>> eventSubscriberOnceMapDcNotified =
 			new HashMap<>();
 
+	/**
+	 * Reverse index of {@link #dcSubscriptions}: keys each subscriber is subscribed to (regularly or once)
+	 */
+	protected final Map<LaraAbstractEventSubscriber, Set<LDcSubscriptionKey>> subscriptionIndexDc = new HashMap<>();
+
 	protected LDcSpecificEventbus(Object id) {
 		super(id);
 	}
 
-	protected void checkSubscriberMapDc(
-			Map<Class<? extends LaraEvent>, Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>> eventSubscriberMap,
-			Class<? extends LaraEvent> eventClass, LaraDecisionConfiguration dc) {
-		if (!eventSubscriberMap.containsKey(eventClass)) {
-			eventSubscriberMap.put(eventClass,
-					new HashMap<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>());
+	/**
+	 * Must be called while holding {@link #subscriptionLock}.
+	 * 
+	 * @param key
+	 * @return subscriptions of the given key (created if not present)
+	 */
+	protected LDcSubscriptions getDcSubscriptions(LDcSubscriptionKey key) {
+		LDcSubscriptions subscriptions = dcSubscriptions.get(key);
+		if (subscriptions == null) {
+			subscriptions = new LDcSubscriptions();
+			dcSubscriptions.put(key, subscriptions);
 		}
+		return subscriptions;
+	}
 
-		if (!eventSubscriberMap.get(eventClass).containsKey(dc)) {
-			Set<LaraAbstractEventSubscriber> subscribers = new LinkedHashSet<>();
-			eventSubscriberMap.get(eventClass).put(dc, subscribers);
+	/**
+	 * Subscribes the given {@link LaraEventSubscriber} to be notified of events of the given class that refer to the
+	 * given decision configuration.
+	 * 
+	 * @param subscriber
+	 * @param eventClass
+	 * @param dc
+	 */
+	public void subscribe(LaraAbstractEventSubscriber subscriber, Class<? extends LaraEvent> eventClass,
+			LaraDecisionConfiguration dc) {
+		LDcSubscriptionKey key = new LDcSubscriptionKey(eventClass, dc);
+		synchronized (subscriptionLock) {
+			LDcSubscriptions subscriptions = getDcSubscriptions(key);
+			subscriptions.regularSubscribers.add(subscriber);
+			subscriptions.snapshot = null;
+			indexSubscriptionDc(subscriber, key);
 		}
+
+		// <- LOGGING
+		logger.info(this + "> Subscribed " + subscriber + " to event " + eventClass.getName()
+				+ " for decision configuration "
+				+ dc);
+		// LOGGING ->
 	}
 
 	/**
@@ -91,8 +182,15 @@ public class LDcSpecificEventbus extends LEventbus {
 	 */
 	public void subscribeOnce(LaraAbstractEventSubscriber subscriber, Class<? extends LaraEvent> eventClass,
 			LaraDecisionConfiguration dc) {
-		checkSubscriberMapDc(eventSubscriberOnceMapDc, eventClass, dc);
-		eventSubscriberOnceMapDc.get(eventClass).get(dc).add(subscriber);
+		LDcSubscriptionKey key = new LDcSubscriptionKey(eventClass, dc);
+		synchronized (subscriptionLock) {
+			LDcSubscriptions subscriptions = getDcSubscriptions(key);
+			if (subscriptions.onceSubscribers == null) {
+				subscriptions.onceSubscribers = new LinkedHashSet<>();
+			}
+			subscriptions.onceSubscribers.add(subscriber);
+			indexSubscriptionDc(subscriber, key);
+		}
 
 		// <- LOGGING
 		logger.info(this + "> Subscribed " + subscriber + " to event " + eventClass.getName()
@@ -105,81 +203,202 @@ public class LDcSpecificEventbus extends LEventbus {
 		// LOGGING ->
 	}
 
-	protected boolean notifySubscribers(LaraEvent event, boolean hasSubscribers) {
-		boolean hasSubscribersHere = false;
-		if (event instanceof LaraDcSpecificEvent) {
-			LaraDcSpecificEvent e = (LaraDcSpecificEvent) event;
-			Set<LaraAbstractEventSubscriber> subscribers = null;
-
-			LaraDecisionConfiguration dConfig = e.getDecisionConfiguration();
+	/**
+	 * Must be called while holding {@link #subscriptionLock}.
+	 * 
+	 * @param subscriber
+	 * @param key
+	 */
+	protected void indexSubscriptionDc(LaraAbstractEventSubscriber subscriber, LDcSubscriptionKey key) {
+		Set<LDcSubscriptionKey> keys = subscriptionIndexDc.get(subscriber);
+		if (keys == null) {
+			keys = new HashSet<>();
+			subscriptionIndexDc.put(subscriber, keys);
+		}
+		keys.add(key);
+	}
 
-			if (eventSubscriberOnceMapDc.containsKey(e.getClass())
-					&& eventSubscriberOnceMapDc.get(e.getClass()).containsKey(dConfig)) {
-				// get subscribers set
-				subscribers = eventSubscriberOnceMapDc.get(e.getClass()).get(dConfig);
+	/**
+	 * Must be called while holding {@link #subscriptionLock}.
+	 * 
+	 * @param subscriber
+	 * @param key
+	 */
+	protected void unindexSubscriptionDc(LaraAbstractEventSubscriber subscriber, LDcSubscriptionKey key) {
+		Set<LDcSubscriptionKey> keys = subscriptionIndexDc.get(subscriber);
+		if (keys != null) {
+			keys.remove(key);
+			if (keys.isEmpty()) {
+				subscriptionIndexDc.remove(subscriber);
+			}
+		}
+	}
 
+	/**
+	 * Removes the given subscriber from the subscriptions of the given key. Must be called while holding
+	 * {@link #subscriptionLock}.
+	 * 
+	 * @param subscriber
+	 * @param key
+	 */
+	protected void removeSubscriptionDc(LaraAbstractEventSubscriber subscriber, LDcSubscriptionKey key) {
+		LDcSubscriptions subscriptions = dcSubscriptions.get(key);
+		if (subscriptions != null) {
+			if (subscriptions.regularSubscribers.remove(subscriber)) {
+				subscriptions.snapshot = null;
+			}
+			if (subscriptions.onceSubscribers != null) {
+				subscriptions.onceSubscribers.remove(subscriber);
+			}
+			if (subscriptions.isEmpty()) {
+				dcSubscriptions.remove(key);
+			}
+		}
+	}
 
-				if (!eventSubscriberOnceMapDcNotified.containsKey(e.getClass())) {
-					eventSubscriberOnceMapDcNotified.put(e.getClass(),
-							new HashMap<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>());
+	/**
+	 * Removes all decision configuration specific subscriptions of the given event class. Must be called while
+	 * holding {@link #subscriptionLock}.
+	 * 
+	 * @param eventClass
+	 */
+	protected void removeSubscriptionsDc(Class<? extends LaraEvent> eventClass) {
+		for (Iterator<Entry<LDcSubscriptionKey, LDcSubscriptions>> iterator = dcSubscriptions.entrySet().iterator(); iterator
+				.hasNext();) {
+			Entry<LDcSubscriptionKey, LDcSubscriptions> entry = iterator.next();
+			if (entry.getKey().eventClass == eventClass) {
+				for (LaraAbstractEventSubscriber subscriber : entry.getValue().regularSubscribers) {
+					unindexSubscriptionDc(subscriber, entry.getKey());
+				}
+				if (entry.getValue().onceSubscribers != null) {
+					for (LaraAbstractEventSubscriber subscriber : entry.getValue().onceSubscribers) {
+						unindexSubscriptionDc(subscriber, entry.getKey());
+					}
 				}
-				eventSubscriberOnceMapDcNotified.get(e.getClass()).put(dConfig,
-						eventSubscriberOnceMapDc.get(e.getClass()).get(dConfig));
-				eventSubscriberOnceMapDc.get(e.getClass()).remove(dConfig);
+				iterator.remove();
+			}
+		}
+	}
 
+	/**
+	 * Also outdates snapshots of decision configuration specific subscribers of the given event class since these
+	 * exclude subscribers that are subscribed regardless of decision configuration.
+	 * 
+	 * @see de.cesr.lara.components.eventbus.impl.LEventbus#invalidateSubscriberSnapshot(java.lang.Class)
+	 */
+	@Override
+	protected void invalidateSubscriberSnapshot(Class<? extends LaraEvent> eventClass) {
+		super.invalidateSubscriberSnapshot(eventClass);
+		if (dcSubscriptions != null && !dcSubscriptions.isEmpty()) {
+			for (Entry<LDcSubscriptionKey, LDcSubscriptions> entry : dcSubscriptions.entrySet()) {
+				if (entry.getKey().eventClass == eventClass) {
+					entry.getValue().snapshot = null;
+				}
 			}
+		}
+	}
 
-			if (eventSubscriberMapDc.containsKey(e.getClass())
-					&& eventSubscriberMapDc.get(e.getClass()).containsKey(dConfig)) {
-				// get subscribers set
-				if (subscribers != null) {
-					subscribers.addAll(eventSubscriberMapDc.get(e.getClass()).get(dConfig));
-				} else {
-					subscribers = eventSubscriberMapDc.get(e.getClass()).get(dConfig);
+	/**
+	 * @param eventClass
+	 * @param subscriptions
+	 * @return snapshot of regular subscribers that are not subscribed to the event class regardless of decision
+	 *         configuration
+	 */
+	protected LSubscriberSnapshot getDcSubscriberSnapshot(Class<? extends LaraEvent> eventClass,
+			LDcSubscriptions subscriptions) {
+		LSubscriberSnapshot snapshot = subscriptions.snapshot;
+		if (snapshot == null) {
+			if (subscriptions.regularSubscribers.isEmpty()) {
+				snapshot = EMPTY_SNAPSHOT;
+			} else {
+				Set<LaraAbstractEventSubscriber> filteredSubscribers = new LinkedHashSet<>(
+						subscriptions.regularSubscribers);
+				synchronized (subscriptionLock) {
+					if (eventSubscriberMap.containsKey(eventClass)) {
+						filteredSubscribers.removeAll(eventSubscriberMap.get(eventClass));
+					}
 				}
+				snapshot = new LSubscriberSnapshot(filteredSubscribers);
 			}
+			subscriptions.snapshot = snapshot;
+		}
+		return snapshot;
+	}
 
-			if (subscribers != null) {
-				hasSubscribersHere = true;
-				logSubscribers(subscribers, event);
+	/**
+	 * Removes the only-once subscribers from the given subscriptions and records them as notified. Must be called
+	 * while holding {@link #subscriptionLock}.
+	 * 
+	 * @param key
+	 * @param subscriptions
+	 * @return only-once subscribers
+	 */
+	protected Set<LaraAbstractEventSubscriber> drainOnceSubscribersDc(LDcSubscriptionKey key,
+			LDcSubscriptions subscriptions) {
+		Set<LaraAbstractEventSubscriber> onceSubscribers = subscriptions.onceSubscribers;
+		subscriptions.onceSubscribers = null;
+		for (LaraAbstractEventSubscriber subscriber : onceSubscribers) {
+			if (!subscriptions.regularSubscribers.contains(subscriber)) {
+				unindexSubscriptionDc(subscriber, key);
+			}
+		}
+		if (subscriptions.isEmpty()) {
+			dcSubscriptions.remove(key);
+		}
 
-				// check whether the subscriber is already considered because it is registered
-				// for the event independent from decision configuration.
+		if (!eventSubscriberOnceMapDcNotified.containsKey(key.eventClass)) {
+			eventSubscriberOnceMapDcNotified.put(key.eventClass,
+					new HashMap<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>>());
+		}
+		eventSubscriberOnceMapDcNotified.get(key.eventClass).put(key.dc, onceSubscribers);
+		return onceSubscribers;
+	}
 
-				Set<LaraAbstractEventSubscriber> filteredSubscribers =
- new LinkedHashSet<>(subscribers);
-				if (eventSubscriberMap.containsKey(event.getClass())) {
-					for (LaraAbstractEventSubscriber subscriber : subscribers) {
-						if (eventSubscriberMap.get(event.getClass()).contains(subscriber)) {
-							filteredSubscribers.remove(subscriber);
+	protected boolean notifySubscribers(LaraEvent event, boolean hasSubscribers) {
+		boolean hasSubscribersHere = false;
+		if (event instanceof LaraDcSpecificEvent) {
+			LDcSubscriptionKey key = new LDcSubscriptionKey(event.getClass(),
+					((LaraDcSpecificEvent) event).getDecisionConfiguration());
+			LSubscriberSnapshot snapshot = null;
+			synchronized (subscriptionLock) {
+				LDcSubscriptions subscriptions = dcSubscriptions.get(key);
+				if (subscriptions != null) {
+					snapshot = getDcSubscriberSnapshot(event.getClass(), subscriptions);
+
+					// check whether the subscriber is already considered because it is registered
+					// for the event independent from decision configuration.
+					Set<LaraAbstractEventSubscriber> onceSubscribers = eventSubscriberOnceMap.get(event.getClass());
+					if (subscriptions.onceSubscribers != null || onceSubscribers != null) {
+						Set<LaraAbstractEventSubscriber> filteredSubscribers = new LinkedHashSet<>();
+						if (subscriptions.onceSubscribers != null) {
+							filteredSubscribers.addAll(drainOnceSubscribersDc(key, subscriptions));
+							if (eventSubscriberMap.containsKey(event.getClass())) {
+								filteredSubscribers.removeAll(eventSubscriberMap.get(event.getClass()));
+							}
 						}
-					}
-				}
-
-				if (eventSubscriberOnceMap.containsKey(event.getClass())) {
-					for (LaraAbstractEventSubscriber subscriber : subscribers) {
-						if (eventSubscriberOnceMap.get(event.getClass()).contains(subscriber)) {
-							filteredSubscribers.remove(subscriber);
+						Collections.addAll(filteredSubscribers, snapshot.subscribers);
+						if (onceSubscribers != null) {
+							filteredSubscribers.removeAll(onceSubscribers);
 						}
+						snapshot = new LSubscriberSnapshot(filteredSubscribers);
 					}
 				}
+			}
 
-				logger.debug(this + "> Notifying " + filteredSubscribers.size() + " subscriber(s) of event of type "
+			if (snapshot != null) {
+				hasSubscribersHere = true;
+				logSubscribers(snapshot, event);
+
+				logger.debug(this + "> Notifying " + snapshot.size() + " subscriber(s) of event of type "
 						+ event.getClass().getSimpleName());
 
 				// notify subscribers according to event type
 				if (event instanceof LaraSynchronousEvent) {
-					if (this.forceSequential) {
-						notifySubscribersSequential(filteredSubscribers, event);
-					} else {
-						// starts several threads and waits until last one has
-						// finished
-						notifySubscribersSynchronous(filteredSubscribers, event);
-					}
+					notifySubscribersSynchronousEvent(snapshot, event);
 				} else if (event instanceof LaraAsynchronousEvent) {
-					notifySubscribersAsynchronous(filteredSubscribers, event);
+					notifySubscribersAsynchronous(snapshot, event);
 				} else {
-					notifySubscribersSequential(filteredSubscribers, event);
+					notifySubscribersSequential(snapshot, event);
 				}
 			}
 
@@ -193,14 +412,14 @@ public class LDcSpecificEventbus extends LEventbus {
 	}
 
 	/**
-	 * Unsubscribes all subscribers from the given event class. Note: This method is inefficient since it iterates over
-	 * all registered events.
+	 * Unsubscribes all subscribers from the given event class.
 	 * 
 	 * @param eventClass
 	 */
 	public void unsubscribe(Class<? extends LaraEvent> eventClass) {
-		eventSubscriberMapDc.remove(eventClass);
-		eventSubscriberOnceMapDc.remove(eventClass);
+		synchronized (subscriptionLock) {
+			removeSubscriptionsDc(eventClass);
+		}
 		super.unsubscribe(eventClass);
 	}
 
@@ -211,48 +430,47 @@ public class LDcSpecificEventbus extends LEventbus {
 	 *        to unsubscribe
 	 */
 	public void unsubscribe(LaraEvent event) {
-		eventSubscriberMapDc.remove(event.getClass());
-		eventSubscriberOnceMapDc.remove(event.getClass());
+		synchronized (subscriptionLock) {
+			removeSubscriptionsDc(event.getClass());
+		}
 		super.unsubscribe(event);
 	}
 
 	/**
-	 * Unsubscribe the given subscriber from all events. NOTE: This method is inefficient since it iterates over all
-	 * registered events!
+	 * Unsubscribe the given subscriber from all events. Decision configuration specific subscriptions are looked up in
+	 * {@link #subscriptionIndexDc}.
 	 * 
 	 * @param subscriber
 	 */
 	public void unsubscribe(LaraAbstractEventSubscriber subscriber) {
-		for (Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> sets : eventSubscriberMapDc.values()) {
-			for (Set<LaraAbstractEventSubscriber> subscribers : sets.values()) {
-				subscribers.remove(subscriber);
-			}
-		}
-
-		for (Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> onceSets : eventSubscriberOnceMapDc
-				.values()) {
-			for (Set<LaraAbstractEventSubscriber> subscribers : onceSets.values()) {
-				subscribers.remove(subscriber);
+		synchronized (subscriptionLock) {
+			Set<LDcSubscriptionKey> keys = subscriptionIndexDc.remove(subscriber);
+			if (keys != null) {
+				for (LDcSubscriptionKey key : keys) {
+					removeSubscriptionDc(subscriber, key);
+				}
 			}
 		}
 		super.unsubscribe(subscriber);
 	}
 
 	/**
-	 * Unsubscribe the given subscriber from all events for the given decision configuration. NOTE: This method is
-	 * inefficient since it iterates over all registered events!
+	 * Unsubscribe the given subscriber from all events for the given decision configuration. Decision configuration
+	 * specific subscriptions are looked up in {@link #subscriptionIndexDc}.
 	 * 
 	 * @param subscriber
 	 * @param dc
 	 */
 	public void unsubscribe(LaraAbstractEventSubscriber subscriber, LaraDecisionConfiguration dc) {
-		for (Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> sets : eventSubscriberMapDc.values()) {
-			sets.get(dc).remove(subscriber);
-		}
-
-		for (Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> onceSets : eventSubscriberOnceMapDc
-				.values()) {
-			onceSets.get(dc).remove(subscriber);
+		synchronized (subscriptionLock) {
+			if (subscriptionIndexDc.containsKey(subscriber)) {
+				for (LDcSubscriptionKey key : new ArrayList<>(subscriptionIndexDc.get(subscriber))) {
+					if (dc == null ? key.dc == null : dc.equals(key.dc)) {
+						removeSubscriptionDc(subscriber, key);
+						unindexSubscriptionDc(subscriber, key);
+					}
+				}
+			}
 		}
 		super.unsubscribe(subscriber);
 	}
@@ -264,16 +482,15 @@ public class LDcSpecificEventbus extends LEventbus {
 	 * @param eventClass
 	 */
 	public void unsubscribe(LaraAbstractEventSubscriber subscriber, Class<? extends LaraEvent> eventClass) {
-		if (eventSubscriberMapDc.containsKey(eventClass)) {
-			for (Entry<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> dcs : eventSubscriberMapDc.get(
-					eventClass).entrySet())
-				dcs.getValue().remove(subscriber);
-		}
-
-		if (eventSubscriberOnceMapDc.containsKey(eventClass)) {
-			for (Entry<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> dcs : eventSubscriberOnceMapDc.get(
-					eventClass).entrySet())
-				dcs.getValue().remove(subscriber);
+		synchronized (subscriptionLock) {
+			if (subscriptionIndexDc.containsKey(subscriber)) {
+				for (LDcSubscriptionKey key : new ArrayList<>(subscriptionIndexDc.get(subscriber))) {
+					if (key.eventClass == eventClass) {
+						removeSubscriptionDc(subscriber, key);
+						unindexSubscriptionDc(subscriber, key);
+					}
+				}
+			}
 		}
 		super.unsubscribe(subscriber, eventClass);
 	}
@@ -282,8 +499,10 @@ public class LDcSpecificEventbus extends LEventbus {
 	 * Clears eventsThisTimestamp, event subscriber map, event-waiting counters, and statistics.
 	 */
 	public void resetInstance() {
-		eventSubscriberMapDc.clear();
-		eventSubscriberOnceMapDc.clear();
+		synchronized (subscriptionLock) {
+			dcSubscriptions.clear();
+			subscriptionIndexDc.clear();
+		}
 		super.resetInstance();
 	}
 
@@ -292,23 +511,28 @@ public class LDcSpecificEventbus extends LEventbus {
 	 */
 	protected void resetTimeStep() {
 		super.resetTimeStep();
-		eventSubscriberOnceMapDcNotified.clear();
+		synchronized (subscriptionLock) {
+			eventSubscriberOnceMapDcNotified.clear();
+		}
 	}
 
 	public Set<Class<? extends LaraEvent>> getAllConsideredEvents() {
 		Set<Class<? extends LaraEvent>> events = super.getAllConsideredEvents();
-		if (!this.eventSubscriberMapDc.isEmpty())
-			events.addAll(this.eventSubscriberMapDc.keySet());
-		if (!this.eventSubscriberOnceMapDc.isEmpty())
-			events.addAll(this.eventSubscriberOnceMapDc.keySet());
+		synchronized (subscriptionLock) {
+			for (LDcSubscriptionKey key : this.dcSubscriptions.keySet())
+				events.add(key.eventClass);
+		}
 		return events;
 	}
 
 	public Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> getRegularSubscribersDc(
 			Class<? extends LaraEvent> eventClass) {
 		Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> map = new HashMap<>();
-		if (this.eventSubscriberMapDc.containsKey(eventClass))
-			map.putAll(this.eventSubscriberMapDc.get(eventClass));
+		synchronized (subscriptionLock) {
+			for (Entry<LDcSubscriptionKey, LDcSubscriptions> entry : this.dcSubscriptions.entrySet())
+				if (entry.getKey().eventClass == eventClass && !entry.getValue().regularSubscribers.isEmpty())
+					map.put(entry.getKey().dc, new LinkedHashSet<>(entry.getValue().regularSubscribers));
+		}
 
 		return map;
 	}
@@ -316,8 +540,10 @@ public class LDcSpecificEventbus extends LEventbus {
 	public Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> getSingularSubscribersDc(
 			Class<? extends LaraEvent> eventClass) {
 		Map<LaraDecisionConfiguration, Set<LaraAbstractEventSubscriber>> map = new HashMap<>();
-		if (this.eventSubscriberOnceMapDcNotified.containsKey(eventClass))
-			map.putAll(this.eventSubscriberOnceMapDcNotified.get(eventClass));
+		synchronized (subscriptionLock) {
+			if (this.eventSubscriberOnceMapDcNotified.containsKey(eventClass))
+				map.putAll(this.eventSubscriberOnceMapDcNotified.get(eventClass));
+		}
 
 		return map;
 	}
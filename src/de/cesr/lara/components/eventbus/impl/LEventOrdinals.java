@@ -0,0 +1,99 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.impl;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+
+/**
+ * Registry of ordinals for event classes. Ordinals are assigned on first
+ * request and shared by all eventbuses, which enables to record the event
+ * classes that occurred during a time step as a {@link BitSet}.
+ */
+public class LEventOrdinals {
+
+	protected static final Map<Class<?>, Integer> ordinals = new ConcurrentHashMap<Class<?>, Integer>();
+
+	/**
+	 * Ordinals of each event class and all its super types that are event
+	 * types themselves
+	 */
+	protected static final Map<Class<?>, BitSet> assignableOrdinals = new ConcurrentHashMap<Class<?>, BitSet>();
+
+	protected static final AtomicInteger counter = new AtomicInteger();
+
+	private LEventOrdinals() {
+	}
+
+	/**
+	 * @param eventClass
+	 * @return ordinal of the given event class (assigned if not yet
+	 *         registered)
+	 */
+	public static int getOrdinal(Class<?> eventClass) {
+		Integer ordinal = ordinals.get(eventClass);
+		if (ordinal == null) {
+			synchronized (ordinals) {
+				ordinal = ordinals.get(eventClass);
+				if (ordinal == null) {
+					ordinal = Integer.valueOf(counter.getAndIncrement());
+					ordinals.put(eventClass, ordinal);
+				}
+			}
+		}
+		return ordinal.intValue();
+	}
+
+	/**
+	 * The returned set must not be modified.
+	 * 
+	 * @param eventClass
+	 * @return ordinals of the given event class and of all its super classes
+	 *         and interfaces that are assignable to {@link LaraEvent}
+	 */
+	public static BitSet getAssignableOrdinals(Class<?> eventClass) {
+		BitSet assignable = assignableOrdinals.get(eventClass);
+		if (assignable == null) {
+			assignable = new BitSet();
+			Deque<Class<?>> types = new ArrayDeque<Class<?>>();
+			types.add(eventClass);
+			while (!types.isEmpty()) {
+				Class<?> type = types.poll();
+				if (LaraEvent.class.isAssignableFrom(type)) {
+					assignable.set(getOrdinal(type));
+					if (type.getSuperclass() != null) {
+						types.add(type.getSuperclass());
+					}
+					for (Class<?> i : type.getInterfaces()) {
+						types.add(i);
+					}
+				}
+			}
+			assignableOrdinals.put(eventClass, assignable);
+		}
+		return assignable;
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.eventbus.events.LaraHasConsecutiveEvent;
+import de.cesr.lara.components.eventbus.events.LaraRequiresPrecedingEvent;
+import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+
+/**
+ * Publishes a set of events of one time step at an {@link LEventbus} according
+ * to their dependencies. Each event forms a chain together with its
+ * consecutive events (see {@link LaraHasConsecutiveEvent}), which are
+ * published by the eventbus one after another. A chain that contains an event
+ * requiring a preceding event class (see {@link LaraRequiresPrecedingEvent})
+ * is published after all chains that contain an event of this class.
+ * Independent chains are published concurrently.
+ * 
+ * Requirements that are not met by any of the scheduled chains are checked
+ * by the eventbus on publication as usual. Scheduled events must not start a
+ * new time step (i.e. be of type LModelStepEvent).
+ */
+public class LEventScheduler {
+
+	/**
+	 * Chain of an event and its consecutive events
+	 */
+	protected static class LEventNode {
+
+		protected final LaraEvent event;
+
+		/**
+		 * Position in {@link LEventScheduler#nodes}
+		 */
+		protected final int index;
+
+		/**
+		 * Classes of the event and its consecutive events
+		 */
+		protected final Set<Class<? extends LaraEvent>> eventClasses = new HashSet<Class<? extends LaraEvent>>();
+
+		/**
+		 * Classes required by the event or one of its consecutive events
+		 */
+		protected final Set<Class<? extends LaraEvent>> requiredClasses = new HashSet<Class<? extends LaraEvent>>();
+
+		protected final Set<LEventNode> successors = new LinkedHashSet<LEventNode>();
+
+		protected int numPredecessors = 0;
+
+		/**
+		 * Predecessors not yet published during {@link LEventScheduler#publish()}
+		 */
+		protected final AtomicInteger numPendingPredecessors = new AtomicInteger();
+
+		protected LEventNode(LaraEvent event, int index) {
+			this.event = event;
+			this.index = index;
+			LaraEvent e = event;
+			while (e != null && eventClasses.add(e.getClass())) {
+				if (e instanceof LaraRequiresPrecedingEvent) {
+					requiredClasses.add(((LaraRequiresPrecedingEvent) e)
+							.getRequiredPrecedingEventClass());
+				}
+				e = e instanceof LaraHasConsecutiveEvent ? ((LaraHasConsecutiveEvent) e)
+						.getConsecutiveEvent() : null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return event.getClass().getSimpleName();
+		}
+	}
+
+	/**
+	 * Logger
+	 */
+	private static Logger logger = Log4jLogger.getLogger(LEventScheduler.class);
+
+	protected final LEventbus eventbus;
+
+	protected final List<LEventNode> nodes = new ArrayList<LEventNode>();
+
+	/**
+	 * @param eventbus
+	 *            eventbus to publish events at
+	 * @param events
+	 *            events to schedule
+	 */
+	public LEventScheduler(LEventbus eventbus,
+			Collection<? extends LaraEvent> events) {
+		this.eventbus = eventbus;
+		for (LaraEvent event : events) {
+			nodes.add(new LEventNode(event, nodes.size()));
+		}
+		for (LEventNode node : nodes) {
+			for (LEventNode predecessor : nodes) {
+				if (predecessor != node) {
+					for (Class<? extends LaraEvent> required : node.requiredClasses) {
+						if (predecessor.eventClasses.contains(required)
+								&& predecessor.successors.add(node)) {
+							node.numPredecessors++;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return events in an order that satisfies all dependencies
+	 * @throws IllegalStateException
+	 *             if the dependencies are cyclic
+	 */
+	public List<LaraEvent> getOrder() {
+		List<LaraEvent> order = new ArrayList<LaraEvent>(nodes.size());
+		int[] numPending = new int[nodes.size()];
+		Deque<LEventNode> ready = new ArrayDeque<LEventNode>();
+		for (int i = 0; i < nodes.size(); i++) {
+			numPending[i] = nodes.get(i).numPredecessors;
+			if (numPending[i] == 0) {
+				ready.add(nodes.get(i));
+			}
+		}
+		while (!ready.isEmpty()) {
+			LEventNode node = ready.poll();
+			order.add(node.event);
+			for (LEventNode successor : node.successors) {
+				if (--numPending[successor.index] == 0) {
+					ready.add(successor);
+				}
+			}
+		}
+		if (order.size() < nodes.size()) {
+			List<LEventNode> cyclic = new ArrayList<LEventNode>();
+			for (int i = 0; i < nodes.size(); i++) {
+				if (numPending[i] > 0) {
+					cyclic.add(nodes.get(i));
+				}
+			}
+			throw new IllegalStateException(
+					"Cyclic precedence requirements between events " + cyclic);
+		}
+		return order;
+	}
+
+	/**
+	 * Publishes all scheduled events. Chains are published in the eventbus'
+	 * scheduler pool, or sequentially in the calling thread if the eventbus
+	 * runs in FORCE_SEQUENTIAL mode. Returns when all chains have been
+	 * published.
+	 * 
+	 * @throws IllegalStateException
+	 *             if the dependencies are cyclic
+	 */
+	public void publish() {
+		List<LaraEvent> order = getOrder();
+
+		if (eventbus.isForceSequential() || nodes.size() < 2) {
+			for (LaraEvent event : order) {
+				eventbus.publish(event);
+			}
+			return;
+		}
+
+		// <- LOGGING
+		logger.info(eventbus + "> Schedule " + nodes.size() + " event chains");
+		// LOGGING ->
+
+		final ExecutorService pool = eventbus.getSchedulerPool();
+		final CountDownLatch latch = new CountDownLatch(nodes.size());
+		final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+		for (LEventNode node : nodes) {
+			node.numPendingPredecessors.set(node.numPredecessors);
+		}
+		for (LEventNode node : nodes) {
+			if (node.numPredecessors == 0) {
+				submit(pool, node, latch, failure);
+			}
+		}
+
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.error(eventbus + "> Waiting for scheduled events failed", e);
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+	}
+
+	/**
+	 * Publishes the node's event and submits successors whose predecessors
+	 * have all been published. Once an event failed, remaining chains are
+	 * skipped. If the pool rejects the task (e.g. because it has been shut
+	 * down concurrently) the submitting thread publishes the chain itself.
+	 * 
+	 * @param pool
+	 * @param node
+	 * @param latch
+	 * @param failure
+	 */
+	protected void submit(final ExecutorService pool, final LEventNode node,
+			final CountDownLatch latch,
+			final AtomicReference<RuntimeException> failure) {
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (failure.get() == null) {
+						eventbus.publish(node.event);
+					}
+				} catch (RuntimeException e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					for (LEventNode successor : node.successors) {
+						if (successor.numPendingPredecessors.decrementAndGet() == 0) {
+							submit(pool, successor, latch, failure);
+						}
+					}
+					latch.countDown();
+				}
+			}
+		};
+		try {
+			pool.execute(task);
+		} catch (RejectedExecutionException e) {
+			// pool has been shut down concurrently - submitting thread
+			// publishes the chain
+			logger.warn(eventbus + "> Scheduler pool rejected task for event "
+					+ node.event.getClass().getSimpleName());
+			task.run();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.impl;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.cesr.lara.components.eventbus.events.LModelFinishEvent;
+import de.cesr.lara.components.param.LBasicPa;
+
+/**
+ * Counters of an {@link LEventbus} for one event class. Recorded only if
+ * {@link LBasicPa#EVENTBUS_STATISTICS} is set and logged on
+ * {@link LModelFinishEvent}. Counters may be updated concurrently by worker
+ * threads.
+ */
+public class LEventStatistics {
+
+	protected final Class<?> eventClass;
+
+	protected final LongAdder numPublications = new LongAdder();
+
+	protected final LongAdder numNotifications = new LongAdder();
+
+	protected final LongAdder publicationNanos = new LongAdder();
+
+	protected final LongAccumulator maxSubscriberNanos = new LongAccumulator(
+			Math::max, 0L);
+
+	protected final LongAdder numParallelDispatches = new LongAdder();
+
+	protected final DoubleAdder imbalanceSum = new DoubleAdder();
+
+	/**
+	 * @param eventClass
+	 */
+	public LEventStatistics(Class<?> eventClass) {
+		this.eventClass = eventClass;
+	}
+
+	/**
+	 * @param nanos
+	 *            wall time of the publication
+	 */
+	public void recordPublication(long nanos) {
+		numPublications.increment();
+		publicationNanos.add(nanos);
+	}
+
+	/**
+	 * @param nanos
+	 *            time a single subscriber took to handle the event
+	 */
+	public void recordNotification(long nanos) {
+		numNotifications.increment();
+		maxSubscriberNanos.accumulate(nanos);
+	}
+
+	/**
+	 * Records the imbalance of a parallel dispatch. Dispatches that only one
+	 * worker took part in are ignored.
+	 * 
+	 * @param workerNanos
+	 *            busy time of each worker that took part in a parallel
+	 *            dispatch (workers that did not notify any subscriber must
+	 *            not be included)
+	 */
+	public void recordWorkerNanos(long[] workerNanos) {
+		if (workerNanos.length < 2) {
+			return;
+		}
+		long max = 0;
+		long sum = 0;
+		for (long nanos : workerNanos) {
+			max = Math.max(max, nanos);
+			sum += nanos;
+		}
+		if (sum > 0) {
+			numParallelDispatches.increment();
+			imbalanceSum.add(max * (double) workerNanos.length / sum);
+		}
+	}
+
+	/**
+	 * @return number of publications
+	 */
+	public long getNumPublications() {
+		return numPublications.sum();
+	}
+
+	/**
+	 * @return number of subscriber notifications
+	 */
+	public long getNumNotifications() {
+		return numNotifications.sum();
+	}
+
+	/**
+	 * @return wall time of all publications in ns (including events published
+	 *         by subscribers and consecutive events)
+	 */
+	public long getPublicationNanos() {
+		return publicationNanos.sum();
+	}
+
+	/**
+	 * @return longest time a single subscriber took to handle the event in ns
+	 */
+	public long getMaxSubscriberNanos() {
+		return maxSubscriberNanos.get();
+	}
+
+	/**
+	 * @return number of parallel dispatches the imbalance is recorded for
+	 *         (i.e. with at least two workers taking part)
+	 */
+	public long getNumParallelDispatches() {
+		return numParallelDispatches.sum();
+	}
+
+	/**
+	 * @return mean ratio of the longest worker busy time to the average worker
+	 *         busy time of parallel dispatches (1.0 means perfect balance)
+	 */
+	public double getMeanImbalance() {
+		long num = numParallelDispatches.sum();
+		return num == 0 ? Double.NaN : imbalanceSum.sum() / num;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return eventClass.getSimpleName() + ": publications="
+				+ getNumPublications() + ", notifications="
+				+ getNumNotifications() + ", time[ms]="
+				+ getPublicationNanos() / 1000000.0
+				+ ", max subscriber time[ms]=" + getMaxSubscriberNanos()
+				/ 1000000.0 + ", mean worker imbalance="
+				+ getMeanImbalance();
+	}
+}
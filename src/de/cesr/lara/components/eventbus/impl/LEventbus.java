@@ -19,13 +19,25 @@
  */
 package de.cesr.lara.components.eventbus.impl;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.collections15.BidiMap;
 import org.apache.commons.collections15.bidimap.DualHashBidiMap;
@@ -35,6 +47,7 @@ import org.apache.log4j.Priority;
 import de.cesr.lara.components.eventbus.LaraAbstractEventSubscriber;
 import de.cesr.lara.components.eventbus.LaraEventSubscriber;
 import de.cesr.lara.components.eventbus.LaraInternalEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LModelFinishEvent;
 import de.cesr.lara.components.eventbus.events.LModelStepEvent;
 import de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
@@ -62,6 +75,236 @@ import de.cesr.parma.core.PmParameterManager;
  */
 public class LEventbus {
 
+	/**
+	 * Immutable snapshot of the subscribers of an event class, split into
+	 * internal and non-internal subscribers. The snapshot of regular
+	 * subscribers is built on the first publication after a subscription
+	 * change and replaced atomically, so publishing reads plain arrays without
+	 * locking, iterators or type tests.
+	 */
+	protected static class LSubscriberSnapshot {
+
+		/**
+		 * All subscribers in order of subscription
+		 */
+		protected final LaraAbstractEventSubscriber[] subscribers;
+
+		protected final LaraInternalEventSubscriber[] internalSubscribers;
+
+		protected final LaraEventSubscriber[] eventSubscribers;
+
+		/**
+		 * Internal subscribers per partition (see
+		 * {@link LSynchronousDispatchMode#PARTITIONED}). Built on demand.
+		 */
+		protected volatile LaraAbstractEventSubscriber[][] internalPartitions = null;
+
+		/**
+		 * Non-internal subscribers per partition (see
+		 * {@link LSynchronousDispatchMode#PARTITIONED}). Built on demand.
+		 */
+		protected volatile LaraAbstractEventSubscriber[][] eventPartitions = null;
+
+		/**
+		 * @param subscribers
+		 */
+		protected LSubscriberSnapshot(
+				Collection<LaraAbstractEventSubscriber> subscribers) {
+			this.subscribers = subscribers
+					.toArray(new LaraAbstractEventSubscriber[subscribers.size()]);
+			int numInternal = 0;
+			int numEvent = 0;
+			for (LaraAbstractEventSubscriber s : this.subscribers) {
+				if (s instanceof LaraInternalEventSubscriber) {
+					numInternal++;
+				}
+				if (s instanceof LaraEventSubscriber) {
+					numEvent++;
+				}
+			}
+			internalSubscribers = new LaraInternalEventSubscriber[numInternal];
+			eventSubscribers = new LaraEventSubscriber[numEvent];
+			numInternal = 0;
+			numEvent = 0;
+			for (LaraAbstractEventSubscriber s : this.subscribers) {
+				if (s instanceof LaraInternalEventSubscriber) {
+					internalSubscribers[numInternal++] = (LaraInternalEventSubscriber) s;
+				}
+				if (s instanceof LaraEventSubscriber) {
+					eventSubscribers[numEvent++] = (LaraEventSubscriber) s;
+				}
+			}
+		}
+
+		/**
+		 * @return number of subscribers
+		 */
+		protected int size() {
+			return subscribers.length;
+		}
+	}
+
+	/**
+	 * Notifies a range of subscribers and splits the range recursively into
+	 * halves until it is not larger than the threshold. Idle workers of the
+	 * {@link ForkJoinPool} steal the forked halves.
+	 */
+	protected static class LNotificationTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final LaraAbstractEventSubscriber[] subscribers;
+		protected final int from;
+		protected final int to;
+		protected final int threshold;
+		protected final LaraEvent event;
+		protected final boolean internal;
+		protected final LEventStatistics statistics;
+		protected final LWorkerNanos workerNanos;
+
+		/**
+		 * @param subscribers
+		 *            either {@link LaraInternalEventSubscriber}s or
+		 *            {@link LaraEventSubscriber}s
+		 * @param internal
+		 *            true if subscribers are {@link LaraInternalEventSubscriber}s
+		 * @param from
+		 *            (inclusive)
+		 * @param to
+		 *            (exclusive)
+		 * @param threshold
+		 *            maximum number of subscribers notified without further
+		 *            splitting
+		 * @param event
+		 * @param statistics
+		 *            <code>null</code> if statistics are not recorded
+		 * @param workerNanos
+		 *            <code>null</code> if busy times are not measured
+		 */
+		protected LNotificationTask(LaraAbstractEventSubscriber[] subscribers,
+				boolean internal, int from, int to, int threshold,
+				LaraEvent event, LEventStatistics statistics,
+				LWorkerNanos workerNanos) {
+			this.subscribers = subscribers;
+			this.internal = internal;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+			this.event = event;
+			this.statistics = statistics;
+			this.workerNanos = workerNanos;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				long start = workerNanos == null ? 0 : System.nanoTime();
+				if (statistics != null) {
+					notifySubscribersRecorded(subscribers, from, to, event,
+							internal, statistics);
+				} else if (internal) {
+					for (int i = from; i < to; i++) {
+						((LaraInternalEventSubscriber) subscribers[i])
+								.onInternalEvent(event);
+					}
+				} else {
+					for (int i = from; i < to; i++) {
+						((LaraEventSubscriber) subscribers[i]).onEvent(event);
+					}
+				}
+				if (workerNanos != null) {
+					workerNanos.add(System.nanoTime() - start);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new LNotificationTask(subscribers, internal, from,
+						middle, threshold, event, statistics, workerNanos),
+						new LNotificationTask(subscribers, internal, middle, to,
+								threshold, event, statistics, workerNanos));
+			}
+		}
+	}
+
+	/**
+	 * Busy time of each thread that takes part in a parallel notification.
+	 * Each thread only updates its own entry.
+	 */
+	protected static class LWorkerNanos {
+
+		protected final Map<Thread, long[]> nanos = new ConcurrentHashMap<Thread, long[]>();
+
+		/**
+		 * Adds the given busy time of the calling thread.
+		 * 
+		 * @param workerNanos
+		 */
+		protected void add(long workerNanos) {
+			long[] threadNanos = nanos.get(Thread.currentThread());
+			if (threadNanos == null) {
+				threadNanos = new long[1];
+				nanos.put(Thread.currentThread(), threadNanos);
+			}
+			threadNanos[0] += workerNanos;
+		}
+
+		/**
+		 * Must not be called before all workers have finished.
+		 * 
+		 * @return busy time of each thread that took part
+		 */
+		protected long[] getWorkerNanos() {
+			long[] workerNanos = new long[nanos.size()];
+			int i = 0;
+			for (long[] threadNanos : nanos.values()) {
+				workerNanos[i++] = threadNanos[0];
+			}
+			return workerNanos;
+		}
+
+		/**
+		 * Must not be called before all workers have finished.
+		 * 
+		 * @return summed busy time of all threads that took part
+		 */
+		protected long getTotalNanos() {
+			long total = 0;
+			for (long[] threadNanos : nanos.values()) {
+				total += threadNanos[0];
+			}
+			return total;
+		}
+	}
+
+	/**
+	 * Recent cost of notifying subscribers of an event class, used for
+	 * adaptive dispatch.
+	 */
+	protected static class LDispatchProfile {
+
+		/**
+		 * Weight of the latest measurement in the moving average
+		 */
+		protected static final double ALPHA = 0.25;
+
+		/**
+		 * Exponential moving average of subscriber cost in ns (NaN if not
+		 * measured yet)
+		 */
+		protected volatile double nanosPerSubscriber = Double.NaN;
+
+		/**
+		 * @param nanos
+		 *            summed subscriber time of a notification
+		 * @param numSubscribers
+		 */
+		protected void record(long nanos, int numSubscribers) {
+			double cost = (double) nanos / numSubscribers;
+			double previous = nanosPerSubscriber;
+			nanosPerSubscriber = Double.isNaN(previous) ? cost : previous
+					+ ALPHA * (cost - previous);
+		}
+	}
+
 	protected static LEventbus instance = null;
 	protected static BidiMap<Object, LEventbus> instances = new DualHashBidiMap<Object, LEventbus>();
 	private static Logger logger = Log4jLogger.getLogger(LEventbus.class);
@@ -178,16 +421,123 @@ public class LEventbus {
 
 	protected boolean forceSequential;
 
-	protected volatile Set<Class<? extends LaraEvent>> eventsThisTimestep = new HashSet<Class<? extends LaraEvent>>();
+	/**
+	 * Number of worker threads of {@link #workerPool}
+	 */
+	protected int numWorkerThreads;
+
+	/**
+	 * Number of subscribers notified sequentially by one worker task. Values
+	 * below 1 trigger automatic chunk sizing.
+	 */
+	protected int workerChunkSize;
+
+	/**
+	 * Long-lived pool of worker threads for synchronous event notification.
+	 * Created lazily on first parallel notification and shut down by
+	 * {@link #resetInstance()}.
+	 */
+	protected ExecutorService workerPool = null;
+
+	/**
+	 * Strategy for parallel notification of synchronous events
+	 */
+	protected LSynchronousDispatchMode dispatchMode;
+
+	/**
+	 * If true, parallel or sequential notification of synchronous events is
+	 * decided per event class (see {@link #isParallelDispatch(LaraEvent, int)})
+	 */
+	protected boolean adaptiveDispatch;
+
+	protected int parallelMinSubscribers;
+
+	protected long parallelMinNanos;
+
+	/**
+	 * Per event class overrides of the dispatch decision (true for parallel)
+	 */
+	protected final Map<Class<? extends LaraEvent>, Boolean> parallelDispatchOverrides = new ConcurrentHashMap<Class<? extends LaraEvent>, Boolean>();
+
+	protected final Map<Class<? extends LaraEvent>, LDispatchProfile> dispatchProfiles = new ConcurrentHashMap<Class<? extends LaraEvent>, LDispatchProfile>();
+
+	/**
+	 * Pool for {@link LSynchronousDispatchMode#FORK_JOIN}. Created lazily and
+	 * shut down by {@link #resetInstance()}.
+	 */
+	protected ForkJoinPool forkJoinPool = null;
+
+	/**
+	 * Queue for notifications of subscribers of
+	 * {@link LaraAsynchronousEvent}s. Created lazily and shut down by
+	 * {@link #resetInstance()}.
+	 */
+	protected LAsyncEventQueue asyncQueue = null;
+
+	/**
+	 * Pool for chains of events published by an {@link LEventScheduler}.
+	 * Created lazily and shut down by {@link #resetInstance()}.
+	 */
+	protected ExecutorService schedulerPool = null;
+
+	/**
+	 * Single-thread executors for {@link LSynchronousDispatchMode#PARTITIONED},
+	 * one per partition. Created lazily and shut down by
+	 * {@link #resetInstance()}.
+	 */
+	protected ExecutorService[] partitionWorkers = null;
+
+	/**
+	 * True for threads of {@link #partitionWorkers}
+	 */
+	protected final ThreadLocal<Boolean> inPartitionWorker = new ThreadLocal<Boolean>();
+
+	/**
+	 * Ordinals of subscribers that determine their partition (see
+	 * {@link LSynchronousDispatchMode#PARTITIONED}). Assigned in order of
+	 * first subscription while holding {@link #subscriptionLock}.
+	 */
+	protected final Map<LaraAbstractEventSubscriber, Integer> partitionOrdinals = new ConcurrentHashMap<LaraAbstractEventSubscriber, Integer>();
+
+	protected int nextPartitionOrdinal = 0;
+
+	/**
+	 * Snapshots of {@link #eventSubscriberMap} per event class. Removed on
+	 * subscription changes and rebuilt on demand.
+	 */
+	protected final Map<Class<? extends LaraEvent>, LSubscriberSnapshot> subscriberSnapshots = new ConcurrentHashMap<Class<? extends LaraEvent>, LSubscriberSnapshot>();
+
+	/**
+	 * Guards changes of {@link #eventSubscriberMap},
+	 * {@link #subscriptionIndex} and the creation of
+	 * {@link #subscriberSnapshots}
+	 */
+	protected final Object subscriptionLock = new Object();
+
+	/**
+	 * Reverse index of {@link #eventSubscriberMap}: event classes each
+	 * subscriber is subscribed to
+	 */
+	protected final Map<LaraAbstractEventSubscriber, Set<Class<? extends LaraEvent>>> subscriptionIndex = new HashMap<LaraAbstractEventSubscriber, Set<Class<? extends LaraEvent>>>();
+
+	/**
+	 * Ordinals (see {@link LEventOrdinals}) of event classes that occurred
+	 * during the current time step. Guarded by itself.
+	 */
+	protected final BitSet eventsThisTimestep = new BitSet();
 
 	protected volatile Map<Class<? extends LaraEvent>, Set<LaraAbstractEventSubscriber>> eventSubscriberMap = new HashMap<Class<? extends LaraEvent>, Set<LaraAbstractEventSubscriber>>();
 
-	protected volatile Map<Class<? extends LaraEvent>, Set<LaraAbstractEventSubscriber>> eventSubscriberOnceMap = new HashMap<Class<? extends LaraEvent>, Set<LaraAbstractEventSubscriber>>();
+	protected volatile Map<Class<? extends LaraEvent>, Set<LaraAbstractEventSubscriber>> eventSubscriberOnceMap = new ConcurrentHashMap<Class<? extends LaraEvent>, Set<LaraAbstractEventSubscriber>>();
 
 	protected volatile Map<LaraEvent, Integer> eventWaitingCounters = new HashMap<LaraEvent, Integer>();
 
-	// TODO apply
-	protected final Map<Class<? extends LaraEvent>, Long> statistics = new HashMap<Class<? extends LaraEvent>, Long>();
+	/**
+	 * If true, {@link #statistics} are recorded
+	 */
+	protected boolean recordStatistics;
+
+	protected final Map<Class<? extends LaraEvent>, LEventStatistics> statistics = new ConcurrentHashMap<Class<? extends LaraEvent>, LEventStatistics>();
 
 	protected PmParameterManager pm;
 
@@ -206,6 +556,24 @@ public class LEventbus {
 		}
 		this.forceSequential = (Boolean) this.pm
 				.getParam(LBasicPa.EVENTBUS_FORCE_SEQUENTIAL);
+		this.numWorkerThreads = ((Integer) this.pm
+				.getParam(LBasicPa.EVENTBUS_NUM_WORKER_THREADS)).intValue();
+		if (this.numWorkerThreads < 1) {
+			this.numWorkerThreads = Runtime.getRuntime().availableProcessors();
+		}
+		this.workerChunkSize = ((Integer) this.pm
+				.getParam(LBasicPa.EVENTBUS_WORKER_CHUNK_SIZE)).intValue();
+		this.dispatchMode = (LSynchronousDispatchMode) this.pm
+				.getParam(LBasicPa.EVENTBUS_DISPATCH_MODE);
+		this.recordStatistics = ((Boolean) this.pm
+				.getParam(LBasicPa.EVENTBUS_STATISTICS)).booleanValue();
+		this.adaptiveDispatch = ((Boolean) this.pm
+				.getParam(LBasicPa.EVENTBUS_ADAPTIVE_DISPATCH)).booleanValue();
+		this.parallelMinSubscribers = ((Integer) this.pm
+				.getParam(LBasicPa.EVENTBUS_PARALLEL_MIN_SUBSCRIBERS))
+				.intValue();
+		this.parallelMinNanos = ((Integer) this.pm
+				.getParam(LBasicPa.EVENTBUS_PARALLEL_MIN_MICROS)).intValue() * 1000L;
 
 		// <- LOGGING
 		logger.info(this + "> Runs in FORCE_SEQUENTIAL mode? "
@@ -213,6 +581,386 @@ public class LEventbus {
 		// LOGGING ->
 	}
 
+	/**
+	 * Returns the worker pool of this eventbus and creates it if not present
+	 * (or shut down before). Worker threads are daemon threads in order not to
+	 * prevent the JVM from terminating.
+	 * 
+	 * @return worker pool
+	 */
+	protected synchronized ExecutorService getWorkerPool() {
+		if (workerPool == null || workerPool.isShutdown()) {
+			final String poolName = this.toString();
+			workerPool = Executors.newFixedThreadPool(numWorkerThreads,
+					new ThreadFactory() {
+						private final AtomicInteger threadCounter = new AtomicInteger();
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, poolName + " worker "
+									+ threadCounter.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			// <- LOGGING
+			logger.info(this + "> Started worker pool with " + numWorkerThreads
+					+ " thread(s)");
+			// LOGGING ->
+		}
+		return workerPool;
+	}
+
+	/**
+	 * Returns the fork/join pool of this eventbus and creates it if not
+	 * present. Its parallelism equals the number of worker threads.
+	 * 
+	 * @return fork/join pool
+	 */
+	protected synchronized ForkJoinPool getForkJoinPool() {
+		if (forkJoinPool == null || forkJoinPool.isShutdown()) {
+			forkJoinPool = new ForkJoinPool(numWorkerThreads);
+			// <- LOGGING
+			logger.info(this + "> Started fork/join pool with parallelism "
+					+ numWorkerThreads);
+			// LOGGING ->
+		}
+		return forkJoinPool;
+	}
+
+	/**
+	 * Returns the pool for chains of events published by an
+	 * {@link LEventScheduler} and creates it if not present. It is separate
+	 * from the worker pool since chains wait for their notifications to be
+	 * completed by worker threads.
+	 * 
+	 * @return scheduler pool
+	 */
+	protected synchronized ExecutorService getSchedulerPool() {
+		if (schedulerPool == null || schedulerPool.isShutdown()) {
+			final String poolName = this.toString();
+			schedulerPool = Executors.newFixedThreadPool(numWorkerThreads,
+					new ThreadFactory() {
+						private final AtomicInteger threadCounter = new AtomicInteger();
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, poolName + " scheduler "
+									+ threadCounter.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			// <- LOGGING
+			logger.info(this + "> Started scheduler pool with "
+					+ numWorkerThreads + " thread(s)");
+			// LOGGING ->
+		}
+		return schedulerPool;
+	}
+
+	/**
+	 * Returns the single-thread executors of partitions and creates them if
+	 * not present. There is one partition per worker thread.
+	 * 
+	 * @return partition workers
+	 */
+	protected synchronized ExecutorService[] getPartitionWorkers() {
+		if (partitionWorkers == null) {
+			partitionWorkers = new ExecutorService[numWorkerThreads];
+			for (int i = 0; i < numWorkerThreads; i++) {
+				final String threadName = this.toString() + " partition " + i;
+				partitionWorkers[i] = Executors
+						.newSingleThreadExecutor(new ThreadFactory() {
+							@Override
+							public Thread newThread(Runnable r) {
+								Thread thread = new Thread(r, threadName);
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+			}
+			// <- LOGGING
+			logger.info(this + "> Started " + numWorkerThreads
+					+ " partition worker(s)");
+			// LOGGING ->
+		}
+		return partitionWorkers;
+	}
+
+	/**
+	 * @return queue for notifications of subscribers of
+	 *         {@link LaraAsynchronousEvent}s
+	 */
+	protected synchronized LAsyncEventQueue getAsyncQueue() {
+		if (asyncQueue == null) {
+			int numConsumers = ((Integer) this.pm
+					.getParam(LBasicPa.EVENTBUS_ASYNC_NUM_CONSUMERS)).intValue();
+			if (numConsumers < 1) {
+				numConsumers = Runtime.getRuntime().availableProcessors();
+			}
+			asyncQueue = new LAsyncEventQueue(this.toString(),
+					((Integer) this.pm
+							.getParam(LBasicPa.EVENTBUS_ASYNC_QUEUE_CAPACITY))
+							.intValue(), numConsumers,
+					(LAsyncOverflowPolicy) this.pm
+							.getParam(LBasicPa.EVENTBUS_ASYNC_OVERFLOW),
+					((Integer) this.pm
+							.getParam(LBasicPa.EVENTBUS_ASYNC_BATCH_SIZE))
+							.intValue());
+			// <- LOGGING
+			logger.info(this + "> Started asynchronous event queue with "
+					+ numConsumers + " consumer(s)");
+			// LOGGING ->
+		}
+		return asyncQueue;
+	}
+
+	/**
+	 * Waits until all subscribers of asynchronous events published so far
+	 * have been notified.
+	 */
+	public void drainAsynchronousEvents() {
+		LAsyncEventQueue queue;
+		synchronized (this) {
+			queue = asyncQueue;
+		}
+		if (queue != null) {
+			queue.drain();
+		}
+	}
+
+	/**
+	 * Shuts down the worker pool, fork/join pool, scheduler pool and
+	 * asynchronous event queue (if present). Currently running notifications
+	 * are completed.
+	 */
+	protected synchronized void shutdownWorkerPool() {
+		if (workerPool != null) {
+			workerPool.shutdown();
+			workerPool = null;
+
+			// <- LOGGING
+			logger.info(this + "> Shut down worker pool");
+			// LOGGING ->
+		}
+		if (forkJoinPool != null) {
+			forkJoinPool.shutdown();
+			forkJoinPool = null;
+
+			// <- LOGGING
+			logger.info(this + "> Shut down fork/join pool");
+			// LOGGING ->
+		}
+		if (partitionWorkers != null) {
+			for (ExecutorService worker : partitionWorkers) {
+				worker.shutdown();
+			}
+			partitionWorkers = null;
+
+			// <- LOGGING
+			logger.info(this + "> Shut down partition workers");
+			// LOGGING ->
+		}
+		if (schedulerPool != null) {
+			schedulerPool.shutdown();
+			schedulerPool = null;
+
+			// <- LOGGING
+			logger.info(this + "> Shut down scheduler pool");
+			// LOGGING ->
+		}
+		if (asyncQueue != null) {
+			asyncQueue.shutdown();
+			asyncQueue = null;
+
+			// <- LOGGING
+			logger.info(this + "> Shut down asynchronous event queue");
+			// LOGGING ->
+		}
+	}
+
+	/**
+	 * Returns the snapshot of regular subscribers of the given event class.
+	 * 
+	 * @param eventClass
+	 * @return snapshot or <code>null</code> if no subscriber has been
+	 *         registered for the given event class
+	 */
+	protected LSubscriberSnapshot getSubscriberSnapshot(
+			Class<? extends LaraEvent> eventClass) {
+		LSubscriberSnapshot snapshot = subscriberSnapshots.get(eventClass);
+		if (snapshot == null) {
+			synchronized (subscriptionLock) {
+				snapshot = subscriberSnapshots.get(eventClass);
+				if (snapshot == null
+						&& eventSubscriberMap.containsKey(eventClass)) {
+					snapshot = new LSubscriberSnapshot(
+							eventSubscriberMap.get(eventClass));
+					subscriberSnapshots.put(eventClass, snapshot);
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Invalidates the snapshot of the given event class. Needs to be called
+	 * while holding {@link #subscriptionLock} after subscribers of the event
+	 * class have changed.
+	 * 
+	 * @param eventClass
+	 */
+	protected void invalidateSubscriberSnapshot(
+			Class<? extends LaraEvent> eventClass) {
+		subscriberSnapshots.remove(eventClass);
+	}
+
+	/**
+	 * Adds the given subscription to {@link #subscriptionIndex}. Needs to be
+	 * called while holding {@link #subscriptionLock}.
+	 * 
+	 * @param subscriber
+	 * @param eventClass
+	 */
+	protected void indexSubscription(LaraAbstractEventSubscriber subscriber,
+			Class<? extends LaraEvent> eventClass) {
+		Set<Class<? extends LaraEvent>> eventClasses = subscriptionIndex
+				.get(subscriber);
+		if (eventClasses == null) {
+			eventClasses = new HashSet<Class<? extends LaraEvent>>();
+			subscriptionIndex.put(subscriber, eventClasses);
+			partitionOrdinals.put(subscriber,
+					Integer.valueOf(nextPartitionOrdinal++));
+		}
+		eventClasses.add(eventClass);
+	}
+
+	/**
+	 * Removes the given subscription from {@link #subscriptionIndex}. Needs to
+	 * be called while holding {@link #subscriptionLock}.
+	 * 
+	 * @param subscriber
+	 * @param eventClass
+	 */
+	protected void unindexSubscription(LaraAbstractEventSubscriber subscriber,
+			Class<? extends LaraEvent> eventClass) {
+		Set<Class<? extends LaraEvent>> eventClasses = subscriptionIndex
+				.get(subscriber);
+		if (eventClasses != null) {
+			eventClasses.remove(eventClass);
+			if (eventClasses.isEmpty()) {
+				subscriptionIndex.remove(subscriber);
+				partitionOrdinals.remove(subscriber);
+			}
+		}
+	}
+
+	/**
+	 * Removes all regular subscriptions of the given event class. Needs to be
+	 * called while holding {@link #subscriptionLock}.
+	 * 
+	 * @param eventClass
+	 */
+	protected void removeSubscriptions(Class<? extends LaraEvent> eventClass) {
+		Set<LaraAbstractEventSubscriber> subscribers = eventSubscriberMap
+				.remove(eventClass);
+		if (subscribers != null) {
+			for (LaraAbstractEventSubscriber subscriber : subscribers) {
+				unindexSubscription(subscriber, eventClass);
+			}
+		}
+		invalidateSubscriberSnapshot(eventClass);
+	}
+
+	/**
+	 * @param event
+	 * @return statistics of the given event's class or <code>null</code> if
+	 *         statistics are not recorded
+	 */
+	protected LEventStatistics getEventStatistics(LaraEvent event) {
+		if (!recordStatistics) {
+			return null;
+		}
+		LEventStatistics eventStatistics = statistics.get(event.getClass());
+		if (eventStatistics == null) {
+			eventStatistics = new LEventStatistics(event.getClass());
+			LEventStatistics previous = statistics.putIfAbsent(
+					event.getClass(), eventStatistics);
+			if (previous != null) {
+				eventStatistics = previous;
+			}
+		}
+		return eventStatistics;
+	}
+
+	/**
+	 * Notifies a range of subscribers and records the time each subscriber
+	 * takes.
+	 * 
+	 * @param subscribers
+	 *            either {@link LaraInternalEventSubscriber}s or
+	 *            {@link LaraEventSubscriber}s
+	 * @param from
+	 *            index of first subscriber to notify (inclusive)
+	 * @param to
+	 *            index of last subscriber to notify (exclusive)
+	 * @param event
+	 * @param internal
+	 *            true if subscribers are {@link LaraInternalEventSubscriber}s
+	 * @param statistics
+	 * @return total time in ns
+	 */
+	protected static long notifySubscribersRecorded(
+			LaraAbstractEventSubscriber[] subscribers, int from, int to,
+			LaraEvent event, boolean internal, LEventStatistics statistics) {
+		long total = 0;
+		for (int i = from; i < to; i++) {
+			long start = System.nanoTime();
+			if (internal) {
+				((LaraInternalEventSubscriber) subscribers[i])
+						.onInternalEvent(event);
+			} else {
+				((LaraEventSubscriber) subscribers[i]).onEvent(event);
+			}
+			long nanos = System.nanoTime() - start;
+			statistics.recordNotification(nanos);
+			total += nanos;
+		}
+		return total;
+	}
+
+	/**
+	 * @param eventClass
+	 * @return recorded statistics of the given event class or
+	 *         <code>null</code> if there are none
+	 */
+	public LEventStatistics getStatistics(Class<? extends LaraEvent> eventClass) {
+		return statistics.get(eventClass);
+	}
+
+	/**
+	 * Logs the statistics of all event classes.
+	 */
+	public void logStatistics() {
+		for (LEventStatistics eventStatistics : statistics.values()) {
+			logger.info(this + "> Statistics " + eventStatistics);
+		}
+	}
+
+	/**
+	 * @param numSubscribers
+	 * @return number of subscribers one worker task notifies sequentially
+	 */
+	protected int getChunkSize(int numSubscribers) {
+		if (workerChunkSize > 0) {
+			return workerChunkSize;
+		}
+		// about four chunks per worker thread to balance uneven subscribers
+		int numChunks = numWorkerThreads * 4;
+		return Math.max(1, (numSubscribers + numChunks - 1) / numChunks);
+	}
+
 	/**
 	 * Decrements the counter of how many event subscribers are notified but
 	 * have not yet finished their work. If last subscriber finishes the monitor
@@ -290,14 +1038,14 @@ public class LEventbus {
 	 * @param subscribers
 	 * @param event
 	 */
-	protected void logSubscribers(
-			Collection<LaraAbstractEventSubscriber> subscribers, LaraEvent event) {
+	protected void logSubscribers(LSubscriberSnapshot subscribers,
+			LaraEvent event) {
 		// <- LOGGING
 		if (logger.isDebugEnabled()) {
 			StringBuffer buffer = new StringBuffer();
 			buffer.append(this + "> Notifying subscribers for event "
 					+ event.getClass().getName() + "\n");
-			for (LaraAbstractEventSubscriber subscriber : subscribers) {
+			for (LaraAbstractEventSubscriber subscriber : subscribers.subscribers) {
 				buffer.append("\t" + subscriber + "\n");
 			}
 			logger.debug(buffer.toString());
@@ -313,7 +1061,7 @@ public class LEventbus {
 	 * @param event
 	 */
 	protected void notifyInternalSubscribersSequential(
-			Set<LaraAbstractEventSubscriber> subscribers, LaraEvent event) {
+			LSubscriberSnapshot subscribers, LaraEvent event) {
 		// <- LOGGING
 		logger.info(this + "> Notifying " + subscribers.size()
 				+ " internal subscriber(s) sequentially ("
@@ -321,10 +1069,8 @@ public class LEventbus {
 		// LOGGING ->
 
 		// internal first
-		for (LaraAbstractEventSubscriber s : subscribers) {
-			if (s instanceof LaraInternalEventSubscriber) {
-				((LaraInternalEventSubscriber) s).onInternalEvent(event);
-			}
+		for (LaraInternalEventSubscriber s : subscribers.internalSubscribers) {
+			s.onInternalEvent(event);
 		}
 
 		// <- LOGGING
@@ -343,7 +1089,7 @@ public class LEventbus {
 	 * @param event
 	 */
 	protected void notifyNoninternalSubscribersSequential(
-			Set<LaraAbstractEventSubscriber> subscribers, LaraEvent event) {
+			LSubscriberSnapshot subscribers, LaraEvent event) {
 		// TODO DC where referenced?
 		// <- LOGGING
 		logger.info(this + "> Notifying " + subscribers.size()
@@ -351,10 +1097,8 @@ public class LEventbus {
 				+ event.getClass().getSimpleName() + ")");
 		// LOGGING ->
 
-		for (LaraAbstractEventSubscriber s : subscribers) {
-			if (s instanceof LaraEventSubscriber) {
-				((LaraEventSubscriber) s).onEvent(event);
-			}
+		for (LaraEventSubscriber s : subscribers.eventSubscribers) {
+			s.onEvent(event);
 		}
 
 		// <- LOGGING
@@ -373,22 +1117,17 @@ public class LEventbus {
 	 */
 	protected boolean notifySubscribers(LaraEvent event, boolean hasSubscriberFlag) {
 		boolean hasSubscribers = hasSubscriberFlag;
-		// notify only once subscribers according to event type
-		Set<LaraAbstractEventSubscriber> subscribers = null;
-
-		if (eventSubscriberOnceMap.containsKey(event.getClass())) {
-			// get subscribers set
-			subscribers = eventSubscriberOnceMap.get(event.getClass());
-			eventSubscriberOnceMap.remove(event.getClass());
-		}
+		LSubscriberSnapshot subscribers = getSubscriberSnapshot(event
+				.getClass());
 
-		if (eventSubscriberMap.containsKey(event.getClass())) {
-			// get subscribers set
+		// notify only once subscribers according to event type
+		Set<LaraAbstractEventSubscriber> onceSubscribers = eventSubscriberOnceMap
+				.remove(event.getClass());
+		if (onceSubscribers != null) {
 			if (subscribers != null) {
-				subscribers.addAll(eventSubscriberMap.get(event.getClass()));
-			} else {
-				subscribers = eventSubscriberMap.get(event.getClass());
+				onceSubscribers.addAll(Arrays.asList(subscribers.subscribers));
 			}
+			subscribers = new LSubscriberSnapshot(onceSubscribers);
 		}
 
 		if (subscribers != null) {
@@ -401,13 +1140,7 @@ public class LEventbus {
 
 			// notify subscribers according to event type
 			if (event instanceof LaraSynchronousEvent) {
-				if (this.forceSequential) {
-					notifySubscribersSequential(subscribers, event);
-				} else {
-					// starts several threads and waits until last one has
-					// finished
-					notifySubscribersSynchronous(subscribers, event);
-				}
+				notifySubscribersSynchronousEvent(subscribers, event);
 			} else if (event instanceof LaraAsynchronousEvent) {
 				notifySubscribersAsynchronous(subscribers, event);
 			} else {
@@ -429,44 +1162,31 @@ public class LEventbus {
 	}
 
 	/**
-	 * Notifies all subscribers at once. Subscribers will execute their related
-	 * code in parallel. Method will not wait for subscribers to finish. Method
-	 * will return immediately
+	 * Queues the notification of all subscribers (see
+	 * {@link LAsyncEventQueue}). Subscribers will execute their related code
+	 * in the queue's consumer threads. Method will not wait for subscribers to
+	 * finish. Method returns immediately unless the queue is full and
+	 * {@link LAsyncOverflowPolicy#BLOCK} or
+	 * {@link LAsyncOverflowPolicy#CALLER_RUNS} applies.
 	 * 
 	 * @param subscribers
 	 * @param event
 	 */
 	protected void notifySubscribersAsynchronous(
-			Set<LaraAbstractEventSubscriber> subscribers, final LaraEvent event) {
+			LSubscriberSnapshot subscribers, final LaraEvent event) {
 		// <- LOGGING
 		logger.info(this + "> Notifying " + subscribers.size()
 				+ " subscribers assynchonously ("
 				+ event.getClass().getSimpleName() + ")");
 		// LOGGING ->
 
+		LAsyncEventQueue queue = getAsyncQueue();
 		// internal first
-		for (final LaraAbstractEventSubscriber s : subscribers) {
-			if (s instanceof LaraInternalEventSubscriber) {
-				Thread workerThread = new Thread() {
-					@Override
-					public void run() {
-						((LaraInternalEventSubscriber) s)
-								.onInternalEvent(event);
-					}
-				};
-				workerThread.start();
-			}
+		for (LaraInternalEventSubscriber s : subscribers.internalSubscribers) {
+			queue.submit(s, event, true);
 		}
-		for (final LaraAbstractEventSubscriber s : subscribers) {
-			if (s instanceof LaraEventSubscriber) {
-				Thread workerThread = new Thread() {
-					@Override
-					public void run() {
-						((LaraEventSubscriber) s).onEvent(event);
-					}
-				};
-				workerThread.start();
-			}
+		for (LaraEventSubscriber s : subscribers.eventSubscribers) {
+			queue.submit(s, event, false);
 		}
 
 		// <- LOGGING
@@ -484,33 +1204,41 @@ public class LEventbus {
 	 * @param event
 	 */
 	protected void notifySubscribersSequential(
-			Set<LaraAbstractEventSubscriber> subscribers, LaraEvent event) {
+			LSubscriberSnapshot subscribers, LaraEvent event) {
 		// <- LOGGING
 		logger.info(this + "> Notifying " + subscribers.size()
 				+ " subscriber(s) sequentially ("
 				+ event.getClass().getSimpleName() + ")");
 		// LOGGING ->
 
-		// internal first
-		for (LaraAbstractEventSubscriber s : subscribers) {
-			if (s instanceof LaraInternalEventSubscriber) {
+		LEventStatistics eventStatistics = getEventStatistics(event);
+		if (eventStatistics != null) {
+			notifySubscribersRecorded(subscribers.internalSubscribers, 0,
+					subscribers.internalSubscribers.length, event, true,
+					eventStatistics);
+			notifySubscribersRecorded(subscribers.eventSubscribers, 0,
+					subscribers.eventSubscribers.length, event, false,
+					eventStatistics);
+		} else {
+			// internal first
+			for (LaraInternalEventSubscriber s : subscribers.internalSubscribers) {
 				// <- LOGGING
 				if (logger.isDebugEnabled()) {
-					logger.debug(this + "> Notified subscriber (internal): " + s);
+					logger.debug(this + "> Notified subscriber (internal): "
+							+ s);
 				}
 				// LOGGING ->
-				((LaraInternalEventSubscriber) s).onInternalEvent(event);
+				s.onInternalEvent(event);
 			}
-		}
-		for (LaraAbstractEventSubscriber s : subscribers) {
-			if (s instanceof LaraEventSubscriber) {
+			for (LaraEventSubscriber s : subscribers.eventSubscribers) {
 				// <- LOGGING
 				if (logger.isDebugEnabled()) {
-					logger.debug(this + "> Notified subscriber (external): " + s);
+					logger.debug(this + "> Notified subscriber (external): "
+							+ s);
 				}
 				// LOGGING ->
 
-				((LaraEventSubscriber) s).onEvent(event);
+				s.onEvent(event);
 			}
 		}
 
@@ -525,87 +1253,513 @@ public class LEventbus {
 	 * Notifies all subscribers at once. Subscribers will execute their related
 	 * code in parallel. Method will wait until last subscriber finishes.
 	 * 
+	 * Subscribers are split into chunks of consecutive subscribers (see
+	 * {@link LBasicPa#EVENTBUS_WORKER_CHUNK_SIZE}) which are processed by the
+	 * worker pool and the publishing thread. All internal subscribers are
+	 * notified before any non-internal one.
+	 * 
 	 * @param subscribers
 	 * @param event
+	 * @return summed busy time of all threads that notified subscribers in ns
+	 *         or -1 if it is not measured (i.e. neither statistics nor
+	 *         adaptive dispatch is enabled)
 	 */
-	protected void notifySubscribersSynchronous(
-			Set<LaraAbstractEventSubscriber> subscribers, final LaraEvent event) {
-		// too much threads at once is highly ineffective. so we use
-		// taskgroups to reduce max number of concurrent threads
-		// we have to make sure ALL internal subscribers are notified before ALL
-		// the others.
+	protected long notifySubscribersSynchronous(
+			LSubscriberSnapshot subscribers, final LaraEvent event) {
 		// <- LOGGING
 		logger.info(this + "> Notifying " + subscribers.size()
 				+ " subscriber(s) synchronously ("
 				+ event.getClass().getSimpleName() + ")");
 		// LOGGING ->
 
-		// limit number of concurrent tasks by building workgroups
-		int numberOfCores = Runtime.getRuntime().availableProcessors();
-		// TODO SH
-		int numberOfWorkerGroups = numberOfCores * 4;
+		LEventStatistics eventStatistics = getEventStatistics(event);
+		LWorkerNanos workerNanos = eventStatistics == null
+				&& !adaptiveDispatch ? null : new LWorkerNanos();
+		if (dispatchMode == LSynchronousDispatchMode.FORK_JOIN) {
+			notifySubscribersForkJoin(subscribers, event, workerNanos);
+		} else if (dispatchMode == LSynchronousDispatchMode.PARTITIONED) {
+			notifySubscribersPartitioned(subscribers, event, workerNanos);
+		} else {
+			notifySubscribersChunked(subscribers, event, workerNanos);
+		}
+		if (eventStatistics != null) {
+			eventStatistics.recordWorkerNanos(workerNanos.getWorkerNanos());
+		}
+
+		// <- LOGGING
+		logger.info(this + "> Notified " + subscribers.size()
+				+ " subscribers synchronously ("
+				+ event.getClass().getSimpleName() + ")");
+		// LOGGING ->
+		return workerNanos == null ? -1 : workerNanos.getTotalNanos();
+	}
+
+	/**
+	 * Notifies subscribers in chunks by the worker pool and the publishing
+	 * thread (see {@link LSynchronousDispatchMode#CHUNKED}).
+	 * 
+	 * @param subscribers
+	 * @param event
+	 * @param workerNanos
+	 *            <code>null</code> if busy times are not measured
+	 */
+	protected void notifySubscribersChunked(LSubscriberSnapshot subscribers,
+			LaraEvent event, LWorkerNanos workerNanos) {
+		int internalChunkSize = getChunkSize(subscribers.internalSubscribers.length);
+		int chunkSize = getChunkSize(subscribers.eventSubscribers.length);
+
 		if (logger.isDebugEnabled()) {
-			logger.debug(this + "> Number of Worker Groups for event "
+			logger.debug(this + "> Chunk sizes for event "
 					+ event.getClass().getSimpleName() + ": "
-					+ numberOfWorkerGroups);
+					+ internalChunkSize + " (internal) / " + chunkSize);
 		}
 
-		Map<Integer, Set<LaraAbstractEventSubscriber>> workerGroupSubscriberMap = new HashMap<Integer, Set<LaraAbstractEventSubscriber>>();
+		// we have to make sure ALL internal subscribers are notified before ALL
+		// the others.
+		notifyChunksParallel(subscribers.internalSubscribers,
+				internalChunkSize, event, true, workerNanos);
+		notifyChunksParallel(subscribers.eventSubscribers, chunkSize, event,
+				false, workerNanos);
+	}
 
-		// required to check if monitor need to wait
-		int currentWorkGroup = 0;
-		for (final LaraAbstractEventSubscriber s : subscribers) {
-			Set<LaraAbstractEventSubscriber> subscriberGroup = workerGroupSubscriberMap
-					.get(currentWorkGroup);
-			if (subscriberGroup == null) {
-				subscriberGroup = new HashSet<LaraAbstractEventSubscriber>();
-				workerGroupSubscriberMap.put(currentWorkGroup, subscriberGroup);
+	/**
+	 * Notifies subscribers of a {@link LaraSynchronousEvent} either
+	 * sequentially or in parallel (see
+	 * {@link #isParallelDispatch(LaraEvent, int)}). Returns when all
+	 * subscribers have been notified.
+	 * 
+	 * @param subscribers
+	 * @param event
+	 */
+	protected void notifySubscribersSynchronousEvent(
+			LSubscriberSnapshot subscribers, LaraEvent event) {
+		int numSubscribers = subscribers.size();
+		if (!adaptiveDispatch || numSubscribers == 0) {
+			if (isParallelDispatch(event, numSubscribers)) {
+				// starts several threads and waits until last one has
+				// finished
+				notifySubscribersSynchronous(subscribers, event);
+			} else {
+				notifySubscribersSequential(subscribers, event);
 			}
-			subscriberGroup.add(s);
-			currentWorkGroup++;
-			if (currentWorkGroup > numberOfWorkerGroups) {
-				currentWorkGroup = 0;
+			return;
+		}
+
+		long nanos;
+		if (isParallelDispatch(event, numSubscribers)) {
+			// summed busy time of the workers
+			nanos = notifySubscribersSynchronous(subscribers, event);
+		} else {
+			long start = System.nanoTime();
+			notifySubscribersSequential(subscribers, event);
+			nanos = System.nanoTime() - start;
+		}
+		getDispatchProfile(event.getClass()).record(nanos, numSubscribers);
+	}
+
+	/**
+	 * Decides whether subscribers of the given synchronous event are notified
+	 * in parallel. Applies (in this order) {@link #forceSequential}, overrides
+	 * set by {@link #setParallelDispatch(Class, Boolean)}, and - in adaptive
+	 * mode - the number of subscribers and the expected total subscriber time
+	 * according to recent notifications. Parallel notifications are measured
+	 * by the summed busy time of the workers, so that event classes which
+	 * turn out to be cheap return to sequential notification. The first
+	 * notification of an event class is sequential in order to measure its
+	 * cost.
+	 * 
+	 * @param event
+	 * @param numSubscribers
+	 * @return true if subscribers are to be notified in parallel
+	 */
+	protected boolean isParallelDispatch(LaraEvent event, int numSubscribers) {
+		if (this.forceSequential) {
+			return false;
+		}
+		Boolean override = parallelDispatchOverrides.get(event.getClass());
+		if (override != null) {
+			return override.booleanValue();
+		}
+		if (!adaptiveDispatch) {
+			return true;
+		}
+		if (numSubscribers < parallelMinSubscribers) {
+			return false;
+		}
+		double nanosPerSubscriber = getDispatchProfile(event.getClass()).nanosPerSubscriber;
+		return !Double.isNaN(nanosPerSubscriber)
+				&& nanosPerSubscriber * numSubscribers >= parallelMinNanos;
+	}
+
+	protected LDispatchProfile getDispatchProfile(
+			Class<? extends LaraEvent> eventClass) {
+		LDispatchProfile profile = dispatchProfiles.get(eventClass);
+		if (profile == null) {
+			profile = new LDispatchProfile();
+			LDispatchProfile previous = dispatchProfiles.putIfAbsent(
+					eventClass, profile);
+			if (previous != null) {
+				profile = previous;
 			}
 		}
+		return profile;
+	}
 
-		// for every worker group start a new thread, that notifies all
-		// internal subscribers belonging to it sequentially
-		for (final Entry<Integer, Set<LaraAbstractEventSubscriber>> entry : workerGroupSubscriberMap
-				.entrySet()) {
-			Thread workerThread = new Thread() {
-				@Override
-				public void run() {
-					notifyInternalSubscribersSequential(entry.getValue(), event);
-					decrementWaitingCounter(event);
+	/**
+	 * Notifies all subscribers by the fork/join pool. Method will wait until
+	 * last subscriber finishes. All internal subscribers are notified before
+	 * any non-internal one.
+	 * 
+	 * @param subscribers
+	 * @param event
+	 * @param workerNanos
+	 *            <code>null</code> if busy times are not measured
+	 */
+	protected void notifySubscribersForkJoin(LSubscriberSnapshot subscribers,
+			LaraEvent event, LWorkerNanos workerNanos) {
+		invokeNotificationTask(subscribers.internalSubscribers, true, event,
+				workerNanos);
+		invokeNotificationTask(subscribers.eventSubscribers, false, event,
+				workerNanos);
+	}
+
+	/**
+	 * @param subscribers
+	 * @param internal
+	 *            true if subscribers are {@link LaraInternalEventSubscriber}s
+	 * @param event
+	 * @param workerNanos
+	 *            <code>null</code> if busy times are not measured
+	 */
+	protected void invokeNotificationTask(
+			LaraAbstractEventSubscriber[] subscribers, boolean internal,
+			LaraEvent event, LWorkerNanos workerNanos) {
+		if (subscribers.length == 0) {
+			return;
+		}
+		// split finer than chunked mode since stealing balances the load
+		int threshold = workerChunkSize > 0 ? workerChunkSize : Math.max(1,
+				subscribers.length / (numWorkerThreads * 8));
+		LNotificationTask task = new LNotificationTask(subscribers, internal,
+				0, subscribers.length, threshold, event,
+				getEventStatistics(event), workerNanos);
+
+		if (subscribers.length <= threshold) {
+			task.compute();
+			return;
+		}
+		ForkJoinPool pool = getForkJoinPool();
+		if (ForkJoinTask.inForkJoinPool()
+				&& ForkJoinTask.getPool() == pool) {
+			// nested publication by a subscriber
+			task.invoke();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	/**
+	 * Processes all chunks of the given subscribers by the worker pool and the
+	 * calling thread and returns when the last chunk has been processed. Since
+	 * the calling thread takes chunks as well, nested synchronous events
+	 * published by subscribers cannot dead-lock the pool. The first exception
+	 * thrown by a subscriber is re-thrown after all chunks have finished.
+	 * 
+	 * @param subscribers
+	 *            either {@link LaraInternalEventSubscriber}s or
+	 *            {@link LaraEventSubscriber}s
+	 * @param chunkSize
+	 * @param event
+	 * @param internal
+	 *            true if subscribers are {@link LaraInternalEventSubscriber}s
+	 * @param workerNanos
+	 *            <code>null</code> if busy times are not measured
+	 */
+	protected void notifyChunksParallel(
+			final LaraAbstractEventSubscriber[] subscribers,
+			final int chunkSize, final LaraEvent event, final boolean internal,
+			final LWorkerNanos workerNanos) {
+		final int numChunks = (subscribers.length + chunkSize - 1) / chunkSize;
+		final LEventStatistics eventStatistics = getEventStatistics(event);
+		if (numChunks <= 1) {
+			long start = workerNanos == null ? 0 : System.nanoTime();
+			if (eventStatistics != null) {
+				notifySubscribersRecorded(subscribers, 0, subscribers.length,
+						event, internal, eventStatistics);
+			} else {
+				notifySubscribersSequential(subscribers, 0,
+						subscribers.length, event, internal);
+			}
+			if (workerNanos != null) {
+				workerNanos.add(System.nanoTime() - start);
+			}
+			return;
+		}
+
+		final int numHelpers = Math.min(numWorkerThreads, numChunks - 1);
+		final AtomicInteger nextChunk = new AtomicInteger();
+		final CountDownLatch chunksDone = new CountDownLatch(numChunks);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		Runnable chunkWorker = new Runnable() {
+			@Override
+			public void run() {
+				int chunk;
+				while ((chunk = nextChunk.getAndIncrement()) < numChunks) {
+					long start = workerNanos == null ? 0 : System.nanoTime();
+					try {
+						if (eventStatistics != null) {
+							notifySubscribersRecorded(subscribers, chunk
+									* chunkSize, Math.min(subscribers.length,
+									(chunk + 1) * chunkSize), event, internal,
+									eventStatistics);
+						} else {
+							notifySubscribersSequential(subscribers, chunk
+									* chunkSize, Math.min(subscribers.length,
+									(chunk + 1) * chunkSize), event, internal);
+						}
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						if (workerNanos != null) {
+							workerNanos.add(System.nanoTime() - start);
+						}
+						chunksDone.countDown();
+					}
 				}
-			};
-			incrementWaitingCounter(event);
-			workerThread.start();
+			}
+		};
+
+		try {
+			ExecutorService pool = getWorkerPool();
+			for (int i = 0; i < numHelpers; i++) {
+				pool.execute(chunkWorker);
+			}
+		} catch (RejectedExecutionException e) {
+			// pool has been shut down concurrently - calling thread does the
+			// remaining work
+			logger.warn(this + "> Worker pool rejected task for event "
+					+ event.getClass().getSimpleName());
+		}
+		chunkWorker.run();
+
+		try {
+			chunksDone.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.error(this
+					+ "> Waiting for worker threads to finished failed for event "
+					+ event.getClass().getSimpleName(), e);
+		}
+		rethrowNotificationFailure(failure.get(), event);
+	}
+
+	/**
+	 * Notifies all subscribers by the worker of their partition (see
+	 * {@link LSynchronousDispatchMode#PARTITIONED}). Method will wait until
+	 * last subscriber finishes. All internal subscribers are notified before
+	 * any non-internal one. Synchronous events published by subscribers while
+	 * being notified are processed sequentially by the publishing partition
+	 * worker since waiting for other partitions could dead-lock.
+	 * 
+	 * @param subscribers
+	 * @param event
+	 * @param workerNanos
+	 *            <code>null</code> if busy times are not measured
+	 */
+	protected void notifySubscribersPartitioned(
+			LSubscriberSnapshot subscribers, LaraEvent event,
+			LWorkerNanos workerNanos) {
+		if (Boolean.TRUE.equals(inPartitionWorker.get())) {
+			long start = workerNanos == null ? 0 : System.nanoTime();
+			notifySubscribersSequential(subscribers, event);
+			if (workerNanos != null) {
+				workerNanos.add(System.nanoTime() - start);
+			}
+			return;
+		}
+		ExecutorService[] workers = getPartitionWorkers();
+		if (subscribers.internalPartitions == null
+				|| subscribers.internalPartitions.length != workers.length) {
+			buildPartitions(subscribers, workers.length);
+		}
+		notifyPartitionsParallel(workers, subscribers.internalPartitions,
+				event, true, workerNanos);
+		notifyPartitionsParallel(workers, subscribers.eventPartitions, event,
+				false, workerNanos);
+	}
+
+	/**
+	 * Splits the snapshot's subscribers into partitions according to their
+	 * {@link #partitionOrdinals}. Subscribers without ordinal are assigned by
+	 * their identity hash code.
+	 * 
+	 * @param subscribers
+	 * @param numPartitions
+	 */
+	protected void buildPartitions(LSubscriberSnapshot subscribers,
+			int numPartitions) {
+		// internal partitions are checked for presence, so assign them last
+		subscribers.eventPartitions = partition(subscribers.eventSubscribers,
+				numPartitions);
+		subscribers.internalPartitions = partition(
+				subscribers.internalSubscribers, numPartitions);
+	}
+
+	/**
+	 * @param subscribers
+	 * @param numPartitions
+	 * @return given subscribers per partition, each in the given order
+	 */
+	protected LaraAbstractEventSubscriber[][] partition(
+			LaraAbstractEventSubscriber[] subscribers, int numPartitions) {
+		int[] partitionOf = new int[subscribers.length];
+		int[] sizes = new int[numPartitions];
+		for (int i = 0; i < subscribers.length; i++) {
+			Integer ordinal = partitionOrdinals.get(subscribers[i]);
+			int key = ordinal != null ? ordinal.intValue() : System
+					.identityHashCode(subscribers[i]);
+			partitionOf[i] = (key & Integer.MAX_VALUE) % numPartitions;
+			sizes[partitionOf[i]]++;
+		}
+		LaraAbstractEventSubscriber[][] partitions = new LaraAbstractEventSubscriber[numPartitions][];
+		for (int p = 0; p < numPartitions; p++) {
+			partitions[p] = new LaraAbstractEventSubscriber[sizes[p]];
+			sizes[p] = 0;
+		}
+		for (int i = 0; i < subscribers.length; i++) {
+			partitions[partitionOf[i]][sizes[partitionOf[i]]++] = subscribers[i];
+		}
+		return partitions;
+	}
+
+	/**
+	 * Processes each non-empty partition by its worker and returns when the
+	 * last partition has been processed. The first exception thrown by a
+	 * subscriber is re-thrown after all partitions have finished.
+	 * 
+	 * @param workers
+	 * @param partitions
+	 * @param event
+	 * @param internal
+	 *            true if subscribers are {@link LaraInternalEventSubscriber}s
+	 * @param workerNanos
+	 *            <code>null</code> if busy times are not measured
+	 */
+	protected void notifyPartitionsParallel(ExecutorService[] workers,
+			LaraAbstractEventSubscriber[][] partitions, final LaraEvent event,
+			final boolean internal, final LWorkerNanos workerNanos) {
+		int numNonEmpty = 0;
+		for (LaraAbstractEventSubscriber[] partition : partitions) {
+			if (partition.length > 0) {
+				numNonEmpty++;
+			}
+		}
+		if (numNonEmpty == 0) {
+			return;
 		}
-		waitUntilWorkDone(event);
 
-		// for every worker group start a new thread, that notifies all
-		// non-internal subscribers belonging to it sequentially
-		for (final Entry<Integer, Set<LaraAbstractEventSubscriber>> entry : workerGroupSubscriberMap
-				.entrySet()) {
-			Thread workerThread = new Thread() {
+		final LEventStatistics eventStatistics = getEventStatistics(event);
+		final CountDownLatch partitionsDone = new CountDownLatch(numNonEmpty);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		for (int p = 0; p < partitions.length; p++) {
+			final LaraAbstractEventSubscriber[] partition = partitions[p];
+			if (partition.length == 0) {
+				continue;
+			}
+			Runnable partitionTask = new Runnable() {
 				@Override
 				public void run() {
-					notifyNoninternalSubscribersSequential(entry.getValue(),
-							event);
-					decrementWaitingCounter(event);
+					inPartitionWorker.set(Boolean.TRUE);
+					long start = workerNanos == null ? 0 : System.nanoTime();
+					try {
+						if (eventStatistics != null) {
+							notifySubscribersRecorded(partition, 0,
+									partition.length, event, internal,
+									eventStatistics);
+						} else {
+							notifySubscribersSequential(partition, 0,
+									partition.length, event, internal);
+						}
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						if (workerNanos != null) {
+							workerNanos.add(System.nanoTime() - start);
+						}
+						inPartitionWorker.remove();
+						partitionsDone.countDown();
+					}
 				}
 			};
-			incrementWaitingCounter(event);
-			workerThread.start();
+			try {
+				workers[p].execute(partitionTask);
+			} catch (RejectedExecutionException e) {
+				// workers have been shut down concurrently - calling thread
+				// does the work
+				logger.warn(this + "> Partition worker rejected task for event "
+						+ event.getClass().getSimpleName());
+				partitionTask.run();
+			}
 		}
-		waitUntilWorkDone(event);
 
-		// <- LOGGING
-		logger.info(this + "> Notified " + subscribers.size()
-				+ " subscribers synchronously ("
-				+ event.getClass().getSimpleName() + ")");
-		// LOGGING ->
+		try {
+			partitionsDone.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.error(this
+					+ "> Waiting for partition workers to finish failed for event "
+					+ event.getClass().getSimpleName(), e);
+		}
+		rethrowNotificationFailure(failure.get(), event);
+	}
+
+	/**
+	 * @param t
+	 *            first exception thrown by a subscriber (may be
+	 *            <code>null</code>)
+	 * @param event
+	 */
+	protected void rethrowNotificationFailure(Throwable t, LaraEvent event) {
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		} else if (t != null) {
+			throw new IllegalStateException(this
+					+ "> Notification of subscribers failed for event "
+					+ event.getClass().getSimpleName(), t);
+		}
+	}
+
+	/**
+	 * Notifies the subscribers in the given range sequentially.
+	 * 
+	 * @param subscribers
+	 *            either {@link LaraInternalEventSubscriber}s or
+	 *            {@link LaraEventSubscriber}s
+	 * @param from
+	 *            index of first subscriber to notify (inclusive)
+	 * @param to
+	 *            index of last subscriber to notify (exclusive)
+	 * @param event
+	 * @param internal
+	 *            true if subscribers are {@link LaraInternalEventSubscriber}s
+	 */
+	protected void notifySubscribersSequential(
+			LaraAbstractEventSubscriber[] subscribers, int from, int to,
+			LaraEvent event, boolean internal) {
+		if (internal) {
+			for (int i = from; i < to; i++) {
+				((LaraInternalEventSubscriber) subscribers[i])
+						.onInternalEvent(event);
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				((LaraEventSubscriber) subscribers[i]).onEvent(event);
+			}
+		}
 	}
 
 	/**
@@ -616,7 +1770,7 @@ public class LEventbus {
 	 * @return true if the given event has occurred
 	 */
 	public boolean occured(LaraEvent event) {
-		return eventsThisTimestep.contains(event.getClass());
+		return occured(event.getClass());
 	}
 
 	/**
@@ -627,7 +1781,10 @@ public class LEventbus {
 	 * @return true if the given event class has occurred
 	 */
 	public boolean occured(Class<? extends LaraEvent> eventClass) {
-		return eventsThisTimestep.contains(eventClass);
+		int ordinal = LEventOrdinals.getOrdinal(eventClass);
+		synchronized (eventsThisTimestep) {
+			return eventsThisTimestep.get(ordinal);
+		}
 	}
 
 	/**
@@ -651,14 +1808,22 @@ public class LEventbus {
 		if (event instanceof LModelStepEvent) {
 			resetTimeStep();
 		}
-		eventsThisTimestep.add(event.getClass());
+		if (event instanceof LModelFinishEvent) {
+			// model ends after all asynchronous notifications
+			drainAsynchronousEvents();
+		}
+		int ordinal = LEventOrdinals.getOrdinal(event.getClass());
+		synchronized (eventsThisTimestep) {
+			eventsThisTimestep.set(ordinal);
+		}
+		LEventStatistics eventStatistics = getEventStatistics(event);
+		long start = eventStatistics != null ? System.nanoTime() : 0L;
 		// check precondition
 		if (event instanceof LaraRequiresPrecedingEvent) {
 			// TODO Also check for sub classes of the required event class!
 			// TODO provide means to check more than one required event
-			if (eventsThisTimestep
-					.contains(((LaraRequiresPrecedingEvent) event)
-							.getRequiredPrecedingEventClass())) {
+			if (occured(((LaraRequiresPrecedingEvent) event)
+					.getRequiredPrecedingEventClass())) {
 				notifySubscribers(event, false);
 			} else {
 				// no subscribers - log this
@@ -672,18 +1837,44 @@ public class LEventbus {
 		} else {
 			notifySubscribers(event, false);
 		}
+
+		if (eventStatistics != null) {
+			eventStatistics.recordPublication(System.nanoTime() - start);
+			if (event instanceof LModelFinishEvent) {
+				logStatistics();
+			}
+		}
 	}
 
 	/**
 	 * 
 	 */
 	protected void resetTimeStep() {
-		eventsThisTimestep.clear();
+		synchronized (eventsThisTimestep) {
+			eventsThisTimestep.clear();
+		}
+	}
+
+	/**
+	 * Publishes the given events of one time step according to their
+	 * precedence requirements and consecutive events. Independent chains of
+	 * events are published concurrently (see {@link LEventScheduler}).
+	 * 
+	 * Note that {@link de.cesr.lara.components.model.impl.LAbstractModel}
+	 * publishes its events one by one and does not use this method. Models
+	 * need to call it themselves to benefit from the scheduler.
+	 * 
+	 * @param events
+	 * @throws IllegalStateException
+	 *             if the precedence requirements are cyclic
+	 */
+	public void publishAll(Collection<? extends LaraEvent> events) {
+		new LEventScheduler(this, events).publish();
 	}
 
 	/**
 	 * Clears eventsThisTimestamp, event subscriber map, event-waiting counters,
-	 * and statistics.
+	 * and statistics. Shuts down the worker pool.
 	 */
 	public void resetInstance() {
 		// <- LOGGING
@@ -691,10 +1882,18 @@ public class LEventbus {
 		// LOGGING ->
 
 		resetTimeStep();
-		eventSubscriberMap.clear();
+		synchronized (subscriptionLock) {
+			eventSubscriberMap.clear();
+			subscriptionIndex.clear();
+			subscriberSnapshots.clear();
+			partitionOrdinals.clear();
+			nextPartitionOrdinal = 0;
+		}
 		eventSubscriberOnceMap.clear();
 		eventWaitingCounters.clear();
 		statistics.clear();
+		dispatchProfiles.clear();
+		shutdownWorkerPool();
 	}
 
 	/**
@@ -705,6 +1904,109 @@ public class LEventbus {
 		this.forceSequential = forceSequential;
 	}
 
+	/**
+	 * @return true if the dispatch of synchronous events is decided per event
+	 *         class
+	 */
+	public boolean isAdaptiveDispatch() {
+		return adaptiveDispatch;
+	}
+
+	/**
+	 * @param adaptiveDispatch
+	 *            if true, parallel or sequential notification of synchronous
+	 *            events is decided per event class
+	 */
+	public void setAdaptiveDispatch(boolean adaptiveDispatch) {
+		this.adaptiveDispatch = adaptiveDispatch;
+	}
+
+	/**
+	 * Overrides the dispatch decision for synchronous events of the given
+	 * class, unless {@link #isForceSequential()} is set.
+	 * 
+	 * @param eventClass
+	 * @param parallel
+	 *            true for parallel, false for sequential notification,
+	 *            <code>null</code> to remove the override
+	 */
+	public void setParallelDispatch(Class<? extends LaraEvent> eventClass,
+			Boolean parallel) {
+		if (parallel == null) {
+			parallelDispatchOverrides.remove(eventClass);
+		} else {
+			parallelDispatchOverrides.put(eventClass, parallel);
+		}
+	}
+
+	/**
+	 * @return true if counters per event class are recorded
+	 */
+	public boolean isRecordStatistics() {
+		return recordStatistics;
+	}
+
+	/**
+	 * @param recordStatistics
+	 *            if true, counters per event class are recorded (see
+	 *            {@link #getStatistics(Class)})
+	 */
+	public void setRecordStatistics(boolean recordStatistics) {
+		this.recordStatistics = recordStatistics;
+	}
+
+	/**
+	 * @return the strategy for parallel notification of synchronous events
+	 */
+	public LSynchronousDispatchMode getDispatchMode() {
+		return dispatchMode;
+	}
+
+	/**
+	 * @param dispatchMode
+	 *            the strategy for parallel notification of synchronous events
+	 */
+	public void setDispatchMode(LSynchronousDispatchMode dispatchMode) {
+		this.dispatchMode = dispatchMode;
+	}
+
+	/**
+	 * @return the number of worker threads used for synchronous notification
+	 */
+	public int getNumWorkerThreads() {
+		return numWorkerThreads;
+	}
+
+	/**
+	 * @return the number of subscribers that currently have a partition
+	 *         ordinal assigned
+	 */
+	public int getNumPartitionedSubscribers() {
+		return partitionOrdinals.size();
+	}
+
+	/**
+	 * Sets the number of worker threads and shuts down the current worker pool
+	 * (a new one is created on demand). Values below 1 result in the number of
+	 * available processors.
+	 * 
+	 * @param numWorkerThreads
+	 */
+	public void setNumWorkerThreads(int numWorkerThreads) {
+		this.numWorkerThreads = numWorkerThreads < 1 ? Runtime.getRuntime()
+				.availableProcessors() : numWorkerThreads;
+		shutdownWorkerPool();
+	}
+
+	/**
+	 * @param workerChunkSize
+	 *            the number of subscribers one worker task notifies
+	 *            sequentially. Values below 1 trigger automatic chunk sizing.
+	 */
+	public void setWorkerChunkSize(int workerChunkSize) {
+		this.workerChunkSize = workerChunkSize;
+	}
+
 	/**
 	 * Checks whether the given LaraEvent or any sub class has occurred during
 	 * the current tick.
@@ -714,12 +2016,11 @@ public class LEventbus {
 	 * @return true if the given event or any sub class has occurred
 	 */
 	public boolean subclassOccured(LaraEvent event) {
-		for (Class<? extends LaraEvent> e : eventsThisTimestep) {
-			if (e.isInstance(event)) {
-				return true;
-			}
+		BitSet assignable = LEventOrdinals.getAssignableOrdinals(event
+				.getClass());
+		synchronized (eventsThisTimestep) {
+			return eventsThisTimestep.intersects(assignable);
 		}
-		return false;
 	}
 
 	/**
@@ -732,17 +2033,21 @@ public class LEventbus {
 	 */
 	public void subscribe(LaraAbstractEventSubscriber subscriber,
 			Class<? extends LaraEvent> eventClass) {
-		if (eventSubscriberMap.containsKey(eventClass)) {
-			// add to existing set
-			Set<LaraAbstractEventSubscriber> subscribers = eventSubscriberMap
-					.get(eventClass);
-			subscribers.add(subscriber);
-		} else {
-			// add to new set
-			Set<LaraAbstractEventSubscriber> subscribers = new LinkedHashSet<LaraAbstractEventSubscriber>();
-			subscribers.add(subscriber);
-			// add to event-subscriber mapping
-			eventSubscriberMap.put(eventClass, subscribers);
+		synchronized (subscriptionLock) {
+			if (eventSubscriberMap.containsKey(eventClass)) {
+				// add to existing set
+				Set<LaraAbstractEventSubscriber> subscribers = eventSubscriberMap
+						.get(eventClass);
+				subscribers.add(subscriber);
+			} else {
+				// add to new set
+				Set<LaraAbstractEventSubscriber> subscribers = new LinkedHashSet<LaraAbstractEventSubscriber>();
+				subscribers.add(subscriber);
+				// add to event-subscriber mapping
+				eventSubscriberMap.put(eventClass, subscribers);
+			}
+			indexSubscription(subscriber, eventClass);
+			invalidateSubscriberSnapshot(eventClass);
 		}
 
 		// <- LOGGING
@@ -755,6 +2060,49 @@ public class LEventbus {
 		// LOGGING ->
 	}
 
+	/**
+	 * Subscribes all given subscribers to each of the given event classes with
+	 * one update of the registries. Subscriber sets are enlarged once to their
+	 * final size, and snapshots are invalidated once per event class. Useful
+	 * to register large populations of agents.
+	 * 
+	 * @param subscribers
+	 * @param eventClasses
+	 */
+	public void subscribeAll(
+			Collection<? extends LaraAbstractEventSubscriber> subscribers,
+			Collection<Class<? extends LaraEvent>> eventClasses) {
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		synchronized (subscriptionLock) {
+			for (Class<? extends LaraEvent> eventClass : eventClasses) {
+				Set<LaraAbstractEventSubscriber> existing = eventSubscriberMap
+						.get(eventClass);
+				int size = subscribers.size()
+						+ (existing == null ? 0 : existing.size());
+				Set<LaraAbstractEventSubscriber> eventSubscribers = new LinkedHashSet<LaraAbstractEventSubscriber>(
+						(int) (size / 0.75f) + 1);
+				if (existing != null) {
+					eventSubscribers.addAll(existing);
+				}
+				eventSubscribers.addAll(subscribers);
+				eventSubscriberMap.put(eventClass, eventSubscribers);
+				invalidateSubscriberSnapshot(eventClass);
+			}
+			for (LaraAbstractEventSubscriber subscriber : subscribers) {
+				for (Class<? extends LaraEvent> eventClass : eventClasses) {
+					indexSubscription(subscriber, eventClass);
+				}
+			}
+		}
+
+		// <- LOGGING
+		logger.info(this + "> Subscribed " + subscribers.size()
+				+ " subscribers to events " + eventClasses);
+		// LOGGING ->
+	}
+
 	/**
 	 * Subscribes the given {@link LaraEventSubscriber} to be notified only once
 	 * for the next event.
@@ -792,13 +2140,14 @@ public class LEventbus {
 	}
 
 	/**
-	 * Unsubscribes all subscribers from the given event class. Note: This
-	 * method is inefficient since it iterates over all registered events.
+	 * Unsubscribes all subscribers from the given event class.
 	 * 
 	 * @param eventClass
 	 */
 	public void unsubscribe(Class<? extends LaraEvent> eventClass) {
-		eventSubscriberMap.remove(eventClass);
+		synchronized (subscriptionLock) {
+			removeSubscriptions(eventClass);
+		}
 		eventSubscriberOnceMap.remove(eventClass);
 
 		// <- LOGGING
@@ -808,15 +2157,25 @@ public class LEventbus {
 	}
 
 	/**
-	 * Unsubscribe the given subscriber from all events. NOTE: This method is
-	 * inefficient since it iterates over all registered events!
+	 * Unsubscribe the given subscriber from all events. Regular subscriptions
+	 * are looked up in {@link #subscriptionIndex}, so the effort is
+	 * proportional to the subscriber's own subscriptions. Only-once
+	 * subscriptions are consumed on publication and still looked up in all
+	 * event classes that currently have only-once subscribers.
 	 * 
 	 * @param subscriber
 	 */
 	public void unsubscribe(LaraAbstractEventSubscriber subscriber) {
-		for (Set<LaraAbstractEventSubscriber> subscribers : eventSubscriberMap
-				.values()) {
-			subscribers.remove(subscriber);
+		synchronized (subscriptionLock) {
+			Set<Class<? extends LaraEvent>> eventClasses = subscriptionIndex
+					.remove(subscriber);
+			partitionOrdinals.remove(subscriber);
+			if (eventClasses != null) {
+				for (Class<? extends LaraEvent> eventClass : eventClasses) {
+					eventSubscriberMap.get(eventClass).remove(subscriber);
+					invalidateSubscriberSnapshot(eventClass);
+				}
+			}
 		}
 
 		for (Set<LaraAbstractEventSubscriber> subscribers : eventSubscriberOnceMap
@@ -837,16 +2196,21 @@ public class LEventbus {
 	 */
 	public void unsubscribe(LaraAbstractEventSubscriber subscriber,
 			Class<? extends LaraEvent> eventClass) {
-		if (eventSubscriberMap.containsKey(eventClass)) {
-			// get existing set of subscribers
-			Set<LaraAbstractEventSubscriber> subscribers = eventSubscriberMap
-					.get(eventClass);
-			subscribers.remove(subscriber);
-		} else {
-			logger.debug(this + "> Instance of " + subscriber.getClass().getSimpleName()
-					+ " wants to unsubscribe from event of type "
-					+ eventClass.getSimpleName()
-					+ " but is not a subscriber at the moment");
+		synchronized (subscriptionLock) {
+			if (eventSubscriberMap.containsKey(eventClass)) {
+				// get existing set of subscribers
+				Set<LaraAbstractEventSubscriber> subscribers = eventSubscriberMap
+						.get(eventClass);
+				if (subscribers.remove(subscriber)) {
+					unindexSubscription(subscriber, eventClass);
+					invalidateSubscriberSnapshot(eventClass);
+				}
+			} else {
+				logger.debug(this + "> Instance of " + subscriber.getClass().getSimpleName()
+						+ " wants to unsubscribe from event of type "
+						+ eventClass.getSimpleName()
+						+ " but is not a subscriber at the moment");
+			}
 		}
 
 		if (eventSubscriberOnceMap.containsKey(eventClass)) {
@@ -875,7 +2239,9 @@ public class LEventbus {
 	 *            to unsubscribe
 	 */
 	public void unsubscribe(LaraEvent event) {
-		eventSubscriberMap.remove(event.getClass());
+		synchronized (subscriptionLock) {
+			removeSubscriptions(event.getClass());
+		}
 		eventSubscriberOnceMap.remove(event.getClass());
 
 		// <- LOGGING
@@ -948,11 +2314,41 @@ public class LEventbus {
 
 	public Set<LaraAbstractEventSubscriber> getRegularSubscribers(Class<? extends LaraEvent> eventClass) {
 		Set<LaraAbstractEventSubscriber> subscribers = new HashSet<>();
-		if (this.eventSubscriberMap.containsKey(eventClass))
-			subscribers.addAll(this.eventSubscriberMap.get(eventClass));
+		LSubscriberSnapshot snapshot = getSubscriberSnapshot(eventClass);
+		if (snapshot != null)
+			subscribers.addAll(Arrays.asList(snapshot.subscribers));
 		return subscribers;
 	}
 
+	/**
+	 * @param subscriber
+	 * @param eventClass
+	 * @return true if the given subscriber is regularly subscribed to the
+	 *         given event class
+	 */
+	public boolean isSubscribed(LaraAbstractEventSubscriber subscriber,
+			Class<? extends LaraEvent> eventClass) {
+		synchronized (subscriptionLock) {
+			Set<Class<? extends LaraEvent>> eventClasses = subscriptionIndex
+					.get(subscriber);
+			return eventClasses != null && eventClasses.contains(eventClass);
+		}
+	}
+
+	/**
+	 * @param subscriber
+	 * @return event classes the given subscriber is regularly subscribed to
+	 */
+	public Set<Class<? extends LaraEvent>> getSubscriptions(
+			LaraAbstractEventSubscriber subscriber) {
+		Set<Class<? extends LaraEvent>> eventClasses = new HashSet<>();
+		synchronized (subscriptionLock) {
+			if (subscriptionIndex.containsKey(subscriber))
+				eventClasses.addAll(subscriptionIndex.get(subscriber));
+		}
+		return eventClasses;
+	}
+
 	public Set<LaraAbstractEventSubscriber> getSingularSubscribers(Class<? extends LaraEvent> eventClass) {
 		Set<LaraAbstractEventSubscriber> subscribers = new HashSet<>();
 		if (this.eventSubscriberOnceMap.containsKey(eventClass))
@@ -0,0 +1,53 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.eventbus.impl;
+
+import de.cesr.lara.components.eventbus.events.LaraSynchronousEvent;
+import de.cesr.lara.components.param.LBasicPa;
+
+/**
+ * Items of this enumeration identify the strategy an {@link LEventbus} applies
+ * to notify subscribers of {@link LaraSynchronousEvent}s in parallel (see
+ * {@link LBasicPa#EVENTBUS_DISPATCH_MODE}).
+ */
+public enum LSynchronousDispatchMode {
+
+	/**
+	 * Subscribers are split into chunks of fixed size which are processed by a
+	 * fixed pool of worker threads.
+	 */
+	CHUNKED,
+
+	/**
+	 * Subscribers are split recursively and processed by a fork/join pool such
+	 * that idle workers steal work from busy ones. Suitable for subscribers of
+	 * uneven cost. The subscriber arrays are cached per event class.
+	 */
+	FORK_JOIN,
+
+	/**
+	 * Each subscriber is assigned to a fixed partition on subscription, and
+	 * each partition is processed by its own worker thread. A subscriber (e.g.
+	 * an agent component) is thus notified by the same thread for all event
+	 * classes and time steps, which keeps its data in the cache of the core
+	 * that thread runs on.
+	 */
+	PARTITIONED;
+}
@@ -27,11 +27,14 @@ import java.util.Date;
 import org.apache.log4j.Logger;
 
 import de.cesr.lara.components.agents.impl.LAbstractAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.LaraEventSubscriber;
 import de.cesr.lara.components.eventbus.LaraInternalEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LAgentCycleEvent;
 import de.cesr.lara.components.eventbus.events.LAgentDecideEvent;
 import de.cesr.lara.components.eventbus.events.LAgentExecutionEvent;
 import de.cesr.lara.components.eventbus.events.LAgentPerceptionEvent;
+import de.cesr.lara.components.eventbus.events.LAgentPostExecutionEvent;
 import de.cesr.lara.components.eventbus.events.LAgentPostprocessEvent;
 import de.cesr.lara.components.eventbus.events.LAgentPreprocessEvent;
 import de.cesr.lara.components.eventbus.events.LInternalModelInitializedEvent;
@@ -107,6 +110,13 @@ public abstract class LAbstractModel implements LaraModel,
 	 * current time step
 	 */
 	protected int step;
+
+	/**
+	 * If true, agents are declared to be independent within a time step and
+	 * {@link #publishAgentCycle(LaraDecisionConfiguration)} triggers the whole
+	 * agent cycle by a single {@link LAgentCycleEvent}.
+	 */
+	protected boolean fusedAgentCycle = false;
 	
 	/**
 	 * Constructor. Does nothing and requires the call of
@@ -246,6 +256,36 @@ public abstract class LAbstractModel implements LaraModel,
 				logger.debug(">> Postprocess: " + getCurrentStep());
 			}
 			// LOGGING ->
+
+		} else if (event instanceof LAgentCycleEvent) {
+			// phases overlap among agents
+			currentSimStage = LSimulationStage.UNDEFINED;
+			// <- LOGGING
+			if (logger.isDebugEnabled()) {
+				logger.debug(">> Agent cycle: " + getCurrentStep());
+			}
+			// LOGGING ->
+		}
+	}
+
+	/**
+	 * Triggers the agent cycle (perception, preprocessing, decision,
+	 * postprocessing, execution and post-execution) for the given decision
+	 * configuration. Publishes a single {@link LAgentCycleEvent} if
+	 * {@link #isFusedAgentCycle()} and one event per phase otherwise.
+	 * 
+	 * @param dConfig
+	 */
+	public void publishAgentCycle(LaraDecisionConfiguration dConfig) {
+		if (fusedAgentCycle) {
+			eventBus.publish(new LAgentCycleEvent(dConfig));
+		} else {
+			eventBus.publish(new LAgentPerceptionEvent(dConfig));
+			eventBus.publish(new LAgentPreprocessEvent(dConfig));
+			eventBus.publish(new LAgentDecideEvent(dConfig));
+			eventBus.publish(new LAgentPostprocessEvent(dConfig));
+			eventBus.publish(new LAgentExecutionEvent(dConfig));
+			eventBus.publish(new LAgentPostExecutionEvent(dConfig));
 		}
 	}
 
@@ -352,6 +392,32 @@ public abstract class LAbstractModel implements LaraModel,
 		return this.randomMan;
 	}
 	
+	/**
+	 * @return true if agents are declared independent within a time step and
+	 *         their cycle is triggered by a single {@link LAgentCycleEvent}
+	 */
+	public boolean isFusedAgentCycle() {
+		return fusedAgentCycle;
+	}
+
+	/**
+	 * Declares whether agents are independent within a time step, i.e. no agent
+	 * requires other agents to have finished a phase before it enters the next
+	 * one. If true, {@link #publishAgentCycle(LaraDecisionConfiguration)}
+	 * processes all phases per agent as one task.
+	 * 
+	 * NOTE: Phase events are then not published to the eventbus. Agents are
+	 * notified of the phase events they are subscribed to by their component,
+	 * other subscribers of phase events (e.g. observers) are not notified at
+	 * all. Agent components subscribe to {@link LAgentCycleEvent} only if this
+	 * is set before they are assigned to this model.
+	 * 
+	 * @param fusedAgentCycle
+	 */
+	public void setFusedAgentCycle(boolean fusedAgentCycle) {
+		this.fusedAgentCycle = fusedAgentCycle;
+	}
+
 	/**
 	 * @see de.cesr.lara.components.model.LaraModel#setCurrentStep(int)
 	 */
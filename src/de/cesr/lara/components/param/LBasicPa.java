@@ -19,7 +19,9 @@
  */
 package de.cesr.lara.components.param;
 
+import de.cesr.lara.components.eventbus.impl.LAsyncOverflowPolicy;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
+import de.cesr.lara.components.eventbus.impl.LSynchronousDispatchMode;
 import de.cesr.parma.core.PmParameterDefinition;
 import de.cesr.parma.core.PmParameterManager;
 
@@ -37,6 +39,99 @@ public enum LBasicPa implements PmParameterDefinition {
 	 */
 	EVENTBUS_FORCE_SEQUENTIAL(Boolean.class, Boolean.FALSE),
 
+	/**
+	 * Number of worker threads of the pool an eventbus uses to notify
+	 * subscribers of {@link de.cesr.lara.components.eventbus.events.LaraSynchronousEvent}s.
+	 * The pool is created on first parallel notification and shut down when
+	 * the eventbus is reset. Values below 1 result in the number of available
+	 * processors.
+	 */
+	EVENTBUS_NUM_WORKER_THREADS(Integer.class, 0),
+
+	/**
+	 * Number of subscribers that are notified sequentially by one worker task
+	 * during synchronous event notification. Values below 1 cause the chunk
+	 * size to be derived from the number of subscribers such that there are
+	 * about four chunks per worker thread.
+	 */
+	EVENTBUS_WORKER_CHUNK_SIZE(Integer.class, 0),
+
+	/**
+	 * Strategy to notify subscribers of synchronous events in parallel (see
+	 * {@link LSynchronousDispatchMode}).
+	 */
+	EVENTBUS_DISPATCH_MODE(LSynchronousDispatchMode.class,
+			LSynchronousDispatchMode.CHUNKED),
+
+	/**
+	 * If true, eventbuses decide per event class whether subscribers of
+	 * synchronous events are notified in parallel or sequentially, based on
+	 * the number of subscribers and their recently measured cost (see
+	 * {@link #EVENTBUS_PARALLEL_MIN_SUBSCRIBERS} and
+	 * {@link #EVENTBUS_PARALLEL_MIN_MICROS}). Overrides per event class can
+	 * be set via
+	 * {@link LEventbus#setParallelDispatch(Class, Boolean)}.
+	 */
+	EVENTBUS_ADAPTIVE_DISPATCH(Boolean.class, Boolean.FALSE),
+
+	/**
+	 * Minimum number of subscribers of a synchronous event to consider
+	 * parallel notification in adaptive dispatch.
+	 */
+	EVENTBUS_PARALLEL_MIN_SUBSCRIBERS(Integer.class, 2),
+
+	/**
+	 * Minimum expected total subscriber work (in microseconds) of a
+	 * synchronous event to notify subscribers in parallel in adaptive
+	 * dispatch.
+	 */
+	EVENTBUS_PARALLEL_MIN_MICROS(Integer.class, 200),
+
+	/**
+	 * Maximum number of queued notifications of subscribers of
+	 * {@link de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent}s.
+	 */
+	EVENTBUS_ASYNC_QUEUE_CAPACITY(Integer.class, 10000),
+
+	/**
+	 * Number of threads that notify subscribers of asynchronous events. Values
+	 * below 1 result in the number of available processors.
+	 */
+	EVENTBUS_ASYNC_NUM_CONSUMERS(Integer.class, 1),
+
+	/**
+	 * Handling of asynchronous notifications when the queue is full (see
+	 * {@link LAsyncOverflowPolicy}).
+	 */
+	EVENTBUS_ASYNC_OVERFLOW(LAsyncOverflowPolicy.class,
+			LAsyncOverflowPolicy.BLOCK),
+
+	/**
+	 * Maximum number of asynchronous notifications a consumer thread takes
+	 * from the queue at once. Events among these for the same
+	 * {@link de.cesr.lara.components.eventbus.LaraBatchEventSubscriber} are
+	 * delivered as one batch.
+	 */
+	EVENTBUS_ASYNC_BATCH_SIZE(Integer.class, 64),
+
+	/**
+	 * If true, eventbuses record counters per event class (see
+	 * {@link de.cesr.lara.components.eventbus.impl.LEventStatistics}) and log
+	 * them when the {@link de.cesr.lara.components.eventbus.events.LModelFinishEvent}
+	 * is published.
+	 */
+	EVENTBUS_STATISTICS(Boolean.class, Boolean.FALSE),
+
+	/**
+	 * If true, random choices of agents (random at tie, probabilistic choice,
+	 * exploration) draw from counter-based streams keyed by seed, agent, step,
+	 * decision configuration and consumer (see
+	 * {@link de.cesr.lara.components.util.LaraRandom#getAgentUniform(String, int, String)}).
+	 * Results are then reproducible regardless of the order or the threads in
+	 * which agents decide.
+	 */
+	RANDOM_AGENT_STREAMS(Boolean.class, Boolean.FALSE),
+
 	LOG_PATH(
 			String.class,
 			(Object) null);
@@ -32,7 +32,38 @@ public enum LDecisionMakingPa implements PmParameterDefinition {
 	 * The number of ticks an agent need to select the same BO in order to
 	 * switch to habitual behaviour.
 	 */
-	HABIT_THRESHOLD(Integer.class, 5);
+	HABIT_THRESHOLD(Integer.class, 5),
+
+	/**
+	 * If true, the preprocessor resolves its component chain once per decision
+	 * configuration and invokes the components directly instead of subscribing
+	 * them to the agent's eventbus and publishing preprocessor events. Only
+	 * applies if the decision mode selector implements
+	 * {@link de.cesr.lara.components.preprocessor.LaraDirectDecisionModeSelector}.
+	 */
+	PREPROCESS_DIRECT_PIPELINE(Boolean.class, Boolean.FALSE),
+
+	/**
+	 * If true, {@link de.cesr.lara.components.decision.impl.LBatchDeliberation}
+	 * computes the score matrix of a block of agents in parallel.
+	 */
+	BATCH_DELIBERATION_PARALLEL(Boolean.class, Boolean.FALSE),
+
+	/**
+	 * Number of steps an applicability check of a BO is reused for by
+	 * {@link de.cesr.lara.components.preprocessor.impl.LDelegatingBoPreselector}
+	 * at accuracy
+	 * {@link de.cesr.lara.components.preprocessor.LaraBOPreselector.LAccuracy#MODERATE}.
+	 */
+	PRESELECTION_MODERATE_STEPS(Integer.class, 1),
+
+	/**
+	 * Number of steps an applicability check of a BO is reused for by
+	 * {@link de.cesr.lara.components.preprocessor.impl.LDelegatingBoPreselector}
+	 * at accuracy
+	 * {@link de.cesr.lara.components.preprocessor.LaraBOPreselector.LAccuracy#TOLERANT}.
+	 */
+	PRESELECTION_TOLERANT_STEPS(Integer.class, 5);
 
 	private Class<?> type;
 	private Object defaultValue;
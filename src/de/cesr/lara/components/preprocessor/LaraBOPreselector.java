@@ -62,17 +62,20 @@ public interface LaraBOPreselector<A extends LaraAgent<? super A, ?>, BO extends
 		ASK_AGENT,
 
 		/**
-		 * Most accurate preprocessor handling
+		 * Most accurate preprocessor handling: each BO is checked whenever it is preselected.
 		 */
 		ACCURATE,
 
 		/**
-		 * Moderate preprocessor handling
+		 * Moderate preprocessor handling: the result of checking a BO is reused as long as the BO is unchanged and
+		 * the check is at most {@link de.cesr.lara.components.param.LDecisionMakingPa#PRESELECTION_MODERATE_STEPS}
+		 * steps old.
 		 */
 		MODERATE,
 
 		/**
-		 * Tolerant preprocessor handling
+		 * Tolerant preprocessor handling: like {@link #MODERATE} for
+		 * {@link de.cesr.lara.components.param.LDecisionMakingPa#PRESELECTION_TOLERANT_STEPS} steps.
 		 */
 		TOLERANT;
 	}
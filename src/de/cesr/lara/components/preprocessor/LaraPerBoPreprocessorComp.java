@@ -0,0 +1,54 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.preprocessor;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+
+/**
+ * Preprocessor component that treats each behavioural option independently of
+ * the others. Consecutive collector, preselector and utility updater of this
+ * kind are fused by {@link de.cesr.lara.components.preprocessor.impl.LPpPipeline}
+ * into a single pass over the agent's BO memory. Applying
+ * {@link #processBo(LaraAgent, LaraDecisionConfiguration, LaraBehaviouralOption)}
+ * to each BO must be equivalent to
+ * {@link #process(LaraAgent, LaraDecisionConfiguration)}.
+ * 
+ * @param <A>
+ *            type of agents this component is intended for
+ * @param <BO>
+ *            type of behavioural options
+ */
+public interface LaraPerBoPreprocessorComp<A extends LaraAgent<? super A, ?>, BO extends LaraBehaviouralOption<?, ?>>
+		extends LaraDirectPreprocessorComp<A, BO> {
+
+	/**
+	 * Applies this component's preprocessing step to a single behavioural
+	 * option.
+	 * 
+	 * @param agent
+	 * @param dConfig
+	 * @param bo
+	 * @return the given BO, a BO that replaces it, or <code>null</code> if the
+	 *         BO is dropped
+	 */
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo);
+}
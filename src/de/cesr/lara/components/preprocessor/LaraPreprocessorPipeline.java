@@ -0,0 +1,54 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.preprocessor;
+
+import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+
+/**
+ * Chain of preprocessor components resolved for one
+ * {@link LaraDecisionConfiguration}. Components are invoked directly in the
+ * order of the event-driven preprocessing:
+ * <ol>
+ * <li>{@link LaraDecisionModeSelector}</li>
+ * <li>{@link LaraBOCollector}</li>
+ * <li>{@link LaraBOPreselector}</li>
+ * <li>{@link LaraBOUtilityUpdater}</li>
+ * <li>{@link LaraPreferenceUpdater}</li>
+ * </ol>
+ * 
+ * @param <A>
+ *            type of agents this pipeline is intended for
+ */
+public interface LaraPreprocessorPipeline<A extends LaraAgent<? super A, ?>> {
+
+	/**
+	 * @return the decision configuration this pipeline is resolved for
+	 */
+	public LaraDecisionConfiguration getDecisionConfiguration();
+
+	/**
+	 * Applies BO collector, BO preselector, BO utility updater and preference
+	 * updater to the given agent.
+	 * 
+	 * @param agent
+	 */
+	public void runDeliberativeStages(A agent);
+}
@@ -28,8 +28,10 @@ import org.apache.log4j.Priority;
 
 import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.preprocessor.LaraBOCollector;
+import de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp;
 import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
@@ -50,7 +52,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * @date 23.02.2011
  */
 public class LCompleteBoCollector<A extends LaraAgent<? super A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
-		extends LAbstractPpComp<A, BO> implements LaraBOCollector<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraBOCollector<A, BO>,
+		LaraPerBoPreprocessorComp<A, BO> {
 
 	/**
 	 * Logger
@@ -72,10 +75,19 @@ public class LCompleteBoCollector<A extends LaraAgent<? super A, BO>, BO extends
 		// LOGGING ->
 
 		LPpBoCollectorEvent event = castEvent(LPpBoCollectorEvent.class, e);
-		Collection<BO> bos = new ArrayList<BO>();
 		@SuppressWarnings("unchecked")
 		// the event will only be published by agents of type A
 		A agent = (A) event.getAgent();
+		process(agent, event.getdConfig());
+	}
+
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp#process(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void process(A agent, LaraDecisionConfiguration dConfig) {
+		Collection<BO> bos = new ArrayList<BO>();
 		for (BO bo : agent.getLaraComp().getBOMemory().recallAllMostRecent()) {
 			bos.add(bo);
 		}
@@ -84,6 +96,17 @@ public class LCompleteBoCollector<A extends LaraAgent<? super A, BO>, BO extends
 			logBOs(logger, bos, "after collection", agent);
 		}
 		// LOGGING -->
-		agent.getLaraComp().getDecisionData(event.getdConfig()).setBos(bos);
+		agent.getLaraComp().getDecisionData(dConfig).setBos(bos);
+	}
+
+	/**
+	 * @return the given BO
+	 * @see de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp#processBo(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.LaraBehaviouralOption)
+	 */
+	@Override
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo) {
+		return bo;
 	}
 }
@@ -21,16 +21,16 @@ package de.cesr.lara.components.preprocessor.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
 import org.apache.log4j.Priority;
 
 import de.cesr.lara.components.LaraBehaviouralOption;
-import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.preprocessor.LaraBOCollector;
+import de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp;
 import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
@@ -51,7 +51,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * @date 13.11.2009
  */
 public class LContributingBoCollector<A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, BO>>
-		extends LAbstractPpComp<A, BO> implements LaraBOCollector<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraBOCollector<A, BO>,
+		LaraPerBoPreprocessorComp<A, BO> {
 
 	/**
 	 * Logger
@@ -76,30 +77,29 @@ public class LContributingBoCollector<A extends LaraAgent<A, BO>, BO extends Lar
 		// LOGGING ->
 		LPpBoCollectorEvent event = castEvent(LPpBoCollectorEvent.class, e);
 
-		Collection<BO> bos = new ArrayList<BO>();
 		@SuppressWarnings("unchecked")
 		// the event will only be published by agents of type A
 		A agent = ((A) event.getAgent());
+		process(agent, event.getdConfig());
+	}
 
-		for (BO bo : agent.getLaraComp().getBOMemory().recallAllMostRecent()) {
-			boolean contributes = false;
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp#process(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void process(A agent, LaraDecisionConfiguration dConfig) {
+		Collection<BO> bos = new ArrayList<BO>();
 
-			// <- LOGGING
-			if (event.getdConfig().getPreferences().isEmpty()) {
-				logger.warn("Decision " + event.getdConfig() + " does not define any preference. Consequently,"
-						+ "no BO will contribute to it!");
-			}
-			// LOGGING ->
+		// <- LOGGING
+		if (dConfig.getPreferences().isEmpty()) {
+			logger.warn("Decision " + dConfig + " does not define any preference. Consequently,"
+					+ "no BO will contribute to it!");
+		}
+		// LOGGING ->
 
-			for (Entry<LaraPreference, Double> utility : bo
-					.getValue().entrySet()) {
-				if (event.getdConfig().getPreferences()
-						.contains(utility.getKey())) {
-					contributes = true;
-					break;
-				}
-			}
-			if (contributes) {
+		for (BO bo : agent.getLaraComp().getBOMemory().recallAllMostRecent()) {
+			if (processBo(agent, dConfig, bo) != null) {
 				bos.add(bo);
 			}
 		}
@@ -111,6 +111,18 @@ public class LContributingBoCollector<A extends LaraAgent<A, BO>, BO extends Lar
 			logBOs(logger, bos, "after collection", agent);
 		}
 		// LOGGING -->
-		agent.getLaraComp().getDecisionData(event.getdConfig()).setBos(bos);
+		agent.getLaraComp().getDecisionData(dConfig).setBos(bos);
+	}
+
+	/**
+	 * @return the given BO if any of its utilities refers to a preference of
+	 *         the given decision, <code>null</code> otherwise
+	 * @see de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp#processBo(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.LaraBehaviouralOption)
+	 */
+	@Override
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo) {
+		return bo.hasUtilityFor(dConfig) ? bo : null;
 	}
 }
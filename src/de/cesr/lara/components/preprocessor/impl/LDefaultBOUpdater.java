@@ -30,6 +30,7 @@ import de.cesr.lara.components.agents.LaraAgent;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.preprocessor.LaraBOUtilityUpdater;
+import de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp;
 import de.cesr.lara.components.preprocessor.event.LPpBoUtilityUpdaterEvent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
@@ -50,7 +51,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * 
  */
 public class LDefaultBOUpdater<A extends LaraAgent<? super A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
-		extends LAbstractPpComp<A, BO> implements LaraBOUtilityUpdater<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraBOUtilityUpdater<A, BO>,
+		LaraPerBoPreprocessorComp<A, BO> {
 
 	/**
 	 * Logger
@@ -75,12 +77,20 @@ public class LDefaultBOUpdater<A extends LaraAgent<? super A, BO>, BO extends La
 		@SuppressWarnings("unchecked")
 		// the event will only be published by agents of type A
 		A agent = (A) event.getAgent();
-		Collection<BO> updatedBos = new ArrayList<BO>();
+		process(agent, event.getdConfig());
+	}
+
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp#process(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void process(A agent, LaraDecisionConfiguration dConfig) {
 		Collection<BO> bos = agent.getLaraComp()
-				.getDecisionData(event.getdConfig()).getBos();
+				.getDecisionData(dConfig).getBos();
+		Collection<BO> updatedBos = new ArrayList<BO>(bos.size());
 		for (BO bo : bos) {
-			updatedBos.add(bo.getModifiedUtilitiesBO(bo
-					.getSituationalUtilities(event.getdConfig())));
+			updatedBos.add(processBo(agent, dConfig, bo));
 		}
 		// <-- LOGGING
 		if (logger.isEnabledFor(Priority.INFO)) {
@@ -89,8 +99,19 @@ public class LDefaultBOUpdater<A extends LaraAgent<? super A, BO>, BO extends La
 		// LOGGING -->
 		// TODO which BOs to set? set updated or the non updated?
 		// TODO what are situational preferences?!
-		agent.getLaraComp().getDecisionData(event.getdConfig())
+		agent.getLaraComp().getDecisionData(dConfig)
 				.setBos(updatedBos);
-		// agent.getLaraComp().getDecisionData(event.getdConfig()).setBos(bos);
+		// agent.getLaraComp().getDecisionData(dConfig).setBos(bos);
+	}
+
+	/**
+	 * @return a copy of the given BO with its situational utilities
+	 * @see de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp#processBo(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.LaraBehaviouralOption)
+	 */
+	@Override
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo) {
+		return bo.getModifiedUtilitiesBO(bo.getSituationalUtilities(dConfig));
 	}
 }
@@ -36,7 +36,8 @@ import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
 import de.cesr.lara.components.param.LDecisionMakingPa;
 import de.cesr.lara.components.postprocessor.impl.LSelectedBoProperty;
-import de.cesr.lara.components.preprocessor.LaraDecisionModeSelector;
+import de.cesr.lara.components.preprocessor.LaraDirectDecisionModeSelector;
+import de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline;
 import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
 import de.cesr.lara.components.preprocessor.event.LPpBoPreselectorEvent;
 import de.cesr.lara.components.preprocessor.event.LPpBoUtilityUpdaterEvent;
@@ -66,6 +67,17 @@ import de.cesr.parma.core.PmParameterManager;
  * <li>LPpPreferenceUpdaterEvent</li>
  * </ol>
  * 
+ * When invoked via {@link #selectMode(LaraAgent, LaraDecisionConfiguration, LaraPreprocessorPipeline)} the
+ * components are applied by the given {@link LaraPreprocessorPipeline} in the same order instead. Since the selector
+ * is shared among agents (and agents may be processed concurrently), agent and decision configuration are passed to
+ * the hook methods as arguments rather than stored in fields. The deprecated protected fields {@link #agent},
+ * {@link #dConfig} and {@link #eBus} therefore remain <code>null</code> on this path.
+ * 
+ * Subclasses that still override one of the deprecated parameterless hooks ({@link #tryHabit()},
+ * {@link #doDeliberative()}, {@link #doExplorative()} or {@link #getDecisionModeSuggestion(LPpModeSelectorEvent)})
+ * are served by the former code path: agent, decision configuration and eventbus are stored in the protected fields
+ * and the deprecated hooks are invoked. In this case mode selection is serialised per selector instance.
+ * 
  * @author Sascha Holzhauer
  * @param <A>
  *            Agent Type
@@ -74,17 +86,38 @@ import de.cesr.parma.core.PmParameterManager;
  * 
  */
 public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
-		extends LAbstractPpComp<A, BO> implements LaraDecisionModeSelector<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraDirectDecisionModeSelector<A, BO> {
 
 	/**
 	 * Logger
 	 */
 	static private Logger logger = Log4jLogger.getLogger(LDefaultDecisionModeSelector.class);
 
+	/**
+	 * Only set while deprecated hooks are invoked (see {@link #usesDeprecatedHooks()}), <code>null</code> otherwise.
+	 */
+	@Deprecated
 	protected LEventbus eBus;
+
+	/**
+	 * Only set while deprecated hooks are invoked (see {@link #usesDeprecatedHooks()}), <code>null</code> otherwise.
+	 */
+	@Deprecated
 	protected A agent;
+
+	/**
+	 * Only set while deprecated hooks are invoked (see {@link #usesDeprecatedHooks()}), <code>null</code> otherwise.
+	 */
+	@Deprecated
 	protected LaraDecisionConfiguration dConfig;
 
+	/**
+	 * Pipeline of the current invocation of the deprecated hooks (<code>null</code> for the event path)
+	 */
+	private LaraPreprocessorPipeline<A> pipeline;
+
+	private final boolean deprecatedHooks = overridesDeprecatedHooks(getClass());
+
 	/**
 	 * 
 	 * @see de.cesr.lara.components.preprocessor.LaraDecisionModeSelector#onInternalEvent(LaraEvent)
@@ -98,15 +131,22 @@ public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends
 			logger.debug(this.getClass() + "> processes " + e.getClass());
 		}
 		// LOGGING ->
-		agent = null;
-
 		LPpModeSelectorEvent event = castEvent(LPpModeSelectorEvent.class, e);
+		selectMode((A) event.getAgent(), event.getdConfig(), null);
+	}
 
-		agent = (A) event.getAgent();
-		dConfig = event.getdConfig();
-		eBus = LEventbus.getInstance(agent);
-
-		LaraDecisionModes mode = this.getDecisionModeSuggestion(event);
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectDecisionModeSelector#selectMode(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline)
+	 */
+	@Override
+	public void selectMode(A agent, LaraDecisionConfiguration dConfig, LaraPreprocessorPipeline<A> pipeline) {
+		if (deprecatedHooks) {
+			selectModeDeprecated(agent, dConfig, pipeline);
+			return;
+		}
+		LaraDecisionModes mode = this.getDecisionModeSuggestion(agent);
 
 		// <- LOGGING
 		if (logger.isDebugEnabled()) {
@@ -116,21 +156,21 @@ public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends
 	
 		if (mode == null) {
 			// check for habit
-			this.tryHabit();
+			this.tryHabit(agent, dConfig, pipeline);
 		} else {
 			switch (mode) {
 
 				case DELIBERATIVE:
-					doDeliberative();
+					doDeliberative(agent, dConfig, pipeline);
 					break;
 				case HABIT:
-					tryHabit();
+					tryHabit(agent, dConfig, pipeline);
 					break;
 				case HEURISTICS_EXPLORATION:
-					doExplorative();
+					doExplorative(agent, dConfig);
 					break;
 				default:
-					tryHabit();
+					tryHabit(agent, dConfig, pipeline);
 			}
 		}
 
@@ -149,9 +189,12 @@ public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends
 	}
 
 	/**
-	 * 
+	 * @param agent
+	 * @param dConfig
+	 * @param pipeline
+	 *        pipeline to apply the remaining components, or <code>null</code> to publish preprocessor events
 	 */
-	protected void tryHabit() {
+	protected void tryHabit(A agent, LaraDecisionConfiguration dConfig, LaraPreprocessorPipeline<A> pipeline) {
 		// check habits
 		int habitTH = ((Integer) PmParameterManager.getParameter(LDecisionMakingPa.HABIT_THRESHOLD)).intValue();
 		int currStep = agent.getLaraComp().getLaraModel().getCurrentStep();
@@ -186,7 +229,7 @@ public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends
 									dConfig.getId(),
 											agent.getLaraComp().getLaraModel().getCurrentStep() - i).getValue()
 									.getKey().equals(bo.getKey()))) {
-						doDeliberative();
+						deliberate(agent, dConfig, pipeline);
 						break;
 					}
 				} catch (LContainerException ex) {
@@ -203,29 +246,38 @@ public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends
 			LaraDeciderFactory<A, BO> factory = LHabitDeciderFactory.getFactory(agent.getClass());
 			agent.getLaraComp().getDecisionData(dConfig).setDeciderFactory(factory);
 		} else {
-			doDeliberative();
+			deliberate(agent, dConfig, pipeline);
 		}
 	}
 
 	/**
-	 * 
+	 * @param agent
+	 * @param dConfig
+	 * @param pipeline
+	 *        pipeline to apply the remaining components, or <code>null</code> to publish preprocessor events
 	 */
-	protected void doDeliberative() {
+	protected void doDeliberative(A agent, LaraDecisionConfiguration dConfig, LaraPreprocessorPipeline<A> pipeline) {
 		// do deliberative decision making:
 		@SuppressWarnings("unchecked")
 		// unchecked cast
 		LaraDeciderFactory<A, BO> factory = LDeliberativeDeciderFactory.getFactory(agent.getClass());
 		agent.getLaraComp().getDecisionData(dConfig).setDeciderFactory(factory);
-		eBus.publish(new LPpBoCollectorEvent(agent, dConfig));
-		eBus.publish(new LPpBoPreselectorEvent(agent, dConfig));
-		eBus.publish(new LPpBoUtilityUpdaterEvent(agent, dConfig));
-		eBus.publish(new LPpPreferenceUpdaterEvent(agent, dConfig));
+		if (pipeline != null) {
+			pipeline.runDeliberativeStages(agent);
+		} else {
+			LEventbus eBus = LEventbus.getInstance(agent);
+			eBus.publish(new LPpBoCollectorEvent(agent, dConfig));
+			eBus.publish(new LPpBoPreselectorEvent(agent, dConfig));
+			eBus.publish(new LPpBoUtilityUpdaterEvent(agent, dConfig));
+			eBus.publish(new LPpPreferenceUpdaterEvent(agent, dConfig));
+		}
 	}
 
 	/**
-	 * 
+	 * @param agent
+	 * @param dConfig
 	 */
-	protected void doExplorative() {
+	protected void doExplorative(A agent, LaraDecisionConfiguration dConfig) {
 		@SuppressWarnings("unchecked")
 		// unchecked cast
 		LaraDeciderFactory<A, BO> factory = LExplorationDeciderFactory.getFactory(agent.getClass());
@@ -236,16 +288,155 @@ public class LDefaultDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends
 	 * Hook method for custom implementations to decide about deliberative decision mode. As a default, this method
 	 * delegates the decision to the agent.
 	 * 
-	 * @return true if deliberative decision is desired
+	 * @param agent
+	 * @return suggested decision mode or <code>null</code>
 	 */
-	protected LaraDecisionModes getDecisionModeSuggestion(LPpModeSelectorEvent event) {
-		@SuppressWarnings("unchecked")
-		A agent = (A) event.getAgent();
-
+	protected LaraDecisionModes getDecisionModeSuggestion(A agent) {
 		// extend the class and place your custom code here
 		if (agent instanceof LaraDecisionModeProvidingAgent) {
 			return ((LaraDecisionModeProvidingAgent) agent).getDecisionModeSuggestion();
 		}
 		return null;
 	}
+
+	/**
+	 * Runs the former code path for subclasses that override deprecated hooks.
+	 * 
+	 * @param agent
+	 * @param dConfig
+	 * @param pipeline
+	 *        pipeline to apply the remaining components, or <code>null</code> to publish preprocessor events
+	 */
+	private synchronized void selectModeDeprecated(A agent, LaraDecisionConfiguration dConfig,
+			LaraPreprocessorPipeline<A> pipeline) {
+		this.agent = agent;
+		this.dConfig = dConfig;
+		this.eBus = LEventbus.getInstance(agent);
+		this.pipeline = pipeline;
+		try {
+			LaraDecisionModes mode = this.getDecisionModeSuggestion(new LPpModeSelectorEvent(agent, dConfig));
+
+			// <- LOGGING
+			if (logger.isDebugEnabled()) {
+				logger.debug(agent + "> Suggested Decision mode from agent: " + mode);
+			}
+			// LOGGING ->
+
+			if (mode == null) {
+				this.tryHabit();
+			} else {
+				switch (mode) {
+					case DELIBERATIVE:
+						doDeliberative();
+						break;
+					case HEURISTICS_EXPLORATION:
+						doExplorative();
+						break;
+					default:
+						tryHabit();
+				}
+			}
+		} finally {
+			this.agent = null;
+			this.dConfig = null;
+			this.eBus = null;
+			this.pipeline = null;
+		}
+	}
+
+	/**
+	 * Invokes {@link #doDeliberative()} when deprecated hooks are in use and
+	 * {@link #doDeliberative(LaraAgent, LaraDecisionConfiguration, LaraPreprocessorPipeline)} otherwise.
+	 * 
+	 * @param agent
+	 * @param dConfig
+	 * @param pipeline
+	 */
+	private void deliberate(A agent, LaraDecisionConfiguration dConfig, LaraPreprocessorPipeline<A> pipeline) {
+		if (deprecatedHooks) {
+			doDeliberative();
+		} else {
+			doDeliberative(agent, dConfig, pipeline);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if this selector's class overrides one of the deprecated parameterless hooks
+	 */
+	protected boolean usesDeprecatedHooks() {
+		return deprecatedHooks;
+	}
+
+	/**
+	 * @param clazz
+	 * @return <code>true</code> if clazz or one of its superclasses below {@link LDefaultDecisionModeSelector}
+	 *         declares one of the deprecated hooks
+	 */
+	private static boolean overridesDeprecatedHooks(Class<?> clazz) {
+		for (Class<?> c = clazz; c != null && c != LDefaultDecisionModeSelector.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("tryHabit");
+				return true;
+			} catch (NoSuchMethodException e) {
+				// check next hook
+			}
+			try {
+				c.getDeclaredMethod("doDeliberative");
+				return true;
+			} catch (NoSuchMethodException e) {
+				// check next hook
+			}
+			try {
+				c.getDeclaredMethod("doExplorative");
+				return true;
+			} catch (NoSuchMethodException e) {
+				// check next hook
+			}
+			try {
+				c.getDeclaredMethod("getDecisionModeSuggestion", LPpModeSelectorEvent.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// check next class
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @deprecated override {@link #tryHabit(LaraAgent, LaraDecisionConfiguration, LaraPreprocessorPipeline)} and
+	 *             access agent and decision configuration via its arguments
+	 */
+	@Deprecated
+	protected void tryHabit() {
+		tryHabit(agent, dConfig, pipeline);
+	}
+
+	/**
+	 * @deprecated override {@link #doDeliberative(LaraAgent, LaraDecisionConfiguration, LaraPreprocessorPipeline)}
+	 *             and access agent and decision configuration via its arguments
+	 */
+	@Deprecated
+	protected void doDeliberative() {
+		doDeliberative(agent, dConfig, pipeline);
+	}
+
+	/**
+	 * @deprecated override {@link #doExplorative(LaraAgent, LaraDecisionConfiguration)} and access agent and decision
+	 *             configuration via its arguments
+	 */
+	@Deprecated
+	protected void doExplorative() {
+		doExplorative(agent, dConfig);
+	}
+
+	/**
+	 * @param event
+	 * @return suggested decision mode or <code>null</code>
+	 * @deprecated override {@link #getDecisionModeSuggestion(LaraAgent)}
+	 */
+	@Deprecated
+	@SuppressWarnings("unchecked")
+	protected LaraDecisionModes getDecisionModeSuggestion(LPpModeSelectorEvent event) {
+		return getDecisionModeSuggestion((A) event.getAgent());
+	}
 }
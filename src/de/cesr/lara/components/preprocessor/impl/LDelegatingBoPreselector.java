@@ -21,19 +21,54 @@ package de.cesr.lara.components.preprocessor.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.apache.log4j.Logger;
 import org.apache.log4j.Priority;
 
 import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.LaraProperty;
+import de.cesr.lara.components.LaraSituationalBo;
 import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.agents.LaraBOPreselectingAgent;
+import de.cesr.lara.components.container.memory.LaraMemory;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.environment.LaraEnvironment;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.param.LDecisionMakingPa;
 import de.cesr.lara.components.preprocessor.LaraBOPreselector;
+import de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp;
 import de.cesr.lara.components.preprocessor.event.LPpBoPreselectorEvent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+import de.cesr.parma.core.PmParameterManager;
 
 /**
- * Delegates checking to each behavioural option.
+ * Delegates checking to each behavioural option. The effort spent depends on
+ * the agent's preselecting accuracy (see
+ * {@link de.cesr.lara.components.agents.LaraAgentComponent#getPreselectingBOAccuracy()}):
+ * <ul>
+ * <li>{@link LaraBOPreselector.LAccuracy#ACCURATE}: each BO is checked
+ * whenever it is preselected</li>
+ * <li>{@link LaraBOPreselector.LAccuracy#MODERATE} and
+ * {@link LaraBOPreselector.LAccuracy#TOLERANT}: the result of checking a BO
+ * is reused for equal BOs (same agent, key, timestamp and utilities) for the
+ * number of steps given by
+ * {@link LDecisionMakingPa#PRESELECTION_MODERATE_STEPS} and
+ * {@link LDecisionMakingPa#PRESELECTION_TOLERANT_STEPS}, respectively. At
+ * MODERATE accuracy, results for {@link LaraSituationalBo}s are in addition
+ * only reused as long as the inputs the BO declares are unchanged (see
+ * {@link LSituationalInputs}).</li>
+ * <li>{@link LaraBOPreselector.LAccuracy#ASK_AGENT}: the agent (which needs
+ * to implement {@link LaraBOPreselectingAgent}) checks each BO</li>
+ * </ul>
+ * Other accuracies are treated as ACCURATE (see
+ * {@link #getResultLifetime(LaraBOPreselector.Accuracy)}).
+ * 
+ * Since one preselector is shared by all agents, check results are kept in
+ * {@link #NUM_STRIPES} maps with individual locks. The map is chosen by agent,
+ * so that agents preprocessed concurrently rarely contend for the same lock.
  * 
  * NOTE regarding LOGGING: The agent logger for logging BOs is only enabled when
  * the logger for this class is enabled at least for {@link Priority#INFO}!
@@ -47,7 +82,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * @date 13.11.2009
  */
 public class LDelegatingBoPreselector<A extends LaraAgent<? super A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
-		extends LAbstractPpComp<A, BO> implements LaraBOPreselector<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraBOPreselector<A, BO>,
+		LaraPerBoPreprocessorComp<A, BO> {
 
 	/**
 	 * Logger
@@ -55,6 +91,45 @@ public class LDelegatingBoPreselector<A extends LaraAgent<? super A, BO>, BO ext
 	static private Logger logger = Log4jLogger
 			.getLogger(LDelegatingBoPreselector.class);
 
+	/**
+	 * Number of maps check results are distributed over
+	 */
+	protected static final int NUM_STRIPES = 64;
+
+	/**
+	 * Applicability check result, the step it was obtained in and the inputs
+	 * of a {@link LaraSituationalBo} at that time (<code>null</code> if not
+	 * tracked)
+	 */
+	protected static class LApplicability {
+		protected final boolean applicable;
+		protected final int step;
+		protected final Object[] inputs;
+
+		protected LApplicability(boolean applicable, int step, Object[] inputs) {
+			this.applicable = applicable;
+			this.step = step;
+			this.inputs = inputs;
+		}
+	}
+
+	/**
+	 * Check results of BOs that are reused at reduced accuracy, distributed
+	 * over {@link #NUM_STRIPES} maps by agent. Each map is guarded by its own
+	 * monitor. Keys are weak so that results vanish together with their BOs.
+	 */
+	protected final List<Map<BO, LApplicability>> applicabilities;
+
+	/**
+	 * 
+	 */
+	public LDelegatingBoPreselector() {
+		applicabilities = new ArrayList<Map<BO, LApplicability>>(NUM_STRIPES);
+		for (int i = 0; i < NUM_STRIPES; i++) {
+			applicabilities.add(new WeakHashMap<BO, LApplicability>());
+		}
+	}
+
 	/**
 	 * Delegates checking to each behavioural option.
 	 * 
@@ -72,10 +147,21 @@ public class LDelegatingBoPreselector<A extends LaraAgent<? super A, BO>, BO ext
 		@SuppressWarnings("unchecked")
 		// the event will only be published by agents of type A
 		A agent = (A) event.getAgent();
+		process(agent, event.getdConfig());
+	}
+
+	/**
+	 * Delegates checking to each behavioural option.
+	 * 
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp#process(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void process(A agent, LaraDecisionConfiguration dConfig) {
 		Collection<BO> bos = new ArrayList<BO>();
-		for (BO bo : agent.getLaraComp().getDecisionData(event.getdConfig())
+		for (BO bo : agent.getLaraComp().getDecisionData(dConfig)
 				.getBos()) {
-			if (bo.isCurrentlyApplicable()) {
+			if (processBo(agent, dConfig, bo) != null) {
 				bos.add(bo);
 			}
 		}
@@ -88,6 +174,108 @@ public class LDelegatingBoPreselector<A extends LaraAgent<? super A, BO>, BO ext
 		}
 		// LOGGING -->
 
-		agent.getLaraComp().getDecisionData(event.getdConfig()).setBos(bos);
+		agent.getLaraComp().getDecisionData(dConfig).setBos(bos);
+	}
+
+	/**
+	 * @return the given BO if it is currently applicable, <code>null</code>
+	 *         otherwise
+	 * @see de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp#processBo(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.LaraBehaviouralOption)
+	 */
+	@Override
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo) {
+		LaraBOPreselector.Accuracy accuracy = agent.getLaraComp()
+				.getPreselectingBOAccuracy();
+		if (accuracy == LaraBOPreselector.LAccuracy.ASK_AGENT) {
+			return askAgent(agent, bo) ? bo : null;
+		}
+
+		int lifetime = getResultLifetime(accuracy);
+		if (lifetime <= 0) {
+			return bo.isCurrentlyApplicable() ? bo : null;
+		}
+
+		int step = agent.getLaraComp().getLaraModel().getCurrentStep();
+		LaraSituationalBo situationalBo = accuracy == LaraBOPreselector.LAccuracy.MODERATE
+				&& bo instanceof LaraSituationalBo ? (LaraSituationalBo) bo
+				: null;
+		LaraEnvironment environment = null;
+		LaraMemory<LaraProperty<?, ?>> memory = null;
+		if (situationalBo != null) {
+			environment = agent.getLaraComp().getEnvironment();
+			memory = agent.getLaraComp().getGeneralMemory();
+		}
+
+		Map<BO, LApplicability> stripe = getStripe(agent);
+		LApplicability result;
+		synchronized (stripe) {
+			result = stripe.get(bo);
+		}
+		if (result == null
+				|| step < result.step
+				|| step - result.step > lifetime
+				|| (situationalBo != null && (result.inputs == null || !LSituationalInputs
+						.isUnchanged(result.inputs, situationalBo, environment,
+								memory)))) {
+			Object[] inputs = situationalBo == null ? null : LSituationalInputs
+					.getInputs(situationalBo, environment, memory);
+			result = new LApplicability(bo.isCurrentlyApplicable(), step,
+					inputs);
+			synchronized (stripe) {
+				stripe.put(bo, result);
+			}
+		}
+		return result.applicable ? bo : null;
+	}
+
+	/**
+	 * @param agent
+	 * @return the map that holds the check results of the given agent's BOs
+	 */
+	protected Map<BO, LApplicability> getStripe(A agent) {
+		return applicabilities.get((System.identityHashCode(agent) & 0x7fffffff)
+				% NUM_STRIPES);
+	}
+
+	/**
+	 * @param accuracy
+	 * @return number of steps a check result is reused for at the given
+	 *         accuracy (0 if results are not reused)
+	 */
+	protected int getResultLifetime(LaraBOPreselector.Accuracy accuracy) {
+		if (accuracy == LaraBOPreselector.LAccuracy.MODERATE) {
+			return ((Integer) PmParameterManager
+					.getParameter(LDecisionMakingPa.PRESELECTION_MODERATE_STEPS))
+					.intValue();
+		} else if (accuracy == LaraBOPreselector.LAccuracy.TOLERANT) {
+			return ((Integer) PmParameterManager
+					.getParameter(LDecisionMakingPa.PRESELECTION_TOLERANT_STEPS))
+					.intValue();
+		}
+		return 0;
+	}
+
+	/**
+	 * @param agent
+	 * @param bo
+	 * @return true if the agent accepts the given BO
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	// the agent preselects its own BOs
+	protected boolean askAgent(A agent, BO bo) {
+		if (!(agent instanceof LaraBOPreselectingAgent)) {
+			// <- LOGGING
+			logger.error("Agent " + agent + " does not implement "
+					+ LaraBOPreselectingAgent.class.getSimpleName()
+					+ " but requests accuracy ASK_AGENT!");
+			// LOGGING ->
+			throw new IllegalStateException("Agent " + agent
+					+ " does not implement "
+					+ LaraBOPreselectingAgent.class.getSimpleName()
+					+ " but requests accuracy ASK_AGENT!");
+		}
+		return ((LaraBOPreselectingAgent) agent).preselect(bo);
 	}
 }
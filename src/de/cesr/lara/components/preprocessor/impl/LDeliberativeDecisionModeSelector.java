@@ -29,7 +29,8 @@ import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.impl.LDeliberativeDeciderFactory;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
-import de.cesr.lara.components.preprocessor.LaraDecisionModeSelector;
+import de.cesr.lara.components.preprocessor.LaraDirectDecisionModeSelector;
+import de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline;
 import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
 import de.cesr.lara.components.preprocessor.event.LPpBoPreselectorEvent;
 import de.cesr.lara.components.preprocessor.event.LPpBoUtilityUpdaterEvent;
@@ -50,7 +51,7 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * @date 10.07.2009
  */
 public class LDeliberativeDecisionModeSelector<A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
-		extends LAbstractPpComp<A, BO> implements LaraDecisionModeSelector<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraDirectDecisionModeSelector<A, BO> {
 
 	/**
 	 * Logger
@@ -86,14 +87,35 @@ public class LDeliberativeDecisionModeSelector<A extends LaraAgent<A, BO>, BO ex
 		LaraDecisionConfiguration dConfig = event.getdConfig();
 		LEventbus eBus = LEventbus.getInstance(agent);
 
-		@SuppressWarnings("unchecked")
-		// unchecked cast
-		LaraDeciderFactory<A, BO> factory = LDeliberativeDeciderFactory.getFactory(agent.getClass());
-		agent.getLaraComp().getDecisionData(dConfig).setDeciderFactory(factory);
+		setDeciderFactory(agent, dConfig);
 
 		eBus.publish(new LPpBoCollectorEvent(agent, dConfig));
 		eBus.publish(new LPpBoPreselectorEvent(agent, dConfig));
 		eBus.publish(new LPpBoUtilityUpdaterEvent(agent, dConfig));
 		eBus.publish(new LPpPreferenceUpdaterEvent(agent, dConfig));
 	}
+
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectDecisionModeSelector#selectMode(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline)
+	 */
+	@Override
+	public void selectMode(A agent, LaraDecisionConfiguration dConfig, LaraPreprocessorPipeline<A> pipeline) {
+		setDeciderFactory(agent, dConfig);
+		pipeline.runDeliberativeStages(agent);
+	}
+
+	/**
+	 * Assigns {@link LDeliberativeDeciderFactory} to the agent's decision data.
+	 * 
+	 * @param agent
+	 * @param dConfig
+	 */
+	protected void setDeciderFactory(A agent, LaraDecisionConfiguration dConfig) {
+		@SuppressWarnings("unchecked")
+		// unchecked cast
+		LaraDeciderFactory<A, BO> factory = LDeliberativeDeciderFactory.getFactory(agent.getClass());
+		agent.getLaraComp().getDecisionData(dConfig).setDeciderFactory(factory);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.preprocessor.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.LaraProperty;
+import de.cesr.lara.components.LaraSituationalBo;
+import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.container.memory.LaraMemory;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.environment.LaraEnvironment;
+
+/**
+ * Utility updater that re-evaluates the situational utilities of a BO only if
+ * the inputs the BO declares (see {@link LaraSituationalBo}) changed since
+ * the last evaluation for the same decision configuration. Otherwise, the BO
+ * updated before is reused. Inputs are captured and compared by
+ * {@link LSituationalInputs}.
+ * 
+ * BOs that do not implement {@link LaraSituationalBo} are updated as by
+ * {@link LDefaultBOUpdater}.
+ * 
+ * @param <A>
+ *            the type of agents this BO utilityUpdater is intended for
+ * @param <BO>
+ *            the type of behavioural options that are updated
+ */
+public class LDependencyTrackingBOUpdater<A extends LaraAgent<? super A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
+		extends LDefaultBOUpdater<A, BO> {
+
+	/**
+	 * Updated BO and the inputs it was evaluated for
+	 */
+	protected static class LRefresh<BO> {
+		protected final BO updatedBo;
+		protected final Object[] inputs;
+
+		protected LRefresh(BO updatedBo, Object[] inputs) {
+			this.updatedBo = updatedBo;
+			this.inputs = inputs;
+		}
+	}
+
+	/**
+	 * Refreshes per source BO and decision configuration. Keys are weak so that
+	 * refreshes vanish together with their BOs. The maps per BO are concurrent
+	 * since they are read without locking.
+	 */
+	protected final Map<BO, Map<LaraDecisionConfiguration, LRefresh<BO>>> refreshes = Collections
+			.synchronizedMap(new WeakHashMap<BO, Map<LaraDecisionConfiguration, LRefresh<BO>>>());
+
+	/**
+	 * @see de.cesr.lara.components.preprocessor.impl.LDefaultBOUpdater#processBo(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.LaraBehaviouralOption)
+	 */
+	@Override
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo) {
+		if (!(bo instanceof LaraSituationalBo)) {
+			return super.processBo(agent, dConfig, bo);
+		}
+		LaraSituationalBo situationalBo = (LaraSituationalBo) bo;
+		LaraEnvironment environment = agent.getLaraComp().getEnvironment();
+		LaraMemory<LaraProperty<?, ?>> memory = agent.getLaraComp()
+				.getGeneralMemory();
+
+		Map<LaraDecisionConfiguration, LRefresh<BO>> boRefreshes = refreshes
+				.get(bo);
+		LRefresh<BO> refresh = boRefreshes == null ? null : boRefreshes
+				.get(dConfig);
+		if (refresh != null
+				&& isUnchanged(refresh.inputs, situationalBo, environment,
+						memory)) {
+			return refresh.updatedBo;
+		}
+
+		Object[] inputs = LSituationalInputs.getInputs(situationalBo,
+				environment, memory);
+
+		BO updatedBo = super.processBo(agent, dConfig, bo);
+		synchronized (refreshes) {
+			boRefreshes = refreshes.get(bo);
+			if (boRefreshes == null) {
+				boRefreshes = new ConcurrentHashMap<LaraDecisionConfiguration, LRefresh<BO>>();
+				refreshes.put(bo, boRefreshes);
+			}
+			boRefreshes.put(dConfig, new LRefresh<BO>(updatedBo, inputs));
+		}
+		return updatedBo;
+	}
+
+	/**
+	 * @param inputs
+	 *            inputs of the last evaluation
+	 * @param bo
+	 * @param environment
+	 * @param memory
+	 * @return true if all declared inputs are identical to the given ones
+	 */
+	protected boolean isUnchanged(Object[] inputs, LaraSituationalBo bo,
+			LaraEnvironment environment, LaraMemory<LaraProperty<?, ?>> memory) {
+		return LSituationalInputs.isUnchanged(inputs, bo, environment, memory);
+	}
+}
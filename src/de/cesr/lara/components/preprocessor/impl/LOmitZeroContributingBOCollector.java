@@ -21,17 +21,16 @@ package de.cesr.lara.components.preprocessor.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
 import org.apache.log4j.Priority;
 
 import de.cesr.lara.components.LaraBehaviouralOption;
-import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.agents.LaraAgent;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.preprocessor.LaraBOCollector;
+import de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp;
 import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
@@ -50,7 +49,8 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  *        the type of behavioural options the given BO-memory memorises
  */
 public class LOmitZeroContributingBOCollector<A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, BO>>
-		extends LAbstractPpComp<A, BO> implements LaraBOCollector<A, BO> {
+		extends LAbstractPpComp<A, BO> implements LaraBOCollector<A, BO>,
+		LaraPerBoPreprocessorComp<A, BO> {
 
 	/**
 	 * Logger
@@ -76,23 +76,21 @@ public class LOmitZeroContributingBOCollector<A extends LaraAgent<A, BO>, BO ext
 
 		LPpBoCollectorEvent event = castEvent(LPpBoCollectorEvent.class, e);
 
-		Collection<BO> bos = new ArrayList<BO>();
 		@SuppressWarnings("unchecked")
 		// the event will only be published by agents of type A
 		A agent = ((A) event.getAgent());
-		for (BO bo : agent.getLaraComp().getBOMemory().recallAllMostRecent()) {
-			boolean contributes = false;
-			for (Entry<LaraPreference, Double> utility : bo
-					.getValue().entrySet()) {
+		process(agent, event.getdConfig());
+	}
 
-				if (utility.getValue().doubleValue() > 0.0
-						&& event.getdConfig().getPreferences()
-								.contains(utility.getKey())) {
-					contributes = true;
-					break;
-				}
-			}
-			if (contributes) {
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp#process(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void process(A agent, LaraDecisionConfiguration dConfig) {
+		Collection<BO> bos = new ArrayList<BO>();
+		for (BO bo : agent.getLaraComp().getBOMemory().recallAllMostRecent()) {
+			if (processBo(agent, dConfig, bo) != null) {
 				bos.add(bo);
 			}
 		}
@@ -101,6 +99,18 @@ public class LOmitZeroContributingBOCollector<A extends LaraAgent<A, BO>, BO ext
 			logBOs(logger, bos, "after collection", agent);
 		}
 		// LOGGING -->
-		agent.getLaraComp().getDecisionData(event.getdConfig()).setBos(bos);
+		agent.getLaraComp().getDecisionData(dConfig).setBos(bos);
+	}
+
+	/**
+	 * @return the given BO if any of its utilities above 0.0 refers to a
+	 *         preference of the given decision, <code>null</code> otherwise
+	 * @see de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp#processBo(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration,
+	 *      de.cesr.lara.components.LaraBehaviouralOption)
+	 */
+	@Override
+	public BO processBo(A agent, LaraDecisionConfiguration dConfig, BO bo) {
+		return bo.hasPositiveUtilityFor(dConfig) ? bo : null;
 	}
 }
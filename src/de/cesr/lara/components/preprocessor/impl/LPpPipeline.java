@@ -0,0 +1,373 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.preprocessor.impl;
+
+import java.util.ArrayList;
+
+import org.apache.log4j.Logger;
+
+import de.cesr.lara.components.LaraBehaviouralOption;
+import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.preprocessor.LaraBOCollector;
+import de.cesr.lara.components.preprocessor.LaraBOPreselector;
+import de.cesr.lara.components.preprocessor.LaraBOUtilityUpdater;
+import de.cesr.lara.components.preprocessor.LaraDecisionModeSelector;
+import de.cesr.lara.components.preprocessor.LaraDirectDecisionModeSelector;
+import de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp;
+import de.cesr.lara.components.preprocessor.LaraPerBoPreprocessorComp;
+import de.cesr.lara.components.preprocessor.LaraPreferenceUpdater;
+import de.cesr.lara.components.preprocessor.LaraPreprocessorComp;
+import de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline;
+import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
+import de.cesr.lara.components.preprocessor.event.LPpBoPreselectorEvent;
+import de.cesr.lara.components.preprocessor.event.LPpBoUtilityUpdaterEvent;
+import de.cesr.lara.components.preprocessor.event.LPpPreferenceUpdaterEvent;
+import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+
+/**
+ * Preprocessor component chain of an {@link LPreprocessor} that is resolved
+ * once for a certain {@link LaraDecisionConfiguration}. Components are invoked
+ * directly instead of being subscribed to and notified by the agent's
+ * eventbus. Components that do not implement
+ * {@link LaraDirectPreprocessorComp} are passed their preprocessor event
+ * directly. The same applies to components whose class overrides
+ * <code>onInternalEvent(LaraEvent)</code> below the class that implements the
+ * direct invocation method, since that would bypass the overriding event
+ * handling. Components that are set to <code>null</code> are skipped.
+ * 
+ * If collector, preselector and utility updater all implement
+ * {@link LaraPerBoPreprocessorComp} they are fused into a single pass over
+ * the agent's BO memory that collects the surviving BOs in a per-thread
+ * buffer, so that only the final BO collection is allocated. Components whose
+ * class overrides {@link LaraDirectPreprocessorComp#process} below the class
+ * that implements {@link LaraPerBoPreprocessorComp#processBo} are not fused,
+ * since the per-BO step would bypass the overriding implementation.
+ * 
+ * Instances are immutable and may be shared among agents.
+ * 
+ * @param <A>
+ *            the type of agents this pipeline is intended for
+ * @param <BO>
+ *            the type of behavioural options
+ */
+public class LPpPipeline<A extends LaraAgent<A, BO>, BO extends LaraBehaviouralOption<?, ? extends BO>>
+		implements LaraPreprocessorPipeline<A> {
+
+	/**
+	 * Logger
+	 */
+	static private Logger logger = Log4jLogger.getLogger(LPpPipeline.class);
+
+	private final LaraDecisionConfiguration dConfig;
+
+	private final LaraDecisionModeSelector<A, BO> selector;
+	private final LaraBOCollector<A, BO> collector;
+	private final LaraBOPreselector<A, BO> preselector;
+	private final LaraBOUtilityUpdater<A, BO> updater;
+	private final LaraPreferenceUpdater<A, BO> prefUpdater;
+
+	/**
+	 * true if the respective component is invoked directly
+	 */
+	private final boolean selectorDirect;
+	private final boolean collectorDirect;
+	private final boolean preselectorDirect;
+	private final boolean updaterDirect;
+	private final boolean prefUpdaterDirect;
+
+	/**
+	 * true if collection, preselection and utility updating are fused
+	 */
+	private final boolean fused;
+
+	/**
+	 * Per-thread buffer of the fused stages (pipelines are shared among agents
+	 * that may be preprocessed concurrently)
+	 */
+	private final ThreadLocal<ArrayList<BO>> fusedBuffer = new ThreadLocal<ArrayList<BO>>() {
+		@Override
+		protected ArrayList<BO> initialValue() {
+			return new ArrayList<BO>();
+		}
+	};
+
+	/**
+	 * @param dConfig
+	 * @param selector
+	 * @param collector
+	 * @param preselector
+	 * @param updater
+	 * @param prefUpdater
+	 */
+	public LPpPipeline(LaraDecisionConfiguration dConfig,
+			LaraDecisionModeSelector<A, BO> selector,
+			LaraBOCollector<A, BO> collector,
+			LaraBOPreselector<A, BO> preselector,
+			LaraBOUtilityUpdater<A, BO> updater,
+			LaraPreferenceUpdater<A, BO> prefUpdater) {
+		this.dConfig = dConfig;
+		this.selector = selector;
+		this.collector = collector;
+		this.preselector = preselector;
+		this.updater = updater;
+		this.prefUpdater = prefUpdater;
+		this.selectorDirect = selector instanceof LaraDirectDecisionModeSelector
+				&& isDirectlyInvocable(selector, "selectMode", LaraAgent.class,
+						LaraDecisionConfiguration.class,
+						LaraPreprocessorPipeline.class);
+		this.collectorDirect = isDirectlyInvocable(collector);
+		this.preselectorDirect = isDirectlyInvocable(preselector);
+		this.updaterDirect = isDirectlyInvocable(updater);
+		this.prefUpdaterDirect = isDirectlyInvocable(prefUpdater);
+		this.fused = collector != null && isFusable(collector)
+				&& (preselector == null || isFusable(preselector))
+				&& (updater == null || isFusable(updater));
+	}
+
+	/**
+	 * @param comp
+	 * @return true if the given component is a
+	 *         {@link LaraDirectPreprocessorComp} whose
+	 *         {@link LaraDirectPreprocessorComp#process} is declared in the
+	 *         same class as its <code>onInternalEvent(LaraEvent)</code> or in
+	 *         a subclass of it
+	 */
+	protected static boolean isDirectlyInvocable(Object comp) {
+		return comp instanceof LaraDirectPreprocessorComp
+				&& isDirectlyInvocable(comp, "process", LaraAgent.class,
+						LaraDecisionConfiguration.class);
+	}
+
+	/**
+	 * @param comp
+	 * @param methodName
+	 *            name of the method that replaces the event handling
+	 * @param parameterTypes
+	 *            parameter types of that method
+	 * @return true if the given method of the component is declared in the
+	 *         same class as its <code>onInternalEvent(LaraEvent)</code> or in
+	 *         a subclass of it
+	 */
+	protected static boolean isDirectlyInvocable(Object comp,
+			String methodName, Class<?>... parameterTypes) {
+		try {
+			Class<?> eventClass = comp.getClass()
+					.getMethod("onInternalEvent", LaraEvent.class)
+					.getDeclaringClass();
+			Class<?> directClass = comp.getClass()
+					.getMethod(methodName, parameterTypes).getDeclaringClass();
+			return eventClass.isAssignableFrom(directClass);
+		} catch (NoSuchMethodException e) {
+			// <- LOGGING
+			logger.warn("Could not resolve the preprocessing methods of " + comp
+					+ " - the component is notified by event.");
+			// LOGGING ->
+			return false;
+		}
+	}
+
+	/**
+	 * @param comp
+	 * @return true if the given component is a
+	 *         {@link LaraPerBoPreprocessorComp} that is invoked directly (see
+	 *         {@link #isDirectlyInvocable(Object)}) and whose
+	 *         {@link LaraPerBoPreprocessorComp#processBo} is declared in the
+	 *         same class as its {@link LaraDirectPreprocessorComp#process} or
+	 *         in a subclass of it
+	 */
+	protected static boolean isFusable(Object comp) {
+		if (!(comp instanceof LaraPerBoPreprocessorComp)
+				|| !isDirectlyInvocable(comp)) {
+			return false;
+		}
+		try {
+			Class<?> processClass = comp.getClass()
+					.getMethod("process", LaraAgent.class,
+							LaraDecisionConfiguration.class)
+					.getDeclaringClass();
+			Class<?> processBoClass = comp.getClass()
+					.getMethod("processBo", LaraAgent.class,
+							LaraDecisionConfiguration.class,
+							LaraBehaviouralOption.class).getDeclaringClass();
+			return processClass.isAssignableFrom(processBoClass);
+		} catch (NoSuchMethodException e) {
+			// <- LOGGING
+			logger.warn("Could not resolve the preprocessing methods of " + comp
+					+ " - the component is not fused.");
+			// LOGGING ->
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if collection, preselection and utility updating are
+	 *         performed in a single pass
+	 */
+	public boolean isFused() {
+		return fused;
+	}
+
+	/**
+	 * @return true if the decision mode selector supports direct invocation
+	 *         and does not override its event handling
+	 */
+	public boolean isDirect() {
+		return selectorDirect;
+	}
+
+	/**
+	 * Selects the decision mode for the given agent which in turn applies the
+	 * remaining components if appropriate. Requires {@link #isDirect()}.
+	 * 
+	 * @param agent
+	 */
+	@SuppressWarnings("unchecked")
+	// checked by isDirect()
+	public void preprocess(A agent) {
+		((LaraDirectDecisionModeSelector<A, BO>) selector).selectMode(agent,
+				dConfig, this);
+	}
+
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline#getDecisionConfiguration()
+	 */
+	@Override
+	public LaraDecisionConfiguration getDecisionConfiguration() {
+		return dConfig;
+	}
+
+	/**
+	 * @see de.cesr.lara.components.preprocessor.LaraPreprocessorPipeline#runDeliberativeStages(de.cesr.lara.components.agents.LaraAgent)
+	 */
+	@Override
+	public void runDeliberativeStages(A agent) {
+		if (fused) {
+			runFusedStages(agent);
+		} else {
+			runSeparateStages(agent);
+		}
+		if (!invokeDirectly(prefUpdater, prefUpdaterDirect, agent)
+				&& prefUpdater != null) {
+			prefUpdater.onInternalEvent(new LPpPreferenceUpdaterEvent(agent,
+					dConfig));
+		}
+	}
+
+	/**
+	 * Passes each most recent BO in the agent's memory through collector,
+	 * preselector and utility updater and sets the surviving (updated) BOs as
+	 * the decision's BOs.
+	 * 
+	 * @param agent
+	 */
+	@SuppressWarnings("unchecked")
+	// checked by fused
+	private void runFusedStages(A agent) {
+		LaraPerBoPreprocessorComp<A, BO> collectorComp = (LaraPerBoPreprocessorComp<A, BO>) collector;
+		LaraPerBoPreprocessorComp<A, BO> preselectorComp = (LaraPerBoPreprocessorComp<A, BO>) preselector;
+		LaraPerBoPreprocessorComp<A, BO> updaterComp = (LaraPerBoPreprocessorComp<A, BO>) updater;
+
+		ArrayList<BO> buffer = fusedBuffer.get();
+		int numCollected = 0;
+		for (BO bo : agent.getLaraComp().getBOMemory().recallAllMostRecent()) {
+			BO result = collectorComp.processBo(agent, dConfig, bo);
+			if (result == null) {
+				continue;
+			}
+			numCollected++;
+			if (preselectorComp != null) {
+				result = preselectorComp.processBo(agent, dConfig, result);
+				if (result == null) {
+					continue;
+				}
+			}
+			if (updaterComp != null) {
+				result = updaterComp.processBo(agent, dConfig, result);
+			}
+			buffer.add(result);
+		}
+
+		// <- LOGGING
+		if (numCollected == 0) {
+			logger.warn("No BOs have been collected for agent " + agent + "!");
+		} else if (buffer.isEmpty()) {
+			logger.warn("No BOs after pre-selection for agent " + agent + "!");
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(agent + "> BOs after fused preprocessing for "
+					+ dConfig + ": " + buffer);
+		}
+		// LOGGING ->
+
+		agent.getLaraComp().getDecisionData(dConfig)
+				.setBos(new ArrayList<BO>(buffer));
+		// do not retain the agent's BOs:
+		buffer.clear();
+	}
+
+	/**
+	 * @param agent
+	 */
+	private void runSeparateStages(A agent) {
+		if (!invokeDirectly(collector, collectorDirect, agent)
+				&& collector != null) {
+			collector.onInternalEvent(new LPpBoCollectorEvent(agent, dConfig));
+		}
+		if (!invokeDirectly(preselector, preselectorDirect, agent)
+				&& preselector != null) {
+			preselector.onInternalEvent(new LPpBoPreselectorEvent(agent,
+					dConfig));
+		}
+		if (!invokeDirectly(updater, updaterDirect, agent)
+				&& updater != null) {
+			updater.onInternalEvent(new LPpBoUtilityUpdaterEvent(agent,
+					dConfig));
+		}
+	}
+
+	/**
+	 * @param comp
+	 * @param direct
+	 *            true if the component is invoked directly
+	 * @param agent
+	 * @return true if the component is invoked directly and has been applied
+	 */
+	@SuppressWarnings("unchecked")
+	// components are parameterised with A
+	private boolean invokeDirectly(LaraPreprocessorComp<A, BO> comp,
+			boolean direct, A agent) {
+		if (direct) {
+			((LaraDirectPreprocessorComp<A, BO>) comp).process(agent, dConfig);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Pipeline for " + dConfig + ": " + selector + " > " + collector
+				+ " > " + preselector + " > " + updater + " > " + prefUpdater;
+	}
+}
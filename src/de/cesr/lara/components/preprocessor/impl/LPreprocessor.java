@@ -21,6 +21,7 @@ package de.cesr.lara.components.preprocessor.impl;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
@@ -30,6 +31,7 @@ import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.LaraInternalEventSubscriber;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
+import de.cesr.lara.components.param.LDecisionMakingPa;
 import de.cesr.lara.components.preprocessor.LaraBOCollector;
 import de.cesr.lara.components.preprocessor.LaraBOPreselector;
 import de.cesr.lara.components.preprocessor.LaraBOUtilityUpdater;
@@ -45,6 +47,7 @@ import de.cesr.lara.components.preprocessor.event.LPpModeSelectorEvent;
 import de.cesr.lara.components.preprocessor.event.LPpPreferenceUpdaterEvent;
 import de.cesr.lara.components.preprocessor.event.LPpUnsubscribeEvent;
 import de.cesr.lara.components.util.logging.impl.Log4jLogger;
+import de.cesr.parma.core.PmParameterManager;
 
 /**
  * The {@link LPreprocessor} class provides immutable (once assigned, the
@@ -86,6 +89,16 @@ public final class LPreprocessor<A extends LaraAgent<A, BO>, BO extends LaraBeha
 
 	private final LaraPreprocessorConfigurator<A, BO> configuration;
 
+	/**
+	 * Component chains resolved per decision configuration (see
+	 * {@link LDecisionMakingPa#PREPROCESS_DIRECT_PIPELINE}). The
+	 * <code>null</code> key cannot be used with {@link ConcurrentHashMap}, but
+	 * preprocessing always refers to a decision configuration.
+	 */
+	private final Map<LaraDecisionConfiguration, LPpPipeline<A, BO>> pipelines;
+
+	private final boolean directPipeline;
+
 	/**
 	 * Use {@link LaraPreprocessorConfigurator#getPreprocessor()} to receive an
 	 * instance of a pre-processor (it keeps instances and returns it if
@@ -107,6 +120,10 @@ public final class LPreprocessor<A extends LaraAgent<A, BO>, BO extends LaraBeha
 	protected LPreprocessor(LaraPreprocessorConfigurator<A, BO> configuration) {
 
 		this.configuration = configuration;
+		this.directPipeline = ((Boolean) PmParameterManager
+				.getParameter(LDecisionMakingPa.PREPROCESS_DIRECT_PIPELINE))
+				.booleanValue();
+		this.pipelines = new ConcurrentHashMap<LaraDecisionConfiguration, LPpPipeline<A, BO>>();
 
 		selectorMap = new HashMap<LaraDecisionConfiguration, LaraDecisionModeSelector<A, BO>>();
 		collectorMap = new HashMap<LaraDecisionConfiguration, LaraBOCollector<A, BO>>();
@@ -269,6 +286,14 @@ public final class LPreprocessor<A extends LaraAgent<A, BO>, BO extends LaraBeha
 		}
 		// LOGGING ->
 
+		if (directPipeline) {
+			LPpPipeline<A, BO> pipeline = getPipeline(dConfig);
+			if (pipeline.isDirect()) {
+				pipeline.preprocess(agent);
+				return;
+			}
+		}
+
 		LEventbus eBus = LEventbus.getInstance(agent);
 
 		eBus.subscribe(
@@ -296,6 +321,37 @@ public final class LPreprocessor<A extends LaraAgent<A, BO>, BO extends LaraBeha
 		eBus.publish(new LPpUnsubscribeEvent(agent, dConfig));
 	}
 
+	/**
+	 * Returns the component chain for the given decision configuration and
+	 * resolves it on first request.
+	 * 
+	 * @param dConfig
+	 * @return pipeline of components for the given decision configuration
+	 */
+	public LPpPipeline<A, BO> getPipeline(LaraDecisionConfiguration dConfig) {
+		LPpPipeline<A, BO> pipeline = pipelines.get(dConfig);
+		if (pipeline == null) {
+			pipeline = new LPpPipeline<A, BO>(dConfig, getComponent(
+					selectorMap, dConfig), getComponent(collectorMap, dConfig),
+					getComponent(preSelectorMap, dConfig), getComponent(
+							updaterMap, dConfig), getComponent(prefUpdaterMap,
+							dConfig));
+			pipelines.put(dConfig, pipeline);
+		}
+		return pipeline;
+	}
+
+	/**
+	 * @param map
+	 * @param dConfig
+	 * @return the component registered for the given decision configuration
+	 *         or the default component
+	 */
+	private <T> T getComponent(Map<LaraDecisionConfiguration, T> map,
+			LaraDecisionConfiguration dConfig) {
+		return map.containsKey(dConfig) ? map.get(dConfig) : map.get(null);
+	}
+
 	/**
 	 * {@link HashMap#clone()} is not appropriate because default values may not
 	 * be deleted.
@@ -20,15 +20,19 @@
 package de.cesr.lara.components.preprocessor.impl;
 
 
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
+import org.apache.log4j.Priority;
 
 import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.agents.LaraAgent;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.LaraDecisionData;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp;
 import de.cesr.lara.components.preprocessor.LaraPreferenceUpdater;
 import de.cesr.lara.components.preprocessor.event.LPpPreferenceUpdaterEvent;
 import de.cesr.lara.components.util.logging.impl.LAgentLevel;
@@ -36,7 +40,12 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
 
 
 /**
- * Does _not_ update any preference.
+ * Does _not_ update any preference. The agent's preference weights are passed to the {@link LaraDecisionData} as
+ * snapshot without copying them (see
+ * {@link de.cesr.lara.components.agents.LaraAgentComponent#getPreferenceWeightsSnapshot()}).
+ * 
+ * NOTE regarding LOGGING: The agent logger for logging preference weights is only enabled when the logger for this
+ * class is enabled at least for {@link Priority#INFO}!
  * 
  * @param <A>
  *            the type of agents this preference utilityUpdater is intended for
@@ -49,7 +58,7 @@ import de.cesr.lara.components.util.logging.impl.Log4jLogger;
  * 
  */
 public class LPseudoPrefereceUpdater<A extends LaraAgent<? super A, ?>, BO extends LaraBehaviouralOption<?, ?>> extends
-		LAbstractPpComp<A, BO> implements LaraPreferenceUpdater<A, BO> {
+		LAbstractPpComp<A, BO> implements LaraPreferenceUpdater<A, BO>, LaraDirectPreprocessorComp<A, BO> {
 
 	/**
 	 * Logger
@@ -74,31 +83,55 @@ public class LPseudoPrefereceUpdater<A extends LaraAgent<? super A, ?>, BO exten
 		@SuppressWarnings("unchecked")
 		// the event will only be published by agents of type A
 		A agent = ((A) event.getAgent());
-		agent.getLaraComp().getDecisionData(event.getdConfig())
-				.setIndividualPreferences(agent.getLaraComp().getPreferenceWeights());
+		process(agent, event.getdConfig());
+	}
+
+	/**
+	 * Does _not_ update any preference (only sets agent's basic preferenceWeights at the {@link LaraDecisionData}
+	 * object).
+	 * 
+	 * @see de.cesr.lara.components.preprocessor.LaraDirectPreprocessorComp#process(de.cesr.lara.components.agents.LaraAgent,
+	 *      de.cesr.lara.components.decision.LaraDecisionConfiguration)
+	 */
+	@Override
+	public void process(A agent, LaraDecisionConfiguration dConfig) {
+		Map<LaraPreference, Double> weights = agent.getLaraComp().getPreferenceWeightsSnapshot();
+		agent.getLaraComp().getDecisionData(dConfig).setIndividualPreferences(weights);
 
 		// <- LOGGING
+		if (logger.isEnabledFor(Priority.INFO)) {
+			logWeights(agent, weights);
+		}
+		// LOGGING ->
+	}
+
+	/**
+	 * Logs preference weights to agentLogger (<agent>.de.cesr.lara.components.preprocessor.impl.LPreprocessor) if
+	 * its not null and to logger if debug is enabled otherwise.
+	 * 
+	 * @param agent
+	 * @param weights
+	 */
+	protected void logWeights(A agent, Map<LaraPreference, Double> weights) {
 		// initialise agent specific logger (agent id is first part of logger
 		// name):
-		Logger agentLogger = null;
-		if (Log4jLogger.getLogger(agent.getAgentId() + "." + LPreprocessor.class.getName()).isEnabledFor(
-				LAgentLevel.AGENT)) {
-			agentLogger = Log4jLogger.getLogger(agent.getAgentId() + "." + LPreprocessor.class.getName());
+		Logger agentLogger = Log4jLogger.getLogger(agent.getAgentId() + "." + LPreprocessor.class.getName());
+		if (!agentLogger.isEnabledFor(LAgentLevel.AGENT)) {
+			if (!logger.isDebugEnabled()) {
+				return;
+			}
+			agentLogger = null;
 		}
 
 		StringBuffer buffer = new StringBuffer();
 		buffer.append("Preferences for " + agent + ":" + System.getProperty("line.separator"));
-		for (Entry<LaraPreference, Double> entry : agent.getLaraComp()
-				.getPreferenceWeights()
-				.entrySet()) {
+		for (Entry<LaraPreference, Double> entry : weights.entrySet()) {
 			buffer.append(entry.getKey() + ": " + entry.getValue() + System.getProperty("line.separator"));
 		}
 		if (agentLogger != null) {
 			agentLogger.debug(buffer);
-		} else if (logger.isDebugEnabled()) {
+		} else {
 			logger.debug(buffer);
 		}
-		// LOGGING ->
-
 	}
 }
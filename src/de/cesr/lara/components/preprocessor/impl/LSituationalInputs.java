@@ -0,0 +1,113 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.preprocessor.impl;
+
+import java.util.Collection;
+
+import de.cesr.lara.components.LaraProperty;
+import de.cesr.lara.components.LaraSituationalBo;
+import de.cesr.lara.components.container.memory.LaraMemory;
+import de.cesr.lara.components.environment.LaraEnvironment;
+
+/**
+ * Captures and compares the inputs a {@link LaraSituationalBo} declares: the
+ * agent's environmental properties and the most recent properties in its
+ * general memory of the declared keys. Since environments and memories store
+ * a new property object whenever a value changes, inputs are compared by
+ * identity.
+ */
+public class LSituationalInputs {
+
+	private LSituationalInputs() {
+	}
+
+	/**
+	 * @param bo
+	 * @param environment
+	 * @param memory
+	 * @return the current inputs of the given BO (environmental inputs first)
+	 */
+	public static Object[] getInputs(LaraSituationalBo bo,
+			LaraEnvironment environment, LaraMemory<LaraProperty<?, ?>> memory) {
+		Collection<String> envKeys = bo.getEnvironmentalDependencies();
+		Collection<String> memoryKeys = bo.getMemoryDependencies();
+		Object[] inputs = new Object[envKeys.size() + memoryKeys.size()];
+		int i = 0;
+		for (String key : envKeys) {
+			inputs[i++] = getEnvironmentalInput(environment, key);
+		}
+		for (String key : memoryKeys) {
+			inputs[i++] = getMemoryInput(memory, key);
+		}
+		return inputs;
+	}
+
+	/**
+	 * @param inputs
+	 *            inputs obtained before by
+	 *            {@link #getInputs(LaraSituationalBo, LaraEnvironment, LaraMemory)}
+	 * @param bo
+	 * @param environment
+	 * @param memory
+	 * @return true if all declared inputs are identical to the given ones
+	 */
+	public static boolean isUnchanged(Object[] inputs, LaraSituationalBo bo,
+			LaraEnvironment environment, LaraMemory<LaraProperty<?, ?>> memory) {
+		Collection<String> envKeys = bo.getEnvironmentalDependencies();
+		Collection<String> memoryKeys = bo.getMemoryDependencies();
+		if (inputs.length != envKeys.size() + memoryKeys.size()) {
+			return false;
+		}
+		int i = 0;
+		for (String key : envKeys) {
+			if (inputs[i++] != getEnvironmentalInput(environment, key)) {
+				return false;
+			}
+		}
+		for (String key : memoryKeys) {
+			if (inputs[i++] != getMemoryInput(memory, key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param environment
+	 * @param key
+	 * @return the current environmental property of the given key or
+	 *         <code>null</code>
+	 */
+	public static Object getEnvironmentalInput(LaraEnvironment environment,
+			String key) {
+		return environment == null ? null : environment.getPropertyByName(key);
+	}
+
+	/**
+	 * @param memory
+	 * @param key
+	 * @return the most recent property of the given key in memory or
+	 *         <code>null</code>
+	 */
+	public static Object getMemoryInput(LaraMemory<LaraProperty<?, ?>> memory,
+			String key) {
+		return memory.contains(key) ? memory.recall(key) : null;
+	}
+}
@@ -52,6 +52,20 @@ public interface LaraPreferenceRegistry {
 	 */
 	public LaraPreference get(String id);
 
+	/**
+	 * @param ordinal
+	 * @return preference associated with the given ordinal or
+	 *         <code>null</code> if the preference has been removed
+	 */
+	public LaraPreference get(int ordinal);
+
+	/**
+	 * Ordinals of removed preferences are not reused before {@link #reset()}.
+	 * 
+	 * @return one above the largest ordinal assigned so far
+	 */
+	public int getOrdinalBound();
+
 	/**
 	 * @param id
 	 * @return true if preference for given ID could be removed
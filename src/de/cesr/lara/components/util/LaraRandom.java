@@ -99,6 +99,21 @@ public interface LaraRandom {
 	 */
 	public Uniform getUniform();
 
+	/**
+	 * Provides a new uniform distribution over a counter-based stream that is
+	 * determined by the current seed and the given key components only.
+	 * Draws from such streams are independent of the order in which agents
+	 * are processed and do not require synchronisation (see
+	 * {@link de.cesr.lara.components.param.LBasicPa#RANDOM_AGENT_STREAMS}).
+	 * 
+	 * @param agentId
+	 * @param step
+	 * @param streamId
+	 *            identifies the purpose, e.g. the decision configuration
+	 * @return uniform distribution (between 0.0 and 1.0) for the given key
+	 */
+	public Uniform getAgentUniform(String agentId, int step, String streamId);
+
 	/**
 	 * Checks if the logger of LRandomService is set to debug.
 	 * 
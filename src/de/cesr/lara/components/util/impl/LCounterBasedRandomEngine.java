@@ -0,0 +1,122 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.components.util.impl;
+
+import cern.jet.random.engine.RandomEngine;
+
+/**
+ * Counter-based random engine (SplitMix64 finaliser). The n-th number of a
+ * stream is a pure function of the stream's key and n, so streams that are
+ * keyed by e.g. seed, agent, step and decision do not share any state and
+ * yield the same numbers regardless of the order (or thread) in which they
+ * are drawn. Instances are cheap to create and not thread-safe; each stream
+ * is intended to be used by a single agent.
+ */
+public class LCounterBasedRandomEngine extends RandomEngine {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Weyl sequence increment (golden ratio)
+	 */
+	protected static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	protected final long key;
+
+	protected long counter = 0;
+
+	/**
+	 * @param key
+	 *            stream key (see
+	 *            {@link #getKey(long, String, int, String)})
+	 */
+	public LCounterBasedRandomEngine(long key) {
+		this.key = key;
+	}
+
+	/**
+	 * @param seed
+	 * @param agentId
+	 * @param step
+	 * @param streamId
+	 *            identifies the purpose of the stream, e.g. the decision
+	 *            configuration
+	 * @return key of the stream for the given components
+	 */
+	public static long getKey(long seed, String agentId, int step,
+			String streamId) {
+		long key = mix(seed * GOLDEN_GAMMA + hash(agentId));
+		key = mix(key + step * GOLDEN_GAMMA);
+		return mix(key ^ hash(streamId));
+	}
+
+	/**
+	 * @see cern.jet.random.engine.RandomEngine#nextInt()
+	 */
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	/**
+	 * @see cern.jet.random.engine.RandomEngine#nextLong()
+	 */
+	@Override
+	public long nextLong() {
+		return mix(key + (++counter) * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * @return number of values drawn so far
+	 */
+	public long getCounter() {
+		return counter;
+	}
+
+	/**
+	 * SplitMix64 finaliser
+	 * 
+	 * @param z
+	 * @return mixed value
+	 */
+	protected static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * 64 bit FNV-1a hash
+	 * 
+	 * @param s
+	 * @return hash of s (0 for null)
+	 */
+	protected static long hash(String s) {
+		if (s == null) {
+			return 0L;
+		}
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return h;
+	}
+}
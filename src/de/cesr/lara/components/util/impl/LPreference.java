@@ -31,13 +31,17 @@ public class LPreference implements LaraPreference {
 
 	private String description = "NOT GIVEN";
 
-	LPreference(String id, String desription) {
+	private final int ordinal;
+
+	LPreference(String id, String desription, int ordinal) {
 		this.id = id;
 		this.description = desription;
+		this.ordinal = ordinal;
 	}
 
-	LPreference(String id) {
+	LPreference(String id, int ordinal) {
 		this.id = id;
+		this.ordinal = ordinal;
 	}
 
 	/**
@@ -56,6 +60,14 @@ public class LPreference implements LaraPreference {
 		return this.description;
 	}
 
+	/**
+	 * @see de.cesr.lara.components.LaraPreference#getOrdinal()
+	 */
+	@Override
+	public int getOrdinal() {
+		return this.ordinal;
+	}
+
 	public String toString() {
 		return "LPreference(" + this.id + ")";
 	}
@@ -19,7 +19,9 @@
  */
 package de.cesr.lara.components.util.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
@@ -40,6 +42,11 @@ public class LPreferenceRegistry implements LaraPreferenceRegistry {
 
 	Map<String, LaraPreference> preferences = new HashMap<String, LaraPreference>();
 
+	/**
+	 * Registered preferences indexed by ordinal
+	 */
+	List<LaraPreference> ordinals = new ArrayList<LaraPreference>();
+
 	/**
 	 * @see de.cesr.lara.components.util.LaraPreferenceRegistry#register(java.lang.String)
 	 */
@@ -58,8 +65,10 @@ public class LPreferenceRegistry implements LaraPreferenceRegistry {
 					"There is already a LaraPreference registered with ID "
 							+ id + "!");
 		}
-		LaraPreference preference = new LPreference(id);
+		LaraPreference preference = new LPreference(id, description,
+				this.ordinals.size());
 		this.preferences.put(id, preference);
+		this.ordinals.add(preference);
 		return preference;
 	}
 
@@ -86,12 +95,33 @@ public class LPreferenceRegistry implements LaraPreferenceRegistry {
 		return this.preferences.get(id);
 	}
 
+	/**
+	 * @see de.cesr.lara.components.util.LaraPreferenceRegistry#get(int)
+	 */
+	@Override
+	public LaraPreference get(int ordinal) {
+		return this.ordinals.get(ordinal);
+	}
+
+	/**
+	 * @see de.cesr.lara.components.util.LaraPreferenceRegistry#getOrdinalBound()
+	 */
+	@Override
+	public int getOrdinalBound() {
+		return this.ordinals.size();
+	}
+
 	/**
 	 * @see de.cesr.lara.components.util.LaraPreferenceRegistry#remove(java.lang.String)
 	 */
 	@Override
 	public boolean remove(String id) {
-		return this.preferences.remove(id) != null;
+		LaraPreference preference = this.preferences.remove(id);
+		if (preference != null) {
+			this.ordinals.set(preference.getOrdinal(), null);
+			return true;
+		}
+		return false;
 	}
 
 	/**
@@ -100,6 +130,7 @@ public class LPreferenceRegistry implements LaraPreferenceRegistry {
 	@Override
 	public boolean reset() {
 		this.preferences.clear();
+		this.ordinals.clear();
 		return true;
 	}
 }
@@ -19,42 +19,109 @@
  */
 package de.cesr.lara.components.util.impl;
 
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.TreeSet;
 
 import de.cesr.lara.components.LaraPreference;
 
 /**
- * Overrides {@link HashMap#toString()} in order to return an alphabetically
- * ordered list of preferenceWeights and preference values.
+ * Map of preferences to primitive double values (preference weights or
+ * utilities). Values are stored in an array that is indexed by the
+ * preferences' ordinals (see {@link LaraPreference#getOrdinal()}) which
+ * allows reading values by index without boxing, hashing or copying (see
+ * {@link #getValue(int)}). Copying an {@link LPreferenceWeightMap} copies
+ * arrays only. Iteration follows the ordinals, i.e. the order of registration.
  * 
- * Supports fast instantiation. 
+ * Bit masks of the ordinals that have a value and that have a positive value
+ * are maintained alongside (see {@link #intersects(long[])} and
+ * {@link #intersectsPositive(long[])}).
+ * 
+ * All preferences of an instance need to be registered at the same
+ * {@link de.cesr.lara.components.util.LaraPreferenceRegistry}. Null values are
+ * not permitted.
+ * 
+ * Note that this class used to extend {@link java.util.LinkedHashMap}. In
+ * contrast to that, iteration now follows the ordinals instead of the
+ * insertion order, {@link #put(LaraPreference, Double)} throws a
+ * {@link NullPointerException} for <code>null</code> values and
+ * {@link #setValue(LaraPreference, double)} throws an
+ * {@link IllegalArgumentException} for preferences of another registry that
+ * share an ordinal with a contained preference.
+ * 
+ * Overrides {@link AbstractMap#toString()} in order to return an
+ * alphabetically ordered list of preferenceWeights and preference values.
+ * 
+ * Supports fast instantiation.
  * 
  */
-public class LPreferenceWeightMap extends
- LinkedHashMap<LaraPreference, Double> {
+public class LPreferenceWeightMap extends AbstractMap<LaraPreference, Double>
+		implements Serializable {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = -9015768374329397298L;
 
+	private static final LaraPreference[] EMPTY_PREFERENCES = new LaraPreference[0];
+
+	private static final double[] EMPTY_VALUES = new double[0];
+
+	private static final long[] EMPTY_MASK = new long[0];
+
+	/**
+	 * Preferences indexed by ordinal, <code>null</code> where no value is
+	 * set
+	 */
+	protected LaraPreference[] preferences;
+
+	/**
+	 * Values indexed by ordinal
+	 */
+	protected double[] values;
+
+	/**
+	 * Bit mask of ordinals a value is set for
+	 */
+	protected long[] mask;
+
+	/**
+	 * Bit mask of ordinals a value greater than 0.0 is set for
+	 */
+	protected long[] positiveMask;
+
+	protected int size = 0;
+
+	protected transient int modCount = 0;
+
+	protected transient Set<Map.Entry<LaraPreference, Double>> entrySet = null;
+
 	/**
 	 * 
 	 */
 	public LPreferenceWeightMap() {
 		super();
+		this.preferences = EMPTY_PREFERENCES;
+		this.values = EMPTY_VALUES;
+		this.mask = EMPTY_MASK;
+		this.positiveMask = EMPTY_MASK;
 	}
 
 	/**
 	 * @param entry
 	 */
 	public LPreferenceWeightMap(LPrefEntry... entry) {
-		super();
+		this();
 		for (LPrefEntry e : entry) {
 			this.put(e.getKey(), e.getValue());
 		}
@@ -64,7 +131,292 @@ public class LPreferenceWeightMap extends
 	 * @param map
 	 */
 	public LPreferenceWeightMap(Map<LaraPreference, Double> map) {
-		super(map);
+		super();
+		if (map instanceof LPreferenceWeightMap) {
+			LPreferenceWeightMap source = (LPreferenceWeightMap) map;
+			this.preferences = source.preferences.length == 0 ? EMPTY_PREFERENCES
+					: source.preferences.clone();
+			this.values = source.values.length == 0 ? EMPTY_VALUES
+					: source.values.clone();
+			this.mask = source.mask.length == 0 ? EMPTY_MASK : source.mask
+					.clone();
+			this.positiveMask = source.positiveMask.length == 0 ? EMPTY_MASK
+					: source.positiveMask.clone();
+			this.size = source.size;
+		} else {
+			this.preferences = EMPTY_PREFERENCES;
+			this.values = EMPTY_VALUES;
+			this.mask = EMPTY_MASK;
+			this.positiveMask = EMPTY_MASK;
+			this.putAll(map);
+		}
+	}
+
+	/**
+	 * @param preferences
+	 * @return bit mask of the given preferences' ordinals
+	 */
+	public static long[] getMask(Collection<? extends LaraPreference> preferences) {
+		long[] mask = EMPTY_MASK;
+		for (LaraPreference preference : preferences) {
+			int word = preference.getOrdinal() >> 6;
+			if (word >= mask.length) {
+				mask = Arrays.copyOf(mask, word + 1);
+			}
+			mask[word] |= 1L << preference.getOrdinal();
+		}
+		return mask;
+	}
+
+	/**
+	 * @param map
+	 * @return an unmodifiable view of the given map which can be unwrapped for
+	 *         fast reading (see {@link #unwrap(Map)})
+	 */
+	public static Map<LaraPreference, Double> unmodifiableMap(
+			Map<LaraPreference, Double> map) {
+		if (map instanceof LUnmodifiableView) {
+			return map;
+		}
+		if (map instanceof LPreferenceWeightMap) {
+			return new LUnmodifiableView((LPreferenceWeightMap) map);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Provides access to primitive values without boxing. The returned map
+	 * must not be modified.
+	 * 
+	 * @param map
+	 * @return the given map if it is an {@link LPreferenceWeightMap}, the
+	 *         backing map if it is a view created by
+	 *         {@link #unmodifiableMap(Map)} or <code>null</code> otherwise
+	 */
+	public static LPreferenceWeightMap unwrap(Map<LaraPreference, Double> map) {
+		if (map instanceof LPreferenceWeightMap) {
+			return (LPreferenceWeightMap) map;
+		}
+		if (map instanceof LUnmodifiableView) {
+			return ((LUnmodifiableView) map).map;
+		}
+		return null;
+	}
+
+	/**
+	 * @param preferenceMask
+	 *            bit mask of preference ordinals (see
+	 *            {@link #getMask(Collection)})
+	 * @return true if a value is set for any of the given preferences
+	 */
+	public boolean intersects(long[] preferenceMask) {
+		return intersects(mask, preferenceMask);
+	}
+
+	/**
+	 * @param preferenceMask
+	 *            bit mask of preference ordinals (see
+	 *            {@link #getMask(Collection)})
+	 * @return true if a value greater than 0.0 is set for any of the given
+	 *         preferences
+	 */
+	public boolean intersectsPositive(long[] preferenceMask) {
+		return intersects(positiveMask, preferenceMask);
+	}
+
+	/**
+	 * Checks the given mask first and confirms a hit by identity, i.e.
+	 * preferences of another registry that share an ordinal with a contained
+	 * preference do not match.
+	 * 
+	 * @param preferenceMask
+	 *            bit mask of the given preferences (see
+	 *            {@link #getMask(Collection)})
+	 * @param candidates
+	 * @param positive
+	 *            if true, only values greater than 0.0 match
+	 * @return true if a (positive) value is set for any of the given
+	 *         preferences
+	 */
+	public boolean intersects(long[] preferenceMask,
+			Collection<? extends LaraPreference> candidates, boolean positive) {
+		if (!intersects(positive ? positiveMask : mask, preferenceMask)) {
+			return false;
+		}
+		for (LaraPreference candidate : candidates) {
+			int ordinal = candidate.getOrdinal();
+			if (containsOrdinal(ordinal) && preferences[ordinal] == candidate
+					&& (!positive || values[ordinal] > 0.0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean intersects(long[] mask1, long[] mask2) {
+		for (int i = Math.min(mask1.length, mask2.length) - 1; i >= 0; i--) {
+			if ((mask1[i] & mask2[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param ordinal
+	 * @return true if a value is set for the preference of the given ordinal
+	 */
+	public boolean containsOrdinal(int ordinal) {
+		return ordinal >= 0 && ordinal < preferences.length
+				&& preferences[ordinal] != null;
+	}
+
+	/**
+	 * Does not check the registry the ordinal stems from (see
+	 * {@link #getValue(LaraPreference)}).
+	 * 
+	 * @param ordinal
+	 * @return the value for the preference of the given ordinal or
+	 *         {@link Double#NaN} if there is no such value
+	 */
+	public double getValue(int ordinal) {
+		return containsOrdinal(ordinal) ? values[ordinal] : Double.NaN;
+	}
+
+	/**
+	 * @param preference
+	 * @return the value for the given preference or {@link Double#NaN} if
+	 *         there is no such value (including the case of another preference
+	 *         of the same ordinal being contained)
+	 */
+	public double getValue(LaraPreference preference) {
+		int ordinal = preference.getOrdinal();
+		return containsOrdinal(ordinal) && preferences[ordinal] == preference ? values[ordinal]
+				: Double.NaN;
+	}
+
+	/**
+	 * @param preference
+	 * @param value
+	 */
+	public void setValue(LaraPreference preference, double value) {
+		int ordinal = preference.getOrdinal();
+		ensureCapacity(ordinal + 1);
+		if (preferences[ordinal] == null) {
+			preferences[ordinal] = preference;
+			mask[ordinal >> 6] |= 1L << ordinal;
+			size++;
+			modCount++;
+		} else if (preferences[ordinal] != preference) {
+			throw new IllegalArgumentException("Preference " + preference
+					+ " has the same ordinal (" + ordinal + ") as "
+					+ preferences[ordinal]
+					+ ". Preferences need to be of the same registry!");
+		}
+		setValueAt(ordinal, value);
+	}
+
+	/**
+	 * @return one above the largest ordinal that may be contained
+	 */
+	public int getOrdinalBound() {
+		return preferences.length;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof LaraPreference
+				&& containsOrdinal(((LaraPreference) key).getOrdinal())
+				&& preferences[((LaraPreference) key).getOrdinal()] == key;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	public Double get(Object key) {
+		if (containsKey(key)) {
+			return Double.valueOf(values[((LaraPreference) key).getOrdinal()]);
+		}
+		return null;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public Double put(LaraPreference key, Double value) {
+		if (value == null) {
+			throw new NullPointerException(
+					"LPreferenceWeightMap does not permit null values!");
+		}
+		Double previous = get(key);
+		setValue(key, value.doubleValue());
+		return previous;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#remove(java.lang.Object)
+	 */
+	@Override
+	public Double remove(Object key) {
+		if (containsKey(key)) {
+			int ordinal = ((LaraPreference) key).getOrdinal();
+			Double previous = Double.valueOf(values[ordinal]);
+			removeOrdinal(ordinal);
+			return previous;
+		}
+		return null;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#clear()
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(preferences, null);
+		Arrays.fill(mask, 0L);
+		Arrays.fill(positiveMask, 0L);
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Map.Entry<LaraPreference, Double>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<LaraPreference, Double>>() {
+
+				@Override
+				public Iterator<Map.Entry<LaraPreference, Double>> iterator() {
+					return new LEntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					LPreferenceWeightMap.this.clear();
+				}
+			};
+		}
+		return entrySet;
 	}
 
 	@Override
@@ -80,10 +432,175 @@ Entry<LaraPreference, Double> o1,
 					}
 				});
 
-		orderedEntries
-				.addAll(this
-						.entrySet());
+		for (Entry<LaraPreference, Double> entry : this.entrySet()) {
+			// entries of the iterator are views
+			orderedEntries.add(new SimpleImmutableEntry<LaraPreference, Double>(
+					entry));
+		}
 		return orderedEntries.toString();
 	}
 
+	protected void removeOrdinal(int ordinal) {
+		preferences[ordinal] = null;
+		mask[ordinal >> 6] &= ~(1L << ordinal);
+		positiveMask[ordinal >> 6] &= ~(1L << ordinal);
+		size--;
+		modCount++;
+	}
+
+	protected void ensureCapacity(int capacity) {
+		if (capacity > preferences.length) {
+			int newCapacity = Math.max(capacity, preferences.length + 4);
+			preferences = Arrays.copyOf(preferences, newCapacity);
+			values = Arrays.copyOf(values, newCapacity);
+			int words = (newCapacity + 63) >> 6;
+			if (words > mask.length) {
+				mask = Arrays.copyOf(mask, words);
+				positiveMask = Arrays.copyOf(positiveMask, words);
+			}
+		}
+	}
+
+	protected void setValueAt(int ordinal, double value) {
+		values[ordinal] = value;
+		if (value > 0.0) {
+			positiveMask[ordinal >> 6] |= 1L << ordinal;
+		} else {
+			positiveMask[ordinal >> 6] &= ~(1L << ordinal);
+		}
+	}
+
+	/**
+	 * Read-only view of an {@link LPreferenceWeightMap} (see
+	 * {@link LPreferenceWeightMap#unmodifiableMap(Map)}).
+	 */
+	protected static class LUnmodifiableView extends
+			AbstractMap<LaraPreference, Double> implements Serializable {
+
+		private static final long serialVersionUID = 4323510398719441257L;
+
+		protected final LPreferenceWeightMap map;
+
+		protected final Map<LaraPreference, Double> view;
+
+		LUnmodifiableView(LPreferenceWeightMap map) {
+			this.map = map;
+			this.view = Collections.unmodifiableMap(map);
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return map.containsKey(key);
+		}
+
+		@Override
+		public Double get(Object key) {
+			return map.get(key);
+		}
+
+		@Override
+		public Set<Map.Entry<LaraPreference, Double>> entrySet() {
+			return view.entrySet();
+		}
+
+		@Override
+		public String toString() {
+			return map.toString();
+		}
+	}
+
+	/**
+	 * Iterates over set ordinals. Entries write through to the map.
+	 */
+	protected class LEntryIterator implements
+			Iterator<Map.Entry<LaraPreference, Double>> {
+
+		protected int next = -1;
+		protected int current = -1;
+		protected int expectedModCount = modCount;
+
+		LEntryIterator() {
+			advance();
+		}
+
+		private void advance() {
+			do {
+				next++;
+			} while (next < preferences.length && preferences[next] == null);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < preferences.length;
+		}
+
+		@Override
+		public Map.Entry<LaraPreference, Double> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			current = next;
+			advance();
+			final int ordinal = current;
+			return new Map.Entry<LaraPreference, Double>() {
+
+				@Override
+				public LaraPreference getKey() {
+					return preferences[ordinal];
+				}
+
+				@Override
+				public Double getValue() {
+					return Double.valueOf(values[ordinal]);
+				}
+
+				@Override
+				public Double setValue(Double value) {
+					Double previous = getValue();
+					setValueAt(ordinal, value.doubleValue());
+					return previous;
+				}
+
+				@Override
+				public boolean equals(Object o) {
+					if (!(o instanceof Map.Entry)) {
+						return false;
+					}
+					Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+					return getKey().equals(e.getKey())
+							&& getValue().equals(e.getValue());
+				}
+
+				@Override
+				public int hashCode() {
+					return getKey().hashCode() ^ getValue().hashCode();
+				}
+
+				@Override
+				public String toString() {
+					return getKey() + "=" + values[ordinal];
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0 || preferences[current] == null) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeOrdinal(current);
+			expectedModCount = modCount;
+		}
+	}
 }
\ No newline at end of file
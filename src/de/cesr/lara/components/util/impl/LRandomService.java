@@ -155,6 +155,15 @@ public class LRandomService implements LaraRandom {
 		return (Uniform) distributions.get(UNIFORM_DEFAULT);
 	}
 
+	/**
+	 * @see de.cesr.lara.components.util.LaraRandom#getAgentUniform(java.lang.String, int, java.lang.String)
+	 */
+	@Override
+	public Uniform getAgentUniform(String agentId, int step, String streamId) {
+		return new Uniform(new LCounterBasedRandomEngine(LCounterBasedRandomEngine.getKey(seed, agentId, step,
+				streamId)));
+	}
+
 	/**
 	 * @see de.cesr.lara.components.util.LaraRandom#isDebugEnabled()
 	 */
@@ -32,7 +32,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ LDeliberativeChoiceComponent_MaxLineTotalRandomAtTieTest.class,
 		LDeliberativeChoiceComp_MaxLineTotalTest.class,
 		LDeliberativeDeciderTest.class, LHabitDeciderTest.class,
-		LTreeDeciderTest.class, LDeliberativeChoiceComp_ProbabilisticTest.class })
+		LTreeDeciderTest.class, LDeliberativeChoiceComp_ProbabilisticTest.class,
+		LTopKSelectorTest.class })
 public class AllDecisionTests {
 
 }
\ No newline at end of file
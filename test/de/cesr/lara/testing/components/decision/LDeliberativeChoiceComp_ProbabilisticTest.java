@@ -39,6 +39,7 @@ import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.LaraDeliberativeChoiceComponent;
 import de.cesr.lara.components.decision.impl.LDeliberativeChoiceComp_Probabilistic;
 import de.cesr.lara.components.decision.impl.LLightBoRow;
+import de.cesr.lara.components.decision.impl.LRouletteWheel;
 import de.cesr.lara.components.model.impl.LModel;
 import de.cesr.lara.testing.LTestUtils;
 import de.cesr.lara.testing.LTestUtils.LTestAgent;
@@ -292,4 +293,32 @@ public class LDeliberativeChoiceComp_ProbabilisticTest {
 		} catch (IllegalStateException lre) {
 		}
 	}
+
+	/**
+	 * Checks ranges of a {@link LRouletteWheel} when removing the BO with the
+	 * lowest negative score changes the shift.
+	 */
+	@Test
+	public void testRouletteWheel() {
+		LRouletteWheel wheel = new LRouletteWheel(new double[] { -1.0, 0.0,
+				2.0 }, 2.0);
+		assertEquals(10.0, wheel.getTotalRange(), 0.0001);
+		assertEquals(0, wheel.select(0.0));
+		assertEquals(1, wheel.select(1.0));
+		assertEquals(2, wheel.select(1.01));
+
+		wheel.remove(1);
+		assertEquals(9.0, wheel.getTotalRange(), 0.0001);
+		assertEquals(2, wheel.select(0.5));
+
+		wheel.remove(0);
+		assertEquals(1, wheel.getNumRemaining());
+		assertEquals(4.0, wheel.getTotalRange(), 0.0001);
+		assertEquals(2, wheel.select(4.0));
+
+		assertTrue(new LRouletteWheel(new double[] { -1.0, -1.0, 0.0 }, 1.0)
+				.isUniform());
+		assertFalse(new LRouletteWheel(new double[] { 0.0, -1.0, -1.0 }, 1.0)
+				.isUniform());
+	}
 }
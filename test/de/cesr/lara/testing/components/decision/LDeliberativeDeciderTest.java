@@ -21,16 +21,25 @@ package de.cesr.lara.testing.components.decision;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import de.cesr.lara.components.LaraBehaviouralOption;
 import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.decision.LaraDecider;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.LaraDeliberativeDecider;
+import de.cesr.lara.components.decision.LaraScoreBasedChoiceComponent;
+import de.cesr.lara.components.decision.impl.LAbstractScoreBasedChoiceComp;
+import de.cesr.lara.components.decision.impl.LBatchDeliberation;
 import de.cesr.lara.components.decision.impl.LDeliberativeChoiceComp_MaxLineTotal;
 import de.cesr.lara.components.decision.impl.LDeliberativeDecider;
 import de.cesr.lara.components.model.impl.LModel;
@@ -157,6 +166,249 @@ public class LDeliberativeDeciderTest {
 		assertEquals(bo1.getKey(), decider.getSelectedBo().getKey());
 	}
 
+	/**
+	 * Checks row sums and individual utility values of the utility matrix
+	 * (which is not used when row inspection is logged). BOs that do not
+	 * define a utility for a considered preference count 0.0.
+	 */
+	@Test
+	public void testScores() {
+		Logger rowLogger = Logger.getLogger(LDeliberativeDecider.class
+				.getName() + ".RowInspection");
+		Level level = rowLogger.getLevel();
+		rowLogger.setLevel(Level.INFO);
+
+		bo1 = new LTestBo("TestBo1", agent, new LPrefEntry(
+				preg.get("LTestPreference1"), new Double(1.5)), new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(1.5)));
+		bo2 = new LTestBo("TestBo2", agent, new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(3.0)));
+
+		agent.getLaraComp().getDecisionData(dConfig).setBos(bo1, bo2);
+
+		LDeliberativeDecider<LTestBo> decider = new LDeliberativeDecider<LTestBo>(
+				dConfig);
+		decider.setSelectableBos(agent.getLaraComp().getDecisionData(dConfig)
+				.getBos());
+		decider.setDeliberativeChoiceComponent(LDeliberativeChoiceComp_MaxLineTotal
+				.getInstance());
+		decider.setPreferenceWeights(agent.getLaraComp().getPreferenceWeights());
+		try {
+			decider.decide();
+		} finally {
+			rowLogger.setLevel(level);
+		}
+
+		assertEquals(bo1.getKey(), decider.getSelectedBos().get(0).getKey());
+		assertEquals(2, decider.getNumSelectableBOs());
+		assertEquals(1.65, decider.getScore(bo1), 0.0001);
+		assertEquals(0.3, decider.getScore(bo2), 0.0001);
+		assertEquals(1.5, decider.getScore(bo1, preg.get("LTestPreference1")),
+				0.0001);
+		assertEquals(0.0, decider.getScore(bo2, preg.get("LTestPreference1")),
+				0.0001);
+	}
+
+	/**
+	 * Runs the same input through the row path (row inspection logged) and
+	 * the utility matrix path and checks that scores and selection agree,
+	 * with and without neutralised preference weights.
+	 */
+	@Test
+	public void testRowAndMatrixPathsAgree() {
+		List<LTestBo> bos = new ArrayList<LTestBo>();
+		bos.add(new LTestBo("TestBo1", agent, new LPrefEntry(
+				preg.get("LTestPreference1"), new Double(1.5)), new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(1.5))));
+		bos.add(new LTestBo("TestBo2", agent, new LPrefEntry(
+				preg.get("LTestPreference1"), new Double(0.5)), new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(3.0))));
+		bos.add(new LTestBo("TestBo3", agent, new LPrefEntry(
+				preg.get("LTestPreference1"), new Double(1.6)), new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(-1.0))));
+
+		for (boolean neutralise : new boolean[] { false, true }) {
+			LDeliberativeDecider<LTestBo> rowDecider = decide(bos, Level.DEBUG,
+					neutralise);
+			LDeliberativeDecider<LTestBo> matrixDecider = decide(bos,
+					Level.INFO, neutralise);
+
+			assertEquals(rowDecider.getSelectedBos(),
+					matrixDecider.getSelectedBos());
+			for (LTestBo bo : bos) {
+				assertEquals(rowDecider.getScore(bo),
+						matrixDecider.getScore(bo), 0.0000001);
+				for (String pref : new String[] { "LTestPreference1",
+						"LTestPreference2" }) {
+					assertEquals(rowDecider.getScore(bo, preg.get(pref)),
+							matrixDecider.getScore(bo, preg.get(pref)),
+							0.0000001);
+				}
+			}
+		}
+	}
+
+	private LDeliberativeDecider<LTestBo> decide(List<LTestBo> bos,
+			Level rowInspectionLevel, boolean neutralise) {
+		Logger rowLogger = Logger.getLogger(LDeliberativeDecider.class
+				.getName() + ".RowInspection");
+		Level level = rowLogger.getLevel();
+		rowLogger.setLevel(rowInspectionLevel);
+
+		LDeliberativeDecider<LTestBo> decider = new LDeliberativeDecider<LTestBo>(
+				dConfig, neutralise);
+		decider.setSelectableBos(bos);
+		decider.setDeliberativeChoiceComponent(LDeliberativeChoiceComp_MaxLineTotal
+				.getInstance());
+		decider.setPreferenceWeights(agent.getLaraComp().getPreferenceWeights());
+		try {
+			decider.decide();
+		} finally {
+			rowLogger.setLevel(level);
+		}
+		return decider;
+	}
+
+	/**
+	 * Deliberates three agents in a batch. The third agent's BOs differ from
+	 * the catalog so that it decides individually.
+	 */
+	@Test
+	public void testBatchDeliberation() {
+		Logger rowLogger = Logger.getLogger(LDeliberativeDecider.class
+				.getName() + ".RowInspection");
+		Level level = rowLogger.getLevel();
+		rowLogger.setLevel(Level.INFO);
+
+		LTestAgent agent2 = new LTestAgent("TestAgent2");
+		agent2.getLaraComp().addPreferenceWeights(
+				new LPrefEntry(preg.get("LTestPreference1"), new Double(0.1)),
+				new LPrefEntry(preg.get("LTestPreference2"), new Double(1.0)));
+		LTestAgent agent3 = new LTestAgent("TestAgent3");
+		agent3.getLaraComp().addPreferenceWeights(
+				new LPrefEntry(preg.get("LTestPreference1"), new Double(0.1)),
+				new LPrefEntry(preg.get("LTestPreference2"), new Double(1.0)));
+
+		List<LaraDecider<LTestBo>> deciders = new ArrayList<LaraDecider<LTestBo>>();
+		List<LTestBo> bos1 = new ArrayList<LTestBo>();
+		List<LTestBo> bos2 = new ArrayList<LTestBo>();
+		List<LTestBo> bos3 = new ArrayList<LTestBo>();
+		for (LTestAgent a : new LTestAgent[] { agent, agent2, agent3 }) {
+			List<LTestBo> bos = a == agent ? bos1 : a == agent2 ? bos2 : bos3;
+			bos.add(new LTestBo("TestBo1", a, new LPrefEntry(preg
+					.get("LTestPreference1"), new Double(1.5)), new LPrefEntry(
+					preg.get("LTestPreference2"), new Double(1.5))));
+			bos.add(new LTestBo("TestBo2", a, new LPrefEntry(preg
+					.get("LTestPreference2"), new Double(a == agent3 ? 0.1
+					: 3.0))));
+
+			LDeliberativeDecider<LTestBo> decider = new LDeliberativeDecider<LTestBo>(
+					dConfig);
+			decider.setSelectableBos(bos);
+			decider.setDeliberativeChoiceComponent(LDeliberativeChoiceComp_MaxLineTotal
+					.getInstance());
+			decider.setPreferenceWeights(a.getLaraComp().getPreferenceWeights());
+			deciders.add(decider);
+		}
+
+		try {
+			new LBatchDeliberation<LTestBo>(dConfig, deciders).decide(false);
+		} finally {
+			rowLogger.setLevel(level);
+		}
+
+		LDeliberativeDecider<LTestBo> decider1 = (LDeliberativeDecider<LTestBo>) deciders
+				.get(0);
+		LDeliberativeDecider<LTestBo> decider2 = (LDeliberativeDecider<LTestBo>) deciders
+				.get(1);
+		assertEquals(bos1.get(0), decider1.getSelectedBos().get(0));
+		assertEquals(1.65, decider1.getScore(bos1.get(0)), 0.0001);
+		assertEquals(0.3, decider1.getScore(bos1.get(1)), 0.0001);
+		assertEquals(0.0,
+				decider1.getScore(bos1.get(1), preg.get("LTestPreference1")),
+				0.0001);
+
+		assertEquals(bos2.get(1), decider2.getSelectedBos().get(0));
+		assertEquals(1.65, decider2.getScore(bos2.get(0)), 0.0001);
+		assertEquals(3.0, decider2.getScore(bos2.get(1)), 0.0001);
+		assertEquals(2, decider2.getNumSelectableBOs());
+
+		assertEquals(bos3.get(0), deciders.get(2).getSelectedBos().get(0));
+	}
+
+	/**
+	 * Checks that the decide phase following a batch deliberation keeps the
+	 * batch result instead of selecting again, also for the third decider
+	 * that decides individually since its BOs differ from the catalog.
+	 */
+	@Test
+	public void testBatchResultKeptOnDecide() {
+		final int[] numSelections = new int[1];
+		LaraScoreBasedChoiceComponent countingComp = new LAbstractScoreBasedChoiceComp() {
+			@Override
+			public <BO extends LaraBehaviouralOption<?, ? extends BO>> List<? extends BO> getKSelectedBos(
+					LaraDecisionConfiguration dConfig, List<BO> bos,
+					double[] scores, int k) {
+				numSelections[0]++;
+				return LDeliberativeChoiceComp_MaxLineTotal.getInstance()
+						.getKSelectedBos(dConfig, bos, scores, k);
+			}
+
+			@Override
+			public <BO extends LaraBehaviouralOption<?, ? extends BO>> BO getSelectedBo(
+					LaraDecisionConfiguration dConfig, List<BO> bos,
+					double[] scores) {
+				numSelections[0]++;
+				return LDeliberativeChoiceComp_MaxLineTotal.getInstance()
+						.getSelectedBo(dConfig, bos, scores);
+			}
+		};
+
+		bo1 = new LTestBo("TestBo1", agent, new LPrefEntry(
+				preg.get("LTestPreference1"), new Double(1.5)), new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(1.5)));
+		bo2 = new LTestBo("TestBo2", agent, new LPrefEntry(
+				preg.get("LTestPreference2"), new Double(3.0)));
+
+		LTestBo bo3 = new LTestBo("TestBo3", agent, new LPrefEntry(
+				preg.get("LTestPreference1"), new Double(0.5)));
+
+		List<LaraDecider<LTestBo>> deciders = new ArrayList<LaraDecider<LTestBo>>();
+		for (int i = 0; i < 3; i++) {
+			List<LTestBo> bos = new ArrayList<LTestBo>();
+			bos.add(bo1);
+			bos.add(i < 2 ? bo2 : bo3);
+			LDeliberativeDecider<LTestBo> decider = new LDeliberativeDecider<LTestBo>(
+					dConfig);
+			decider.setSelectableBos(bos);
+			decider.setDeliberativeChoiceComponent(countingComp);
+			decider.setPreferenceWeights(agent.getLaraComp()
+					.getPreferenceWeights());
+			deciders.add(decider);
+		}
+
+		Logger rowLogger = Logger.getLogger(LDeliberativeDecider.class
+				.getName() + ".RowInspection");
+		Level level = rowLogger.getLevel();
+		rowLogger.setLevel(Level.INFO);
+		try {
+			new LBatchDeliberation<LTestBo>(dConfig, deciders).decide(false);
+			assertEquals(3, numSelections[0]);
+
+			for (LaraDecider<LTestBo> decider : deciders) {
+				decider.decide();
+				assertEquals(bo1, decider.getSelectedBos().get(0));
+			}
+			assertEquals(3, numSelections[0]);
+
+			deciders.get(0).decide();
+			assertEquals(4, numSelections[0]);
+			assertEquals(bo1, deciders.get(0).getSelectedBos().get(0));
+		} finally {
+			rowLogger.setLevel(level);
+		}
+	}
+
 	@After
 	public void finish() {
 		LModel.getModel().resetLara();
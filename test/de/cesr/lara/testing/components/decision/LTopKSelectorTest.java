@@ -0,0 +1,158 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.decision;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cern.jet.random.Uniform;
+import cern.jet.random.engine.MersenneTwister;
+import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.decision.impl.LTopKSelector;
+import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.testing.LTestUtils;
+import de.cesr.lara.testing.LTestUtils.LTestAgent;
+import de.cesr.lara.testing.LTestUtils.LTestBo;
+
+/**
+ * Compares {@link LTopKSelector} with sorting all options and resolving ties
+ * at the k-th score randomly.
+ */
+public class LTopKSelectorTest {
+
+	LTestAgent agent;
+
+	@Before
+	public void setUp() throws Exception {
+		LTestUtils.initTestModel();
+		agent = new LTestAgent("LTestAgent");
+	}
+
+	@Test
+	public void testDeterministic() {
+		Uniform data = new Uniform(new MersenneTwister(7));
+		for (int run = 0; run < 200; run++) {
+			List<LTestBo> bos = new ArrayList<LTestBo>();
+			double[] scores = initOptions(data, bos);
+			int k = data.nextIntFromTo(1, bos.size());
+
+			LTopKSelector<LTestBo> selector = new LTopKSelector<LTestBo>(k,
+					null);
+			selector.offerAll(bos, scores);
+			assertEquals(select(bos, scores, k, null),
+					selector.getSelectedBos());
+		}
+	}
+
+	@Test
+	public void testRandomAtTie() {
+		Uniform data = new Uniform(new MersenneTwister(11));
+		for (int run = 0; run < 200; run++) {
+			List<LTestBo> bos = new ArrayList<LTestBo>();
+			double[] scores = initOptions(data, bos);
+			int k = data.nextIntFromTo(1, bos.size());
+
+			LTopKSelector<LTestBo> selector = new LTopKSelector<LTestBo>(k,
+					new Uniform(new MersenneTwister(run)));
+			selector.offerAll(bos, scores);
+			assertEquals(
+					select(bos, scores, k, new Uniform(new MersenneTwister(run))),
+					selector.getSelectedBos());
+		}
+	}
+
+	/**
+	 * Creates up to 40 options with few distinct scores and keys.
+	 */
+	protected double[] initOptions(Uniform data, List<LTestBo> bos) {
+		int n = data.nextIntFromTo(1, 40);
+		double[] scores = new double[n];
+		for (int i = 0; i < n; i++) {
+			bos.add(new LTestBo("" + data.nextIntFromTo(0, 20), agent,
+					new HashMap<LaraPreference, Double>()));
+			scores[i] = data.nextIntFromTo(0, 5);
+		}
+		return scores;
+	}
+
+	/**
+	 * Reference: sorts all options.
+	 */
+	protected List<LTestBo> select(final List<LTestBo> bos,
+			final double[] scores, int k, Uniform rand) {
+		Integer[] rows = new Integer[bos.size()];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = Integer.valueOf(i);
+		}
+		Arrays.sort(rows, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer row1, Integer row2) {
+				int result = Double.compare(scores[row2.intValue()],
+						scores[row1.intValue()]);
+				return result != 0 ? result : bos.get(row2.intValue())
+						.compareTo(bos.get(row1.intValue()));
+			}
+		});
+
+		List<LTestBo> selected = new ArrayList<LTestBo>();
+		if (rand == null || k == rows.length
+				|| scores[rows[k - 1].intValue()] != scores[rows[k].intValue()]) {
+			for (int i = 0; i < k; i++) {
+				selected.add(bos.get(rows[i].intValue()));
+			}
+			return selected;
+		}
+
+		double lastSum = scores[rows[k - 1].intValue()];
+		int numWithinRange = 0;
+		List<LTestBo> bestBos = new ArrayList<LTestBo>();
+		for (int i = 0; i < rows.length; i++) {
+			if (scores[rows[i].intValue()] == lastSum) {
+				bestBos.add(bos.get(rows[i].intValue()));
+				if (i < k) {
+					numWithinRange++;
+				}
+			}
+		}
+		int numSameSum = bestBos.size();
+		for (int i = 0; i < k - numWithinRange; i++) {
+			selected.add(bos.get(rows[i].intValue()));
+		}
+		for (int i = 0; i < numWithinRange; i++) {
+			selected.add(bestBos.remove(rand.nextIntFromTo(0, numSameSum - i
+					- 1)));
+		}
+		return selected;
+	}
+
+	@After
+	public void tearDown() {
+		LModel.getModel().resetLara();
+	}
+}
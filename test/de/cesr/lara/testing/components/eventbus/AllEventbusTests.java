@@ -29,7 +29,8 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ LEventbusTest.class, LEventbusOnceOnlyTest.class,
-		LEventbusDConfigSpecificTest.class })
+		LEventbusDConfigSpecificTest.class, LEventbusWorkerPoolTest.class,
+		LAsyncEventQueueTest.class, LEventSchedulerTest.class })
 public class AllEventbusTests {
 
 }
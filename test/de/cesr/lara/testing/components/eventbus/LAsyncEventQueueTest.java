@@ -0,0 +1,162 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.cesr.lara.components.eventbus.LaraBatchEventSubscriber;
+import de.cesr.lara.components.eventbus.LaraEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.eventbus.impl.LAsyncEventQueue;
+import de.cesr.lara.components.eventbus.impl.LAsyncOverflowPolicy;
+
+/**
+ * 
+ */
+public class LAsyncEventQueueTest {
+
+	protected static class TestEvent implements LaraAsynchronousEvent {
+		protected final int number;
+
+		public TestEvent(int number) {
+			this.number = number;
+		}
+	}
+
+	protected static class TestBatchSubscriber implements
+			LaraBatchEventSubscriber {
+		protected final List<Integer> numbers = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		protected int numBatches = 0;
+
+		@Override
+		public <T extends LaraEvent> void onEvent(T event) {
+			numbers.add(((TestEvent) event).number);
+		}
+
+		@Override
+		public synchronized void onEvents(List<LaraEvent> events) {
+			numBatches++;
+			for (LaraEvent event : events) {
+				numbers.add(((TestEvent) event).number);
+			}
+		}
+	}
+
+	/**
+	 * Blocks the consumer until released
+	 */
+	protected static class BlockingSubscriber implements LaraEventSubscriber {
+		protected final CountDownLatch started = new CountDownLatch(1);
+		protected final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public <T extends LaraEvent> void onEvent(T event) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	protected LAsyncEventQueue queue;
+
+	@After
+	public void tearDown() {
+		if (queue != null) {
+			queue.shutdown();
+		}
+	}
+
+	@Test
+	public void testBatchDelivery() throws InterruptedException {
+		queue = new LAsyncEventQueue("test", 100, 1,
+				LAsyncOverflowPolicy.BLOCK, 64);
+		BlockingSubscriber blocker = new BlockingSubscriber();
+		queue.submit(blocker, new TestEvent(-1), false);
+		blocker.started.await();
+
+		TestBatchSubscriber subscriber = new TestBatchSubscriber();
+		for (int i = 0; i < 50; i++) {
+			queue.submit(subscriber, new TestEvent(i), false);
+		}
+		blocker.release.countDown();
+		queue.drain();
+
+		assertEquals(0, queue.getNumPending());
+		assertEquals(1, subscriber.numBatches);
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i, subscriber.numbers.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testDropOldest() throws InterruptedException {
+		queue = new LAsyncEventQueue("test", 10, 1,
+				LAsyncOverflowPolicy.DROP_OLDEST, 1);
+		BlockingSubscriber blocker = new BlockingSubscriber();
+		queue.submit(blocker, new TestEvent(-1), false);
+		blocker.started.await();
+
+		TestBatchSubscriber subscriber = new TestBatchSubscriber();
+		for (int i = 0; i < 30; i++) {
+			queue.submit(subscriber, new TestEvent(i), false);
+		}
+		blocker.release.countDown();
+		queue.drain();
+
+		assertEquals(20, queue.getNumDropped());
+		assertEquals(10, subscriber.numbers.size());
+		assertEquals(20, subscriber.numbers.get(0).intValue());
+	}
+
+	@Test
+	public void testCallerRuns() throws InterruptedException {
+		queue = new LAsyncEventQueue("test", 10, 1,
+				LAsyncOverflowPolicy.CALLER_RUNS, 64);
+		BlockingSubscriber blocker = new BlockingSubscriber();
+		queue.submit(blocker, new TestEvent(-1), false);
+		blocker.started.await();
+
+		TestBatchSubscriber subscriber = new TestBatchSubscriber();
+		for (int i = 0; i < 30; i++) {
+			queue.submit(subscriber, new TestEvent(i), false);
+		}
+		// overflow has been notified by the calling thread:
+		assertEquals(20, subscriber.numbers.size());
+		assertTrue(subscriber.numBatches == 0);
+
+		blocker.release.countDown();
+		queue.drain();
+		assertEquals(30, subscriber.numbers.size());
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.eventbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.cesr.lara.components.eventbus.LaraEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.eventbus.events.LaraHasConsecutiveEvent;
+import de.cesr.lara.components.eventbus.events.LaraRequiresPrecedingEvent;
+import de.cesr.lara.components.eventbus.events.LaraSequentialEvent;
+import de.cesr.lara.components.eventbus.impl.LEventScheduler;
+import de.cesr.lara.components.eventbus.impl.LEventbus;
+
+/**
+ * Tests the publication of events by {@link LEventScheduler}.
+ */
+public class LEventSchedulerTest {
+
+	protected static class TestEventA implements LaraSequentialEvent {
+	}
+
+	protected static class TestEventSubA extends TestEventA {
+	}
+
+	protected static class TestEventB implements LaraSequentialEvent,
+			LaraRequiresPrecedingEvent {
+		@Override
+		public Class<? extends LaraEvent> getRequiredPrecedingEventClass() {
+			return TestEventA.class;
+		}
+	}
+
+	protected static class TestEventC implements LaraSequentialEvent,
+			LaraHasConsecutiveEvent {
+		@Override
+		public LaraEvent getConsecutiveEvent() {
+			return new TestEventD();
+		}
+	}
+
+	protected static class TestEventD implements LaraSequentialEvent {
+	}
+
+	protected static class TestEventE implements LaraSequentialEvent,
+			LaraRequiresPrecedingEvent {
+		@Override
+		public Class<? extends LaraEvent> getRequiredPrecedingEventClass() {
+			return TestEventD.class;
+		}
+	}
+
+	protected static class TestEventCyclic implements LaraSequentialEvent,
+			LaraRequiresPrecedingEvent {
+		@Override
+		public Class<? extends LaraEvent> getRequiredPrecedingEventClass() {
+			return TestEventCyclicRequired.class;
+		}
+	}
+
+	protected static class TestEventCyclicRequired implements
+			LaraSequentialEvent, LaraRequiresPrecedingEvent {
+		@Override
+		public Class<? extends LaraEvent> getRequiredPrecedingEventClass() {
+			return TestEventCyclic.class;
+		}
+	}
+
+	protected class TestSubscriber implements LaraEventSubscriber {
+		@Override
+		public <T extends LaraEvent> void onEvent(T event) {
+			published.add(event.getClass());
+		}
+	}
+
+	protected LEventbus eventbus;
+
+	protected List<Class<?>> published;
+
+	@Before
+	public void setUp() {
+		eventbus = LEventbus.getInstance("scheduler");
+		eventbus.setForceSequential(false);
+		eventbus.setNumWorkerThreads(2);
+		published = Collections.synchronizedList(new ArrayList<Class<?>>());
+		TestSubscriber subscriber = new TestSubscriber();
+		for (Class<? extends LaraEvent> eventClass : Arrays.asList(
+				TestEventA.class, TestEventB.class, TestEventC.class,
+				TestEventD.class, TestEventE.class)) {
+			eventbus.subscribe(subscriber, eventClass);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		LEventbus.reset("scheduler");
+	}
+
+	/**
+	 * Checks that required events and consecutive events are published
+	 * before the events requiring them.
+	 */
+	@Test
+	public void testPrecedence() {
+		eventbus.publishAll(Arrays.asList(new TestEventE(), new TestEventB(),
+				new TestEventC(), new TestEventA()));
+
+		assertEquals(5, published.size());
+		assertTrue(published.indexOf(TestEventA.class) < published
+				.indexOf(TestEventB.class));
+		assertTrue(published.indexOf(TestEventC.class) < published
+				.indexOf(TestEventD.class));
+		assertTrue(published.indexOf(TestEventD.class) < published
+				.indexOf(TestEventE.class));
+		assertTrue(eventbus.occured(TestEventD.class));
+	}
+
+	/**
+	 * Checks that independent chains are published concurrently.
+	 */
+	@Test
+	public void testConcurrentChains() {
+		final CountDownLatch latch = new CountDownLatch(2);
+		final List<Boolean> completed = Collections
+				.synchronizedList(new ArrayList<Boolean>());
+		LaraEventSubscriber waiting = new LaraEventSubscriber() {
+			@Override
+			public <T extends LaraEvent> void onEvent(T event) {
+				latch.countDown();
+				try {
+					completed.add(Boolean.valueOf(latch.await(5,
+							TimeUnit.SECONDS)));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		eventbus.subscribe(waiting, TestEventA.class);
+		eventbus.subscribe(waiting, TestEventD.class);
+
+		eventbus.publishAll(Arrays.asList(new TestEventA(), new TestEventC()));
+		assertEquals(Arrays.asList(Boolean.TRUE, Boolean.TRUE), completed);
+	}
+
+	/**
+	 * Checks that chains are still published when the scheduler pool is shut
+	 * down while events are being published.
+	 */
+	@Test(timeout = 10000)
+	public void testRejectedChain() {
+		eventbus.subscribe(new LaraEventSubscriber() {
+			@Override
+			public <T extends LaraEvent> void onEvent(T event) {
+				eventbus.setNumWorkerThreads(2);
+			}
+		}, TestEventA.class);
+
+		eventbus.publishAll(Arrays.asList(new TestEventB(), new TestEventA(),
+				new TestEventC()));
+
+		assertEquals(4, published.size());
+		assertTrue(published.indexOf(TestEventA.class) < published
+				.indexOf(TestEventB.class));
+	}
+
+	/**
+	 * Checks that cyclic requirements are rejected.
+	 */
+	@Test
+	public void testCyclicRequirements() {
+		try {
+			eventbus.publishAll(Arrays.asList(new TestEventCyclic(),
+					new TestEventCyclicRequired(), new TestEventA()));
+			fail("Cyclic requirements should be rejected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertTrue(published.isEmpty());
+	}
+
+	/**
+	 * Checks the per time step record of occurred event classes.
+	 */
+	@Test
+	public void testOccured() {
+		eventbus.publish(new TestEventA());
+		assertTrue(eventbus.occured(TestEventA.class));
+		assertFalse(eventbus.occured(TestEventSubA.class));
+		assertTrue(eventbus.subclassOccured(new TestEventSubA()));
+		assertFalse(eventbus.subclassOccured(new TestEventD()));
+
+		eventbus.resetInstance();
+		assertFalse(eventbus.occured(TestEventA.class));
+		assertFalse(eventbus.subclassOccured(new TestEventSubA()));
+	}
+}
@@ -11,6 +11,7 @@ import org.junit.Test;
 
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.impl.LDecisionConfiguration;
+import de.cesr.lara.components.eventbus.LaraAbstractEventSubscriber;
 import de.cesr.lara.components.eventbus.LaraEventSubscriber;
 import de.cesr.lara.components.eventbus.events.LAgentPreprocessEvent;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
@@ -280,4 +281,45 @@ public class LEventbusDConfigSpecificTest extends LEventbusTest {
 		// check if variable has expected value : 0
 		assertEquals(numberOfSubscribers, testEnvironment.getCounter(dcA));
 	}
+
+	@Test
+	public void testUnsubscribeSubscriberForDc() {
+		Set<LaraEventSubscriber> subscribers = new HashSet<LaraEventSubscriber>();
+
+		for (int i = 0; i < numberOfSubscribers; i++) {
+			TestSubscriber subscriber = new TestSubscriber(testEnvironment, this.eventb, dcA);
+			this.eventb.subscribeOnce(subscriber, TestIncrementEvent.class, dcB);
+			subscribers.add(subscriber);
+		}
+
+		for (LaraEventSubscriber subscriber : subscribers) {
+			this.eventb.unsubscribe(subscriber, dcA);
+		}
+
+		this.eventb.publish(new TestIncrementEvent(dcA));
+		assertEquals(0, testEnvironment.getCounter(dcA));
+
+		this.eventb.publish(new TestIncrementEvent(dcB));
+		assertEquals(numberOfSubscribers, testEnvironment.getCounter(dcB));
+	}
+
+	@Test
+	public void testSubscribeDc() {
+		for (int i = 0; i < numberOfSubscribers; i++) {
+			TestSubscriber subscriber = new TestSubscriber(testEnvironment, this.eventb, dcB);
+			this.eventb.subscribe(subscriber, TestIncrementEvent.class, dcA);
+		}
+
+		this.eventb.publish(new TestIncrementEvent(dcA));
+		this.eventb.publish(new TestIncrementEvent(dcA));
+		assertEquals(2 * numberOfSubscribers, testEnvironment.getCounter(dcA));
+
+		// once and regular subscriptions for dcB are notified once:
+		for (LaraAbstractEventSubscriber subscriber : this.eventb.getRegularSubscribersDc(TestIncrementEvent.class)
+				.get(dcA)) {
+			this.eventb.subscribe(subscriber, TestIncrementEvent.class, dcB);
+		}
+		this.eventb.publish(new TestIncrementEvent(dcB));
+		assertEquals(numberOfSubscribers, testEnvironment.getCounter(dcB));
+	}
 }
@@ -21,8 +21,13 @@ package de.cesr.lara.testing.components.eventbus;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.After;
 import org.junit.Before;
@@ -30,10 +35,12 @@ import org.junit.Test;
 
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.eventbus.LaraEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LModelFinishEvent;
 import de.cesr.lara.components.eventbus.events.LaraAsynchronousEvent;
 import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.events.LaraSequentialEvent;
 import de.cesr.lara.components.eventbus.events.LaraSynchronousEvent;
+import de.cesr.lara.components.eventbus.impl.LEventStatistics;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
 
 
@@ -245,4 +252,144 @@ public class LEventbusTest {
 		eventbus = null;
 		testEnvironment = null;
 	}
+
+	/**
+	 * Subscription changes between publications need to be reflected by the
+	 * subscriber snapshots.
+	 */
+	@Test
+	public void testSubscriptionChangesBetweenPublications() {
+		LEventbus eventbus = LEventbus.getInstance("snapshots");
+		TestEnvironment testEnvironment = new TestEnvironment();
+		TestSubscriber first = new TestSubscriber(testEnvironment, eventbus);
+		eventbus.publish(new TestIncrementEvent_Sequential());
+		assertEquals(1, testEnvironment.getCounter());
+
+		new TestSubscriber(testEnvironment, eventbus);
+		eventbus.publish(new TestIncrementEvent_Sequential());
+		assertEquals(3, testEnvironment.getCounter());
+
+		eventbus.unsubscribe(first);
+		assertEquals(0, eventbus.getSubscriptions(first).size());
+		eventbus.publish(new TestIncrementEvent_Synchronous());
+		assertEquals(4, testEnvironment.getCounter());
+
+		eventbus.resetInstance();
+		eventbus.publish(new TestIncrementEvent_Sequential());
+		assertEquals(4, testEnvironment.getCounter());
+	}
+
+	@SuppressWarnings("unused")
+	@Test
+	public void testStatistics() {
+		LEventbus eventbus = LEventbus.getInstance("statistics");
+		eventbus.resetInstance();
+		eventbus.setRecordStatistics(false);
+		TestEnvironment testEnvironment = new TestEnvironment();
+		for (int i = 0; i < numberOfSubscribers; i++) {
+			new TestSubscriber(testEnvironment, eventbus);
+		}
+		eventbus.publish(new TestIncrementEvent_Sequential());
+		assertEquals(null, eventbus.getStatistics(TestIncrementEvent_Sequential.class));
+
+		eventbus.setRecordStatistics(true);
+		eventbus.publish(new TestIncrementEvent_Sequential());
+		eventbus.publish(new TestIncrementEvent_Synchronous());
+		eventbus.publish(new TestIncrementEvent_Synchronous());
+
+		LEventStatistics statistics = eventbus.getStatistics(TestIncrementEvent_Sequential.class);
+		assertEquals(1, statistics.getNumPublications());
+		assertEquals(numberOfSubscribers, statistics.getNumNotifications());
+		assertTrue(statistics.getPublicationNanos() >= statistics.getMaxSubscriberNanos());
+
+		statistics = eventbus.getStatistics(TestIncrementEvent_Synchronous.class);
+		assertEquals(2, statistics.getNumPublications());
+		assertEquals(2 * numberOfSubscribers, statistics.getNumNotifications());
+		eventbus.publish(new LModelFinishEvent());
+		eventbus.setRecordStatistics(false);
+		eventbus.resetInstance();
+	}
+
+	@Test
+	public void testAdaptiveDispatch() {
+		LEventbus eventbus = LEventbus.getInstance("adaptive");
+		eventbus.resetInstance();
+		final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+		for (int i = 0; i < numberOfSubscribers; i++) {
+			eventbus.subscribe(new LaraEventSubscriber() {
+				@Override
+				public <T extends LaraEvent> void onEvent(T event) {
+					threads.add(Thread.currentThread());
+				}
+			}, TestIncrementEvent_Synchronous.class);
+		}
+
+		// cheap subscribers are notified sequentially once their cost is known
+		// (the first notifications may be slowed down by class loading):
+		eventbus.setAdaptiveDispatch(true);
+		boolean sequential = false;
+		for (int i = 0; i < 100 && !sequential; i++) {
+			threads.clear();
+			eventbus.publish(new TestIncrementEvent_Synchronous());
+			sequential = threads.equals(Collections.singleton(Thread.currentThread()));
+		}
+		assertTrue(sequential);
+
+		eventbus.setAdaptiveDispatch(false);
+		eventbus.setParallelDispatch(TestIncrementEvent_Synchronous.class, Boolean.FALSE);
+		threads.clear();
+		eventbus.publish(new TestIncrementEvent_Synchronous());
+		assertEquals(Collections.singleton(Thread.currentThread()), threads);
+
+		eventbus.setParallelDispatch(TestIncrementEvent_Synchronous.class, null);
+		eventbus.resetInstance();
+	}
+
+	/**
+	 * Checks that an event class that is notified in parallel returns to
+	 * sequential notification once its subscribers become cheap.
+	 */
+	@Test
+	public void testAdaptiveDispatchReturnsToSequential() {
+		LEventbus eventbus = LEventbus.getInstance("adaptiveReturn");
+		eventbus.resetInstance();
+		eventbus.setForceSequential(false);
+		eventbus.setWorkerChunkSize(1);
+		final AtomicBoolean expensive = new AtomicBoolean(true);
+		final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+		for (int i = 0; i < 20; i++) {
+			eventbus.subscribe(new LaraEventSubscriber() {
+				@Override
+				public <T extends LaraEvent> void onEvent(T event) {
+					threads.add(Thread.currentThread());
+					if (expensive.get()) {
+						try {
+							Thread.sleep(1);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				}
+			}, TestDecrementEvent_Synchronous.class);
+		}
+		eventbus.setAdaptiveDispatch(true);
+
+		// the first notification measures the cost sequentially:
+		eventbus.publish(new TestDecrementEvent_Synchronous());
+		assertEquals(Collections.singleton(Thread.currentThread()), threads);
+		threads.clear();
+		eventbus.publish(new TestDecrementEvent_Synchronous());
+		assertTrue(threads.size() > 1);
+
+		expensive.set(false);
+		boolean sequential = false;
+		for (int i = 0; i < 100 && !sequential; i++) {
+			threads.clear();
+			eventbus.publish(new TestDecrementEvent_Synchronous());
+			sequential = threads.equals(Collections.singleton(Thread.currentThread()));
+		}
+		assertTrue(sequential);
+		eventbus.setAdaptiveDispatch(false);
+		eventbus.resetInstance();
+	}
 }
@@ -0,0 +1,315 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.eventbus;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.cesr.lara.components.eventbus.LaraEventSubscriber;
+import de.cesr.lara.components.eventbus.LaraInternalEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.eventbus.events.LaraSynchronousEvent;
+import de.cesr.lara.components.eventbus.impl.LEventStatistics;
+import de.cesr.lara.components.eventbus.impl.LEventbus;
+import de.cesr.lara.components.eventbus.impl.LSynchronousDispatchMode;
+
+
+/**
+ * Tests the pooled synchronous notification of {@link LEventbus}.
+ */
+public class LEventbusWorkerPoolTest {
+
+	protected class TestEvent_Synchronous implements LaraSynchronousEvent {
+	}
+
+	protected class TestNestedEvent_Synchronous implements LaraSynchronousEvent {
+	}
+
+	protected class TestFailEvent_Synchronous implements LaraSynchronousEvent {
+	}
+
+	protected class TestSlowEvent_Synchronous implements LaraSynchronousEvent {
+	}
+
+	protected class TestSubscriber implements LaraEventSubscriber,
+			LaraInternalEventSubscriber {
+
+		@Override
+		public void onInternalEvent(LaraEvent event) {
+			if (event instanceof TestEvent_Synchronous) {
+				internalCounter.incrementAndGet();
+			}
+		}
+
+		@Override
+		public <T extends LaraEvent> void onEvent(T event) {
+			if (event instanceof TestEvent_Synchronous) {
+				// all internal notifications need to be finished
+				if (internalCounter.get() != numberOfSubscribers) {
+					orderViolations.incrementAndGet();
+				}
+				counter.incrementAndGet();
+			} else if (event instanceof TestNestedEvent_Synchronous) {
+				eventbus.publish(new TestEvent_Synchronous());
+			} else if (event instanceof TestFailEvent_Synchronous) {
+				throw new IllegalStateException("Intended failure");
+			}
+		}
+	}
+
+	protected class TestAffinitySubscriber implements LaraEventSubscriber {
+
+		protected final Set<Thread> threads = Collections
+				.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+		@Override
+		public <T extends LaraEvent> void onEvent(T event) {
+			threads.add(Thread.currentThread());
+		}
+	}
+
+	protected static final int numberOfSubscribers = 200;
+
+	protected LEventbus eventbus;
+
+	protected AtomicInteger counter;
+
+	protected AtomicInteger internalCounter;
+
+	protected AtomicInteger orderViolations;
+
+	@Before
+	public void setUp() {
+		eventbus = LEventbus.getInstance("workerpool");
+		eventbus.setNumWorkerThreads(2);
+		eventbus.setWorkerChunkSize(3);
+		counter = new AtomicInteger();
+		internalCounter = new AtomicInteger();
+		orderViolations = new AtomicInteger();
+		for (int i = 0; i < numberOfSubscribers; i++) {
+			TestSubscriber subscriber = new TestSubscriber();
+			eventbus.subscribe(subscriber, TestEvent_Synchronous.class);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		LEventbus.reset("workerpool");
+	}
+
+	/**
+	 * Checks that all subscribers are notified on every publication, internal
+	 * ones before non-internal ones.
+	 */
+	@Test
+	public void testRepeatedPublish() {
+		for (int i = 1; i <= 10; i++) {
+			internalCounter.set(0);
+			eventbus.publish(new TestEvent_Synchronous());
+			assertEquals(numberOfSubscribers, internalCounter.get());
+			assertEquals(i * numberOfSubscribers, counter.get());
+		}
+		assertEquals(0, orderViolations.get());
+	}
+
+	/**
+	 * Checks that the worker pool is re-created after a reset.
+	 */
+	@Test
+	public void testPublishAfterReset() {
+		eventbus.publish(new TestEvent_Synchronous());
+		eventbus.resetInstance();
+
+		for (int i = 0; i < numberOfSubscribers; i++) {
+			eventbus.subscribe(new TestSubscriber(),
+					TestEvent_Synchronous.class);
+		}
+		internalCounter.set(0);
+		eventbus.publish(new TestEvent_Synchronous());
+		assertEquals(2 * numberOfSubscribers, counter.get());
+	}
+
+	/**
+	 * Synchronous events published by subscribers while being notified must
+	 * not block the worker pool.
+	 */
+	@Test
+	public void testNestedPublish() {
+		for (int i = 0; i < 4; i++) {
+			eventbus.subscribe(new TestSubscriber(),
+					TestNestedEvent_Synchronous.class);
+		}
+		eventbus.publish(new TestNestedEvent_Synchronous());
+		assertTrue(counter.get() >= 4 * numberOfSubscribers);
+	}
+
+	/**
+	 * Exceptions thrown by subscribers are passed to the publisher.
+	 */
+	@Test
+	public void testSubscriberException() {
+		for (int i = 0; i < 10; i++) {
+			eventbus.subscribe(new TestSubscriber(),
+					TestFailEvent_Synchronous.class);
+		}
+		try {
+			eventbus.publish(new TestFailEvent_Synchronous());
+			fail("Exception of subscriber was not passed");
+		} catch (IllegalStateException e) {
+			assertEquals("Intended failure", e.getMessage());
+		}
+	}
+
+	/**
+	 * Checks fork/join notification including invalidation of cached partition
+	 * plans on subscription changes.
+	 */
+	@Test
+	public void testForkJoinPublish() {
+		eventbus.setDispatchMode(LSynchronousDispatchMode.FORK_JOIN);
+		eventbus.publish(new TestEvent_Synchronous());
+		assertEquals(numberOfSubscribers, counter.get());
+
+		TestSubscriber additional = new TestSubscriber();
+		eventbus.subscribe(additional, TestEvent_Synchronous.class);
+		internalCounter.set(-1);
+		eventbus.publish(new TestEvent_Synchronous());
+		assertEquals(2 * numberOfSubscribers + 1, counter.get());
+
+		eventbus.unsubscribe(additional);
+		internalCounter.set(0);
+		eventbus.publish(new TestEvent_Synchronous());
+		assertEquals(3 * numberOfSubscribers + 1, counter.get());
+		assertEquals(0, orderViolations.get());
+	}
+
+	/**
+	 * Checks that the worker imbalance is recorded for fork/join dispatches.
+	 */
+	@Test
+	public void testForkJoinStatistics() {
+		eventbus.setForceSequential(false);
+		eventbus.setDispatchMode(LSynchronousDispatchMode.FORK_JOIN);
+		eventbus.setRecordStatistics(true);
+		for (int i = 0; i < 20; i++) {
+			eventbus.subscribe(new LaraEventSubscriber() {
+				@Override
+				public <T extends LaraEvent> void onEvent(T event) {
+					try {
+						Thread.sleep(2);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}, TestSlowEvent_Synchronous.class);
+		}
+		eventbus.publish(new TestSlowEvent_Synchronous());
+
+		LEventStatistics statistics = eventbus
+				.getStatistics(TestSlowEvent_Synchronous.class);
+		assertEquals(20, statistics.getNumNotifications());
+		assertEquals(1, statistics.getNumParallelDispatches());
+		assertTrue(statistics.getMeanImbalance() >= 1.0);
+		assertTrue(statistics.getMeanImbalance() <= 2.0);
+		eventbus.setRecordStatistics(false);
+	}
+
+	/**
+	 * Nested publications must not block the fork/join pool.
+	 */
+	@Test
+	public void testForkJoinNestedPublish() {
+		eventbus.setDispatchMode(LSynchronousDispatchMode.FORK_JOIN);
+		for (int i = 0; i < 8; i++) {
+			eventbus.subscribe(new TestSubscriber(),
+					TestNestedEvent_Synchronous.class);
+		}
+		eventbus.publish(new TestNestedEvent_Synchronous());
+		assertTrue(counter.get() >= 8 * numberOfSubscribers);
+	}
+
+	/**
+	 * Checks that in partitioned mode each subscriber is notified by the same
+	 * thread for different event classes and repeated publications.
+	 */
+	@Test
+	public void testPartitionedAffinity() {
+		eventbus.setForceSequential(false);
+		eventbus.setDispatchMode(LSynchronousDispatchMode.PARTITIONED);
+		Map<TestAffinitySubscriber, Boolean> affinitySubscribers = new ConcurrentHashMap<TestAffinitySubscriber, Boolean>();
+		for (int i = 0; i < 20; i++) {
+			TestAffinitySubscriber subscriber = new TestAffinitySubscriber();
+			affinitySubscribers.put(subscriber, Boolean.TRUE);
+			eventbus.subscribe(subscriber, TestEvent_Synchronous.class);
+			eventbus.subscribe(subscriber, TestNestedEvent_Synchronous.class);
+		}
+		for (int i = 1; i <= 5; i++) {
+			internalCounter.set(0);
+			eventbus.publish(new TestEvent_Synchronous());
+			assertEquals(i * numberOfSubscribers, counter.get());
+		}
+		eventbus.publish(new TestNestedEvent_Synchronous());
+		assertEquals(0, orderViolations.get());
+
+		Set<Thread> allThreads = new HashSet<Thread>();
+		for (TestAffinitySubscriber subscriber : affinitySubscribers.keySet()) {
+			assertEquals(1, subscriber.threads.size());
+			allThreads.addAll(subscriber.threads);
+		}
+		assertEquals(2, allThreads.size());
+	}
+
+	/**
+	 * Checks that subscribers which are subscribed and unsubscribed again do
+	 * not leave their partition ordinals behind.
+	 */
+	@Test
+	public void testPartitionOrdinalsChurn() {
+		int before = eventbus.getNumPartitionedSubscribers();
+		for (int round = 0; round < 10; round++) {
+			Set<TestAffinitySubscriber> churned = new HashSet<TestAffinitySubscriber>();
+			for (int i = 0; i < 50; i++) {
+				TestAffinitySubscriber subscriber = new TestAffinitySubscriber();
+				churned.add(subscriber);
+				eventbus.subscribe(subscriber, TestEvent_Synchronous.class);
+				eventbus.subscribe(subscriber,
+						TestNestedEvent_Synchronous.class);
+			}
+			assertEquals(before + 50, eventbus.getNumPartitionedSubscribers());
+			for (TestAffinitySubscriber subscriber : churned) {
+				eventbus.unsubscribe(subscriber);
+			}
+			assertEquals(before, eventbus.getNumPartitionedSubscribers());
+		}
+	}
+}
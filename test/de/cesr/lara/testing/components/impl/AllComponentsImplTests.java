@@ -35,7 +35,8 @@ import org.junit.runners.Suite.SuiteClasses;
  * 
  */
 @RunWith(Suite.class)
-@SuiteClasses({ LDefaultAgentCompTest.class, LaraBehaviouralOptionTest.class, LAbstractAgentTest.class })
+@SuiteClasses({ LDefaultAgentCompTest.class, LaraBehaviouralOptionTest.class, LAbstractAgentTest.class,
+		LAgentPopulationTest.class })
 public class AllComponentsImplTests {
 
 }
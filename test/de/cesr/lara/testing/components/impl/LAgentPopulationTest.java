@@ -0,0 +1,111 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.impl;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.agents.LaraAgentFactory;
+import de.cesr.lara.components.agents.impl.LAbstractAgent;
+import de.cesr.lara.components.agents.impl.LAgentPopulation;
+import de.cesr.lara.components.agents.impl.LDefaultAgentComp;
+import de.cesr.lara.components.eventbus.LaraAbstractEventSubscriber;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
+import de.cesr.lara.components.model.LaraModel;
+import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.components.util.impl.LPrefEntry;
+import de.cesr.lara.testing.LTestUtils;
+import de.cesr.lara.testing.LTestUtils.LTestAgent;
+
+
+/**
+ * Tests bulk construction of agents by {@link LAgentPopulation}.
+ */
+public class LAgentPopulationTest {
+
+	protected static final int NUM_AGENTS = 50;
+
+	LaraPreference goal1;
+
+	@Before
+	public void setUp() throws Exception {
+		LTestUtils.initTestModel();
+		LModel.getModel().getPrefRegistry().register("TestGoal1");
+		goal1 = LModel.getModel().getPrefRegistry().get("TestGoal1");
+	}
+
+	/**
+	 * Checks IDs, subscriptions and adopted defaults of bulk created agents.
+	 */
+	@Test
+	public void testCreateAgents() {
+		LTestAgent prototype = new LTestAgent("Prototype");
+		prototype.getLaraComp().addPreferenceWeights(new LPrefEntry(goal1, new Double(0.5)));
+
+		int firstId = LAbstractAgent.reserveAgentIds(0);
+		List<LTestAgent> agents = LAgentPopulation.createAgents(LModel.getModel(), NUM_AGENTS,
+				new LaraAgentFactory<LTestAgent>() {
+					@Override
+					public LTestAgent createAgent(LaraModel lmodel, String agentId) {
+						return new LTestAgent(agentId);
+					}
+				}, prototype);
+
+		assertEquals(NUM_AGENTS, agents.size());
+		assertEquals(LAbstractAgent.getDefaultAgentId(firstId), agents.get(0).getAgentId());
+		assertEquals(LAbstractAgent.getDefaultAgentId(firstId + NUM_AGENTS - 1), agents.get(NUM_AGENTS - 1)
+				.getAgentId());
+		assertEquals(firstId + NUM_AGENTS, LAbstractAgent.reserveAgentIds(0));
+
+		for (Class<? extends LaraEvent> eventClass : LDefaultAgentComp.AGENT_EVENT_CLASSES) {
+			Set<LaraAbstractEventSubscriber> subscribers = LModel.getModel().getLEventbus()
+					.getRegularSubscribers(eventClass);
+			for (LTestAgent agent : agents) {
+				assertTrue(subscribers.contains(agent.getLaraComp()));
+			}
+		}
+
+		assertEquals(0.5, agents.get(0).getLaraComp().getPreferenceWeight(goal1), 0.0001);
+		assertSame(prototype.getLaraComp().getPreprocessor(), agents.get(0).getLaraComp().getPreprocessor());
+
+		// preference weights are copies
+		agents.get(0).getLaraComp().addPreferenceWeights(new LPrefEntry(goal1, new Double(1.0)));
+		assertEquals(0.5, agents.get(1).getLaraComp().getPreferenceWeight(goal1), 0.0001);
+		assertEquals(0.5, prototype.getLaraComp().getPreferenceWeight(goal1), 0.0001);
+	}
+
+	/**
+	 * Checks default IDs.
+	 */
+	@Test
+	public void testDefaultAgentId() {
+		assertEquals("agent0007", LAbstractAgent.getDefaultAgentId(7));
+		assertEquals("agent12345", LAbstractAgent.getDefaultAgentId(12345));
+	}
+}
@@ -21,8 +21,14 @@ package de.cesr.lara.testing.components.impl;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,18 +39,26 @@ import org.junit.Test;
 
 import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.agents.impl.LDefaultAgentComp;
+import de.cesr.lara.components.container.memory.impl.LDefaultLimitedCapacityMemory;
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.impl.LDecisionConfiguration;
 import de.cesr.lara.components.decision.impl.LDeliberativeChoiceComp_MaxLineTotalRandomAtTie;
+import de.cesr.lara.components.eventbus.events.LAgentCycleEvent;
+import de.cesr.lara.components.eventbus.events.LAgentDecideEvent;
 import de.cesr.lara.components.eventbus.events.LModelStepEvent;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
+import de.cesr.lara.components.model.impl.LAbstractModel;
 import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.components.param.LDecisionMakingPa;
 import de.cesr.lara.components.postprocessor.LaraPostprocessorComp;
 import de.cesr.lara.components.util.LaraPreferenceRegistry;
 import de.cesr.lara.components.util.impl.LPrefEntry;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
 import de.cesr.lara.testing.LTestUtils;
 import de.cesr.lara.testing.LTestUtils.LTestAgent;
 import de.cesr.lara.testing.LTestUtils.LTestBo;
+import de.cesr.parma.core.PmParameterManager;
 
 
 /**
@@ -125,6 +139,86 @@ public class LDefaultAgentCompTest {
 		assertEquals(1, this.testInt);
 	}
 
+	/**
+	 * Test processing of all phases by a single {@link LAgentCycleEvent}.
+	 */
+	@Test
+	public void testFusedAgentCycle() {
+		assertFalse(LEventbus.getInstance().isSubscribed(agent.getLaraComp(), LAgentCycleEvent.class));
+
+		((LAbstractModel) LModel.getModel()).setFusedAgentCycle(true);
+		final List<Class<?>> agentEvents = new ArrayList<Class<?>>();
+		LTestAgent fusedAgent = new LTestAgent("FusedAgent") {
+			@Override
+			public <T extends LaraEvent> void onEvent(T event) {
+				agentEvents.add(event.getClass());
+			}
+		};
+		fusedAgent.getLaraComp().getBOMemory().memorize(new LTestBo(fusedAgent, new HashMap<LaraPreference, Double>()));
+		LEventbus.getInstance().subscribe(fusedAgent, LAgentDecideEvent.class);
+		assertTrue(LEventbus.getInstance().isSubscribed(fusedAgent.getLaraComp(), LAgentCycleEvent.class));
+
+		fusedAgent.getLaraComp().setPostProcessor(new LaraPostprocessorComp<LTestUtils.LTestAgent, LTestUtils.LTestBo>() {
+
+			@Override
+			public void postProcess(LTestAgent agent, LaraDecisionConfiguration dConfig) {
+				assertEquals(1, agent.getLaraComp().getNumDecisionDataObjects());
+				LDefaultAgentCompTest.this.testInt = 1;
+			}
+		});
+		((LAbstractModel) LModel.getModel()).publishAgentCycle(dConfig);
+		assertEquals(1, this.testInt);
+		// decision data is removed by post-execution phase
+		assertEquals(0, fusedAgent.getLaraComp().getNumDecisionDataObjects());
+		// the agent is only notified of phases it is subscribed to
+		assertEquals(Arrays.<Class<?>> asList(LAgentDecideEvent.class), agentEvents);
+	}
+
+	/**
+	 * Checks that state is created on demand and the general memory is sized
+	 * to the joined decision configurations.
+	 */
+	@Test
+	public void testLazyState() {
+		LTestAgent passive = new LTestAgent("PassiveAgent");
+		assertEquals(0, passive.getLaraComp().getNumDecisionDataObjects());
+		assertFalse(passive.getLaraComp().getDecisionDataIterable().iterator().hasNext());
+		assertNull(passive.getLaraComp().getPreferenceWeight(goal1));
+		assertEquals(0, passive.getLaraComp().getPreferenceWeights().size());
+
+		int habitThreshold = ((Integer) PmParameterManager.getParameter(LDecisionMakingPa.HABIT_THRESHOLD)).intValue();
+		int numDConfigs = LDefaultLimitedCapacityMemory.DEFAULT_INITIAL_CAPACITY / (habitThreshold + 1) + 2;
+		assertEquals(LDefaultLimitedCapacityMemory.DEFAULT_INITIAL_CAPACITY, passive.getLaraComp().getGeneralMemory()
+				.getCapacity());
+		for (int i = 0; i < numDConfigs; i++) {
+			passive.getLaraComp().getDecisionData(new LDecisionConfiguration("LazyDecision" + i));
+		}
+		assertEquals(numDConfigs * (habitThreshold + 1), passive.getLaraComp().getGeneralMemory().getCapacity());
+	}
+
+	/**
+	 * Checks that snapshots of preference weights are shared until the weights
+	 * change.
+	 */
+	@Test
+	public void testPreferenceWeightsSnapshot() {
+		agent.getLaraComp().addPreferenceWeights(new LPrefEntry(goal1, 1.0));
+		Map<LaraPreference, Double> snapshot = agent.getLaraComp().getPreferenceWeightsSnapshot();
+		assertSame(LPreferenceWeightMap.unwrap(snapshot),
+				LPreferenceWeightMap.unwrap(agent.getLaraComp().getPreferenceWeightsSnapshot()));
+		assertEquals(1.0, snapshot.get(goal1), 0.0);
+		try {
+			snapshot.put(goal1, 3.0);
+			fail("UnsupportedOperationException expected");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+		agent.getLaraComp().addPreferenceWeights(new LPrefEntry(goal1, 2.0));
+		assertEquals(1.0, snapshot.get(goal1), 0.0);
+		assertEquals(2.0, agent.getLaraComp().getPreferenceWeight(goal1), 0.0);
+	}
+
 	/**
 	 * @throws java.lang.Exception
 	 */
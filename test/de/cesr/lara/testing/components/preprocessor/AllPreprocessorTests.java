@@ -32,7 +32,9 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({ DefaultConfiguratorTest.class, LDefaultBOCollectorTest.class,
  LPpEventBusTest.class,
-		LPreprocessorTest.class, LDefaultDecisionModeSelectorTest.class })
+		LPreprocessorTest.class, LDefaultDecisionModeSelectorTest.class,
+		LDelegatingBoPreselectorTest.class,
+		LDependencyTrackingBOUpdaterTest.class })
 public class AllPreprocessorTests {
 
 }
\ No newline at end of file
@@ -78,6 +78,11 @@ public class DefaultConfiguratorTest {
 				// nothing to do
 			}
 
+			@Override
+			public long[] getPreferenceMask() {
+				return new long[0];
+			}
+
 			@Override
 			public boolean singleSelectedBoExpected() {
 				return false;
@@ -21,6 +21,8 @@ package de.cesr.lara.testing.components.preprocessor;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -39,12 +41,16 @@ import de.cesr.lara.components.container.memory.impl.LDefaultLimitedCapacityBOMe
 import de.cesr.lara.components.decision.LaraDecisionConfiguration;
 import de.cesr.lara.components.decision.impl.LDecisionConfiguration;
 import de.cesr.lara.components.decision.impl.LDeliberativeChoiceComp_MaxLineTotalRandomAtTie;
+import de.cesr.lara.components.eventbus.events.LaraEvent;
 import de.cesr.lara.components.eventbus.impl.LEventbus;
 import de.cesr.lara.components.model.impl.LModel;
 import de.cesr.lara.components.preprocessor.LaraBOCollector;
 import de.cesr.lara.components.preprocessor.event.LPpBoCollectorEvent;
 import de.cesr.lara.components.preprocessor.event.LPpModeSelectorEvent;
 import de.cesr.lara.components.preprocessor.impl.LContributingBoCollector;
+import de.cesr.lara.components.preprocessor.impl.LDefaultBOUpdater;
+import de.cesr.lara.components.preprocessor.impl.LDelegatingBoPreselector;
+import de.cesr.lara.components.preprocessor.impl.LPpPipeline;
 import de.cesr.lara.components.util.LaraPreferenceRegistry;
 import de.cesr.lara.components.util.impl.LCapacityManagers;
 import de.cesr.lara.testing.LTestUtils;
@@ -149,6 +155,84 @@ public class LDefaultBOCollectorTest {
 				+ "goal1 and 0.0 for goal2 are inserted)", 2, getNumOfSelectedBos());
 	}
 
+	/**
+	 * Collection, preselection and utility updating of the default components
+	 * are fused into a single pass with the same outcome.
+	 */
+	@Test
+	public final void testFusedPipeline() {
+		LPpPipeline<LTestAgent, LTestBo> pipeline = new LPpPipeline<LTestAgent, LTestBo>(
+				dBuilder, null, scanner,
+				new LDelegatingBoPreselector<LTestAgent, LTestBo>(),
+				new LDefaultBOUpdater<LTestAgent, LTestBo>(), null);
+		assertTrue(pipeline.isFused());
+
+		memory.memorize(bo1);
+		memory.memorize(bo2);
+		memory.memorize(bo3);
+		pipeline.runDeliberativeStages(agent);
+		assertEquals(2, agent.getLaraComp().getDecisionData(dBuilder).getBos().size());
+
+		pipeline.runDeliberativeStages(agent);
+		assertEquals("The buffer is not carried over between runs", 2,
+				agent.getLaraComp().getDecisionData(dBuilder).getBos().size());
+	}
+
+	/**
+	 * A component whose subclass overrides only process() must not be fused
+	 * since its per-BO step would bypass the override.
+	 */
+	@Test
+	public final void testOverriddenProcessNotFused() {
+		final int[] numProcessed = new int[1];
+		LPpPipeline<LTestAgent, LTestBo> pipeline = new LPpPipeline<LTestAgent, LTestBo>(
+				dBuilder, null, scanner,
+				new LDelegatingBoPreselector<LTestAgent, LTestBo>(),
+				new LDefaultBOUpdater<LTestAgent, LTestBo>() {
+					@Override
+					public void process(LTestAgent agent,
+							LaraDecisionConfiguration dConfig) {
+						numProcessed[0]++;
+						super.process(agent, dConfig);
+					}
+				}, null);
+		assertFalse(pipeline.isFused());
+
+		memory.memorize(bo1);
+		memory.memorize(bo2);
+		memory.memorize(bo3);
+		pipeline.runDeliberativeStages(agent);
+		assertEquals(1, numProcessed[0]);
+		assertEquals(2, agent.getLaraComp().getDecisionData(dBuilder).getBos().size());
+	}
+
+	/**
+	 * A component whose subclass overrides only onInternalEvent() must be
+	 * passed its event instead of being invoked directly.
+	 */
+	@Test
+	public final void testOverriddenEventHandlingNotBypassed() {
+		final int[] numNotified = new int[1];
+		LPpPipeline<LTestAgent, LTestBo> pipeline = new LPpPipeline<LTestAgent, LTestBo>(
+				dBuilder, null, scanner,
+				new LDelegatingBoPreselector<LTestAgent, LTestBo>(),
+				new LDefaultBOUpdater<LTestAgent, LTestBo>() {
+					@Override
+					public void onInternalEvent(LaraEvent e) {
+						numNotified[0]++;
+						super.onInternalEvent(e);
+					}
+				}, null);
+		assertFalse(pipeline.isFused());
+
+		memory.memorize(bo1);
+		memory.memorize(bo2);
+		memory.memorize(bo3);
+		pipeline.runDeliberativeStages(agent);
+		assertEquals(1, numNotified[0]);
+		assertEquals(2, agent.getLaraComp().getDecisionData(dBuilder).getBos().size());
+	}
+
 	protected int getNumOfSelectedBos() {
 		agent.getLaraComp().getDecisionData(dBuilder).setBos(new HashSet<LTestBo>());
 		// LPpBoCollectorEvent requires LPpModeSelectorEvent!
@@ -2,6 +2,7 @@ package de.cesr.lara.testing.components.preprocessor;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -164,6 +165,7 @@ public class LDefaultDecisionModeSelectorTest implements LaraEventSubscriber {
 
 	@After
 	public void tearDown() throws Exception {
+		PmParameterManager.setParameter(LDecisionMakingPa.PREPROCESS_DIRECT_PIPELINE, Boolean.FALSE);
 	}
 
 	@Test
@@ -193,6 +195,56 @@ public class LDefaultDecisionModeSelectorTest implements LaraEventSubscriber {
 		assertEquals(LaraDecisionModes.HABIT, this.decisionModeHabit);
 	}
 
+	/**
+	 * The direct pipeline needs to select the same decision modes as the event based preprocessing without using the
+	 * agent's eventbus.
+	 */
+	@Test
+	public final void testDecisionModeSelectionDirectPipeline() {
+		PmParameterManager.setParameter(LDecisionMakingPa.PREPROCESS_DIRECT_PIPELINE, Boolean.TRUE);
+		LaraPreprocessorConfigurator<LTestAgent, LTestBo> ppConfigurator =
+				LPreprocessorConfigurator.<LTestAgent, LTestBo> getNewPreprocessorConfigurator();
+		ppConfigurator.setBOCollector(new LContributingBoCollector<LTestAgent, LTestBo>(), dConfig);
+		ppConfigurator.setDecisionModeSelector(new LDefaultDecisionModeSelector<LTestAgent, LTestBo>(), dConfig);
+		agent.getLaraComp().setPreprocessor(ppConfigurator.getPreprocessor());
+		if (LEventbus.isInstanceRegistered(agent)) {
+			LEventbus.reset(agent);
+		}
+
+		LEventbus.getInstance().publish(new LModelStepEvent());
+		assertEquals(LaraDecisionModes.DELIBERATIVE, this.decisionModeLaraTestAgent);
+
+		LEventbus.getInstance().publish(new LModelStepEvent());
+		assertEquals(LaraDecisionModes.HABIT, this.decisionModeLaraTestAgent);
+		assertFalse(LEventbus.isInstanceRegistered(agent));
+	}
+
+	/**
+	 * Subclasses overriding the deprecated parameterless hooks need to be served by the direct pipeline as well.
+	 */
+	@SuppressWarnings("deprecation")
+	@Test
+	public final void testDeprecatedHooksDirectPipeline() {
+		PmParameterManager.setParameter(LDecisionMakingPa.PREPROCESS_DIRECT_PIPELINE, Boolean.TRUE);
+		LaraPreprocessorConfigurator<LTestAgent, LTestBo> ppConfigurator =
+				LPreprocessorConfigurator.<LTestAgent, LTestBo> getNewPreprocessorConfigurator();
+		ppConfigurator.setBOCollector(new LContributingBoCollector<LTestAgent, LTestBo>(), dConfig);
+		ppConfigurator.setDecisionModeSelector(new LDefaultDecisionModeSelector<LTestAgent, LTestBo>() {
+			@Override
+			protected void tryHabit() {
+				assertEquals(agent, LDefaultDecisionModeSelectorTest.this.agent);
+				doDeliberative();
+			}
+		}, dConfig);
+		agent.getLaraComp().setPreprocessor(ppConfigurator.getPreprocessor());
+
+		LEventbus.getInstance().publish(new LModelStepEvent());
+		assertEquals(LaraDecisionModes.DELIBERATIVE, this.decisionModeLaraTestAgent);
+
+		LEventbus.getInstance().publish(new LModelStepEvent());
+		assertEquals(LaraDecisionModes.DELIBERATIVE, this.decisionModeLaraTestAgent);
+	}
+
 	@Test
 	public final void testInitialHabit() {
 		initialHabitAgent
@@ -0,0 +1,170 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.preprocessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.cesr.lara.components.LaraSituationalBo;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.decision.impl.LDecisionConfiguration;
+import de.cesr.lara.components.environment.LaraEnvironment;
+import de.cesr.lara.components.environment.impl.LEnvironmentalIntProperty;
+import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.components.preprocessor.LaraBOPreselector;
+import de.cesr.lara.components.preprocessor.impl.LDelegatingBoPreselector;
+import de.cesr.lara.testing.LTestUtils;
+import de.cesr.lara.testing.LTestUtils.LTestAgent;
+import de.cesr.lara.testing.LTestUtils.LTestBo;
+
+/**
+ * 
+ */
+public class LDelegatingBoPreselectorTest {
+
+	/**
+	 * Counts applicability checks
+	 */
+	static class LCountingBo extends LTestBo {
+
+		boolean applicable = true;
+		int checks = 0;
+
+		LCountingBo(LTestAgent agent) {
+			super("CountingBo", agent);
+		}
+
+		@Override
+		public boolean isCurrentlyApplicable() {
+			checks++;
+			return applicable;
+		}
+	}
+
+	/**
+	 * Counts applicability checks and depends on environmental property
+	 * "price"
+	 */
+	static class LSituationalCountingBo extends LCountingBo implements
+			LaraSituationalBo {
+
+		LSituationalCountingBo(LTestAgent agent) {
+			super(agent);
+		}
+
+		@Override
+		public Collection<String> getEnvironmentalDependencies() {
+			return Collections.singletonList("price");
+		}
+
+		@Override
+		public Collection<String> getMemoryDependencies() {
+			return Collections.emptyList();
+		}
+	}
+
+	LTestAgent agent;
+	LCountingBo bo;
+	LaraDecisionConfiguration dConfig;
+	LDelegatingBoPreselector<LTestAgent, LTestBo> preselector;
+
+	@Before
+	public void setUp() throws Exception {
+		dConfig = new LDecisionConfiguration("TestDecision");
+		LTestUtils.initTestModel(dConfig);
+		agent = new LTestAgent("LTestAgent");
+		bo = new LCountingBo(agent);
+		preselector = new LDelegatingBoPreselector<LTestAgent, LTestBo>();
+	}
+
+	@Test
+	public void testAccurate() {
+		assertSame(bo, preselector.processBo(agent, dConfig, bo));
+		assertSame(bo, preselector.processBo(agent, dConfig, bo));
+		assertEquals(2, bo.checks);
+	}
+
+	@Test
+	public void testModerate() {
+		agent.getLaraComp().setPreselectingBOAccuracy(
+				LaraBOPreselector.LAccuracy.MODERATE);
+		LModel.getModel().setCurrentStep(1);
+		assertSame(bo, preselector.processBo(agent, dConfig, bo));
+		bo.applicable = false;
+
+		assertSame(bo, preselector.processBo(agent, dConfig, bo));
+		LModel.getModel().setCurrentStep(2);
+		assertSame(bo, preselector.processBo(agent, dConfig, bo));
+		assertEquals(1, bo.checks);
+
+		LModel.getModel().setCurrentStep(3);
+		assertNull(preselector.processBo(agent, dConfig, bo));
+		assertEquals(2, bo.checks);
+	}
+
+	/**
+	 * At moderate accuracy, results for situational BOs are only reused while
+	 * their inputs are unchanged.
+	 */
+	@Test
+	public void testModerateSituational() {
+		LaraEnvironment env = agent.getLaraComp().getEnvironment();
+		env.addProperty(new LEnvironmentalIntProperty(LModel.getModel(),
+				"price", 1, env));
+		LSituationalCountingBo situationalBo = new LSituationalCountingBo(agent);
+		agent.getLaraComp().setPreselectingBOAccuracy(
+				LaraBOPreselector.LAccuracy.MODERATE);
+		LModel.getModel().setCurrentStep(1);
+		assertSame(situationalBo,
+				preselector.processBo(agent, dConfig, situationalBo));
+		assertSame(situationalBo,
+				preselector.processBo(agent, dConfig, situationalBo));
+		assertEquals(1, situationalBo.checks);
+
+		situationalBo.applicable = false;
+		env.updateProperty(new LEnvironmentalIntProperty(LModel.getModel(),
+				"price", 2, env));
+		assertNull(preselector.processBo(agent, dConfig, situationalBo));
+		assertEquals(2, situationalBo.checks);
+
+		agent.getLaraComp().setPreselectingBOAccuracy(
+				LaraBOPreselector.LAccuracy.TOLERANT);
+		situationalBo.applicable = true;
+		env.updateProperty(new LEnvironmentalIntProperty(LModel.getModel(),
+				"price", 3, env));
+		assertNull("Tolerant accuracy ignores inputs",
+				preselector.processBo(agent, dConfig, situationalBo));
+		assertEquals(2, situationalBo.checks);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAskNonPreselectingAgent() {
+		agent.getLaraComp().setPreselectingBOAccuracy(
+				LaraBOPreselector.LAccuracy.ASK_AGENT);
+		preselector.processBo(agent, dConfig, bo);
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.components.preprocessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.LaraSituationalBo;
+import de.cesr.lara.components.decision.LaraDecisionConfiguration;
+import de.cesr.lara.components.decision.impl.LDecisionConfiguration;
+import de.cesr.lara.components.environment.LaraEnvironment;
+import de.cesr.lara.components.environment.impl.LEnvironmentalIntProperty;
+import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.components.preprocessor.impl.LDependencyTrackingBOUpdater;
+import de.cesr.lara.testing.LTestUtils;
+import de.cesr.lara.testing.LTestUtils.LTestAgent;
+import de.cesr.lara.testing.LTestUtils.LTestBo;
+
+/**
+ * 
+ */
+public class LDependencyTrackingBOUpdaterTest {
+
+	/**
+	 * Depends on environmental property "price" and counts evaluations
+	 */
+	static class LPriceBo extends LTestBo implements LaraSituationalBo {
+
+		int evaluations = 0;
+
+		LPriceBo(LTestAgent agent) {
+			super("PriceBo", agent);
+		}
+
+		@Override
+		public Map<LaraPreference, Double> getSituationalUtilities(
+				LaraDecisionConfiguration dBuilder) {
+			evaluations++;
+			return super.getSituationalUtilities(dBuilder);
+		}
+
+		@Override
+		public Collection<String> getEnvironmentalDependencies() {
+			return Collections.singletonList("price");
+		}
+
+		@Override
+		public Collection<String> getMemoryDependencies() {
+			return Collections.emptyList();
+		}
+	}
+
+	LTestAgent agent;
+	LPriceBo bo;
+	LaraEnvironment env;
+	LaraDecisionConfiguration dConfig;
+	LDependencyTrackingBOUpdater<LTestAgent, LTestBo> updater;
+
+	@Before
+	public void setUp() throws Exception {
+		dConfig = new LDecisionConfiguration("TestDecision");
+		LTestUtils.initTestModel(dConfig);
+		agent = new LTestAgent("LTestAgent");
+		env = agent.getLaraComp().getEnvironment();
+		env.addProperty(new LEnvironmentalIntProperty(LModel.getModel(),
+				"price", 1, env));
+		bo = new LPriceBo(agent);
+		updater = new LDependencyTrackingBOUpdater<LTestAgent, LTestBo>();
+	}
+
+	@Test
+	public void testRefreshOnChange() {
+		LTestBo updated = updater.processBo(agent, dConfig, bo);
+		assertSame(updated, updater.processBo(agent, dConfig, bo));
+		assertEquals(1, bo.evaluations);
+
+		env.updateProperty(new LEnvironmentalIntProperty(LModel.getModel(),
+				"price", 1, env));
+		assertSame("Value did not change", updated,
+				updater.processBo(agent, dConfig, bo));
+
+		env.updateProperty(new LEnvironmentalIntProperty(LModel.getModel(),
+				"price", 2, env));
+		assertNotSame(updated, updater.processBo(agent, dConfig, bo));
+		assertEquals(2, bo.evaluations);
+
+		updater.processBo(agent, new LDecisionConfiguration("OtherDecision"),
+				bo);
+		assertEquals(3, bo.evaluations);
+	}
+}
@@ -90,6 +90,11 @@ public class LPreprocessorTest {
 			public void setPreferences(Collection<LaraPreference> goals) {
 			}
 
+			@Override
+			public long[] getPreferenceMask() {
+				return new long[0];
+			}
+
 			@Override
 			public boolean singleSelectedBoExpected() {
 				return false;
@@ -112,6 +117,11 @@ public class LPreprocessorTest {
 			public void setPreferences(Collection<LaraPreference> goals) {
 			}
 
+			@Override
+			public long[] getPreferenceMask() {
+				return new long[0];
+			}
+
 			@Override
 			public boolean singleSelectedBoExpected() {
 				return false;
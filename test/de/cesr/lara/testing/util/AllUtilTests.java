@@ -31,7 +31,7 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ LRandomTest.class, LPreferenceRegistryTest.class,
-		LDecisionConfigRegistryTest.class })
+		LDecisionConfigRegistryTest.class, LPreferenceWeightMapTest.class })
 public class AllUtilTests {
 
 }
\ No newline at end of file
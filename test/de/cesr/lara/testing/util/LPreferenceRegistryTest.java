@@ -21,11 +21,14 @@ package de.cesr.lara.testing.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import de.cesr.lara.components.LaraPreference;
 import de.cesr.lara.components.model.impl.LModel;
 import de.cesr.lara.components.util.LaraPreferenceRegistry;
 import de.cesr.lara.testing.LTestUtils;
@@ -72,6 +75,22 @@ public class LPreferenceRegistryTest {
 		assertFalse(this.registry.isRegistered("test.remove"));
 	}
 
+	@Test
+	public void testOrdinals() {
+		LaraPreference one = this.registry.register("test.ordinal.one");
+		LaraPreference two = this.registry.register("test.ordinal.two");
+		assertEquals(0, one.getOrdinal());
+		assertEquals(1, two.getOrdinal());
+		assertSame(two, this.registry.get(1));
+
+		// ordinals are not reused:
+		this.registry.remove("test.ordinal.one");
+		assertNull(this.registry.get(0));
+		assertEquals(2, this.registry.register("test.ordinal.three")
+				.getOrdinal());
+		assertEquals(3, this.registry.getOrdinalBound());
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void testRetrieveUnregiseredWithError() {
 		this.registry.get("test.same");
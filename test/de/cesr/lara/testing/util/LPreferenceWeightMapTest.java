@@ -0,0 +1,153 @@
+/**
+ * This file is part of
+ * 
+ * LARA - Lightweight Architecture for boundedly Rational citizen Agents
+ * 
+ * Copyright (C) 2012 Center for Environmental Systems Research, Kassel, Germany
+ * 
+ * LARA is free software: You can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * LARA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.cesr.lara.testing.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.cesr.lara.components.LaraPreference;
+import de.cesr.lara.components.model.impl.LModel;
+import de.cesr.lara.components.util.LaraPreferenceRegistry;
+import de.cesr.lara.components.util.impl.LPrefEntry;
+import de.cesr.lara.components.util.impl.LPreferenceRegistry;
+import de.cesr.lara.components.util.impl.LPreferenceWeightMap;
+import de.cesr.lara.testing.LTestUtils;
+
+/**
+ * 
+ */
+public class LPreferenceWeightMapTest {
+
+	LaraPreference pref1, pref2, pref3;
+
+	@Before
+	public void setUp() throws Exception {
+		LTestUtils.initBareTestModel(null);
+		LaraPreferenceRegistry registry = LModel.getModel().getPrefRegistry();
+		registry.reset();
+		pref1 = registry.register("Pref1");
+		pref2 = registry.register("Pref2");
+		pref3 = registry.register("Pref3");
+	}
+
+	@Test
+	public void testMapView() {
+		LPreferenceWeightMap map = new LPreferenceWeightMap(new LPrefEntry(
+				pref1, 0.5), new LPrefEntry(pref3, 1.5));
+		assertEquals(2, map.size());
+		assertEquals(0.5, map.get(pref1), 0.0);
+		assertNull(map.get(pref2));
+		assertFalse(map.containsKey(pref2));
+		assertEquals(1.5, map.getValue(pref3.getOrdinal()), 0.0);
+		assertTrue(Double.isNaN(map.getValue(pref2)));
+
+		assertEquals(Double.valueOf(0.5), map.put(pref1, 0.7));
+		assertEquals(0.7, map.getValue(pref1), 0.0);
+
+		Map<LaraPreference, Double> hashMap = new HashMap<LaraPreference, Double>();
+		hashMap.put(pref1, 0.7);
+		hashMap.put(pref3, 1.5);
+		assertEquals(hashMap, map);
+		assertEquals(map, hashMap);
+		assertEquals(hashMap.hashCode(), map.hashCode());
+
+		Iterator<Map.Entry<LaraPreference, Double>> iterator = map.entrySet()
+				.iterator();
+		assertEquals(pref1, iterator.next().getKey());
+		iterator.remove();
+		assertEquals(1, map.size());
+		assertFalse(map.containsKey(pref1));
+	}
+
+	@Test
+	public void testForeignRegistry() {
+		LaraPreference foreign = new LPreferenceRegistry().register("Foreign");
+		assertEquals(pref1.getOrdinal(), foreign.getOrdinal());
+
+		LPreferenceWeightMap map = new LPreferenceWeightMap(new LPrefEntry(
+				pref1, 0.5));
+		assertTrue(Double.isNaN(map.getValue(foreign)));
+		assertFalse(map.containsKey(foreign));
+		assertNull(map.get(foreign));
+		List<LaraPreference> foreignList = Arrays.asList(foreign);
+		assertTrue(map.intersects(LPreferenceWeightMap.getMask(foreignList)));
+		assertFalse(map.intersects(LPreferenceWeightMap.getMask(foreignList),
+				foreignList, false));
+		assertTrue(map.intersects(LPreferenceWeightMap.getMask(foreignList),
+				Arrays.asList(pref1), true));
+		try {
+			map.setValue(foreign, 1.0);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(0.5, map.getValue(pref1), 0.0);
+	}
+
+	@Test
+	public void testCopy() {
+		LPreferenceWeightMap map = new LPreferenceWeightMap(new LPrefEntry(
+				pref2, 2.0));
+		LPreferenceWeightMap copy = new LPreferenceWeightMap(map);
+		copy.put(pref1, 1.0);
+		copy.put(pref2, 3.0);
+
+		assertEquals(1, map.size());
+		assertEquals(2.0, map.get(pref2), 0.0);
+		assertEquals(2, copy.size());
+		assertEquals(3.0, copy.get(pref2), 0.0);
+	}
+
+	@Test
+	public void testMasks() {
+		LPreferenceWeightMap map = new LPreferenceWeightMap(new LPrefEntry(
+				pref1, 0.0), new LPrefEntry(pref2, 1.0));
+		long[] mask1 = LPreferenceWeightMap.getMask(Arrays.asList(pref1));
+		long[] mask3 = LPreferenceWeightMap.getMask(Arrays.asList(pref3));
+
+		assertTrue(map.intersects(mask1));
+		assertFalse(map.intersectsPositive(mask1));
+		assertFalse(map.intersects(mask3));
+		assertFalse(map.intersects(new long[0]));
+
+		map.entrySet().iterator().next().setValue(0.5);
+		assertTrue(map.intersectsPositive(mask1));
+		LPreferenceWeightMap copy = new LPreferenceWeightMap(map);
+		map.remove(pref1);
+		assertFalse(map.intersects(mask1));
+		assertTrue(copy.intersectsPositive(mask1));
+
+		copy.put(pref3, -1.0);
+		assertTrue(copy.intersects(mask3));
+		assertFalse(copy.intersectsPositive(mask3));
+	}
+}
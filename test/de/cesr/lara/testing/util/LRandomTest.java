@@ -20,6 +20,7 @@
 package de.cesr.lara.testing.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 
@@ -101,6 +102,34 @@ public class LRandomTest {
 		}
 	}
 
+	/**
+	 * Agent streams depend on seed and key only, not on the order of drawing.
+	 */
+	@Test
+	public final void testGetAgentUniform() {
+		Uniform stream1 = random.getAgentUniform("Agent1", 3, "Decision");
+		Uniform stream2 = random.getAgentUniform("Agent2", 3, "Decision");
+
+		double[] values = new double[5];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = stream1.nextDouble();
+			stream2.nextDouble();
+		}
+
+		Uniform stream1Again = random.getAgentUniform("Agent1", 3, "Decision");
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(values[i], stream1Again.nextDouble(), 0.0);
+		}
+
+		assertFalse(values[0] == random.getAgentUniform("Agent1", 4,
+				"Decision").nextDouble());
+		assertFalse(values[0] == random.getAgentUniform("Agent1", 3,
+				"Decision2").nextDouble());
+		random.setSeed(1);
+		assertFalse(values[0] == random.getAgentUniform("Agent1", 3,
+				"Decision").nextDouble());
+	}
+
 	/**
 	 * Test method for
 	 * {@link de.cesr.lara.components.util.impl.LRandomService#setSeed(int)}.